@@ -0,0 +1,56 @@
+package heat.jmh;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import heat.dao.DatabaseConnection;
+import heat.model.Goal;
+import heat.model.Workout;
+
+// Goal progress for one workout of the benchmark goal's exercise, inside a
+// transaction as logWorkout runs it
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoalServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class GoalWorkout {
+        Workout workout;
+
+        @Setup(Level.Trial)
+        public void build(HeatDatabase db) {
+            workout = db.strength(LocalDate.now(), 60.0);
+            workout.setActivityId(db.workoutService.getActivityId(db.goal.getExerciseName()));
+        }
+    }
+
+    @Benchmark
+    public List<Goal> refreshGoalsForWorkout(HeatDatabase db, GoalWorkout w) throws Exception {
+        DatabaseConnection connection = DatabaseConnection.getInstance();
+        connection.beginTransaction();
+        try {
+            List<Goal> completed = db.goalService.refreshGoalsForWorkout(w.workout);
+            connection.commitTransaction();
+            return completed;
+        } catch (Exception e) {
+            connection.rollbackTransaction();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package heat.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import heat.bench.WorkloadGenerator;
+import heat.dao.ConnectionPool;
+import heat.dao.DatabaseConnection;
+import heat.dao.WorkoutDAO;
+import heat.model.Activity;
+import heat.model.Goal;
+import heat.model.StrengthWorkout;
+import heat.service.GoalService;
+import heat.service.UserService;
+import heat.service.WorkoutService;
+import heat.ui.InputHelper;
+
+// The fixture every benchmark runs against: a temp-file database filled by
+// WorkloadGenerator with the same seed as BenchmarkRunner, the three services on
+// top of it, and one open goal the benchmarked workouts count towards. Built once
+// per fork and size, deleted at the end of the trial.
+//
+// The services report every write on stdout; that goes to a null stream while the
+// fixture is open, so JMH's own output stays readable.
+@State(Scope.Benchmark)
+public class HeatDatabase {
+
+    private static final long SEED = 42L;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int workouts;
+
+    public WorkoutDAO workoutDAO;
+    public UserService userService;
+    public GoalService goalService;
+    public WorkoutService workoutService;
+    public InputHelper inputHelper;
+
+    // A catalog lift whose PR is keyed on external weight alone
+    public String loadedExercise;
+    public Goal goal;
+
+    private final Random random = new Random(SEED);
+    private PrintStream console;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        dir = Files.createTempDirectory("heat-jmh-");
+        DatabaseConnection.useProvider(new ConnectionPool("jdbc:sqlite:" + dir.resolve("bench.db")));
+
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        workoutDAO = new WorkoutDAO();
+        workoutDAO.performInitialSetup();
+        new WorkloadGenerator(SEED).withWorkouts(workouts).generate();
+
+        userService = new UserService();
+        goalService = new GoalService(userService);
+        workoutService = new WorkoutService(goalService, userService);
+        userService.setGoalService(goalService);
+        inputHelper = new InputHelper(workoutService, userService, goalService);
+
+        loadedExercise = findLoadedExercise();
+        goal = new Goal("Benchmark", loadedExercise, LocalDate.now().minusDays(90), null, "frequency", 0, 1e9);
+        goalService.createGoal(goal);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        System.setOut(console);
+        DatabaseConnection.getInstance().closeConnection();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    public StrengthWorkout strength(LocalDate date, double weightKg) {
+        return new StrengthWorkout(loadedExercise, "Strength", date, 200, 45, 3, 8, 80, weightKg, 0);
+    }
+
+    // Within the three years WorkloadGenerator fills
+    public LocalDate randomDate() {
+        return LocalDate.now().minusDays(random.nextInt(3 * 365));
+    }
+
+    private String findLoadedExercise() throws Exception {
+        for (Activity a : workoutDAO.loadActivities()) {
+            if (a.getWorkoutType().equalsIgnoreCase("Strength") && a.getBodyWeightFactor() == 0) return a.getActivityName();
+        }
+        throw new IllegalStateException("Activity catalog has no weighted lifts");
+    }
+}
@@ -0,0 +1,44 @@
+package heat.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import heat.model.Workout;
+
+// Rendering one page of the workout table, as menu [8] prints it; the output goes
+// to the fixture's null stream
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderingBenchmark {
+
+    @State(Scope.Thread)
+    public static class Page {
+        List<Workout> workouts;
+
+        @Setup(Level.Trial)
+        public void load(HeatDatabase db) {
+            workouts = new ArrayList<>(db.workoutService.getAllWorkouts().subList(0, 10));
+        }
+    }
+
+    @Benchmark
+    public void printWorkouts(HeatDatabase db, Page page) {
+        db.inputHelper.printWorkouts(page.workouts);
+    }
+}
@@ -0,0 +1,57 @@
+package heat.jmh;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import heat.service.StreakTracker;
+
+// The streak update that replaced UserService.recalculateStreak: moving one
+// workout day and back, as an edit to a workout date does, with the profile save
+// after each move
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreakBenchmark {
+
+    @State(Scope.Thread)
+    public static class Streak {
+        StreakTracker tracker;
+        LocalDate from;
+        LocalDate to;
+
+        @Setup(Level.Trial)
+        public void load(HeatDatabase db) throws Exception {
+            tracker = new StreakTracker();
+            tracker.reset(db.workoutDAO.loadWorkoutDayCounts());
+        }
+
+        @Setup(Level.Invocation)
+        public void pick(HeatDatabase db) {
+            from = tracker.getLastWorkoutDate();
+            to = db.randomDate();
+        }
+    }
+
+    @Benchmark
+    public int moveAndApply(HeatDatabase db, Streak s) {
+        s.tracker.move(s.from, s.to);
+        db.userService.applyStreak(s.tracker.getCurrentStreak(), s.tracker.getLastWorkoutDate());
+        s.tracker.move(s.to, s.from);
+        db.userService.applyStreak(s.tracker.getCurrentStreak(), s.tracker.getLastWorkoutDate());
+        return s.tracker.getCurrentStreak();
+    }
+}
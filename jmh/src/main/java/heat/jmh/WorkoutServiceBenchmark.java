@@ -0,0 +1,84 @@
+package heat.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import heat.model.WorkoutTotals;
+import heat.model.Workout;
+
+// Logging and deleting single workouts through WorkoutService, each in its own
+// transaction as the menu does it. Deletes come in two cases: a light set never
+// holds the PR, a record-breaking one makes the delete promote the runner-up.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkoutServiceBenchmark {
+
+    // A new workout per call, built outside the timed part
+    @State(Scope.Thread)
+    public static class NewSet {
+        Workout workout;
+
+        @Setup(Level.Invocation)
+        public void build(HeatDatabase db) {
+            workout = db.strength(db.randomDate(), 60.0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LightSet {
+        Workout workout;
+
+        @Setup(Level.Invocation)
+        public void log(HeatDatabase db) {
+            workout = db.strength(db.randomDate(), 2.5);
+            db.workoutService.logWorkout(workout);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RecordSet {
+        Workout workout;
+
+        @Setup(Level.Invocation)
+        public void log(HeatDatabase db) {
+            workout = db.strength(db.randomDate(), 1_000.0);
+            db.workoutService.logWorkout(workout);
+        }
+    }
+
+    @Benchmark
+    public Workout logWorkout(HeatDatabase db, NewSet set) {
+        db.workoutService.logWorkout(set.workout);
+        return set.workout;
+    }
+
+    @Benchmark
+    public boolean deleteWorkoutNonHolder(HeatDatabase db, LightSet set) {
+        return db.workoutService.deleteWorkout(set.workout);
+    }
+
+    @Benchmark
+    public boolean deleteWorkoutPrHolder(HeatDatabase db, RecordSet set) {
+        return db.workoutService.deleteWorkout(set.workout);
+    }
+
+    // Column scan over the whole history; the first call pays for loading the columns
+    @Benchmark
+    public WorkoutTotals getAllWorkoutTotals(HeatDatabase db) {
+        return db.workoutService.getAllWorkoutTotals();
+    }
+}
@@ -0,0 +1,887 @@
+package heat.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import heat.dao.DatabaseConnection;
+import heat.dao.WorkoutQuery;
+import heat.dao.WorkoutRollups;
+import heat.model.*;
+import heat.service.GoalService;
+import heat.service.ProfileManager;
+import heat.service.UserService;
+import heat.service.WorkoutService;
+import heat.util.LatencyHistogram;
+import heat.util.Metrics;
+
+// Local HTTP/JSON API over one profile's services, on the JDK's built-in server.
+// It binds to the loopback address only. Each request runs on its own virtual
+// thread (Java 21+), otherwise on a pooled platform thread, and gives its
+// database connections back to the pool when it is done.
+//
+// The services keep their caches in plain collections, so requests share a
+// read-write lock: reads run side by side, writes one at a time. Reads can
+// still change service state (reconciling write-behind rows, loading the
+// rollups), so that is done first under the write lock.
+//
+//   GET    /api/workouts            ?exercise= &type= &category= &from= &to= &sort= &limit= &after=
+//   GET    /api/workouts/{id}
+//   POST   /api/workouts            {"exercise", "date", "duration_min", "sets", "reps", "weight_kg", "distance_km"}
+//   PUT    /api/workouts/{id}       any of date, duration_min, sets, reps, weight_kg, distance_km
+//   DELETE /api/workouts/{id}
+//   GET    /api/prs                 ?limit= &after=
+//   GET    /api/goals               ?status= &limit= &after=
+//   POST   /api/goals               {"title", "type", "target", "exercise", "start_date", "end_date"}
+//   PUT    /api/goals/{id}          any of title, target, end_date
+//   DELETE /api/goals/{id}
+//   GET    /api/body-metrics        ?limit= &after=
+//   POST   /api/body-metrics        {"weight_kg", "height_cm", "age"} (also updates the profile)
+//   PUT    /api/body-metrics/{id}   any of weight_kg, height_cm, age
+//   DELETE /api/body-metrics/{id}
+//   GET    /api/summary/weekly
+//   GET    /api/summary             ?period=week|month|year &count=
+//   GET    /api/profile
+//   GET    /api/metrics             timers (microseconds), counters and gauges since startup
+//
+// Lists are paged by keyset: a page is {"items": [...], "next": cursor}, and
+// passing the cursor as ?after= returns the page after it (next is null on the
+// last page). Dates are ISO (2025-01-31).
+public class ApiServer {
+
+    public static final int DEFAULT_PORT = Integer.getInteger("heat.api.port", 8080);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Responses are small; without TCP_NODELAY each one can sit out a delayed ACK
+    // (about 40 ms). Read once, when the JDK server is first used.
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final WorkoutService workoutService;
+    private final GoalService goalService;
+    private final UserService userService;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private String executorName;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Port 0 picks a free port; see getPort()
+    public ApiServer(ProfileManager.Profile profile, int port) throws IOException {
+        this.workoutService = profile.getWorkoutService();
+        this.goalService = profile.getGoalService();
+        this.userService = profile.getUserService();
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 128);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+
+        route("/api/workouts", this::workouts);
+        route("/api/prs", this::personalRecords);
+        route("/api/goals", this::goals);
+        route("/api/body-metrics", this::bodyMetrics);
+        route("/api/summary", this::summary);
+        route("/api/profile", this::profile);
+        route("/api/metrics", this::metrics);
+    }
+
+    public void start() {
+        // Summaries load their in-memory rollups on first use; do that now, so the
+        // first reads do not queue behind it
+        write(() -> {
+            workoutService.prepareForReads();
+            return null;
+        });
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+    public String getExecutorName() { return executorName; }
+
+    // Virtual threads where the runtime has them (Java 21+), otherwise a growing
+    // pool of platform threads
+    private ExecutorService newRequestExecutor() {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            executorName = "virtual threads";
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            executorName = "platform threads";
+
+            AtomicInteger next = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "heat-api-" + next.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // ============================================================
+    // Requests & Responses
+    // ============================================================
+
+    // A failed request; the message goes back as {"error": ...}
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static class Request {
+        final String method;
+        final String id;                    // path segment after the resource, or null
+        final Map<String, String> query;
+        final HttpExchange exchange;
+
+        Request(HttpExchange exchange, String base) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+
+            String path = exchange.getRequestURI().getPath();
+            String rest = path.length() > base.length() ? path.substring(base.length()) : "";
+            if (rest.startsWith("/")) rest = rest.substring(1);
+            if (rest.endsWith("/")) rest = rest.substring(0, rest.length() - 1);
+            this.id = rest.isEmpty() ? null : rest;
+
+            this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+
+        Map<String, Object> body() {
+            try (InputStream in = exchange.getRequestBody()) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                if (text.isBlank()) throw new ApiException(400, "Request body required");
+                return Json.parseObject(text);
+            } catch (IOException e) {
+                throw new ApiException(400, "Could not read request body: " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Invalid JSON: " + e.getMessage());
+            }
+        }
+
+        int intId() {
+            try {
+                return Integer.parseInt(id);
+            } catch (NumberFormatException e) {
+                throw new ApiException(404, "Not found");
+            }
+        }
+
+        private static Map<String, String> parseQuery(String raw) {
+            Map<String, String> query = new HashMap<>();
+            if (raw == null || raw.isEmpty()) return query;
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                query.put(name, value);
+            }
+            return query;
+        }
+    }
+
+    private static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Response handle(Request request);
+    }
+
+    private void route(String base, Handler handler) {
+        server.createContext(base, exchange -> {
+            Response response;
+            try {
+                response = handler.handle(new Request(exchange, base));
+            } catch (ApiException e) {
+                response = error(e.status, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("[ ! ] " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + e);
+                response = error(500, "Internal error");
+            } finally {
+                DatabaseConnection.getInstance().releaseConnection();
+            }
+            send(exchange, response);
+        });
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        try (exchange) {
+            byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        }
+    }
+
+    private static Response ok(String json) { return new Response(200, json); }
+    private static Response created(String json) { return new Response(201, json); }
+    private static Response noContent() { return new Response(204, ""); }
+
+    private static Response error(int status, String message) {
+        return new Response(status, new Json.Obj().put("error", message).toString());
+    }
+
+    private static ApiException notFound(String what) {
+        return new ApiException(404, what + " not found");
+    }
+
+    private static ApiException methodNotAllowed(Request request) {
+        return new ApiException(405, request.method + " not allowed here");
+    }
+
+    // Service calls that report failure by returning false have already printed why
+    private static void check(boolean saved, String action) {
+        if (!saved) throw new ApiException(500, action + " failed; see the server log");
+    }
+
+    // ============================================================
+    // Locking
+    // ============================================================
+
+    // Under the read lock the service is only read, so whatever a read would change
+    // is brought up to date under the write lock first, which is then downgraded
+    // to the read lock so no write can slip in between
+    private <T> T read(Supplier<T> action) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        if (!workoutService.isReadyForReads()) {
+            readLock.unlock();
+            lock.writeLock().lock();
+            try {
+                workoutService.prepareForReads();
+                readLock.lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        return locked(lock.writeLock(), action);
+    }
+
+    private static <T> T locked(Lock held, Supplier<T> action) {
+        held.lock();
+        try {
+            return action.get();
+        } finally {
+            held.unlock();
+        }
+    }
+
+    // ============================================================
+    // Workouts
+    // ============================================================
+
+    private Response workouts(Request request) {
+        if (request.id == null) {
+            switch (request.method) {
+                case "GET": return ok(read(() -> listWorkouts(request)));
+                case "POST": {
+                    Map<String, Object> body = request.body();
+                    return created(write(() -> logWorkout(body)));
+                }
+                default: throw methodNotAllowed(request);
+            }
+        }
+
+        int id = request.intId();
+        switch (request.method) {
+            case "GET": return ok(read(() -> workoutJson(findWorkout(id))));
+            case "PUT": {
+                Map<String, Object> body = request.body();
+                return ok(write(() -> updateWorkout(findWorkout(id), body)));
+            }
+            case "DELETE":
+                write(() -> {
+                    check(workoutService.deleteWorkout(findWorkout(id)), "Delete");
+                    return null;
+                });
+                return noContent();
+            default: throw methodNotAllowed(request);
+        }
+    }
+
+    private Workout findWorkout(int id) {
+        Workout w = workoutService.getWorkout(id);
+        if (w == null) throw notFound("Workout " + id);
+        return w;
+    }
+
+    // The cursor is the sort keyset (sort key, date, id) of the last workout on the
+    // previous page, so it stays valid when that workout is deleted
+    private String listWorkouts(Request request) {
+        Map<String, String> q = request.query;
+        int limit = pageSize(q);
+
+        // One row past the page tells whether there is a next page
+        WorkoutQuery query = new WorkoutQuery().orderBy(sortOf(q.get("sort"))).limit(limit + 1);
+        if (q.containsKey("exercise")) query.exercises(q.get("exercise").split(","));
+        if (q.containsKey("type")) query.type(q.get("type"));
+        if (q.containsKey("category")) query.category(q.get("category"));
+        if (q.containsKey("from") || q.containsKey("to")) query.between(dateParam(q, "from"), dateParam(q, "to"));
+        if (q.containsKey("after")) {
+            try {
+                query.after(q.get("after"));
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "after must be the next value of an earlier page with the same sort");
+            }
+        }
+
+        List<Workout> page = workoutService.findWorkouts(query);
+
+        List<String> items = new ArrayList<>(limit);
+        for (int i = 0; i < Math.min(limit, page.size()); i++) items.add(workoutJson(page.get(i)));
+        String next = page.size() > limit ? query.cursorOf(page.get(limit - 1)) : null;
+        return page(items, next);
+    }
+
+    private String logWorkout(Map<String, Object> body) {
+        String exercise = workoutService.getActivityName(requiredString(body, "exercise"));
+        String type = workoutService.getWorkoutTypeForActivity(exercise);
+        if (type == null) type = optionalString(body, "type", null);
+        int duration = positiveInt(body, "duration_min");
+
+        boolean strength = "Strength".equalsIgnoreCase(type);
+        Workout w = workoutService.newWorkout(exercise, type, optionalDate(body, "date", LocalDate.now()), duration,
+            strength ? positiveInt(body, "sets") : 0,
+            strength ? positiveInt(body, "reps") : 0,
+            optionalDouble(body, "weight_kg", 0.0),
+            optionalDouble(body, "distance_km", 0.0));
+        if (w == null) throw new ApiException(400, "Unknown exercise; give \"type\": \"Strength\" or \"Cardio\"");
+
+        workoutService.logWorkout(w);
+
+        // In write-behind mode the row (and its id) is written in the background
+        if (w.getId() == 0 && !workoutService.isWriteBehindEnabled()) check(false, "Logging the workout");
+        return workoutJson(w);
+    }
+
+    private String updateWorkout(Workout original, Map<String, Object> body) {
+        LocalDate date = optionalDate(body, "date", original.getDate());
+        int duration = body.containsKey("duration_min") ? positiveInt(body, "duration_min") : original.getDurationMinutes();
+        double calories = WorkoutService.calculateCaloriesBurned(
+            workoutService.getMetForActivity(original.getActivityId()), userService.getWeightKg(), duration);
+
+        Workout updated;
+        if (original instanceof StrengthWorkout sw) {
+            int sets = body.containsKey("sets") ? positiveInt(body, "sets") : sw.getSetCount();
+            int reps = body.containsKey("reps") ? positiveInt(body, "reps") : sw.getRepCount();
+            double weight = optionalDouble(body, "weight_kg", sw.getExternalWeightKg());
+            updated = new StrengthWorkout(original.getId(), original.getName(), "Strength", date, calories, duration,
+                sets, reps, weight, sets * reps * weight, sw.getBodyWeightFactor());
+        } else {
+            double distanceKm = optionalDouble(body, "distance_km", ((CardioWorkout) original).getDistanceKm());
+            updated = new CardioWorkout(original.getId(), original.getName(), "Cardio", date, calories, duration, distanceKm);
+        }
+        updated.setActivityId(original.getActivityId());
+
+        check(workoutService.updateWorkout(original, updated), "Update");
+        return workoutJson(updated);
+    }
+
+    private static WorkoutQuery.Sort sortOf(String sort) {
+        if (sort == null) return WorkoutQuery.Sort.NEWEST_FIRST;
+        switch (sort) {
+            case "newest": return WorkoutQuery.Sort.NEWEST_FIRST;
+            case "oldest": return WorkoutQuery.Sort.OLDEST_FIRST;
+            case "heaviest": return WorkoutQuery.Sort.HEAVIEST_FIRST;
+            case "longest": return WorkoutQuery.Sort.LONGEST_FIRST;
+            default: throw new ApiException(400, "sort must be newest, oldest, heaviest or longest");
+        }
+    }
+
+    // ============================================================
+    // Personal Records
+    // ============================================================
+
+    // Ordered by name; the cursor is the last name on the previous page
+    private Response personalRecords(Request request) {
+        if (request.id != null) throw notFound("Resource");
+        if (!request.method.equals("GET")) throw methodNotAllowed(request);
+
+        int limit = pageSize(request.query);
+        String after = request.query.get("after");
+
+        return ok(read(() -> {
+            List<PersonalRecord> prs = workoutService.getAllPRs();
+            prs.sort(Comparator.comparing(PersonalRecord::getActivityName));
+
+            List<String> items = new ArrayList<>();
+            String last = null;
+            for (PersonalRecord pr : prs) {
+                if (after != null && pr.getActivityName().compareTo(after) <= 0) continue;
+                if (items.size() == limit) return page(items, last);
+                items.add(prJson(pr));
+                last = pr.getActivityName();
+            }
+            return page(items, null);
+        }));
+    }
+
+    // ============================================================
+    // Goals
+    // ============================================================
+
+    private Response goals(Request request) {
+        if (request.id == null) {
+            switch (request.method) {
+                case "GET": {
+                    String status = request.query.get("status");
+                    return ok(read(() -> idPage(goalService.getAllGoals(), request.query,
+                        g -> status == null || g.getStatus().name().equalsIgnoreCase(status),
+                        Goal::getId, this::goalJson)));
+                }
+                case "POST": {
+                    Map<String, Object> body = request.body();
+                    return created(write(() -> createGoal(body)));
+                }
+                default: throw methodNotAllowed(request);
+            }
+        }
+
+        int id = request.intId();
+        switch (request.method) {
+            case "GET": return ok(read(() -> goalJson(findGoal(id))));
+            case "PUT": {
+                Map<String, Object> body = request.body();
+                return ok(write(() -> updateGoal(findGoal(id), body)));
+            }
+            case "DELETE":
+                write(() -> {
+                    check(goalService.deleteGoal(findGoal(id)), "Delete");
+                    return null;
+                });
+                return noContent();
+            default: throw methodNotAllowed(request);
+        }
+    }
+
+    private Goal findGoal(int id) {
+        for (Goal g : goalService.getAllGoals()) {
+            if (g.getId() == id) return g;
+        }
+        throw notFound("Goal " + id);
+    }
+
+    private String createGoal(Map<String, Object> body) {
+        String goalType = requiredString(body, "type").toLowerCase();
+        boolean weightGoal = goalType.equals("weight loss") || goalType.equals("weight gain");
+        if (!weightGoal && !List.of("reps", "duration", "weight lifted", "frequency").contains(goalType)) {
+            throw new ApiException(400, "type must be weight loss, weight gain, reps, duration, weight lifted or frequency");
+        }
+
+        String exercise = weightGoal ? null : workoutService.getActivityName(requiredString(body, "exercise"));
+        LocalDate startDate = optionalDate(body, "start_date", LocalDate.now());
+        LocalDate endDate = optionalDate(body, "end_date", null);
+        if (endDate != null && startDate.isAfter(endDate)) throw new ApiException(400, "end_date must be after start_date");
+
+        double target = positiveDouble(body, "target");
+        double current = goalService.getCurrentValue(goalType, exercise, startDate);
+        if (goalService.isGoalCompleted(current, target, goalType)) {
+            throw new ApiException(422, "Goal is already completed (current value " + current + ")");
+        }
+
+        Goal g = new Goal(optionalString(body, "title", goalType), exercise, startDate, endDate, goalType, current, target);
+        check(goalService.createGoal(g), "Creating the goal");
+        return goalJson(g);
+    }
+
+    private String updateGoal(Goal original, Map<String, Object> body) {
+        Goal updated = new Goal(
+            original.getId(),
+            optionalString(body, "title", original.getGoalTitle()),
+            original.getExerciseName(),
+            original.getStartDate(),
+            optionalDate(body, "end_date", original.getEndDate()),
+            original.getGoalType(),
+            original.getCurrentValue(),
+            body.containsKey("target") ? positiveDouble(body, "target") : original.getTargetValue(),
+            original.getStatus()
+        );
+        check(goalService.updateGoal(original, updated), "Update");
+        return goalJson(findGoal(original.getId()));
+    }
+
+    // ============================================================
+    // Body Metrics & Profile
+    // ============================================================
+
+    private Response bodyMetrics(Request request) {
+        if (request.id == null) {
+            switch (request.method) {
+                case "GET": return ok(read(() -> idPage(userService.getBodyMetricHistory(), request.query,
+                    bm -> true, BodyMetric::getId, this::bodyMetricJson)));
+                case "POST": {
+                    Map<String, Object> body = request.body();
+                    return created(write(() -> addBodyMetric(body)));
+                }
+                default: throw methodNotAllowed(request);
+            }
+        }
+
+        int id = request.intId();
+        switch (request.method) {
+            case "GET": return ok(read(() -> bodyMetricJson(findBodyMetric(id))));
+            case "PUT": {
+                Map<String, Object> body = request.body();
+                return ok(write(() -> updateBodyMetric(findBodyMetric(id), body)));
+            }
+            case "DELETE":
+                write(() -> {
+                    check(userService.deleteBodyMetric(findBodyMetric(id)), "Delete");
+                    return null;
+                });
+                return noContent();
+            default: throw methodNotAllowed(request);
+        }
+    }
+
+    private BodyMetric findBodyMetric(int id) {
+        for (BodyMetric bm : userService.getBodyMetricHistory()) {
+            if (bm.getId() == id) return bm;
+        }
+        throw notFound("Body metric " + id);
+    }
+
+    // Same as updating body metrics from the menu: the profile changes and a metric is recorded
+    private String addBodyMetric(Map<String, Object> body) {
+        User current = userService.getCurrentUser();
+        if (current == null || !userService.isRegistered()) throw new ApiException(409, "Register a profile first");
+
+        double weight = body.containsKey("weight_kg") ? positiveDouble(body, "weight_kg") : current.getWeightKg();
+        double height = body.containsKey("height_cm") ? positiveDouble(body, "height_cm") : current.getHeightCm();
+        int age = body.containsKey("age") ? positiveInt(body, "age") : current.getAge();
+
+        BodyMetric bm = userService.recordBodyMetrics(age, height, weight);
+        check(bm != null, "Updating the profile");
+        return bodyMetricJson(bm);
+    }
+
+    private String updateBodyMetric(BodyMetric original, Map<String, Object> body) {
+        double weight = body.containsKey("weight_kg") ? positiveDouble(body, "weight_kg") : original.getWeightKg();
+        double height = body.containsKey("height_cm") ? positiveDouble(body, "height_cm") : original.getHeightCm();
+        int age = body.containsKey("age") ? positiveInt(body, "age") : original.getAge();
+
+        BodyMetric updated = new BodyMetric(original.getId(), age, height, weight,
+            userService.calculateBMI(weight, height), original.getDate());
+        check(userService.updateBodyMetric(original, updated), "Update");
+        return bodyMetricJson(updated);
+    }
+
+    private Response profile(Request request) {
+        if (request.id != null) throw notFound("Resource");
+        if (!request.method.equals("GET")) throw methodNotAllowed(request);
+
+        return ok(read(() -> new Json.Obj()
+            .put("id", userService.getUserId())
+            .put("registered", userService.isRegistered())
+            .put("name", userService.getName())
+            .put("age", userService.getAge())
+            .put("sex", userService.getSex())
+            .put("height_cm", userService.getHeightCm())
+            .put("weight_kg", userService.getWeightKg())
+            .put("bmi", userService.getBMI())
+            .put("bmr", userService.getBMR())
+            .put("streak", userService.getStreak())
+            .put("longest_streak", workoutService.getLongestStreak())
+            .toString()));
+    }
+
+    // ============================================================
+    // Metrics
+    // ============================================================
+
+    // Metrics are thread-safe on their own, so this skips the lock
+    private Response metrics(Request request) {
+        if (request.id != null) throw notFound("Resource");
+        if (!request.method.equals("GET")) throw methodNotAllowed(request);
+
+        Json.Obj timers = new Json.Obj();
+        for (Map.Entry<String, LatencyHistogram> e : Metrics.getTimers().entrySet()) {
+            LatencyHistogram h = e.getValue();
+            timers.raw(e.getKey(), new Json.Obj()
+                .put("count", h.getCount())
+                .put("mean_us", h.getMeanNanos() / 1e3)
+                .put("p50_us", h.getPercentileNanos(50) / 1e3)
+                .put("p90_us", h.getPercentileNanos(90) / 1e3)
+                .put("p99_us", h.getPercentileNanos(99) / 1e3)
+                .put("max_us", h.getMaxNanos() / 1e3)
+                .toString());
+        }
+        Json.Obj counters = new Json.Obj();
+        Metrics.getCounters().forEach(counters::put);
+        Json.Obj gauges = new Json.Obj();
+        Metrics.getGauges().forEach(gauges::put);
+
+        return ok(new Json.Obj()
+            .put("uptime_s", Metrics.getUptimeSeconds())
+            .put("enabled", Metrics.ENABLED)
+            .raw("timers", timers.toString())
+            .raw("counters", counters.toString())
+            .raw("gauges", gauges.toString())
+            .toString());
+    }
+
+    // ============================================================
+    // Summaries
+    // ============================================================
+
+    private Response summary(Request request) {
+        if (!request.method.equals("GET")) throw methodNotAllowed(request);
+
+        if ("weekly".equals(request.id)) {
+            LocalDate from = LocalDate.now().minusDays(7);
+            return ok(read(() -> summaryJson(workoutService.getSummary("Last 7 days", from, null))));
+        }
+        if (request.id != null) throw notFound("Summary " + request.id);
+
+        WorkoutRollups.Period period;
+        try {
+            period = WorkoutRollups.Period.valueOf(request.query.getOrDefault("period", "week").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "period must be week, month or year");
+        }
+        int count = request.query.containsKey("count") ? intParam(request.query, "count") : 8;
+        if (count < 1 || count > MAX_PAGE_SIZE) throw new ApiException(400, "count must be 1-" + MAX_PAGE_SIZE);
+
+        return ok(read(() -> {
+            List<String> items = new ArrayList<>();
+            for (WorkoutSummary s : workoutService.getRecentSummaries(period, count)) items.add(summaryJson(s));
+            return Json.array(items);
+        }));
+    }
+
+    // ============================================================
+    // Paging & Parameters
+    // ============================================================
+
+    // Newest first (descending id); the cursor is the last id on the previous page
+    private <T> String idPage(List<T> all, Map<String, String> query, Predicate<T> filter,
+                              ToIntFunction<T> idOf, Function<T, String> toJson) {
+        int limit = pageSize(query);
+        int after = query.containsKey("after") ? intParam(query, "after") : Integer.MAX_VALUE;
+
+        List<T> matching = new ArrayList<>();
+        for (T item : all) {
+            if (idOf.applyAsInt(item) < after && filter.test(item)) matching.add(item);
+        }
+        matching.sort(Comparator.comparingInt(idOf).reversed());
+
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, matching.size()); i++) items.add(toJson.apply(matching.get(i)));
+        String next = matching.size() > limit ? String.valueOf(idOf.applyAsInt(matching.get(limit - 1))) : null;
+        return page(items, next);
+    }
+
+    private static String page(List<String> items, String next) {
+        return new Json.Obj().raw("items", Json.array(items)).put("next", next).toString();
+    }
+
+    private static int pageSize(Map<String, String> query) {
+        if (!query.containsKey("limit")) return DEFAULT_PAGE_SIZE;
+        int limit = intParam(query, "limit");
+        if (limit < 1 || limit > MAX_PAGE_SIZE) throw new ApiException(400, "limit must be 1-" + MAX_PAGE_SIZE);
+        return limit;
+    }
+
+    private static int intParam(Map<String, String> query, String name) {
+        try {
+            return Integer.parseInt(query.get(name));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a whole number");
+        }
+    }
+
+    private static LocalDate dateParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, name + " must be a date (yyyy-MM-dd)");
+        }
+    }
+
+    private static String requiredString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String s) || s.isBlank()) throw new ApiException(400, name + " is required");
+        return s.trim();
+    }
+
+    private static String optionalString(Map<String, Object> body, String name, String fallback) {
+        Object value = body.get(name);
+        if (value == null) return fallback;
+        if (!(value instanceof String s)) throw new ApiException(400, name + " must be a string");
+        return s.trim();
+    }
+
+    private static double optionalDouble(Map<String, Object> body, String name, double fallback) {
+        Object value = body.get(name);
+        if (value == null) return fallback;
+        if (!(value instanceof Double d) || d < 0) throw new ApiException(400, name + " must be a number >= 0");
+        return d;
+    }
+
+    private static double positiveDouble(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Double d) || d <= 0) throw new ApiException(400, name + " must be a number > 0");
+        return d;
+    }
+
+    private static int positiveInt(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Double d) || d <= 0 || d != Math.floor(d) || d > Integer.MAX_VALUE) {
+            throw new ApiException(400, name + " must be a whole number > 0");
+        }
+        return d.intValue();
+    }
+
+    private static LocalDate optionalDate(Map<String, Object> body, String name, LocalDate fallback) {
+        Object value = body.get(name);
+        if (value == null) return fallback;
+        try {
+            return LocalDate.parse((String) value);
+        } catch (ClassCastException | DateTimeParseException e) {
+            throw new ApiException(400, name + " must be a date (yyyy-MM-dd)");
+        }
+    }
+
+    // ============================================================
+    // JSON Views
+    // ============================================================
+
+    private String workoutJson(Workout w) {
+        Json.Obj json = new Json.Obj()
+            .put("id", w.getId())
+            .put("exercise", w.getName())
+            .put("type", w.getType())
+            .put("date", w.getDate().toString())
+            .put("duration_min", w.getDurationMinutes())
+            .put("calories", w.getCaloriesBurned());
+        if (w instanceof StrengthWorkout sw) {
+            json.put("sets", sw.getSetCount())
+                .put("reps", sw.getRepCount())
+                .put("weight_kg", sw.getExternalWeightKg())
+                .put("volume_kg", sw.getTrainingVolumeKg());
+        } else if (w instanceof CardioWorkout cw) {
+            json.put("distance_km", cw.getDistanceKm());
+        }
+        return json.toString();
+    }
+
+    private String prJson(PersonalRecord pr) {
+        return new Json.Obj()
+            .put("name", pr.getActivityName())
+            .put("weight_kg", pr.getWeight())
+            .put("reps", pr.getReps())
+            .put("duration_min", pr.getDuration())
+            .put("date", pr.getDate() == null ? null : pr.getDate().toString())
+            .toString();
+    }
+
+    private String goalJson(Goal g) {
+        return new Json.Obj()
+            .put("id", g.getId())
+            .put("title", g.getGoalTitle())
+            .put("exercise", g.getExerciseName())
+            .put("type", g.getGoalType())
+            .put("start_date", g.getStartDate().toString())
+            .put("end_date", g.getEndDate() == null ? null : g.getEndDate().toString())
+            .put("current", g.getCurrentValue())
+            .put("target", g.getTargetValue())
+            .put("status", g.getStatus().name())
+            .toString();
+    }
+
+    private String bodyMetricJson(BodyMetric bm) {
+        return new Json.Obj()
+            .put("id", bm.getId())
+            .put("date", bm.getDate().toString())
+            .put("age", bm.getAge())
+            .put("height_cm", bm.getHeightCm())
+            .put("weight_kg", bm.getWeightKg())
+            .put("bmi", bm.getBMI())
+            .toString();
+    }
+
+    private String summaryJson(WorkoutSummary s) {
+        Json.Obj byCategory = new Json.Obj();
+        s.getWorkoutsByCategory().forEach(byCategory::put);
+
+        return new Json.Obj()
+            .put("label", s.getLabel())
+            .put("from", s.getFrom() == null ? null : s.getFrom().toString())
+            .put("to", s.getTo() == null ? null : s.getTo().toString())
+            .put("workouts", s.getWorkoutCount())
+            .put("minutes", s.getTotalMinutes())
+            .put("calories", s.getCaloriesBurned())
+            .put("volume_kg", s.getTrainingVolumeKg())
+            .put("distance_km", s.getDistanceKm())
+            .raw("by_category", byCategory.toString())
+            .toString();
+    }
+}
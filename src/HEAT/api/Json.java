@@ -0,0 +1,235 @@
+package heat.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Just enough JSON for the API: request bodies are parsed into maps, lists,
+// strings, doubles, booleans and nulls, and responses are built with Obj.
+final class Json {
+
+    private Json() {}
+
+    // ============================================================
+    // Writing
+    // ============================================================
+
+    // One JSON object, fields in insertion order
+    static final class Obj {
+        private final StringBuilder out = new StringBuilder(128).append('{');
+        private boolean first = true;
+
+        Obj put(String name, String value) {
+            return field(name).quoted(value);
+        }
+
+        Obj put(String name, long value) {
+            field(name).out.append(value);
+            return this;
+        }
+
+        // NaN and infinities have no JSON form
+        Obj put(String name, double value) {
+            field(name);
+            if (Double.isNaN(value) || Double.isInfinite(value)) out.append("null");
+            else out.append(String.format(Locale.ROOT, "%.2f", value));
+            return this;
+        }
+
+        Obj put(String name, boolean value) {
+            field(name).out.append(value);
+            return this;
+        }
+
+        // value is already JSON (an Obj or array)
+        Obj raw(String name, String json) {
+            field(name).out.append(json);
+            return this;
+        }
+
+        private Obj field(String name) {
+            if (!first) out.append(',');
+            first = false;
+            return quoted(name).colon();
+        }
+
+        private Obj colon() {
+            out.append(':');
+            return this;
+        }
+
+        private Obj quoted(String s) {
+            if (s == null) out.append("null");
+            else quote(out, s);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return out + "}";
+        }
+    }
+
+    static String array(List<?> items) {
+        StringBuilder out = new StringBuilder(64 * items.size() + 2).append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append(items.get(i));
+        }
+        return out.append(']').toString();
+    }
+
+    static void quote(StringBuilder out, String s) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // ============================================================
+    // Parsing
+    // ============================================================
+
+    // The body must be one object; anything else is an IllegalArgumentException
+    static Map<String, Object> parseObject(String text) {
+        Parser p = new Parser(text);
+        p.skipSpace();
+        if (p.peek() != '{') throw new IllegalArgumentException("Expected a JSON object");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) p.value();
+        p.skipSpace();
+        if (p.pos < text.length()) throw new IllegalArgumentException("Unexpected text after the JSON object");
+        return result;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos = 0;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipSpace();
+            char c = peek();
+            switch (c) {
+                case '{': return object();
+                case '[': return array();
+                case '"': return string();
+                case 't': return literal("true", Boolean.TRUE);
+                case 'f': return literal("false", Boolean.FALSE);
+                case 'n': return literal("null", null);
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) return number();
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipSpace();
+            if (peek() == '}') { pos++; return map; }
+            while (true) {
+                skipSpace();
+                if (peek() != '"') throw error("Expected a field name");
+                String name = string();
+                skipSpace();
+                expect(':');
+                map.put(name, value());
+                skipSpace();
+                if (peek() == ',') { pos++; continue; }
+                expect('}');
+                return map;
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipSpace();
+            if (peek() == ']') { pos++; return list; }
+            while (true) {
+                list.add(value());
+                skipSpace();
+                if (peek() == ',') { pos++; continue; }
+                expect(']');
+                return list;
+            }
+        }
+
+        private String string() {
+            StringBuilder sb = new StringBuilder();
+            pos++;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+                if (pos >= text.length()) break;
+                char e = text.charAt(pos++);
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw error("Bad \\u escape");
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> sb.append(e);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Double number() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+            try {
+                return Double.valueOf(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Bad number");
+            }
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, pos)) throw error("Unexpected token");
+            pos += word.length();
+            return value;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) throw error("Expected '" + c + "'");
+            pos++;
+        }
+
+        char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
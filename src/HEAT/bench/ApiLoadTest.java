@@ -0,0 +1,304 @@
+package heat.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import heat.api.ApiServer;
+import heat.dao.ConnectionPool;
+import heat.dao.DatabaseConnection;
+import heat.dao.WorkoutDAO;
+import heat.service.GoalService;
+import heat.service.ProfileManager;
+import heat.service.UserService;
+import heat.service.WorkoutService;
+
+// Load test for the HTTP API. Concurrent clients send a fixed mix of requests
+// (list pages, filtered lists, PRs, goals, the weekly summary and, unless turned
+// off, new workouts) until the time budget runs out; each request type gets its
+// own p50/p99 latency. By default the server runs in-process on a free loopback
+// port over a fresh temp-file database filled by WorkloadGenerator. With --url
+// it targets a server that is already running (read-only unless --write-pct is given).
+//
+//   java heat.bench.ApiLoadTest [--workouts 10000] [--clients 8] [--time-ms 5000]
+//                               [--warmup-ms 1000] [--write-pct 10] [--url http://127.0.0.1:8080]
+//                               [--out results.json]
+//
+// Run from the project root so the activity and quote catalogs can be found.
+public class ApiLoadTest {
+
+    private static final long SEED = 42L;
+    private static final int MAX_SAMPLES = 1_000_000;
+    private static final Pattern NEXT_CURSOR = Pattern.compile("\"next\":\"([^\"]+)\"");
+
+    // One kind of request in the mix
+    private static class Endpoint {
+        final String name;
+        final String method;
+        final String path;
+        final int weight;
+
+        long[] samples = new long[1_024];
+        int count = 0;
+        int errors = 0;
+
+        Endpoint(String name, String method, String path, int weight) {
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.weight = weight;
+        }
+
+        synchronized void record(long nanos, boolean ok) {
+            if (!ok) errors++;
+            if (count == samples.length) {
+                if (count == MAX_SAMPLES) return;
+                samples = Arrays.copyOf(samples, Math.min(count * 2, MAX_SAMPLES));
+            }
+            samples[count++] = nanos;
+        }
+    }
+
+    private final int clients;
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final int writePercent;
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    public ApiLoadTest(int clients, long warmupMillis, long measureMillis, int writePercent) {
+        this.clients = clients;
+        this.warmupNanos = warmupMillis * 1_000_000L;
+        this.measureNanos = measureMillis * 1_000_000L;
+        this.writePercent = writePercent;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workouts = 10_000;
+        int clients = 8;
+        long warmupMillis = 1_000;
+        long measureMillis = 5_000;
+        Integer writePercent = null;
+        String url = null;
+        Path out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--workouts" -> workouts = Integer.parseInt(value);
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--warmup-ms" -> warmupMillis = Long.parseLong(value);
+                case "--time-ms" -> measureMillis = Long.parseLong(value);
+                case "--write-pct" -> writePercent = Integer.parseInt(value);
+                case "--url" -> url = value;
+                case "--out" -> out = Path.of(value);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+            i++;
+        }
+
+        // Never writes into someone's real history unless asked to
+        int writes = (writePercent != null) ? writePercent : (url == null ? 10 : 0);
+        ApiLoadTest test = new ApiLoadTest(clients, warmupMillis, measureMillis, writes);
+
+        List<BenchmarkResult> results = (url == null)
+            ? test.runInProcess(workouts)
+            : test.run(URI.create(url), 0);
+        String json = BenchmarkResult.toJson(results, Instant.now());
+
+        if (out == null) {
+            System.out.println(json);
+        } else {
+            Files.writeString(out, json, StandardCharsets.UTF_8);
+            System.out.println("[OK] Wrote " + results.size() + " results to " + out);
+        }
+    }
+
+    // ============================================================
+    // In-Process Server
+    // ============================================================
+
+    public List<BenchmarkResult> runInProcess(int workouts) throws Exception {
+        Path dir = Files.createTempDirectory("heat-api-load-");
+        DatabaseConnection.useProvider(new ConnectionPool("jdbc:sqlite:" + dir.resolve("load.db")));
+
+        // The services report every write on stdout; keep that out of the results
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ApiServer server = null;
+        try {
+            long start = System.nanoTime();
+            new WorkoutDAO().performInitialSetup();
+            new WorkloadGenerator(SEED).withWorkouts(workouts).generate();
+
+            UserService userService = new UserService();
+            GoalService goalService = new GoalService(userService);
+            WorkoutService workoutService = new WorkoutService(goalService, userService);
+            userService.setGoalService(goalService);
+
+            server = new ApiServer(new ProfileManager.Profile(userService, goalService, workoutService), 0);
+            server.start();
+            console.printf("[OK] %,d workouts ready in %.1f s, API on port %d (%s)%n",
+                workouts, (System.nanoTime() - start) / 1e9, server.getPort(), server.getExecutorName());
+
+            return run(URI.create("http://127.0.0.1:" + server.getPort()), workouts, console);
+
+        } finally {
+            System.setOut(console);
+            if (server != null) server.stop();
+            DatabaseConnection.getInstance().closeConnection();
+            deleteRecursively(dir);
+        }
+    }
+
+    // ============================================================
+    // Load
+    // ============================================================
+
+    public List<BenchmarkResult> run(URI base, int workouts) throws Exception {
+        return run(base, workouts, System.out);
+    }
+
+    private List<BenchmarkResult> run(URI base, int workouts, PrintStream console) throws Exception {
+        List<Endpoint> mix = endpoints(base);
+
+        console.printf("[OK] Warming up %d clients for %d ms%n", clients, warmupNanos / 1_000_000);
+        drive(base, mix, warmupNanos, false);
+
+        console.printf("[OK] Measuring for %d ms%n", measureNanos / 1_000_000);
+        long elapsed = drive(base, mix, measureNanos, true);
+
+        List<BenchmarkResult> results = new ArrayList<>();
+        int total = 0;
+        for (Endpoint e : mix) {
+            if (e.count == 0) continue;
+            BenchmarkResult r = new BenchmarkResult("API " + e.name, workouts, Arrays.copyOf(e.samples, e.count));
+            console.println(r + (e.errors > 0 ? " | " + e.errors + " errors" : ""));
+            results.add(r);
+            total += e.count;
+        }
+        console.printf("[OK] %,d requests in %.1f s (%.0f req/s) with %d clients%n",
+            total, elapsed / 1e9, total / (elapsed / 1e9), clients);
+        return results;
+    }
+
+    // The request mix; weights are relative
+    private List<Endpoint> endpoints(URI base) throws Exception {
+        List<Endpoint> mix = new ArrayList<>();
+        mix.add(new Endpoint("GET /api/workouts", "GET", "/api/workouts?limit=50", 30));
+
+        // A second page continues from the first page's cursor
+        String firstPage = send(base, "GET", "/api/workouts?limit=50", null).body();
+        Matcher next = NEXT_CURSOR.matcher(firstPage);
+        if (next.find()) {
+            mix.add(new Endpoint("GET /api/workouts (page 2)", "GET", "/api/workouts?limit=50&after=" + next.group(1), 15));
+        }
+
+        mix.add(new Endpoint("GET /api/workouts?type=Strength&sort=heaviest", "GET", "/api/workouts?type=Strength&sort=heaviest&limit=20", 10));
+        mix.add(new Endpoint("GET /api/prs", "GET", "/api/prs?limit=100", 15));
+        mix.add(new Endpoint("GET /api/goals", "GET", "/api/goals", 10));
+        mix.add(new Endpoint("GET /api/summary/weekly", "GET", "/api/summary/weekly", 10));
+        mix.add(new Endpoint("GET /api/profile", "GET", "/api/profile", 10));
+
+        if (writePercent > 0) {
+            int readWeight = mix.stream().mapToInt(e -> e.weight).sum();
+            int writeWeight = Math.max(1, readWeight * writePercent / Math.max(1, 100 - writePercent));
+            mix.add(new Endpoint("POST /api/workouts", "POST", "/api/workouts", writeWeight));
+        }
+        return mix;
+    }
+
+    // Every client sends requests back to back until the deadline; returns the elapsed time
+    private long drive(URI base, List<Endpoint> mix, long durationNanos, boolean record) throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(e -> e.weight).sum();
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        AtomicInteger failures = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Random random = new Random(SEED + c);
+            Thread t = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    Endpoint e = pick(mix, random.nextInt(totalWeight));
+                    String body = e.method.equals("POST") ? randomWorkout(random) : null;
+
+                    long t0 = System.nanoTime();
+                    boolean ok;
+                    try {
+                        int status = send(base, e.method, e.path, body).statusCode();
+                        ok = status >= 200 && status < 300;
+                    } catch (IOException ex) {
+                        ok = false;
+                        if (failures.incrementAndGet() == 1) System.err.println("[ ! ] Request failed: " + ex.getMessage());
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    if (record) e.record(System.nanoTime() - t0, ok);
+                }
+            }, "heat-load-" + c);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+        return System.nanoTime() - start;
+    }
+
+    private static Endpoint pick(List<Endpoint> mix, int roll) {
+        for (Endpoint e : mix) {
+            roll -= e.weight;
+            if (roll < 0) return e;
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private HttpResponse<String> send(URI base, String method, String path, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String randomWorkout(Random random) {
+        LocalDate date = LocalDate.now().minusDays(random.nextInt(365));
+        return String.format("{\"exercise\": \"Barbell Bench Press\", \"date\": \"%s\", \"duration_min\": %d, "
+            + "\"sets\": %d, \"reps\": %d, \"weight_kg\": %d}",
+            date, 30 + random.nextInt(30), 3 + random.nextInt(3), 5 + random.nextInt(8), 40 + random.nextInt(60));
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package heat.bench;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Latency summary for one benchmark case at one database size
+public class BenchmarkResult {
+
+    private final String benchmark;
+    private final int workouts;
+    private final int samples;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double minMicros;
+    private final double maxMicros;
+
+    public BenchmarkResult(String benchmark, int workouts, long[] sampleNanos) {
+        long[] sorted = sampleNanos.clone();
+        Arrays.sort(sorted);
+
+        this.benchmark = benchmark;
+        this.workouts = workouts;
+        this.samples = sorted.length;
+        this.meanMicros = Arrays.stream(sorted).average().orElse(0) / 1_000.0;
+        this.p50Micros = percentile(sorted, 0.50) / 1_000.0;
+        this.p99Micros = percentile(sorted, 0.99) / 1_000.0;
+        this.minMicros = sorted[0] / 1_000.0;
+        this.maxMicros = sorted[sorted.length - 1] / 1_000.0;
+    }
+
+    // Nearest-rank percentile over sorted samples
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    public String getBenchmark() { return benchmark; }
+    public int getWorkouts() { return workouts; }
+    public int getSamples() { return samples; }
+    public double getMeanMicros() { return meanMicros; }
+    public double getP50Micros() { return p50Micros; }
+    public double getP99Micros() { return p99Micros; }
+    public double getMinMicros() { return minMicros; }
+    public double getMaxMicros() { return maxMicros; }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+            "{\"benchmark\": \"%s\", \"workouts\": %d, \"samples\": %d, \"mean_us\": %.3f, "
+                + "\"p50_us\": %.3f, \"p99_us\": %.3f, \"min_us\": %.3f, \"max_us\": %.3f}",
+            benchmark, workouts, samples, meanMicros, p50Micros, p99Micros, minMicros, maxMicros);
+    }
+
+    // One run: a header plus one result object per line, so runs diff line by line
+    public static String toJson(List<BenchmarkResult> results, Instant finishedAt) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"finished_at\": \"").append(finishedAt).append("\",\n");
+        sb.append("  \"java\": \"").append(System.getProperty("java.version")).append("\",\n");
+        sb.append("  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            sb.append("    ").append(results.get(i).toJson());
+            sb.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        sb.append("  ]\n}\n");
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-45s %,10d workouts | %7d samples | mean %10.1f us | p50 %10.1f us | p99 %10.1f us",
+            benchmark, workouts, samples, meanMicros, p50Micros, p99Micros);
+    }
+}
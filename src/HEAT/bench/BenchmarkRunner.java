@@ -0,0 +1,290 @@
+package heat.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import heat.dao.ConnectionPool;
+import heat.dao.DatabaseConnection;
+import heat.dao.WorkoutDAO;
+import heat.model.Activity;
+import heat.model.Goal;
+import heat.model.StrengthWorkout;
+import heat.model.Workout;
+import heat.service.GoalService;
+import heat.service.StreakTracker;
+import heat.service.UserService;
+import heat.service.WorkoutService;
+import heat.ui.InputHelper;
+
+// Latency benchmarks for the DAO, service and rendering hot paths. Each database
+// size gets a fresh temp-file database filled by WorkloadGenerator; every case is
+// warmed up, then timed one operation at a time until its time budget runs out.
+// Results are written as JSON so two runs can be diffed.
+//
+//   java heat.bench.BenchmarkRunner [--sizes 1000,100000,1000000] [--time-ms 2000]
+//                                   [--warmup-ms 500] [--only logWorkout] [--out results.json]
+//
+// Run from the project root so the activity and quote catalogs can be found.
+public class BenchmarkRunner {
+
+    private static final int[] DEFAULT_SIZES = { 1_000, 100_000, 1_000_000 };
+    private static final long SEED = 42L;
+    private static final int MAX_SAMPLES = 100_000;
+
+    // The timed part of a case
+    @FunctionalInterface
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    // Untimed per-sample setup that returns the operation to time
+    @FunctionalInterface
+    interface Setup {
+        Operation prepare() throws Exception;
+    }
+
+    private static class Case {
+        final String name;
+        final Setup setup;
+
+        Case(String name, Setup setup) {
+            this.name = name;
+            this.setup = setup;
+        }
+    }
+
+    private final int[] sizes;
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final String only;
+
+    private final PrintStream console = System.out;
+    private final Random random = new Random(SEED);
+
+    public BenchmarkRunner(int[] sizes, long warmupMillis, long measureMillis, String only) {
+        this.sizes = sizes;
+        this.warmupNanos = warmupMillis * 1_000_000L;
+        this.measureNanos = measureMillis * 1_000_000L;
+        this.only = only;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = DEFAULT_SIZES;
+        long warmupMillis = 500;
+        long measureMillis = 2_000;
+        String only = null;
+        Path out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--sizes" -> sizes = Arrays.stream(value.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+                case "--warmup-ms" -> warmupMillis = Long.parseLong(value);
+                case "--time-ms" -> measureMillis = Long.parseLong(value);
+                case "--only" -> only = value;
+                case "--out" -> out = Path.of(value);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+            i++;
+        }
+
+        List<BenchmarkResult> results = new BenchmarkRunner(sizes, warmupMillis, measureMillis, only).runAll();
+        String json = BenchmarkResult.toJson(results, Instant.now());
+
+        if (out == null) {
+            System.out.println(json);
+        } else {
+            Files.writeString(out, json, StandardCharsets.UTF_8);
+            System.out.println("[OK] Wrote " + results.size() + " results to " + out);
+        }
+    }
+
+    public List<BenchmarkResult> runAll() throws Exception {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (int size : sizes) {
+            results.addAll(runSize(size));
+        }
+        return results;
+    }
+
+    // ============================================================
+    // One Database Size
+    // ============================================================
+
+    private List<BenchmarkResult> runSize(int size) throws Exception {
+        Path dir = Files.createTempDirectory("heat-bench-");
+        DatabaseConnection.useProvider(new ConnectionPool("jdbc:sqlite:" + dir.resolve("bench.db")));
+
+        // The services report every write on stdout; keep that out of the timings
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            long start = System.nanoTime();
+            WorkoutDAO workoutDAO = new WorkoutDAO();
+            workoutDAO.performInitialSetup();
+            new WorkloadGenerator(SEED).withWorkouts(size).generate();
+
+            UserService userService = new UserService();
+            GoalService goalService = new GoalService(userService);
+            WorkoutService workoutService = new WorkoutService(goalService, userService);
+            userService.setGoalService(goalService);
+
+            console.printf("[OK] %,d workouts ready in %.1f s%n", size, (System.nanoTime() - start) / 1e9);
+
+            List<BenchmarkResult> results = new ArrayList<>();
+            for (Case c : cases(workoutDAO, workoutService, goalService, userService)) {
+                if (only != null && !c.name.contains(only)) continue;
+
+                BenchmarkResult r = measure(c, size);
+                console.println(r);
+                results.add(r);
+            }
+            return results;
+
+        } finally {
+            System.setOut(console);
+            DatabaseConnection.getInstance().closeConnection();
+            deleteRecursively(dir);
+        }
+    }
+
+    private List<Case> cases(WorkoutDAO workoutDAO, WorkoutService workoutService,
+                             GoalService goalService, UserService userService) throws Exception {
+
+        List<Case> cases = new ArrayList<>();
+        String loadedExercise = findLoadedExercise(workoutDAO);
+
+        // An open goal the benchmarked workouts always count towards
+        Goal goal = new Goal("Benchmark", loadedExercise, LocalDate.now().minusDays(90), null, "frequency", 0, 1e9);
+        goalService.createGoal(goal);
+
+        cases.add(new Case("WorkoutService.logWorkout", () -> {
+            Workout w = strength(loadedExercise, randomDate(), 60.0);
+            return () -> workoutService.logWorkout(w);
+        }));
+
+        // A light set never holds the PR, so deleting it leaves the record alone
+        cases.add(new Case("WorkoutService.deleteWorkout.nonHolder", () -> {
+            Workout w = strength(loadedExercise, randomDate(), 2.5);
+            workoutService.logWorkout(w);
+            return () -> workoutService.deleteWorkout(w);
+        }));
+
+        // A record-breaking set makes deletion promote the runner-up
+        cases.add(new Case("WorkoutService.deleteWorkout.prHolder", () -> {
+            Workout w = strength(loadedExercise, randomDate(), 1_000.0);
+            workoutService.logWorkout(w);
+            return () -> workoutService.deleteWorkout(w);
+        }));
+
+        cases.add(new Case("GoalService.refreshGoalsForWorkout", () -> {
+            Workout w = strength(goal.getExerciseName(), LocalDate.now(), 60.0);
+            w.setActivityId(workoutService.getActivityId(goal.getExerciseName()));
+            return () -> {
+                DatabaseConnection db = DatabaseConnection.getInstance();
+                db.beginTransaction();
+                goalService.refreshGoalsForWorkout(w);
+                db.commitTransaction();
+            };
+        }));
+
+        // Moving one workout day back and forth, as an update to a workout date does
+        StreakTracker tracker = new StreakTracker();
+        tracker.reset(workoutDAO.loadWorkoutDayCounts());
+        cases.add(new Case("StreakTracker.move+UserService.applyStreak", () -> {
+            LocalDate from = tracker.getLastWorkoutDate();
+            LocalDate to = randomDate();
+            return () -> {
+                tracker.move(from, to);
+                userService.applyStreak(tracker.getCurrentStreak(), tracker.getLastWorkoutDate());
+                tracker.move(to, from);
+                userService.applyStreak(tracker.getCurrentStreak(), tracker.getLastWorkoutDate());
+            };
+        }));
+
+        cases.add(new Case("WorkoutDAO.loadWorkouts", () -> workoutDAO::loadWorkouts));
+
+        // Column scan over the whole history (the first sample pays for loading the columns)
+        cases.add(new Case("WorkoutService.getAllWorkoutTotals", () -> workoutService::getAllWorkoutTotals));
+
+        InputHelper inputHelper = new InputHelper(workoutService, userService, goalService);
+        cases.add(new Case("InputHelper.printWorkouts", () -> {
+            List<Workout> page = new ArrayList<>(workoutService.getAllWorkouts().subList(0, 10));
+            return () -> inputHelper.printWorkouts(page);
+        }));
+
+        return cases;
+    }
+
+    // ============================================================
+    // Measurement
+    // ============================================================
+
+    private BenchmarkResult measure(Case c, int size) throws Exception {
+        long warmupEnd = System.nanoTime() + warmupNanos;
+        while (System.nanoTime() < warmupEnd) {
+            c.setup.prepare().run();
+        }
+
+        long[] samples = new long[1_024];
+        int count = 0;
+        long measured = 0;
+
+        while (count == 0 || (measured < measureNanos && count < MAX_SAMPLES)) {
+            Operation op = c.setup.prepare();
+
+            long start = System.nanoTime();
+            op.run();
+            long elapsed = System.nanoTime() - start;
+
+            if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+            samples[count++] = elapsed;
+            measured += elapsed;
+        }
+
+        return new BenchmarkResult(c.name, size, Arrays.copyOf(samples, count));
+    }
+
+    // ============================================================
+    // Helpers
+    // ============================================================
+
+    // First catalog lift whose PR is keyed on external weight alone
+    private String findLoadedExercise(WorkoutDAO workoutDAO) throws SQLException {
+        for (Activity a : workoutDAO.loadActivities()) {
+            if (a.getWorkoutType().equalsIgnoreCase("Strength") && a.getBodyWeightFactor() == 0) return a.getActivityName();
+        }
+        throw new IllegalStateException("Activity catalog has no weighted lifts");
+    }
+
+    private StrengthWorkout strength(String exercise, LocalDate date, double weightKg) {
+        return new StrengthWorkout(exercise, "Strength", date, 200, 45, 3, 8, 80, weightKg, 0);
+    }
+
+    private LocalDate randomDate() {
+        return LocalDate.now().minusDays(random.nextInt(3 * 365));
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
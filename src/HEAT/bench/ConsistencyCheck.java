@@ -0,0 +1,454 @@
+package heat.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import heat.dao.ConnectionPool;
+import heat.dao.DatabaseConnection;
+import heat.dao.ExerciseStatsDAO;
+import heat.dao.GoalDAO;
+import heat.dao.UserDAO;
+import heat.dao.WorkoutDAO;
+import heat.model.CardioWorkout;
+import heat.model.PersonalRecord;
+import heat.model.StrengthWorkout;
+import heat.model.Workout;
+import heat.service.GoalService;
+import heat.service.StreakTracker;
+import heat.service.UserService;
+import heat.service.WorkoutService;
+
+// Randomized checks of the incrementally maintained structures against the plain
+// computations they replaced. Each check applies seeded random operations and
+// compares both sides after every step; the first mismatch is printed and the
+// run exits with status 1, so a failure can be replayed with the same --seed.
+//
+//   java heat.bench.ConsistencyCheck [--only streaks] [--seed 42] [--steps 300]
+//
+//   streaks   StreakTracker vs sorting and walking every workout date
+//   prs       PersonalRecordIndex promotions vs a fresh SQL ranking, on a temp database
+//   rollup    exercise_daily_stats and goal progress vs aggregating workouts, on a temp database
+//
+// Run from the project root so the activity and quote catalogs can be found.
+public class ConsistencyCheck {
+
+    private static final long DEFAULT_SEED = 42L;
+    private static final int DEFAULT_STEPS = 300;
+
+    // One check; returns how many comparisons it made
+    @FunctionalInterface
+    interface Check {
+        int run() throws Exception;
+    }
+
+    private final long seed;
+    private final int steps;
+    private final Map<String, Check> checks = new LinkedHashMap<>();
+
+    public ConsistencyCheck(long seed, int steps) {
+        this.seed = seed;
+        this.steps = steps;
+        checks.put("streaks", this::checkStreaks);
+        checks.put("prs", this::checkPersonalRecords);
+        checks.put("rollup", this::checkRollup);
+    }
+
+    public static void main(String[] args) throws Exception {
+        long seed = DEFAULT_SEED;
+        int steps = DEFAULT_STEPS;
+        String only = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--steps" -> steps = Integer.parseInt(value);
+                case "--only" -> only = value;
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+            i++;
+        }
+
+        System.exit(new ConsistencyCheck(seed, steps).runAll(only) ? 0 : 1);
+    }
+
+    // True when every check (or just the one named by only) found no mismatch
+    public boolean runAll(String only) throws Exception {
+        boolean passed = true;
+        for (Map.Entry<String, Check> e : checks.entrySet()) {
+            if (only != null && !only.equals(e.getKey())) continue;
+
+            long start = System.nanoTime();
+            try {
+                int comparisons = e.getValue().run();
+                System.out.printf("[OK] %s: %,d comparisons, no mismatch (seed %d, %.1f s)%n",
+                    e.getKey(), comparisons, seed, (System.nanoTime() - start) / 1e9);
+            } catch (Mismatch m) {
+                System.out.println("[ ! ] " + e.getKey() + ": " + m.getMessage() + " (seed " + seed + ")");
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    private static class Mismatch extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Mismatch(String message) {
+            super(message);
+        }
+    }
+
+    private static void expect(boolean same, String message) {
+        if (!same) throw new Mismatch(message);
+    }
+
+    // Fresh services over a temp-file database with a registered profile; service
+    // output goes nowhere until the returned database is closed
+    private static class TempDatabase implements AutoCloseable {
+        final Path dir;
+        final PrintStream console = System.out;
+        final WorkoutDAO workoutDAO = new WorkoutDAO();
+        WorkoutService workoutService;
+
+        TempDatabase() throws Exception {
+            dir = Files.createTempDirectory("heat-check-");
+            DatabaseConnection.useProvider(new ConnectionPool("jdbc:sqlite:" + dir.resolve("check.db")));
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+            workoutDAO.performInitialSetup();
+            UserService userService = new UserService();
+            GoalService goalService = new GoalService(userService);
+            workoutService = new WorkoutService(goalService, userService);
+            userService.setGoalService(goalService);
+            userService.saveUserProfile("Check", 30, 180, 80, "M");
+        }
+
+        @Override
+        public void close() throws IOException {
+            System.setOut(console);
+            DatabaseConnection.getInstance().closeConnection();
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    // ============================================================
+    // Personal Records
+    // ============================================================
+
+    // Exercise name, PR key, type; Pull-ups is a bodyweight exercise, so it has a
+    // reps key (no added weight) and a loaded key
+    private static final String[][] PR_KEYS = {
+        { "Barbell Bench Press", "Barbell Bench Press", "Strength" },
+        { "Pull-ups", "Pull-ups (reps)", "Strength" },
+        { "Pull-ups", "Pull-ups (loaded)", "Strength" },
+        { "Running", "Running", "Cardio" },
+    };
+
+    // Random logs, edits and deletes, aimed at record holders half of the time.
+    // After every step each key's in-memory PR, its personal_records row and the
+    // best workout by the recalculatePR ranking must agree.
+    private int checkPersonalRecords() throws Exception {
+        Random random = new Random(seed);
+        int comparisons = 0;
+
+        try (TempDatabase db = new TempDatabase()) {
+            WorkoutService service = db.workoutService;
+            for (int i = 0; i < 40; i++) {
+                for (String[] key : PR_KEYS) service.logWorkout(randomWorkout(service, key, random));
+            }
+
+            for (int step = 0; step < steps; step++) {
+                String[] key = PR_KEYS[random.nextInt(PR_KEYS.length)];
+                int op = random.nextInt(10);
+
+                if (op < 4) {
+                    service.logWorkout(randomWorkout(service, key, random));
+                } else {
+                    Workout target = pickWorkout(db, key, random);
+                    if (target == null) continue;
+                    if (op < 7) service.updateWorkout(target, edited(target, target.getDate(), random));
+                    else service.deleteWorkout(target);
+                }
+
+                Map<String, PersonalRecord> memory = new TreeMap<>();
+                for (PersonalRecord pr : service.getAllPRs()) memory.put(pr.getActivityName(), pr);
+                Map<String, PersonalRecord> table = db.workoutDAO.loadPersonalRecords();
+
+                for (String[] k : PR_KEYS) {
+                    String where = "step " + step + ", " + k[1];
+                    List<Workout> best = db.workoutDAO.loadPRCandidates(k[0], k[1], k[2], 1);
+                    PersonalRecord inMemory = memory.get(k[1]);
+                    PersonalRecord inTable = table.get(k[1]);
+
+                    if (best.isEmpty()) {
+                        expect(inMemory == null && inTable == null, where + ": PR kept after its last workout went away");
+                    } else {
+                        expect(inMemory != null && holds(inMemory, best.get(0), k[1]),
+                            where + ": in-memory PR " + describe(inMemory) + " is not the best workout " + best.get(0));
+                        expect(inTable != null && sameRecord(inMemory, inTable),
+                            where + ": personal_records row " + describe(inTable) + " differs from memory " + describe(inMemory));
+                    }
+                    comparisons += 2;
+                }
+            }
+        }
+        return comparisons;
+    }
+
+    // A workout for the key: a heavy, light or unloaded set, or a run
+    private static Workout randomWorkout(WorkoutService service, String[] key, Random random) {
+        LocalDate date = LocalDate.now().minusDays(random.nextInt(60));
+        if (key[2].equals("Cardio")) {
+            return service.newWorkout(key[0], "Cardio", date, 10 + random.nextInt(50), 0, 0, 0.0, 5.0);
+        }
+        double weight = key[1].endsWith("(reps)") ? 0.0 : 5.0 * (1 + random.nextInt(12));
+        return service.newWorkout(key[0], "Strength", date, 30, 3, 1 + random.nextInt(12), weight, 0.0);
+    }
+
+    // Half of the time the key's current record holder, otherwise any of its workouts
+    private static Workout pickWorkout(TempDatabase db, String[] key, Random random) throws Exception {
+        List<Workout> candidates = db.workoutDAO.loadPRCandidates(key[0], key[1], key[2], 8);
+        if (candidates.isEmpty()) return null;
+        return random.nextBoolean() ? candidates.get(0) : candidates.get(random.nextInt(candidates.size()));
+    }
+
+    // Same workout on the given date with new reps and weight (strength) or minutes
+    // (cardio); a bodyweight set can gain or lose its load, which moves it between keys
+    private static Workout edited(Workout original, LocalDate date, Random random) {
+        Workout updated;
+        if (original instanceof StrengthWorkout sw) {
+            int reps = 1 + random.nextInt(12);
+            double weight = (sw.getBodyWeightFactor() != 0 && random.nextBoolean()) ? 0.0 : 5.0 * (1 + random.nextInt(12));
+            updated = new StrengthWorkout(sw.getId(), sw.getName(), "Strength", date, sw.getCaloriesBurned(),
+                sw.getDurationMinutes(), sw.getSetCount(), reps, weight, sw.getSetCount() * reps * weight, sw.getBodyWeightFactor());
+        } else {
+            CardioWorkout cw = (CardioWorkout) original;
+            updated = new CardioWorkout(cw.getId(), cw.getName(), "Cardio", date, cw.getCaloriesBurned(),
+                10 + random.nextInt(50), cw.getDistanceKm());
+        }
+        updated.setActivityId(original.getActivityId());
+        return updated;
+    }
+
+    // Compares the values the key ranks by; ties may be held by either workout
+    private static boolean holds(PersonalRecord pr, Workout best, String key) {
+        if (best instanceof StrengthWorkout sw) {
+            if (key.endsWith("(reps)")) return pr.getReps() == sw.getRepCount();
+            return pr.getWeight() == sw.getExternalWeightKg() && pr.getReps() == sw.getRepCount();
+        }
+        return pr.getDuration() == best.getDurationMinutes();
+    }
+
+    private static boolean sameRecord(PersonalRecord a, PersonalRecord b) {
+        return a.getWeight() == b.getWeight() && a.getReps() == b.getReps()
+            && a.getDuration() == b.getDuration() && a.getDate().equals(b.getDate());
+    }
+
+    private static String describe(PersonalRecord pr) {
+        if (pr == null) return "(none)";
+        return String.format("%.1f kg x %d, %d min on %s", pr.getWeight(), pr.getReps(), pr.getDuration(), pr.getDate());
+    }
+
+    // ============================================================
+    // Exercise Daily Stats
+    // ============================================================
+
+    // Random logs, sessions, edits (some moving the workout to another day) and
+    // deletes. After every step the rollup must match a fresh aggregate of
+    // workouts, and the four goal progress queries must return what the
+    // pre-rollup queries over workouts return. At the end a corrupted rollup row
+    // must be reported, and a rebuild must clear it.
+    private int checkRollup() throws Exception {
+        Random random = new Random(seed);
+        int comparisons = 0;
+
+        try (TempDatabase db = new TempDatabase()) {
+            WorkoutService service = db.workoutService;
+            ExerciseStatsDAO stats = new ExerciseStatsDAO();
+            GoalDAO goalDAO = new GoalDAO();
+
+            for (int step = 0; step < steps; step++) {
+                String[] key = PR_KEYS[random.nextInt(PR_KEYS.length)];
+                int op = random.nextInt(10);
+
+                if (op < 4) {
+                    service.logWorkout(randomWorkout(service, key, random));
+                } else if (op == 4) {
+                    List<Workout> session = new ArrayList<>();
+                    for (int i = 0; i < 3; i++) session.add(randomWorkout(service, PR_KEYS[random.nextInt(PR_KEYS.length)], random));
+                    service.logSession(session);
+                } else {
+                    Workout target = pickWorkout(db, key, random);
+                    if (target == null) continue;
+                    if (op < 8) {
+                        LocalDate date = random.nextBoolean() ? target.getDate() : LocalDate.now().minusDays(random.nextInt(60));
+                        service.updateWorkout(target, edited(target, date, random));
+                    } else {
+                        service.deleteWorkout(target);
+                    }
+                }
+
+                List<String> drift = stats.checkConsistency();
+                expect(drift.isEmpty(), "step " + step + ": " + drift);
+                comparisons++;
+
+                LocalDate from = LocalDate.now().minusDays(random.nextInt(70));
+                for (String exercise : new String[] { "Barbell Bench Press", "Pull-ups", "Running" }) {
+                    String where = "step " + step + ", " + exercise + " since " + from;
+                    double[] expected = aggregateWorkouts(exercise, from);
+                    expect(goalDAO.getWorkoutFrequency(exercise, from) == (int) expected[0],
+                        where + ": frequency " + goalDAO.getWorkoutFrequency(exercise, from) + ", expected " + (int) expected[0]);
+                    expect(goalDAO.getTotalMinutes(exercise, from) == (int) expected[1],
+                        where + ": minutes " + goalDAO.getTotalMinutes(exercise, from) + ", expected " + (int) expected[1]);
+                    expect(goalDAO.getMostRepsDone(exercise, from) == (int) expected[2],
+                        where + ": max reps " + goalDAO.getMostRepsDone(exercise, from) + ", expected " + (int) expected[2]);
+                    expect(goalDAO.getMaxWeightLifted(exercise, from) == expected[3],
+                        where + ": max weight " + goalDAO.getMaxWeightLifted(exercise, from) + ", expected " + expected[3]);
+                    comparisons += 4;
+                }
+            }
+
+            try (Statement stmt = DatabaseConnection.getInstance().getConnection().createStatement()) {
+                stmt.executeUpdate("UPDATE exercise_daily_stats SET workout_count = workout_count + 1 "
+                    + "WHERE (exercise_name, date) = (SELECT exercise_name, date FROM exercise_daily_stats LIMIT 1)");
+            }
+            expect(!stats.checkConsistency().isEmpty(), "a corrupted rollup row was not reported");
+            stats.rebuild();
+            expect(stats.checkConsistency().isEmpty(), "rebuild left drift: " + stats.checkConsistency());
+            comparisons += 2;
+        }
+        return comparisons;
+    }
+
+    // Count, total minutes, max reps and max weight straight from workouts, as goal
+    // progress read them before the rollup
+    private static double[] aggregateWorkouts(String exercise, LocalDate from) throws SQLException {
+        String sql = """
+            SELECT COUNT(*), COALESCE(SUM(duration_minutes), 0), COALESCE(MAX(reps), 0), COALESCE(MAX(weight_kg), 0)
+            FROM workouts WHERE user_id = ? AND exercise_name = ? AND date >= ?
+            """;
+        PreparedStatement pstmt = DatabaseConnection.getInstance().prepareReadStatement(sql);
+        pstmt.setInt(1, UserDAO.DEFAULT_USER_ID);
+        pstmt.setString(2, exercise);
+        pstmt.setString(3, from.toString());
+        try (ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return new double[] { rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getDouble(4) };
+        }
+    }
+
+    // ============================================================
+    // Streaks
+    // ============================================================
+
+    // Sequences of adds, removes and moves over a short date span, so runs keep
+    // merging and splitting; half of them start from reset() with a random history
+    private int checkStreaks() {
+        Random random = new Random(seed);
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        int comparisons = 0;
+
+        for (int sequence = 0; sequence < 500; sequence++) {
+            StreakTracker tracker = new StreakTracker();
+            List<LocalDate> dates = new ArrayList<>();
+            int span = 5 + random.nextInt(60);
+
+            if (random.nextBoolean()) {
+                int initial = random.nextInt(40);
+                for (int i = 0; i < initial; i++) dates.add(base.plusDays(random.nextInt(span)));
+                Map<LocalDate, Integer> counts = new TreeMap<>();
+                for (LocalDate d : dates) counts.merge(d, 1, Integer::sum);
+                tracker.reset(counts);
+            }
+
+            for (int step = 0; step < steps; step++) {
+                int op = random.nextInt(3);
+                if (op == 0 || dates.isEmpty()) {
+                    LocalDate day = base.plusDays(random.nextInt(span));
+                    dates.add(day);
+                    tracker.add(day);
+                } else if (op == 1) {
+                    tracker.remove(dates.remove(random.nextInt(dates.size())));
+                } else {
+                    int i = random.nextInt(dates.size());
+                    LocalDate to = base.plusDays(random.nextInt(span));
+                    tracker.move(dates.get(i), to);
+                    dates.set(i, to);
+                }
+
+                String where = "sequence " + sequence + ", step " + step;
+                int current = currentStreak(dates);
+                expect(tracker.getCurrentStreak() == current,
+                    where + ": current streak " + tracker.getCurrentStreak() + ", expected " + current);
+                int longest = longestStreak(dates);
+                expect(tracker.getLongestStreak() == longest,
+                    where + ": longest streak " + tracker.getLongestStreak() + ", expected " + longest);
+                LocalDate last = dates.stream().max(LocalDate::compareTo).orElse(null);
+                expect(Objects.equals(tracker.getLastWorkoutDate(), last),
+                    where + ": last workout " + tracker.getLastWorkoutDate() + ", expected " + last);
+                comparisons += 3;
+            }
+        }
+        return comparisons;
+    }
+
+    // The sort-and-walk UserService.recalculateStreak used before StreakTracker
+    private static int currentStreak(List<LocalDate> allWorkoutDates) {
+        if (allWorkoutDates.isEmpty()) return 0;
+
+        List<LocalDate> sortedDates = allWorkoutDates.stream()
+            .distinct()
+            .sorted((d1, d2) -> d2.compareTo(d1))
+            .toList();
+
+        int streak = 1;
+        for (int i = 0; i < sortedDates.size() - 1; i++) {
+            long daysBetween = ChronoUnit.DAYS.between(sortedDates.get(i + 1), sortedDates.get(i));
+            if (daysBetween == 1) {
+                streak++;
+            } else if (daysBetween > 1) {
+                break;
+            }
+        }
+        return streak;
+    }
+
+    private static int longestStreak(List<LocalDate> allWorkoutDates) {
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (LocalDate day : new TreeSet<>(allWorkoutDates)) {
+            run = (previous != null && previous.plusDays(1).equals(day)) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,443 @@
+package heat.bench;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import heat.dao.ConnectionPool;
+import heat.dao.DatabaseConnection;
+import heat.dao.ExerciseStatsDAO;
+import heat.dao.GoalDAO;
+import heat.dao.UserDAO;
+import heat.dao.WorkoutDAO;
+import heat.model.Activity;
+import heat.model.CardioWorkout;
+import heat.model.Goal;
+import heat.model.GoalStatus;
+import heat.model.StrengthWorkout;
+import heat.model.User;
+import heat.service.StreakTracker;
+import heat.service.WorkoutService;
+
+// Writes a deterministic multi-year training history into an empty database,
+// built from the activities catalog: a rotating strength split with progressive
+// overload and deload weeks, cardio whose duration varies by category and day,
+// weekly body metrics that drift, and a goal set per year. The same seed and
+// settings always produce the same rows. Rows go in through JDBC batches in one
+// transaction; PRs, the daily rollup and goal progress are derived at the end.
+//
+//   java heat.bench.WorkloadGenerator --db data/generated.db [--workouts 1000000]
+//                                     [--years 3] [--seed 42]
+//
+// Run from the project root so the activity and quote catalogs can be found.
+public class WorkloadGenerator {
+
+    public static final int DEFAULT_BATCH_SIZE = 5_000;
+
+    private static final String[] STRENGTH_SPLIT = { "Chest", "Back", "Legs", "Shoulders", "Arms", "Core" };
+    private static final String[] CARDIO_CATEGORIES = { "Endurance", "Recreational", "HIIT" };
+    private static final double HEIGHT_CM = 178;
+
+    private final long seed;
+    private int workoutCount = 10_000;
+    private int years = 3;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // Per-exercise progression, keyed by activity name
+    private static class Progress {
+        double weightKg;
+        int reps;
+        int sessions;
+    }
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public WorkloadGenerator withWorkouts(int workoutCount) {
+        if (workoutCount < 0) throw new IllegalArgumentException("Workout count cannot be negative");
+        this.workoutCount = workoutCount;
+        return this;
+    }
+
+    public WorkloadGenerator withYears(int years) {
+        if (years < 1) throw new IllegalArgumentException("History must cover at least one year");
+        this.years = years;
+        return this;
+    }
+
+    public WorkloadGenerator withBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String dbPath = null;
+        long seed = 42L;
+        int workouts = 10_000;
+        int years = 3;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--db" -> dbPath = args[i + 1];
+                case "--workouts" -> workouts = Integer.parseInt(args[i + 1]);
+                case "--years" -> years = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        if (dbPath == null) {
+            System.err.println("Usage: WorkloadGenerator --db <file> [--workouts N] [--years N] [--seed N]");
+            System.exit(2);
+        }
+
+        DatabaseConnection.useProvider(new ConnectionPool("jdbc:sqlite:" + dbPath));
+        try {
+            new WorkoutDAO().performInitialSetup();
+            WorkloadGenerator generator = new WorkloadGenerator(seed).withWorkouts(workouts).withYears(years);
+            System.out.println("[OK] " + generator.generate());
+        } catch (IllegalStateException e) {
+            System.err.println("[ ! ] " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.getInstance().closeConnection();
+        }
+    }
+
+    // ============================================================
+    // Generation
+    // ============================================================
+
+    public Summary generate() throws SQLException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        WorkoutDAO workoutDAO = new WorkoutDAO();
+        if (workoutDAO.countWorkouts() > 0) {
+            throw new IllegalStateException("Workload generator needs an empty workouts table");
+        }
+
+        Map<String, List<Activity>> byCategory = new LinkedHashMap<>();
+        for (Activity a : workoutDAO.loadActivities()) {
+            byCategory.computeIfAbsent(a.getCategory(), k -> new ArrayList<>()).add(a);
+        }
+
+        Random random = new Random(seed);
+        Summary summary = new Summary();
+        long start = System.nanoTime();
+
+        LocalDate end = LocalDate.now();
+        LocalDate first = end.minusYears(years);
+        List<LocalDate> trainingDays = pickTrainingDays(first, end, random);
+        long totalDays = trainingDays.size();
+
+        Map<String, Progress> progress = new HashMap<>();
+        StreakTracker streak = new StreakTracker();
+        double bodyWeight = 82.0 + random.nextGaussian() * 4;
+        double weightTrend = -0.15;
+
+        db.beginTransaction();
+        try {
+            PreparedStatement workoutStmt = db.prepareStatement("""
+                INSERT INTO workouts (
+                    exercise_name, type, date, duration_minutes, calories_burned,
+                    distance_km, sets, reps, weight_kg, volume_kg, bodyweight_factor, activity_id
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """);
+            PreparedStatement metricStmt = db.prepareStatement(
+                "INSERT INTO body_metrics (age, height_cm, weight_kg, BMI, date) VALUES (?, ?, ?, ?, ?)");
+
+            int pending = 0;
+            int split = 0;
+            int written = 0;
+            LocalDate nextWeighIn = first;
+
+            for (int d = 0; d < trainingDays.size(); d++) {
+                // Spread the requested total evenly, so the history always runs up to today
+                int todays = (int) ((d + 1) * (long) workoutCount / totalDays - d * (long) workoutCount / totalDays);
+                if (todays == 0) continue;
+
+                LocalDate day = trainingDays.get(d);
+
+                // Weekly weigh-in: a slow trend that reverses halfway, plus day-to-day noise
+                while (!nextWeighIn.isAfter(day)) {
+                    if (nextWeighIn.isAfter(first.plusDays(ChronoUnit.DAYS.between(first, end) / 2))) weightTrend = 0.08;
+                    bodyWeight += weightTrend + random.nextGaussian() * 0.3;
+                    bindMetric(metricStmt, nextWeighIn, bodyWeight, ageOn(nextWeighIn, end));
+                    metricStmt.addBatch();
+                    summary.bodyMetrics++;
+                    nextWeighIn = nextWeighIn.plusWeeks(1);
+                }
+
+                List<Activity> strength = byCategory.getOrDefault(STRENGTH_SPLIT[split++ % STRENGTH_SPLIT.length], List.of());
+                List<Activity> cardio = byCategory.getOrDefault(CARDIO_CATEGORIES[d % CARDIO_CATEGORIES.length], List.of());
+                boolean deloadWeek = (ChronoUnit.WEEKS.between(first, day) % 6) == 5;
+
+                for (int n = 0; n < todays; n++) {
+                    // Roughly one cardio session for every three strength exercises
+                    boolean doCardio = strength.isEmpty() || (!cardio.isEmpty() && written % 4 == 3);
+                    if (doCardio) {
+                        Activity a = cardio.get((d + n) % cardio.size());
+                        bindCardio(workoutStmt, a, day, bodyWeight, random);
+                        workoutStmt.setInt(12, a.getId());
+                    } else {
+                        Activity a = strength.get((d + n) % strength.size());
+                        Progress p = progress.computeIfAbsent(a.getActivityName(), k -> startingPoint(a, random));
+                        bindStrength(workoutStmt, a, p, day, bodyWeight, deloadWeek, random);
+                        workoutStmt.setInt(12, a.getId());
+                    }
+
+                    workoutStmt.addBatch();
+                    streak.add(day);
+                    written++;
+
+                    if (++pending == batchSize) {
+                        workoutStmt.executeBatch();
+                        metricStmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            workoutStmt.executeBatch();
+            metricStmt.executeBatch();
+            summary.workouts = written;
+
+            // Derived state, computed once over the whole history
+            for (String[] key : workoutDAO.findPRKeysSince(0)) {
+                workoutDAO.recalculatePR(key[0], key[1], key[2]);
+            }
+            new ExerciseStatsDAO().rebuild();
+            summary.goals = insertGoals(byCategory, first, end, bodyWeight, random);
+            saveProfile(bodyWeight, ageOn(end, end), streak);
+
+            db.commitTransaction();
+        } catch (SQLException | RuntimeException e) {
+            try { db.rollbackTransaction(); } catch (SQLException ex) {}
+            throw e;
+        }
+
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    // Four or five sessions a week, never skipping more than two days in a row
+    private List<LocalDate> pickTrainingDays(LocalDate first, LocalDate end, Random random) {
+        List<LocalDate> days = new ArrayList<>();
+        int restRun = 0;
+        for (LocalDate day = first; !day.isAfter(end); day = day.plusDays(1)) {
+            boolean rest = restRun < 2 && random.nextDouble() < 0.35;
+            if (rest) {
+                restRun++;
+            } else {
+                days.add(day);
+                restRun = 0;
+            }
+        }
+        return days;
+    }
+
+    private Progress startingPoint(Activity a, Random random) {
+        Progress p = new Progress();
+        p.reps = 8;
+        if (a.getBodyWeightFactor() == 0) {
+            double base = switch (a.getCategory()) {
+                case "Legs" -> 60;
+                case "Back" -> 50;
+                case "Chest" -> 40;
+                case "Shoulders" -> 25;
+                case "Arms" -> 12;
+                default -> 10;
+            };
+            p.weightKg = base + 2.5 * random.nextInt(4);
+        } else {
+            // Bodyweight movements progress on reps only, so their PR key never changes
+            p.reps = 5 + random.nextInt(4);
+        }
+        return p;
+    }
+
+    // Reps climb to 12, then the load goes up and reps drop back to 8; deload weeks run at 90%
+    private void bindStrength(PreparedStatement pstmt, Activity a, Progress p, LocalDate day,
+                              double bodyWeight, boolean deloadWeek, Random random) throws SQLException {
+
+        p.sessions++;
+        if (p.sessions % 2 == 0) {
+            if (a.getBodyWeightFactor() != 0) {
+                p.reps = Math.min(p.reps + 1, 30);
+            } else if (++p.reps > 12) {
+                p.reps = 8;
+                p.weightKg += (a.getCategory().equals("Arms") || a.getCategory().equals("Shoulders")) ? 1.25 : 2.5;
+            }
+        }
+
+        double weight = deloadWeek ? Math.round(p.weightKg * 0.9 / 1.25) * 1.25 : p.weightKg;
+        int reps = Math.max(1, p.reps + random.nextInt(3) - 1);
+        int sets = 3 + random.nextInt(3);
+        int minutes = sets * 4 + random.nextInt(6);
+        double calories = WorkoutService.calculateCaloriesBurned(a.getMetValue(), bodyWeight, minutes);
+
+        StrengthWorkout w = new StrengthWorkout(a.getActivityName(), a.getWorkoutType(), day, calories,
+            minutes, sets, reps, bodyWeight, weight, a.getBodyWeightFactor());
+
+        pstmt.setString(1, w.getName());
+        pstmt.setString(2, w.getType());
+        pstmt.setString(3, day.toString());
+        pstmt.setInt(4, minutes);
+        pstmt.setDouble(5, calories);
+        pstmt.setNull(6, Types.REAL);
+        pstmt.setInt(7, sets);
+        pstmt.setInt(8, reps);
+        pstmt.setDouble(9, weight);
+        pstmt.setDouble(10, w.getTrainingVolumeKg());
+        pstmt.setDouble(11, a.getBodyWeightFactor());
+    }
+
+    // Base duration by category, longer on weekends, +/- 20% day to day
+    private void bindCardio(PreparedStatement pstmt, Activity a, LocalDate day, double bodyWeight,
+                            Random random) throws SQLException {
+
+        int base = switch (a.getCategory()) {
+            case "Endurance" -> 35;
+            case "Recreational" -> 50;
+            default -> 15;
+        };
+        boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+        double factor = (weekend ? 1.6 : 1.0) * (0.8 + random.nextDouble() * 0.4);
+        int minutes = Math.max(5, (int) Math.round(base * factor));
+        double calories = WorkoutService.calculateCaloriesBurned(a.getMetValue(), bodyWeight, minutes);
+
+        CardioWorkout w = new CardioWorkout(a.getActivityName(), a.getWorkoutType(), day, calories, minutes);
+
+        pstmt.setString(1, w.getName());
+        pstmt.setString(2, w.getType());
+        pstmt.setString(3, day.toString());
+        pstmt.setInt(4, minutes);
+        pstmt.setDouble(5, calories);
+        pstmt.setDouble(6, w.getDistanceKm());
+        pstmt.setNull(7, Types.INTEGER);
+        pstmt.setNull(8, Types.INTEGER);
+        pstmt.setNull(9, Types.REAL);
+        pstmt.setNull(10, Types.REAL);
+        pstmt.setNull(11, Types.REAL);
+    }
+
+    private void bindMetric(PreparedStatement pstmt, LocalDate date, double weight, int age) throws SQLException {
+        pstmt.setInt(1, age);
+        pstmt.setDouble(2, HEIGHT_CM);
+        pstmt.setDouble(3, round1(weight));
+        pstmt.setDouble(4, round1(weight) / Math.pow(HEIGHT_CM / 100.0, 2));
+        pstmt.setString(5, date.toString());
+    }
+
+    // One goal of each exercise type per year on that year's main lifts, plus a bodyweight goal
+    private int insertGoals(Map<String, List<Activity>> byCategory, LocalDate first, LocalDate end,
+                            double finalWeight, Random random) throws SQLException {
+
+        GoalDAO goalDAO = new GoalDAO();
+        String[] types = { "frequency", "duration", "reps", "weight lifted" };
+        int inserted = 0;
+
+        for (int y = 0; y < years; y++) {
+            LocalDate start = first.plusYears(y);
+            LocalDate stop = start.plusYears(1).minusDays(1);
+
+            for (int t = 0; t < types.length; t++) {
+                List<Activity> lifts = byCategory.getOrDefault(STRENGTH_SPLIT[(y + t) % STRENGTH_SPLIT.length], List.of());
+                Activity a = null;
+                for (Activity candidate : lifts) {
+                    if (candidate.getBodyWeightFactor() == 0) { a = candidate; break; }
+                }
+                if (a == null) continue;
+
+                // Targets land between 80% and 120% of what the history reaches, so some are met
+                double ambition = 0.8 + random.nextDouble() * 0.4;
+                insertGoal(goalDAO, types[t] + " " + a.getActivityName() + " " + start.getYear(),
+                    a.getActivityName(), start, stop, types[t], ambition, end);
+                inserted++;
+            }
+        }
+
+        double targetWeight = Math.round(finalWeight - 3);
+        goalDAO.addGoal(new Goal(0, "Reach " + (int) targetWeight + " kg", null, end.minusMonths(3), null,
+            "weight loss", round1(finalWeight), targetWeight, GoalStatus.ACTIVE));
+        return inserted + 1;
+    }
+
+    // Progress comes from the rollup just rebuilt; the status follows from it and the window
+    private void insertGoal(GoalDAO goalDAO, String title, String exercise, LocalDate start, LocalDate stop,
+                            String type, double ambition, LocalDate today) throws SQLException {
+
+        double current = switch (type) {
+            case "frequency" -> goalDAO.getWorkoutFrequency(exercise, start);
+            case "duration" -> goalDAO.getTotalMinutes(exercise, start);
+            case "reps" -> goalDAO.getMostRepsDone(exercise, start);
+            default -> goalDAO.getMaxWeightLifted(exercise, start);
+        };
+        double target = Math.max(1, Math.round(current * ambition));
+        boolean met = current >= target;
+
+        GoalStatus status = met ? GoalStatus.COMPLETED
+            : (stop != null && stop.isBefore(today)) ? GoalStatus.EXPIRED
+            : GoalStatus.ACTIVE;
+
+        goalDAO.addGoal(new Goal(0, title, exercise, start, stop, type, current, target, status));
+    }
+
+    private void saveProfile(double weight, int age, StreakTracker streak) throws SQLException {
+        double w = round1(weight);
+        double bmi = w / Math.pow(HEIGHT_CM / 100.0, 2);
+        double bmr = 88.36 + (13.4 * w) + (4.8 * HEIGHT_CM) - (5.7 * age);
+        User user = new User("Generated", age, HEIGHT_CM, w, "M", bmi, bmr,
+            streak.getCurrentStreak(), streak.getLastWorkoutDate());
+
+        // A new profile row always starts without a streak; the update fills it in
+        UserDAO userDAO = new UserDAO();
+        userDAO.saveUserProfile(user);
+        userDAO.updateUserProfile(user);
+    }
+
+    private static int ageOn(LocalDate date, LocalDate today) {
+        return 30 - (int) ChronoUnit.YEARS.between(date, today);
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    // ============================================================
+    // Generation Report
+    // ============================================================
+
+    public static class Summary {
+        private int workouts;
+        private int bodyMetrics;
+        private int goals;
+        private long elapsedNanos;
+
+        public int getWorkouts() { return workouts; }
+        public int getBodyMetrics() { return bodyMetrics; }
+        public int getGoals() { return goals; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getRowsPerMinute() {
+            return elapsedNanos == 0 ? 0.0 : (workouts + bodyMetrics) / (elapsedNanos / 60_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Generated %,d workouts, %,d body metrics and %d goals in %.1f s (%,.0f rows/min)",
+                workouts, bodyMetrics, goals, elapsedNanos / 1e9, getRowsPerMinute());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package heat.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams a delimited text file into one INSERT statement using JDBC batches,
+// all inside a single transaction. Invalid rows are counted and skipped.
+public class BulkLoader {
+
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final int MAX_REJECTED_SAMPLES = 10;
+
+    // Binds one row's fields; throw IllegalArgumentException to reject the row
+    @FunctionalInterface
+    public interface RowBinder {
+        void bind(PreparedStatement pstmt, String[] fields) throws SQLException;
+    }
+
+    private final String sql;
+    private final char delimiter;
+    private final int fieldCount;
+    private final RowBinder binder;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean skipHeader = false;
+
+    public BulkLoader(String sql, char delimiter, int fieldCount, RowBinder binder) {
+        this.sql = sql;
+        this.delimiter = delimiter;
+        this.fieldCount = fieldCount;
+        this.binder = binder;
+    }
+
+    public BulkLoader withBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public BulkLoader withHeader(boolean skipHeader) {
+        this.skipHeader = skipHeader;
+        return this;
+    }
+
+    public Result load(Path file) throws SQLException, IOException {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(br);
+        }
+    }
+
+    public Result load(BufferedReader reader) throws SQLException, IOException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        Result result = new Result();
+        long start = System.nanoTime();
+
+        db.beginTransaction();
+        try {
+            PreparedStatement pstmt = db.prepareStatement(sql);
+            int pending = 0;
+            long lineNumber = 0;
+            String line;
+
+            if (skipHeader && reader.readLine() != null) lineNumber++;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+
+                String[] fields = split(line);
+                if (fields == null) {
+                    result.reject(lineNumber, line);
+                    continue;
+                }
+
+                try {
+                    binder.bind(pstmt, fields);
+                } catch (IllegalArgumentException e) {
+                    result.reject(lineNumber, line);
+                    continue;
+                }
+
+                pstmt.addBatch();
+                if (++pending == batchSize) {
+                    result.addInserted(executeBatch(pstmt));
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) result.addInserted(executeBatch(pstmt));
+
+            db.commitTransaction();
+        } catch (SQLException | IOException | RuntimeException e) {
+            try { db.rollbackTransaction(); } catch (SQLException ex) {}
+            throw e;
+        }
+
+        result.finish(start);
+        return result;
+    }
+
+    static int executeBatch(PreparedStatement pstmt) throws SQLException {
+        int inserted = 0;
+        for (int count : pstmt.executeBatch()) {
+            // SUCCESS_NO_INFO (-2) still means the row went in
+            inserted += (count == PreparedStatement.SUCCESS_NO_INFO) ? 1 : Math.max(count, 0);
+        }
+        return inserted;
+    }
+
+    // Splits into exactly fieldCount trimmed fields (the last one keeps any extra delimiters)
+    private String[] split(String line) {
+        String[] fields = new String[fieldCount];
+        int from = 0;
+
+        for (int i = 0; i < fieldCount - 1; i++) {
+            int at = line.indexOf(delimiter, from);
+            if (at < 0) return null;
+            fields[i] = line.substring(from, at).trim();
+            from = at + 1;
+        }
+        fields[fieldCount - 1] = line.substring(from).trim();
+        return fields;
+    }
+
+    // ============================================================
+    // Load Report
+    // ============================================================
+
+    public static class Result {
+        private long rowsInserted = 0;
+        private long rejectedLines = 0;
+        private long elapsedNanos = 0;
+        private final List<String> rejectedSamples = new ArrayList<>();
+
+        void addInserted(int rows) {
+            rowsInserted += rows;
+        }
+
+        void finish(long startNanos) {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+
+        void reject(long lineNumber, String line) {
+            rejectedLines++;
+            if (rejectedSamples.size() < MAX_REJECTED_SAMPLES) {
+                rejectedSamples.add("line " + lineNumber + ": " + line);
+            }
+        }
+
+        public long getRowsInserted() { return rowsInserted; }
+        public long getRejectedLines() { return rejectedLines; }
+        public List<String> getRejectedSamples() { return rejectedSamples; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rowsInserted / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows inserted, %d rejected in %.1f ms (%.0f rows/sec)",
+                rowsInserted, rejectedLines, elapsedNanos / 1_000_000.0, getRowsPerSecond());
+        }
+    }
+}
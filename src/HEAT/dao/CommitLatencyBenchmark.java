@@ -0,0 +1,79 @@
+package heat.dao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import heat.model.StrengthWorkout;
+
+// Measures the commit latency of the statements behind WorkoutService.logWorkout
+// under the legacy and tuned storage profiles, each on a fresh temp database.
+//
+// Usage: java -cp bin;lib/sqlite-jdbc.jar heat.dao.CommitLatencyBenchmark [iterations]
+public class CommitLatencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+
+        System.out.println("Logging " + iterations + " workouts per profile...\n");
+        long[] legacy = run("legacy", StorageProfile.legacy(), iterations);
+        long[] tuned = run("tuned", StorageProfile.tuned(), iterations);
+
+        double speedup = percentile(legacy, 50) / (double) Math.max(1, percentile(tuned, 50));
+        System.out.printf("%nMedian commit latency improved %.1fx%n", speedup);
+    }
+
+    private static long[] run(String label, StorageProfile profile, int iterations) throws IOException, SQLException {
+        Path dbFile = Files.createTempFile("heat-bench-", ".db");
+        DatabaseConnection.useProvider(new ConnectionPool("jdbc:sqlite:" + dbFile, profile));
+
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        WorkoutDAO workoutDAO = new WorkoutDAO();
+        GoalDAO goalDAO = new GoalDAO();
+
+        long[] samples = new long[iterations];
+        LocalDate start = LocalDate.now().minusDays(iterations);
+
+        // The DAOs report every write on stdout; keep the timing loop quiet
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < iterations; i++) {
+                StrengthWorkout sw = new StrengthWorkout("Bench Press", "Strength", start.plusDays(i), 150, 30,
+                    3, 8, 80, 60 + (i % 20), 0);
+
+                long t0 = System.nanoTime();
+                db.beginTransaction();
+                workoutDAO.saveStrengthWorkout(sw);
+                workoutDAO.updatePersonalRecord("Bench Press", sw.getExternalWeightKg(), sw.getRepCount(),
+                    sw.getDurationMinutes(), sw.getDate());
+                goalDAO.getWorkoutFrequency("Bench Press", start);
+                goalDAO.getMaxWeightLifted("Bench Press", start);
+                goalDAO.getMostRepsDone("Bench Press", start);
+                db.commitTransaction();
+                samples[i] = System.nanoTime() - t0;
+            }
+        } finally {
+            System.setOut(console);
+            DatabaseConnection.useProvider(null);
+            Files.deleteIfExists(dbFile);
+            Files.deleteIfExists(Path.of(dbFile + "-wal"));
+            Files.deleteIfExists(Path.of(dbFile + "-shm"));
+        }
+
+        Arrays.sort(samples);
+        System.out.printf("%-7s %-60s p50 %7.3f ms | p95 %7.3f ms | p99 %7.3f ms%n", label, profile,
+            percentile(samples, 50) / 1e6, percentile(samples, 95) / 1e6, percentile(samples, 99) / 1e6);
+        return samples;
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,217 @@
+package heat.dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionPool implements ConnectionProvider {
+
+    public static final int DEFAULT_WRITERS = 2;
+    public static final int DEFAULT_READERS = 4;
+
+    private static final long ACQUIRE_TIMEOUT_MS = 30_000;
+
+    private final String url;
+    private final StorageProfile profile;
+    private final Pool writers;
+    private final Pool readers;
+    private final ConcurrentHashMap<Connection, Pool> owners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String url) {
+        this(url, StorageProfile.fromSystemProperties());
+    }
+
+    public ConnectionPool(String url, StorageProfile profile) {
+        this(url, profile, DEFAULT_WRITERS, DEFAULT_READERS);
+    }
+
+    public ConnectionPool(String url, StorageProfile profile, int maxWriters, int maxReaders) {
+        if (maxWriters < 1 || maxReaders < 1) {
+            throw new IllegalArgumentException("Pool sizes must be at least 1");
+        }
+        this.url = url;
+        this.profile = profile;
+        this.writers = new Pool("writers", maxWriters, false);
+        this.readers = new Pool("readers", maxReaders, true);
+    }
+
+    @Override
+    public Connection acquireWriter() throws SQLException {
+        return writers.acquire();
+    }
+
+    @Override
+    public Connection acquireReader() throws SQLException {
+        return readers.acquire();
+    }
+
+    @Override
+    public void release(Connection connection) {
+        if (connection == null) return;
+
+        Pool owner = owners.get(connection);
+        if (owner == null) return;
+
+        owner.release(connection);
+    }
+
+    @Override
+    public StatementCache getStatementCache(Connection connection) {
+        StatementCache cache = statementCaches.get(connection);
+        if (cache == null) throw new IllegalArgumentException("Connection does not belong to this pool");
+        return cache;
+    }
+
+    @Override
+    public List<PoolMetrics> getMetrics() {
+        List<PoolMetrics> metrics = new ArrayList<>();
+        metrics.add(writers.snapshot());
+        metrics.add(readers.snapshot());
+        return metrics;
+    }
+
+    @Override
+    public StorageProfile getStorageProfile() {
+        return profile;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        writers.idle.clear();
+        readers.idle.clear();
+        owners.forEach((connection, pool) -> pool.closeQuietly(connection));
+    }
+
+    // Called for every physical connection right after it is opened
+    protected void configure(Connection connection, boolean readOnly) throws SQLException {
+        profile.apply(connection, readOnly);
+        if (readOnly) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }
+    }
+
+    // ============================================================
+    // Bounded pool of one connection role
+    // ============================================================
+
+    private class Pool {
+        private final String name;
+        private final int maxSize;
+        private final boolean readOnly;
+        private final BlockingQueue<Connection> idle;
+
+        private final AtomicInteger opened = new AtomicInteger();
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final LongAdder checkouts = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        Pool(String name, int maxSize, boolean readOnly) {
+            this.name = name;
+            this.maxSize = maxSize;
+            this.readOnly = readOnly;
+            this.idle = new ArrayBlockingQueue<>(maxSize);
+        }
+
+        Connection acquire() throws SQLException {
+            if (closed) throw new SQLException("Connection pool is closed");
+
+            long start = System.nanoTime();
+            Connection connection = idle.poll();
+
+            if (connection == null) {
+                if (opened.incrementAndGet() <= maxSize) {
+                    try {
+                        connection = open();
+                    } catch (SQLException e) {
+                        opened.decrementAndGet();
+                        throw e;
+                    }
+                } else {
+                    opened.decrementAndGet();
+                    try {
+                        connection = idle.poll(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a " + name + " connection", e);
+                    }
+                    if (connection == null) {
+                        timeouts.increment();
+                        throw new SQLException("Timed out waiting for a " + name + " connection");
+                    }
+                }
+            }
+
+            if (connection.isClosed()) {
+                owners.remove(connection);
+                statementCaches.remove(connection);
+                connection = open();
+            }
+
+            long waited = System.nanoTime() - start;
+            checkouts.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            inUse.incrementAndGet();
+
+            return connection;
+        }
+
+        void release(Connection connection) {
+            inUse.decrementAndGet();
+            if (closed || !idle.offer(connection)) {
+                closeQuietly(connection);
+            }
+        }
+
+        PoolMetrics snapshot() {
+            long statementHits = 0;
+            long statementMisses = 0;
+            for (Map.Entry<Connection, Pool> entry : owners.entrySet()) {
+                if (entry.getValue() != this) continue;
+                StatementCache cache = statementCaches.get(entry.getKey());
+                if (cache == null) continue;
+                statementHits += cache.getHits();
+                statementMisses += cache.getMisses();
+            }
+
+            return new PoolMetrics(name, maxSize, opened.get(), inUse.get(), checkouts.sum(),
+                timeouts.sum(), totalWaitNanos.sum(), maxWaitNanos.get(), statementHits, statementMisses);
+        }
+
+        private Connection open() throws SQLException {
+            Connection connection = DriverManager.getConnection(url);
+            configure(connection, readOnly);
+            statementCaches.put(connection, new StatementCache(connection));
+            owners.put(connection, this);
+            return connection;
+        }
+
+        private void closeQuietly(Connection connection) {
+            if (owners.remove(connection) != null) opened.decrementAndGet();
+
+            StatementCache cache = statementCaches.remove(connection);
+            if (cache != null) cache.clear();
+
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.out.println("[ ! ] Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+}
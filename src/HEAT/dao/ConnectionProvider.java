@@ -0,0 +1,24 @@
+package heat.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// Source of JDBC connections for DatabaseConnection. Writers are used for
+// transactions and updates, readers are restricted to queries.
+public interface ConnectionProvider {
+
+    Connection acquireWriter() throws SQLException;
+
+    Connection acquireReader() throws SQLException;
+
+    void release(Connection connection);
+
+    StatementCache getStatementCache(Connection connection);
+
+    List<PoolMetrics> getMetrics();
+
+    StorageProfile getStorageProfile();
+
+    void close();
+}
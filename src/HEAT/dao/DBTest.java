@@ -1,5 +1,7 @@
 package heat.dao;
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
 
 public class DBTest {
 
@@ -8,13 +10,36 @@ public class DBTest {
         
         DatabaseConnection dbConnection = DatabaseConnection.getInstance();
 
-        // Test connection
-        try (Connection conn = dbConnection.getConnection()) {
+        // Test connection (pooled connections are released, not closed)
+        try {
+            Connection conn = dbConnection.getReadConnection();
             if (conn != null && !conn.isClosed()) {
                 System.out.println("Connected to shared SQLite DB");
             }
+            System.out.println("Schema version: " + new SchemaMigrator(conn).getCurrentVersion()
+                + " (latest " + SchemaMigrator.getLatestVersion() + ")");
+
+            // Goal and PR lookups should report index searches, not table scans
+            String[] hotQueries = {
+                "SELECT MAX(weight_kg) FROM workouts WHERE exercise_name = 'Bench Press' AND date >= '2025-01-01'",
+                "SELECT * FROM workouts WHERE exercise_name = 'Pull-ups' AND type = 'Strength' AND weight_kg = 0 ORDER BY reps DESC, date DESC LIMIT 1",
+                "SELECT * FROM workouts ORDER BY date DESC, id DESC"
+            };
+            for (String sql : hotQueries) {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+                    while (rs.next()) System.out.println("  " + rs.getString("detail"));
+                }
+            }
+            dbConnection.releaseConnection();
+
+            for (PoolMetrics metrics : dbConnection.getPoolMetrics()) {
+                System.out.println(metrics);
+            }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            dbConnection.closeConnection();
         }
     }
 }
\ No newline at end of file
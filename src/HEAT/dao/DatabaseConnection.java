@@ -1,18 +1,45 @@
 package heat.dao;
 
 import java.sql.*;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DatabaseConnection {
 
+    public static final String DEFAULT_URL = "jdbc:sqlite:data/HEATDatabase.db";
+
+    public enum CheckpointMode { PASSIVE, FULL, RESTART, TRUNCATE }
+
     private static DatabaseConnection instance;
-    private Connection connection;
+    private static ConnectionProvider configuredProvider;
+
+    private final ConnectionProvider provider;
+
+    // Only one transaction may be open at a time; SQLite allows a single writer anyway
+    private final Semaphore transactionLock = new Semaphore(1, true);
 
-    private DatabaseConnection() {
-        final String URL = "jdbc:sqlite:data/HEATDatabase.db";
+    // Connections are confined to the thread that checked them out
+    private final ThreadLocal<Connection> writer = new ThreadLocal<>();
+    private final ThreadLocal<Connection> reader = new ThreadLocal<>();
+    private final ThreadLocal<Integer> transactionDepth = ThreadLocal.withInitial(() -> 0);
+
+    // WAL checkpoint bookkeeping
+    private ScheduledExecutorService checkpointer;
+    private volatile long lastCommitMillis = System.currentTimeMillis();
+    private final AtomicLong commitsSinceCheckpoint = new AtomicLong();
+    private volatile boolean closed = false;
+
+    private DatabaseConnection(ConnectionProvider provider) {
+        this.provider = provider;
         try {
-            connection = DriverManager.getConnection(URL);
             initializeTables();
-            System.out.println("[OK] Database initialized successfully");
+            new SchemaMigrator(getConnection()).migrate();
+            startIdleCheckpoints();
+            System.out.println("[OK] Database initialized successfully (" + provider.getStorageProfile() + ")");
         } catch (SQLException e) {
             System.err.println("Error connecting to database: " + e.getMessage());
             e.printStackTrace();
@@ -22,40 +49,229 @@ public class DatabaseConnection {
 
     public static synchronized DatabaseConnection getInstance() {
         if (instance == null) {
-            instance = new DatabaseConnection();
+            ConnectionProvider provider = (configuredProvider != null) ? configuredProvider : new ConnectionPool(DEFAULT_URL);
+            instance = new DatabaseConnection(provider);
         }
         return instance;
     }
 
+    // Swaps the connection provider (e.g. a pool over a different database file).
+    // Must be called before any DAO is used, or after closeConnection().
+    public static synchronized void useProvider(ConnectionProvider provider) {
+        if (instance != null) {
+            instance.closeConnection();
+            instance = null;
+        }
+        configuredProvider = provider;
+    }
+
+    // Connection for updates; inside a transaction this is the transaction's connection
     public Connection getConnection() {
-        return this.connection;
+        try {
+            Connection connection = writer.get();
+            if (connection == null) {
+                connection = provider.acquireWriter();
+                writer.set(connection);
+            }
+            return connection;
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not obtain a database connection: " + e.getMessage(), e);
+        }
     }
 
-    public void closeConnection() {
+    // Connection for queries; reads inside a transaction see its uncommitted changes
+    public Connection getReadConnection() {
+        if (isInTransaction()) return writer.get();
+
         try {
-            if (this.connection != null) this.connection.close();
+            Connection connection = reader.get();
+            if (connection == null) {
+                connection = provider.acquireReader();
+                reader.set(connection);
+            }
+            return connection;
         } catch (SQLException e) {
-            System.out.println("[ ! ] Error closing connection: " + e.getMessage());
+            throw new RuntimeException("Could not obtain a database connection: " + e.getMessage(), e);
+        }
+    }
+
+    // Cached statements on this thread's connections; do not close them, close their ResultSets
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return provider.getStatementCache(getConnection()).prepare(sql, false);
+    }
+
+    public PreparedStatement prepareStatementWithKeys(String sql) throws SQLException {
+        return provider.getStatementCache(getConnection()).prepare(sql, true);
+    }
+
+    public PreparedStatement prepareReadStatement(String sql) throws SQLException {
+        return provider.getStatementCache(getReadConnection()).prepare(sql, false);
+    }
+
+    // Returns this thread's connections to the pool. Background tasks call this when done.
+    public void releaseConnection() {
+        if (isInTransaction()) {
+            throw new IllegalStateException("Cannot release connections while a transaction is open");
+        }
+
+        Connection w = writer.get();
+        Connection r = reader.get();
+        writer.remove();
+        reader.remove();
+
+        provider.release(w);
+        provider.release(r);
+    }
+
+    // Truncates the WAL so the database file is self-contained, then closes every pooled connection
+    public synchronized void closeConnection() {
+        if (closed) return;
+        closed = true;
+
+        if (checkpointer != null) checkpointer.shutdownNow();
+
+        if (provider.getStorageProfile().isWal() && !isInTransaction()) {
+            try {
+                checkpoint(CheckpointMode.TRUNCATE);
+            } catch (RuntimeException | SQLException e) {
+                System.out.println("[ ! ] WAL checkpoint on shutdown failed: " + e.getMessage());
+            }
         }
+
+        writer.remove();
+        reader.remove();
+        provider.close();
+    }
+
+    public void checkpoint(CheckpointMode mode) throws SQLException {
+        try (Statement stmt = getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + mode.name() + ")")) {
+            if (rs.next() && rs.getInt(1) != 0) {
+                System.out.println("[ ! ] WAL checkpoint (" + mode.name() + ") could not complete, database busy");
+                return;
+            }
+        }
+        commitsSinceCheckpoint.set(0);
+    }
+
+    // Runs a passive checkpoint once writes have gone quiet for the profile's idle interval
+    private void startIdleCheckpoints() {
+        StorageProfile profile = provider.getStorageProfile();
+        long idleMillis = profile.getIdleCheckpointMillis();
+        if (!profile.isWal() || idleMillis <= 0) return;
+
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heat-wal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        checkpointer.scheduleWithFixedDelay(() -> {
+            boolean idle = System.currentTimeMillis() - lastCommitMillis >= idleMillis;
+            if (!idle || commitsSinceCheckpoint.get() == 0 || transactionLock.availablePermits() == 0) return;
+
+            try {
+                checkpoint(CheckpointMode.PASSIVE);
+            } catch (RuntimeException | SQLException e) {
+                System.out.println("[ ! ] Idle WAL checkpoint failed: " + e.getMessage());
+            } finally {
+                releaseConnection();
+            }
+        }, idleMillis, idleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isInTransaction() {
+        return transactionDepth.get() > 0;
+    }
+
+    public List<PoolMetrics> getPoolMetrics() {
+        return provider.getMetrics();
     }
 
     // Transaction Helpers
     public void beginTransaction() throws SQLException {
-        if (connection == null || connection.isClosed()) connection = getConnection();
-        connection.setAutoCommit(false);
+        int depth = transactionDepth.get();
+        if (depth > 0) {
+            transactionDepth.set(depth + 1);
+            return;
+        }
+
+        try {
+            transactionLock.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting to begin a transaction", e);
+        }
+
+        try {
+            Connection connection = getConnection();
+            if (connection.isClosed()) {
+                writer.remove();
+                connection = getConnection();
+            }
+            connection.setAutoCommit(false);
+            transactionDepth.set(1);
+        } catch (RuntimeException | SQLException e) {
+            transactionLock.release();
+            throw e;
+        }
     }
     
     public void commitTransaction() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.commit();
-            connection.setAutoCommit(true);
+        int depth = transactionDepth.get();
+        if (depth == 0) return;
+        if (depth > 1) {
+            transactionDepth.set(depth - 1);
+            return;
+        }
+
+        Connection connection = writer.get();
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.commit();
+            }
+            lastCommitMillis = System.currentTimeMillis();
+            commitsSinceCheckpoint.incrementAndGet();
+        } catch (SQLException | RuntimeException e) {
+            // A failed commit (e.g. SQLITE_BUSY) leaves the transaction open and holding
+            // SQLite's write lock. The caller's rollbackTransaction() finds depth 0 once
+            // this returns, so the rollback happens here.
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            throw e;
+        } finally {
+            endTransaction(connection);
         }
     }
     
     public void rollbackTransaction() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.rollback();
-            connection.setAutoCommit(true);
+        if (transactionDepth.get() == 0) return;
+
+        Connection connection = writer.get();
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.rollback();
+            }
+        } finally {
+            endTransaction(connection);
+        }
+    }
+
+    // Back to autocommit, whether the transaction ended cleanly or not, so later
+    // single statements on this thread are not left in an open transaction
+    private void endTransaction(Connection connection) throws SQLException {
+        try {
+            if (connection != null && !connection.isClosed() && !connection.getAutoCommit()) {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            transactionDepth.set(0);
+            transactionLock.release();
         }
     }
 
@@ -148,7 +364,7 @@ public class DatabaseConnection {
             )    
             """;
 
-        try (Statement stmt = connection.createStatement()) {
+        try (Statement stmt = getConnection().createStatement()) {
             stmt.executeUpdate(createWorkoutTable);
             stmt.executeUpdate(createPRTable);
             stmt.executeUpdate(createBodyMetricsTable);
@@ -0,0 +1,183 @@
+package heat.dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Maintains exercise_daily_stats, a per-user, per-exercise, per-day rollup of
+// workouts (count, total minutes, max reps, max weight, total volume). Goal
+// progress reads it instead of aggregating the raw workouts table. Refreshes and
+// range queries are for userId; rebuild and checkConsistency cover every user.
+public class ExerciseStatsDAO {
+
+    // Rollup rows computed straight from workouts; callers append WHERE and GROUP BY
+    private static final String AGGREGATE_SQL = """
+        SELECT user_id, exercise_name, date, COUNT(*) AS workout_count,
+               COALESCE(SUM(duration_minutes), 0) AS total_minutes,
+               MAX(reps) AS max_reps, MAX(weight_kg) AS max_weight_kg,
+               COALESCE(SUM(volume_kg), 0) AS total_volume_kg
+        FROM workouts
+        """;
+
+    private static final String INSERT_SQL = """
+        INSERT OR REPLACE INTO exercise_daily_stats
+            (user_id, exercise_name, date, workout_count, total_minutes, max_reps, max_weight_kg, total_volume_kg)
+        """;
+
+    private static final String GROUP_BY = "GROUP BY user_id, exercise_name, date";
+
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+
+    private final int userId;
+
+    public ExerciseStatsDAO() {
+        this(UserDAO.DEFAULT_USER_ID);
+    }
+
+    public ExerciseStatsDAO(int userId) {
+        this.userId = userId;
+    }
+
+    private Connection getConnection() {
+        return DatabaseConnection.getInstance().getConnection();
+    }
+
+    // Statements come from the per-connection cache and stay open for reuse
+    private PreparedStatement prepare(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareStatement(sql);
+    }
+
+    private PreparedStatement prepareRead(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareReadStatement(sql);
+    }
+
+    // ============================================================
+    // Maintenance
+    // ============================================================
+
+    // Recomputes one exercise-day from its workouts; call after any write touching that day
+    public void refreshDay(String exerciseName, LocalDate date) throws SQLException {
+        String upsertSql = INSERT_SQL + AGGREGATE_SQL + "WHERE user_id = ? AND exercise_name = ? AND date = ? " + GROUP_BY;
+
+        PreparedStatement upsert = prepare(upsertSql);
+        upsert.setInt(1, userId);
+        upsert.setString(2, exerciseName);
+        upsert.setString(3, date.toString());
+
+        if (upsert.executeUpdate() == 0) {
+            PreparedStatement delete = prepare("DELETE FROM exercise_daily_stats WHERE user_id = ? AND exercise_name = ? AND date = ?");
+            delete.setInt(1, userId);
+            delete.setString(2, exerciseName);
+            delete.setString(3, date.toString());
+            delete.executeUpdate();
+        }
+    }
+
+    // Refreshes every exercise-day that has a workout with id > afterId (used after bulk imports)
+    public void refreshDaysForWorkoutsAfter(int afterId) throws SQLException {
+        String sql = INSERT_SQL + AGGREGATE_SQL + """
+            WHERE (user_id, exercise_name, date) IN (SELECT DISTINCT user_id, exercise_name, date FROM workouts WHERE id > ?)
+            """ + GROUP_BY;
+
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setInt(1, afterId);
+        pstmt.executeUpdate();
+    }
+
+    // Drops and recomputes the whole rollup in one transaction; returns the number of rows written
+    public int rebuild() throws SQLException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        db.beginTransaction();
+        try (Statement stmt = getConnection().createStatement()) {
+            stmt.executeUpdate("DELETE FROM exercise_daily_stats");
+            int rows = stmt.executeUpdate(INSERT_SQL + AGGREGATE_SQL + GROUP_BY);
+            db.commitTransaction();
+            return rows;
+        } catch (SQLException e) {
+            db.rollbackTransaction();
+            throw e;
+        }
+    }
+
+    // Compares the rollup with a fresh aggregate of workouts; empty means consistent
+    public List<String> checkConsistency() throws SQLException {
+        String sql = """
+            SELECT COALESCE(e.user_id, s.user_id) AS user_id,
+                   COALESCE(e.exercise_name, s.exercise_name) AS exercise_name, COALESCE(e.date, s.date) AS date,
+                   e.workout_count AS expected_count, s.workout_count AS actual_count,
+                   e.total_minutes AS expected_minutes, s.total_minutes AS actual_minutes
+            FROM (""" + AGGREGATE_SQL + GROUP_BY + """
+            ) e
+            FULL OUTER JOIN exercise_daily_stats s
+                ON s.user_id = e.user_id AND s.exercise_name = e.exercise_name AND s.date = e.date
+            WHERE e.exercise_name IS NULL OR s.exercise_name IS NULL
+               OR e.workout_count != s.workout_count
+               OR e.total_minutes != s.total_minutes
+               OR e.max_reps IS NOT s.max_reps
+               OR e.max_weight_kg IS NOT s.max_weight_kg
+               OR ABS(e.total_volume_kg - s.total_volume_kg) > 0.000001
+            ORDER BY 1, 2, 3
+            """;
+
+        List<String> mismatches = new ArrayList<>();
+        try (Statement stmt = DatabaseConnection.getInstance().getReadConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next() && mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                String where = "user " + rs.getInt("user_id") + ", " + rs.getString("exercise_name") + " on " + rs.getString("date");
+                if (rs.getObject("expected_count") == null) {
+                    mismatches.add(where + ": rollup row has no workouts");
+                } else if (rs.getObject("actual_count") == null) {
+                    mismatches.add(where + ": missing from rollup");
+                } else {
+                    mismatches.add(String.format("%s: count %d vs %d, minutes %d vs %d (or max/volume differ)", where,
+                        rs.getInt("expected_count"), rs.getInt("actual_count"),
+                        rs.getInt("expected_minutes"), rs.getInt("actual_minutes")));
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    // ============================================================
+    // Range Queries (For Goal Verification)
+    // ============================================================
+
+    public int getWorkoutCount(String exerciseName, LocalDate startDate) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(workout_count), 0) FROM exercise_daily_stats WHERE user_id = ? AND exercise_name = ? AND date >= ?";
+        return queryInt(sql, exerciseName, startDate);
+    }
+
+    public int getTotalMinutes(String exerciseName, LocalDate startDate) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(total_minutes), 0) FROM exercise_daily_stats WHERE user_id = ? AND exercise_name = ? AND date >= ?";
+        return queryInt(sql, exerciseName, startDate);
+    }
+
+    public int getMaxReps(String exerciseName, LocalDate startDate) throws SQLException {
+        String sql = "SELECT MAX(max_reps) FROM exercise_daily_stats WHERE user_id = ? AND exercise_name = ? AND date >= ?";
+        return queryInt(sql, exerciseName, startDate);
+    }
+
+    public double getMaxWeight(String exerciseName, LocalDate startDate) throws SQLException {
+        String sql = "SELECT MAX(max_weight_kg) FROM exercise_daily_stats WHERE user_id = ? AND exercise_name = ? AND date >= ?";
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, exerciseName);
+        pstmt.setString(3, startDate.toString());
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) return rs.getDouble(1);
+        }
+        return 0.0;
+    }
+
+    private int queryInt(String sql, String exerciseName, LocalDate startDate) throws SQLException {
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, exerciseName);
+        pstmt.setString(3, startDate.toString());
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) return rs.getInt(1);
+        }
+        return 0;
+    }
+}
@@ -6,117 +6,186 @@ import java.util.List;
 import java.time.LocalDate;
 import heat.model.Goal;
 import heat.model.GoalStatus;
+import heat.util.Metrics;
 
+// Goals of one user; every statement is scoped to userId
+@SuppressWarnings("try") // Metrics timers are try-with-resources blocks that never read the timer
 public class GoalDAO {
 
+    private final int userId;
+    private final ExerciseStatsDAO exerciseStats;
+
+    public GoalDAO() {
+        this(UserDAO.DEFAULT_USER_ID);
+    }
+
+    public GoalDAO(int userId) {
+        this.userId = userId;
+        this.exerciseStats = new ExerciseStatsDAO(userId);
+    }
+
     private Connection getConnection() {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private Connection getReadConnection() {
+        return DatabaseConnection.getInstance().getReadConnection();
+    }
+
+    // Statements come from the per-connection cache and stay open for reuse
+    private PreparedStatement prepare(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareStatement(sql);
+    }
+
+    private PreparedStatement prepareWithKeys(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareStatementWithKeys(sql);
+    }
+
+    private PreparedStatement prepareRead(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareReadStatement(sql);
+    }
+
     // ============================================================
     // Goal Management (CRUD)
     // ============================================================
 
     public void addGoal(Goal g) throws SQLException {
+        // A name outside the catalog becomes an "Other" activity, as for workouts. Its
+        // type follows the goal type; a frequency goal leaves it to the first workout.
+        if (g.getExerciseName() != null) {
+            PreparedStatement activity = prepare("""
+                INSERT OR IGNORE INTO activities (activity_name, workout_type, category, met_value, bodyweight_factor)
+                VALUES (?, ?, 'Other', 0, 0)
+                """);
+            activity.setString(1, g.getExerciseName());
+            activity.setString(2, workoutTypeFor(g.getGoalType()));
+            activity.executeUpdate();
+        }
+
         String sql = """
-            INSERT INTO goals (goal_title, exercise_name, start_date, end_date, goal_type, current_value, target_value, status)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?)    
+            INSERT INTO goals (goal_title, exercise_name, start_date, end_date, goal_type, current_value, target_value, status, activity_id, user_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, (SELECT id FROM activities WHERE activity_name = ?), ?)    
             """;
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, g.getGoalTitle());
-            pstmt.setString(2, g.getExerciseName());
-            pstmt.setString(3, g.getStartDate().toString());
+        PreparedStatement pstmt = prepareWithKeys(sql);
+        pstmt.setString(1, g.getGoalTitle());
+        pstmt.setString(2, g.getExerciseName());
+        pstmt.setString(3, g.getStartDate().toString());
+
+        if (g.getEndDate() != null) pstmt.setString(4, g.getEndDate().toString());
+        else pstmt.setNull(4, java.sql.Types.DATE);
 
-            if (g.getEndDate() != null) pstmt.setString(4, g.getEndDate().toString());
-            else pstmt.setNull(4, java.sql.Types.DATE);
+        pstmt.setString(5, g.getGoalType());
+        pstmt.setDouble(6, g.getCurrentValue());
+        pstmt.setDouble(7, g.getTargetValue());
+        pstmt.setString(8, g.getStatus().toString());
+        pstmt.setString(9, g.getExerciseName());
+        pstmt.setInt(10, userId);
 
-            pstmt.setString(5, g.getGoalType());
-            pstmt.setDouble(6, g.getCurrentValue());
-            pstmt.setDouble(7, g.getTargetValue());
-            pstmt.setString(8, g.getStatus().toString());
+        pstmt.executeUpdate();
 
-            pstmt.executeUpdate();
+        try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            if (rs.next()) g.setId(rs.getInt(1));
+        }
 
-            try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                if (rs.next()) g.setId(rs.getInt(1));
-            }
+        PreparedStatement activity = prepare("SELECT activity_id FROM goals WHERE id = ?");
+        activity.setInt(1, g.getId());
+        try (ResultSet rs = activity.executeQuery()) {
+            if (rs.next()) g.setActivityId(rs.getInt(1));
         }
     }
 
+    // Same mapping as the goal menu: weight lifted and reps goals pick a strength exercise,
+    // duration goals a cardio one. "" (untyped) for anything else.
+    private static String workoutTypeFor(String goalType) {
+        if (goalType == null) return "";
+        return switch (goalType) {
+            case "reps", "weight lifted" -> "Strength";
+            case "duration" -> "Cardio";
+            default -> "";
+        };
+    }
+
     public void updateGoal(Goal g) throws SQLException {
-        String sql = "UPDATE goals SET goal_title=?, end_date=?, target_value=?, status=? WHERE id=?";
+        String sql = "UPDATE goals SET goal_title=?, end_date=?, target_value=?, status=? WHERE id=? AND user_id=?";
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, g.getGoalTitle());
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setString(1, g.getGoalTitle());
 
-            if (g.getEndDate() != null) pstmt.setString(2, g.getEndDate().toString());
-            else pstmt.setNull(2, java.sql.Types.DATE);
+        if (g.getEndDate() != null) pstmt.setString(2, g.getEndDate().toString());
+        else pstmt.setNull(2, java.sql.Types.DATE);
 
-            pstmt.setDouble(3, g.getTargetValue());
-            pstmt.setString(4, g.getStatus().name());
-            pstmt.setInt(5, g.getId());
+        pstmt.setDouble(3, g.getTargetValue());
+        pstmt.setString(4, g.getStatus().name());
+        pstmt.setInt(5, g.getId());
+        pstmt.setInt(6, userId);
 
-            if (pstmt.executeUpdate() > 0) System.out.println("\t\t\t\t\tGoal updated in database.");
-        }
+        if (pstmt.executeUpdate() > 0) System.out.println("\t\t\t\t\tGoal updated in database.");
     }
 
     public void deleteGoal(int id) throws SQLException {
-        String sql = "DELETE FROM goals WHERE id = ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
-        }
+        String sql = "DELETE FROM goals WHERE id = ? AND user_id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setInt(1, id);
+        pstmt.setInt(2, userId);
+        pstmt.executeUpdate();
     }
 
     public void updateGoalStatus(int goalId, String newStatus) throws SQLException {
-        String sql = "UPDATE goals SET status = ? WHERE id = ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, newStatus);
-            pstmt.setInt(2, goalId);
-            pstmt.executeUpdate();
-        }
+        String sql = "UPDATE goals SET status = ? WHERE id = ? AND user_id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setString(1, newStatus);
+        pstmt.setInt(2, goalId);
+        pstmt.setInt(3, userId);
+        pstmt.executeUpdate();
     }
 
+    // One cached statement, executed per id in a single executeBatch; call inside a
+    // transaction so the ids share one commit
     public void updateGoalStatusBatch(List<Integer> goalIds, GoalStatus newStatus) throws SQLException {
         if (goalIds.isEmpty()) return;
 
-        StringBuilder sql = new StringBuilder("UPDATE goals SET status = ? WHERE id IN (");
-        for (int i = 0; i < goalIds.size(); i++) {
-            sql.append(i == 0 ? "?" : ", ?");
-        }
-        sql.append(")");
-
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql.toString())) {
+        String sql = "UPDATE goals SET status = ? WHERE id = ? AND user_id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        for (int goalId : goalIds) {
             pstmt.setString(1, newStatus.name());
-            for (int i = 0; i < goalIds.size(); i++) {
-                pstmt.setInt(i + 2, goalIds.get(i));
-            }
-            pstmt.executeUpdate();
+            pstmt.setInt(2, goalId);
+            pstmt.setInt(3, userId);
+            pstmt.addBatch();
         }
+        pstmt.executeBatch();
     }
 
     public void updateGoalCurrentValue(int goalId, double newValue) throws SQLException {
-        String sql = "UPDATE goals SET current_value = ? WHERE id = ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setDouble(1, newValue);
-            pstmt.setInt(2, goalId);
-            pstmt.executeUpdate();
-        }
+        String sql = "UPDATE goals SET current_value = ? WHERE id = ? AND user_id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setDouble(1, newValue);
+        pstmt.setInt(2, goalId);
+        pstmt.setInt(3, userId);
+        pstmt.executeUpdate();
     }
 
     public List<Goal> loadGoals() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("GoalDAO.loadGoals")) {
+            return loadGoalsUntimed();
+        }
+    }
+
+    private List<Goal> loadGoalsUntimed() throws SQLException {
         List<Goal> goals = new ArrayList<>();
-        String sql = "SELECT * FROM goals ORDER BY id DESC";
+        String sql = "SELECT * FROM goals WHERE user_id = ? ORDER BY id DESC";
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
            while (rs.next()) {
                 LocalDate endDate = (rs.getString("end_date") != null) ? LocalDate.parse(rs.getString("end_date")) : null;
-                goals.add(new Goal(rs.getInt("id"), rs.getString("goal_title"), rs.getString("exercise_name"),
+                Goal g = new Goal(rs.getInt("id"), rs.getString("goal_title"), rs.getString("exercise_name"),
                     LocalDate.parse(rs.getString("start_date")), endDate, rs.getString("goal_type"),
                     rs.getDouble("current_value"), rs.getDouble("target_value"),
-                    GoalStatus.valueOf(rs.getString("status"))));
+                    GoalStatus.valueOf(rs.getString("status")));
+                g.setActivityId(rs.getInt("activity_id"));
+                goals.add(g);
            }
         }
         return goals;
@@ -126,51 +195,20 @@ public class GoalDAO {
     // Data Queries (For Goal Verification)
     // ============================================================
 
+    // Served from the exercise_daily_stats rollup instead of scanning workouts
     public double getMaxWeightLifted(String exerciseName, LocalDate startDate) throws SQLException {
-        String sql = "SELECT MAX(weight_kg) FROM workouts WHERE exercise_name = ? AND date >= ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, exerciseName);
-            pstmt.setString(2, startDate.toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) return rs.getDouble(1);
-            }
-        }
-        return 0.0;
+        return exerciseStats.getMaxWeight(exerciseName, startDate);
     }
 
     public int getMostRepsDone(String exerciseName, LocalDate startDate) throws SQLException {
-        String sql = "SELECT MAX(reps) FROM workouts WHERE exercise_name = ? AND date >= ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, exerciseName);
-            pstmt.setString(2, startDate.toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) return rs.getInt(1);
-            }
-        }
-        return 0;
+        return exerciseStats.getMaxReps(exerciseName, startDate);
     }
 
     public int getTotalMinutes(String exerciseName, LocalDate startDate) throws SQLException {
-        String sql = "SELECT COALESCE(SUM(duration_minutes), 0) FROM workouts WHERE exercise_name = ? AND date >= ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, exerciseName);
-            pstmt.setString(2, startDate.toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) return rs.getInt(1);
-            }
-        }
-        return 0;
+        return exerciseStats.getTotalMinutes(exerciseName, startDate);
     }
 
     public int getWorkoutFrequency(String exerciseName, LocalDate startDate) throws SQLException {
-        String sql = "SELECT COUNT(exercise_name) FROM workouts WHERE exercise_name = ? AND date >= ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, exerciseName);
-            pstmt.setString(2, startDate.toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) return rs.getInt(1);
-            }
-        }
-        return 0;
+        return exerciseStats.getWorkoutCount(exerciseName, startDate);
     }
 }
\ No newline at end of file
@@ -0,0 +1,516 @@
+package heat.dao;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import heat.model.GoalStatus;
+
+// Streams one user's history tables to and from CSV or JSON Lines files.
+// Export walks a forward-only cursor; import parses one record at a time and
+// inserts in JDBC batches, so memory stays flat whatever the file size. Files
+// carry no user column: imported rows belong to the user the transfer is for.
+public class HistoryTransfer {
+
+    public static final int FETCH_SIZE = 500;
+    public static final int BATCH_SIZE = 1_000;
+    private static final int IO_BUFFER_CHARS = 64 * 1024;
+
+    public enum Format {
+        CSV("csv"), JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) { this.extension = extension; }
+
+        public String getExtension() { return extension; }
+    }
+
+    private enum Kind { TEXT, INTEGER, REAL, DATE }
+
+    private static class Column {
+        final String name;
+        final Kind kind;
+        final boolean required;
+
+        Column(String name, Kind kind, boolean required) {
+            this.name = name;
+            this.kind = kind;
+            this.required = required;
+        }
+    }
+
+    private static Column col(String name, Kind kind, boolean required) {
+        return new Column(name, kind, required);
+    }
+
+    // Exported columns per table. The id column is written for reference only;
+    // imports always append and let SQLite assign fresh ids.
+    public enum Table {
+        WORKOUTS("workouts", "INSERT", List.of(
+            col("exercise_name", Kind.TEXT, true), col("type", Kind.TEXT, true),
+            col("date", Kind.DATE, true), col("duration_minutes", Kind.INTEGER, false),
+            col("calories_burned", Kind.REAL, false), col("distance_km", Kind.REAL, false),
+            col("sets", Kind.INTEGER, false), col("reps", Kind.INTEGER, false),
+            col("weight_kg", Kind.REAL, false), col("volume_kg", Kind.REAL, false),
+            col("bodyweight_factor", Kind.REAL, false))),
+
+        // exercise_name is unique per user, so an imported record replaces the local one
+        PERSONAL_RECORDS("personal_records", "INSERT OR REPLACE", List.of(
+            col("exercise_name", Kind.TEXT, true), col("duration_minutes", Kind.INTEGER, false),
+            col("reps", Kind.INTEGER, false), col("weight_kg", Kind.REAL, false),
+            col("date", Kind.DATE, true))),
+
+        GOALS("goals", "INSERT", List.of(
+            col("goal_title", Kind.TEXT, true), col("exercise_name", Kind.TEXT, false),
+            col("start_date", Kind.DATE, true), col("end_date", Kind.DATE, false),
+            col("goal_type", Kind.TEXT, true), col("current_value", Kind.REAL, true),
+            col("target_value", Kind.REAL, true), col("status", Kind.TEXT, true))),
+
+        BODY_METRICS("body_metrics", "INSERT", List.of(
+            col("age", Kind.INTEGER, false), col("height_cm", Kind.REAL, true),
+            col("weight_kg", Kind.REAL, true), col("BMI", Kind.REAL, true),
+            col("date", Kind.DATE, true)));
+
+        private final String tableName;
+        private final String insertVerb;
+        private final List<Column> columns;
+
+        Table(String tableName, String insertVerb, List<Column> columns) {
+            this.tableName = tableName;
+            this.insertVerb = insertVerb;
+            this.columns = columns;
+        }
+
+        public String getTableName() { return tableName; }
+
+        public String fileName(Format format) {
+            return tableName + "." + format.getExtension();
+        }
+
+        private String selectSql() {
+            StringBuilder sql = new StringBuilder("SELECT id");
+            for (Column c : columns) sql.append(", ").append(c.name);
+            return sql.append(" FROM ").append(tableName).append(" WHERE user_id = ? ORDER BY id").toString();
+        }
+
+        private String insertSql() {
+            StringBuilder names = new StringBuilder();
+            StringBuilder marks = new StringBuilder();
+            for (Column c : columns) {
+                if (names.length() > 0) { names.append(", "); marks.append(", "); }
+                names.append(c.name);
+                marks.append('?');
+            }
+            return insertVerb + " INTO " + tableName + " (" + names + ", user_id) VALUES (" + marks + ", ?)";
+        }
+    }
+
+    private final int userId;
+
+    public HistoryTransfer(int userId) {
+        this.userId = userId;
+    }
+
+    // ============================================================
+    // Export
+    // ============================================================
+
+    public long exportTable(Table table, Format format, Path file) throws SQLException, IOException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        long rows = 0;
+
+        try (PreparedStatement pstmt = db.getReadConnection().prepareStatement(table.selectSql(),
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             Writer out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), IO_BUFFER_CHARS)) {
+
+            pstmt.setFetchSize(FETCH_SIZE);
+            pstmt.setInt(1, userId);
+
+            if (format == Format.CSV) {
+                out.write("id");
+                for (Column c : table.columns) out.write("," + c.name);
+                out.write('\n');
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (format == Format.CSV) writeCsvRow(out, table, rs);
+                    else writeJsonRow(out, table, rs);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer out, Table table, ResultSet rs) throws SQLException, IOException {
+        out.write(Long.toString(rs.getLong("id")));
+        for (Column c : table.columns) {
+            out.write(',');
+            String value = readValue(rs, c);
+            if (value == null) continue;
+
+            // Quote anything ambiguous; a quoted empty string keeps "" distinct from NULL
+            if (value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void writeJsonRow(Writer out, Table table, ResultSet rs) throws SQLException, IOException {
+        out.write("{\"id\":" + rs.getLong("id"));
+        for (Column c : table.columns) {
+            out.write(",\"" + c.name + "\":");
+            String value = readValue(rs, c);
+            if (value == null) out.write("null");
+            else if (c.kind == Kind.INTEGER || c.kind == Kind.REAL) out.write(value);
+            else writeJsonString(out, value);
+        }
+        out.write("}\n");
+    }
+
+    private static String readValue(ResultSet rs, Column c) throws SQLException {
+        switch (c.kind) {
+            case INTEGER: {
+                long v = rs.getLong(c.name);
+                return rs.wasNull() ? null : Long.toString(v);
+            }
+            case REAL: {
+                double v = rs.getDouble(c.name);
+                return rs.wasNull() ? null : Double.toString(v);
+            }
+            default:
+                return rs.getString(c.name);
+        }
+    }
+
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (ch < 0x20) out.write(String.format("\\u%04x", (int) ch));
+                    else out.write(ch);
+            }
+        }
+        out.write('"');
+    }
+
+    // ============================================================
+    // Import
+    // ============================================================
+
+    // Appends every valid record in one transaction (joins the caller's if one is open)
+    public BulkLoader.Result importTable(Table table, Format format, Path file) throws SQLException, IOException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        BulkLoader.Result result = new BulkLoader.Result();
+        long start = System.nanoTime();
+
+        db.beginTransaction();
+        try (BufferedReader in = new BufferedReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), IO_BUFFER_CHARS)) {
+            PreparedStatement pstmt = db.prepareStatement(table.insertSql());
+            RecordReader reader = (format == Format.CSV) ? new CsvRecordReader(in) : new JsonRecordReader(in);
+            Map<String, String> record = new HashMap<>();
+            int pending = 0;
+
+            while (true) {
+                record.clear();
+                String raw;
+                try {
+                    raw = reader.next(record);
+                } catch (IllegalArgumentException e) {
+                    result.reject(reader.lineNumber(), e.getMessage());
+                    continue;
+                }
+                if (raw == null) break;
+
+                try {
+                    bind(pstmt, table, record);
+                    pstmt.setInt(table.columns.size() + 1, userId);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    result.reject(reader.lineNumber(), e.getMessage() + " | " + raw);
+                    continue;
+                }
+
+                pstmt.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    result.addInserted(BulkLoader.executeBatch(pstmt));
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) result.addInserted(BulkLoader.executeBatch(pstmt));
+
+            db.commitTransaction();
+        } catch (SQLException | IOException | RuntimeException e) {
+            try { db.rollbackTransaction(); } catch (SQLException ex) {}
+            throw e;
+        }
+
+        result.finish(start);
+        return result;
+    }
+
+    private static void bind(PreparedStatement pstmt, Table table, Map<String, String> record) throws SQLException {
+        int index = 1;
+        for (Column c : table.columns) {
+            String value = record.get(c.name);
+            if (value != null && c.kind != Kind.TEXT) value = value.trim();
+
+            if (value == null || (value.isEmpty() && c.kind != Kind.TEXT)) {
+                if (c.required) throw new IllegalArgumentException("missing " + c.name);
+                pstmt.setNull(index++, Types.NULL);
+                continue;
+            }
+
+            switch (c.kind) {
+                case INTEGER: pstmt.setLong(index, Long.parseLong(value)); break;
+                case REAL:    pstmt.setDouble(index, Double.parseDouble(value)); break;
+                case DATE:    pstmt.setString(index, LocalDate.parse(value).toString()); break;
+                default:
+                    if ("status".equals(c.name)) GoalStatus.valueOf(value);
+                    pstmt.setString(index, value);
+            }
+            index++;
+        }
+    }
+
+    // ============================================================
+    // Record Readers
+    // ============================================================
+
+    private interface RecordReader {
+        // Fills the record and returns its raw text, or null at end of input.
+        // Throws IllegalArgumentException for a malformed record.
+        String next(Map<String, String> record) throws IOException;
+
+        long lineNumber();
+    }
+
+    private static class CsvRecordReader implements RecordReader {
+        private final BufferedReader in;
+        private final StringBuilder field = new StringBuilder();
+        private String[] header;
+        private long lineNumber = 0;
+
+        CsvRecordReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public long lineNumber() { return lineNumber; }
+
+        @Override
+        public String next(Map<String, String> record) throws IOException {
+            if (header == null) {
+                String first = readLine();
+                if (first == null) return null;
+                ArrayList<String> names = new ArrayList<>();
+                parse(first, names);
+                header = names.toArray(new String[0]);
+            }
+
+            String line;
+            do {
+                line = readLine();
+                if (line == null) return null;
+            } while (line.isBlank());
+
+            ArrayList<String> values = new ArrayList<>(header.length);
+            String raw = parse(line, values);
+
+            if (values.size() != header.length) {
+                throw new IllegalArgumentException("expected " + header.length + " fields, found " + values.size() + " | " + raw);
+            }
+            for (int i = 0; i < header.length; i++) record.put(header[i], values.get(i));
+            return raw;
+        }
+
+        private String readLine() throws IOException {
+            String line = in.readLine();
+            if (line != null) lineNumber++;
+            return line;
+        }
+
+        // RFC 4180 fields; a quoted field may continue onto following lines
+        private String parse(String line, List<String> values) throws IOException {
+            StringBuilder raw = new StringBuilder(line);
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            field.setLength(0);
+
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) break;
+                    String more = readLine();
+                    if (more == null) throw new IllegalArgumentException("unterminated quoted field | " + raw);
+                    field.append('\n');
+                    raw.append('\n').append(more);
+                    line = more;
+                    i = 0;
+                    continue;
+                }
+
+                char ch = line.charAt(i++);
+                if (quoted) {
+                    if (ch == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (ch == ',') {
+                    values.add(finishField(wasQuoted));
+                    wasQuoted = false;
+                } else {
+                    field.append(ch);
+                }
+            }
+            values.add(finishField(wasQuoted));
+            return raw.toString();
+        }
+
+        // An unquoted empty field is NULL; a quoted one is the empty string
+        private String finishField(boolean wasQuoted) {
+            String value = (field.length() == 0 && !wasQuoted) ? null : field.toString();
+            field.setLength(0);
+            return value;
+        }
+    }
+
+    // Reads one flat JSON object per line: string, number, boolean or null values only
+    private static class JsonRecordReader implements RecordReader {
+        private final BufferedReader in;
+        private final StringBuilder token = new StringBuilder();
+        private long lineNumber = 0;
+
+        private String line;
+        private int pos;
+
+        JsonRecordReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public long lineNumber() { return lineNumber; }
+
+        @Override
+        public String next(Map<String, String> record) throws IOException {
+            do {
+                line = in.readLine();
+                if (line == null) return null;
+                lineNumber++;
+            } while (line.isBlank());
+
+            pos = 0;
+            try {
+                expect('{');
+                skipSpace();
+                if (peek() == '}') {
+                    pos++;
+                } else {
+                    while (true) {
+                        skipSpace();
+                        String key = readString();
+                        expect(':');
+                        record.put(key, readValue());
+                        skipSpace();
+                        char ch = line.charAt(pos++);
+                        if (ch == '}') break;
+                        if (ch != ',') throw new IllegalArgumentException("expected ',' or '}'");
+                    }
+                }
+            } catch (StringIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("truncated JSON object | " + line);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getMessage() + " | " + line);
+            }
+            return line;
+        }
+
+        private String readValue() {
+            skipSpace();
+            char ch = peek();
+            if (ch == '"') return readString();
+            if (ch == '{' || ch == '[') throw new IllegalArgumentException("nested values are not supported");
+
+            int from = pos;
+            while (pos < line.length() && ",} \t".indexOf(line.charAt(pos)) < 0) pos++;
+            String literal = line.substring(from, pos);
+            if (literal.equals("null")) return null;
+            if (literal.isEmpty()) throw new IllegalArgumentException("missing value");
+            return literal;
+        }
+
+        private String readString() {
+            expect('"');
+            token.setLength(0);
+            while (true) {
+                char ch = line.charAt(pos++);
+                if (ch == '"') return token.toString();
+                if (ch != '\\') {
+                    token.append(ch);
+                    continue;
+                }
+                char esc = line.charAt(pos++);
+                switch (esc) {
+                    case 'n': token.append('\n'); break;
+                    case 'r': token.append('\r'); break;
+                    case 't': token.append('\t'); break;
+                    case 'b': token.append('\b'); break;
+                    case 'f': token.append('\f'); break;
+                    case 'u':
+                        token.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: token.append(esc);
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            skipSpace();
+            if (line.charAt(pos++) != expected) throw new IllegalArgumentException("expected '" + expected + "'");
+        }
+
+        private char peek() {
+            return line.charAt(pos);
+        }
+
+        private void skipSpace() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) pos++;
+        }
+    }
+}
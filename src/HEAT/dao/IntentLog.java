@@ -0,0 +1,132 @@
+package heat.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Append-only file of WorkoutIntents, written before the database is touched.
+// Each record is [int length][long crc32][payload]; a record cut short by a crash
+// or failing its checksum ends the log, since nothing after it was acknowledged.
+// Once the writer has applied everything, the file is truncated back to empty.
+public class IntentLog implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean sync;
+
+    // Highest sequence number handed out (or found in the file / database)
+    private long lastSeq;
+
+    // sync = force every append to disk; without it a power cut may lose the
+    // last few intents, an application crash still does not
+    public IntentLog(Path file, boolean sync) throws IOException {
+        this.file = file;
+        this.sync = sync;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public Path getFile() { return file; }
+
+    public synchronized long append(WorkoutIntent intent) throws IOException {
+        intent.setSeq(lastSeq + 1);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        intent.writeTo(new DataOutputStream(bytes));
+        byte[] payload = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putLong(crc.getValue()).put(payload).flip();
+
+        long position = channel.size();
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        if (sync) channel.force(false);
+
+        lastSeq = intent.getSeq();
+        return lastSeq;
+    }
+
+    // Every intact record in file order. A torn tail is cut off so later appends
+    // do not land behind garbage.
+    public synchronized List<WorkoutIntent> readAll() throws IOException {
+        List<WorkoutIntent> intents = new ArrayList<>();
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+
+            int length = header.getInt();
+            long checksum = header.getLong();
+            if (length <= 0 || position + HEADER_BYTES + length > size) break;
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + HEADER_BYTES);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if (crc.getValue() != checksum) break;
+
+            WorkoutIntent intent = WorkoutIntent.readFrom(new DataInputStream(new ByteArrayInputStream(payload.array())));
+            intents.add(intent);
+            lastSeq = Math.max(lastSeq, intent.getSeq());
+            position += HEADER_BYTES + length;
+        }
+
+        if (position < size) {
+            System.out.println("[ ! ] Intent log: dropped " + (size - position) + " bytes of incomplete record at the end");
+            channel.truncate(position);
+            channel.force(false);
+        }
+        return intents;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) throw new IOException("Unexpected end of intent log");
+            position += n;
+        }
+    }
+
+    // Sequence numbers continue after the highest one already applied
+    public synchronized void continueAfter(long seq) {
+        lastSeq = Math.max(lastSeq, seq);
+    }
+
+    public synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    // Empties the file if nothing newer than appliedSeq has been appended since
+    public synchronized boolean truncateIfApplied(long appliedSeq) throws IOException {
+        if (appliedSeq < lastSeq) return false;
+        channel.truncate(0);
+        if (sync) channel.force(false);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,51 @@
+package heat.dao;
+
+public class PoolMetrics {
+    private final String poolName;
+    private final int maxSize;
+    private final int opened;
+    private final int inUse;
+    private final long checkouts;
+    private final long timeouts;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementHits;
+    private final long statementMisses;
+
+    public PoolMetrics(String poolName, int maxSize, int opened, int inUse, long checkouts,
+                       long timeouts, long totalWaitNanos, long maxWaitNanos,
+                       long statementHits, long statementMisses) {
+        this.poolName = poolName;
+        this.maxSize = maxSize;
+        this.opened = opened;
+        this.inUse = inUse;
+        this.checkouts = checkouts;
+        this.timeouts = timeouts;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementHits = statementHits;
+        this.statementMisses = statementMisses;
+    }
+
+    public String getPoolName() { return poolName; }
+    public int getMaxSize() { return maxSize; }
+    public int getOpened() { return opened; }
+    public int getInUse() { return inUse; }
+    public long getCheckouts() { return checkouts; }
+    public long getTimeouts() { return timeouts; }
+    public long getTotalWaitNanos() { return totalWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+    public long getStatementHits() { return statementHits; }
+    public long getStatementMisses() { return statementMisses; }
+
+    public double getAverageWaitMillis() {
+        return checkouts == 0 ? 0.0 : (totalWaitNanos / (double) checkouts) / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-12s size %d/%d | in use %d | checkouts %d | timeouts %d | avg wait %.3f ms | max wait %.3f ms | stmt cache %d hits / %d misses",
+            poolName, opened, maxSize, inUse, checkouts, timeouts,
+            getAverageWaitMillis(), maxWaitNanos / 1_000_000.0, statementHits, statementMisses);
+    }
+}
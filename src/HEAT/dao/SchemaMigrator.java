@@ -0,0 +1,290 @@
+package heat.dao;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Applies numbered schema migrations in order and records each one in schema_version.
+// Every migration runs in its own transaction and must be safe to re-run.
+public class SchemaMigrator {
+
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        public Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        public Migration(int version, String description, String... statements) {
+            this(version, description, connection -> {
+                try (Statement stmt = connection.createStatement()) {
+                    for (String sql : statements) stmt.executeUpdate(sql);
+                }
+            });
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+    }
+
+    // Fills activity_id wherever it is still NULL. Names missing from the catalog
+    // (older or imported histories) are added as "Other" activities first, so every
+    // named row gets an id. Run by migration 6 and again after history imports.
+    static final List<String> LINK_ACTIVITIES = List.of(
+        """
+        INSERT OR IGNORE INTO activities (activity_name, workout_type, category, met_value, bodyweight_factor)
+        SELECT exercise_name, MIN(type), 'Other', 0, 0 FROM workouts
+        WHERE activity_id IS NULL GROUP BY exercise_name
+        """,
+        """
+        INSERT OR IGNORE INTO activities (activity_name, workout_type, category, met_value, bodyweight_factor)
+        SELECT exercise_name, MAX(CASE goal_type
+            WHEN 'reps' THEN 'Strength' WHEN 'weight lifted' THEN 'Strength'
+            WHEN 'duration' THEN 'Cardio' ELSE '' END), 'Other', 0, 0 FROM goals
+        WHERE activity_id IS NULL AND exercise_name IS NOT NULL GROUP BY exercise_name
+        """,
+        """
+        UPDATE workouts SET activity_id = (SELECT a.id FROM activities a WHERE a.activity_name = workouts.exercise_name)
+        WHERE activity_id IS NULL
+        """,
+        """
+        UPDATE goals SET activity_id = (SELECT a.id FROM activities a WHERE a.activity_name = goals.exercise_name)
+        WHERE activity_id IS NULL AND exercise_name IS NOT NULL
+        """,
+        // PR keys carry a " (loaded)" / " (reps)" suffix on top of the activity name
+        """
+        UPDATE personal_records SET activity_id = (
+            SELECT a.id FROM activities a WHERE a.activity_name = CASE
+                WHEN exercise_name LIKE '% (loaded)' THEN substr(exercise_name, 1, length(exercise_name) - 9)
+                WHEN exercise_name LIKE '% (reps)' THEN substr(exercise_name, 1, length(exercise_name) - 7)
+                ELSE exercise_name END)
+        WHERE activity_id IS NULL
+        """);
+
+    // Append new migrations at the end; never renumber or edit one that has shipped
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Index workouts for goal progress, PR recalculation and history order",
+            "CREATE INDEX IF NOT EXISTS idx_workouts_exercise_type_date ON workouts (exercise_name, type, date)",
+            "CREATE INDEX IF NOT EXISTS idx_workouts_exercise_weight_reps ON workouts (exercise_name, weight_kg, reps, date)",
+            "CREATE INDEX IF NOT EXISTS idx_workouts_exercise_duration ON workouts (exercise_name, duration_minutes, date)",
+            "CREATE INDEX IF NOT EXISTS idx_workouts_exercise_date ON workouts (exercise_name, date, duration_minutes, reps, weight_kg)",
+            "CREATE INDEX IF NOT EXISTS idx_workouts_date_id ON workouts (date, id)"),
+
+        new Migration(2, "Index goals and body metrics",
+            "CREATE INDEX IF NOT EXISTS idx_goals_exercise_status ON goals (exercise_name, status)",
+            "CREATE INDEX IF NOT EXISTS idx_body_metrics_date_id ON body_metrics (date, id)"),
+
+        new Migration(3, "Collect planner statistics for the new indexes",
+            "ANALYZE"),
+
+        new Migration(4, "Add the per-exercise daily rollup used by goal progress",
+            """
+            CREATE TABLE IF NOT EXISTS exercise_daily_stats (
+                exercise_name TEXT NOT NULL,
+                date DATE NOT NULL,
+                workout_count INTEGER NOT NULL,
+                total_minutes INTEGER NOT NULL,
+                max_reps INTEGER,
+                max_weight_kg REAL,
+                total_volume_kg REAL NOT NULL,
+                PRIMARY KEY (exercise_name, date)
+            ) WITHOUT ROWID
+            """,
+            "DELETE FROM exercise_daily_stats",
+            """
+            INSERT INTO exercise_daily_stats
+                (exercise_name, date, workout_count, total_minutes, max_reps, max_weight_kg, total_volume_kg)
+            SELECT exercise_name, date, COUNT(*), COALESCE(SUM(duration_minutes), 0),
+                   MAX(reps), MAX(weight_kg), COALESCE(SUM(volume_kg), 0)
+            FROM workouts GROUP BY exercise_name, date
+            """),
+        new Migration(5, "Track the last write-behind intent applied to the database",
+            """
+            CREATE TABLE IF NOT EXISTS write_behind_state (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                applied_seq INTEGER NOT NULL
+            )
+            """,
+            "INSERT OR IGNORE INTO write_behind_state (id, applied_seq) VALUES (1, 0)"),
+
+        new Migration(6, "Reference activities by id from workouts, personal records and goals", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("DELETE FROM activities WHERE id NOT IN (SELECT MIN(id) FROM activities GROUP BY activity_name)");
+                stmt.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS idx_activities_name ON activities (activity_name)");
+
+                for (String table : List.of("workouts", "personal_records", "goals")) {
+                    if (!columnExists(connection, table, "activity_id")) {
+                        stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN activity_id INTEGER REFERENCES activities(id)");
+                    }
+                }
+                for (String sql : LINK_ACTIVITIES) stmt.executeUpdate(sql);
+
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_workouts_activity_date ON workouts (activity_id, date)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_goals_activity_status ON goals (activity_id, status)");
+            }
+        }),
+
+        // Existing rows belong to the profile that was the only one until now
+        new Migration(7, "Partition workouts, goals, body metrics and PRs by user", connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                for (String table : List.of("workouts", "goals", "body_metrics")) {
+                    if (!columnExists(connection, table, "user_id")) {
+                        stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN user_id INTEGER NOT NULL DEFAULT " + UserDAO.DEFAULT_USER_ID);
+                    }
+                }
+
+                // exercise_name was unique across the table and is now unique per user,
+                // which SQLite can only change by rebuilding the table
+                if (!columnExists(connection, "personal_records", "user_id")) {
+                    stmt.executeUpdate("""
+                        CREATE TABLE personal_records_v7 (
+                            id INTEGER PRIMARY KEY AUTOINCREMENT,
+                            user_id INTEGER NOT NULL DEFAULT 1,
+                            exercise_name TEXT NOT NULL,
+                            duration_minutes INTEGER,
+                            reps INTEGER,
+                            weight_kg REAL,
+                            date DATE DEFAULT CURRENT_DATE,
+                            activity_id INTEGER REFERENCES activities(id),
+                            UNIQUE (user_id, exercise_name)
+                        )
+                        """);
+                    stmt.executeUpdate("""
+                        INSERT INTO personal_records_v7 (id, exercise_name, duration_minutes, reps, weight_kg, date, activity_id)
+                        SELECT id, exercise_name, duration_minutes, reps, weight_kg, date, activity_id FROM personal_records
+                        """);
+                    stmt.executeUpdate("DROP TABLE personal_records");
+                    stmt.executeUpdate("ALTER TABLE personal_records_v7 RENAME TO personal_records");
+                }
+
+                stmt.executeUpdate("DROP TABLE IF EXISTS exercise_daily_stats");
+                stmt.executeUpdate("""
+                    CREATE TABLE exercise_daily_stats (
+                        user_id INTEGER NOT NULL,
+                        exercise_name TEXT NOT NULL,
+                        date DATE NOT NULL,
+                        workout_count INTEGER NOT NULL,
+                        total_minutes INTEGER NOT NULL,
+                        max_reps INTEGER,
+                        max_weight_kg REAL,
+                        total_volume_kg REAL NOT NULL,
+                        PRIMARY KEY (user_id, exercise_name, date)
+                    ) WITHOUT ROWID
+                    """);
+                stmt.executeUpdate("""
+                    INSERT INTO exercise_daily_stats
+                        (user_id, exercise_name, date, workout_count, total_minutes, max_reps, max_weight_kg, total_volume_kg)
+                    SELECT user_id, exercise_name, date, COUNT(*), COALESCE(SUM(duration_minutes), 0),
+                           MAX(reps), MAX(weight_kg), COALESCE(SUM(volume_kg), 0)
+                    FROM workouts GROUP BY user_id, exercise_name, date
+                    """);
+
+                // Every read is for one user, so each index now leads with user_id
+                for (String index : List.of("idx_workouts_exercise_type_date", "idx_workouts_exercise_weight_reps",
+                        "idx_workouts_exercise_duration", "idx_workouts_exercise_date", "idx_workouts_date_id",
+                        "idx_workouts_activity_date", "idx_goals_exercise_status", "idx_goals_activity_status",
+                        "idx_body_metrics_date_id")) {
+                    stmt.executeUpdate("DROP INDEX IF EXISTS " + index);
+                }
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_workouts_user_exercise_type_date ON workouts (user_id, exercise_name, type, date)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_workouts_user_exercise_weight_reps ON workouts (user_id, exercise_name, weight_kg, reps, date)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_workouts_user_exercise_duration ON workouts (user_id, exercise_name, duration_minutes, date)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_workouts_user_exercise_date ON workouts (user_id, exercise_name, date, duration_minutes, reps, weight_kg)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_workouts_user_date_id ON workouts (user_id, date, id)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_workouts_user_activity_date ON workouts (user_id, activity_id, date)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_goals_user_exercise_status ON goals (user_id, exercise_name, status)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_goals_user_activity_status ON goals (user_id, activity_id, status)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_body_metrics_user_date_id ON body_metrics (user_id, date, id)");
+                stmt.executeUpdate("ANALYZE");
+            }
+        })
+    );
+
+
+    private final Connection connection;
+
+    public SchemaMigrator(Connection connection) {
+        this.connection = connection;
+    }
+
+    public int migrate() throws SQLException {
+        createVersionTable();
+
+        int current = getCurrentVersion();
+        int applied = 0;
+
+        for (Migration m : MIGRATIONS) {
+            if (m.getVersion() <= current) continue;
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                m.step.apply(connection);
+                recordVersion(m);
+                connection.commit();
+                applied++;
+                System.out.println("[OK] Schema migrated to v" + m.getVersion() + ": " + m.getDescription());
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new SQLException("Migration v" + m.getVersion() + " failed: " + e.getMessage(), e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        return applied;
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    // Helper for migrations that add columns (SQLite has no ADD COLUMN IF NOT EXISTS)
+    public static boolean columnExists(Connection connection, String table, String column) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (rs.getString("name").equalsIgnoreCase(column)) return true;
+            }
+        }
+        return false;
+    }
+
+    private void createVersionTable() throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INTEGER PRIMARY KEY,
+                description TEXT NOT NULL,
+                applied_at TEXT NOT NULL
+            )
+            """;
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    private void recordVersion(Migration m) throws SQLException {
+        String sql = "INSERT OR REPLACE INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, m.getVersion());
+            pstmt.setString(2, m.getDescription());
+            pstmt.setString(3, LocalDateTime.now().toString());
+            pstmt.executeUpdate();
+        }
+    }
+}
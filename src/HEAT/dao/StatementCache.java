@@ -0,0 +1,77 @@
+package heat.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compiled statements for one connection, keyed by SQL text and evicted least-recently-used.
+// Callers must not close the statements they get back; close their ResultSets instead.
+public class StatementCache {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public StatementCache(Connection connection) {
+        this(connection, DEFAULT_CAPACITY);
+    }
+
+    public StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= StatementCache.this.capacity) return false;
+                evictions++;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public synchronized PreparedStatement prepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+        String key = returnGeneratedKeys ? "#keys " + sql : sql;
+
+        PreparedStatement pstmt = statements.get(key);
+        if (pstmt != null && !pstmt.isClosed()) {
+            hits++;
+            pstmt.clearParameters();
+            return pstmt;
+        }
+
+        misses++;
+        pstmt = returnGeneratedKeys
+            ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+            : connection.prepareStatement(sql);
+        statements.put(key, pstmt);
+        return pstmt;
+    }
+
+    public synchronized void clear() {
+        for (PreparedStatement pstmt : statements.values()) closeQuietly(pstmt);
+        statements.clear();
+    }
+
+    public synchronized int size() { return statements.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            System.out.println("[ ! ] Error closing cached statement: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package heat.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// SQLite settings applied to every pooled connection when it is opened.
+// Values can be overridden with -Dheat.db.<setting>=<value>.
+public class StorageProfile {
+
+    private static final List<String> JOURNAL_MODES = List.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final List<String> SYNC_MODES = List.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final List<String> TEMP_STORES = List.of("DEFAULT", "FILE", "MEMORY");
+
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSizeBytes;
+    private final int cacheSizeKb;
+    private final String tempStore;
+    private final int busyTimeoutMs;
+    private final long idleCheckpointMillis;
+
+    public StorageProfile(String journalMode, String synchronous, long mmapSizeBytes, int cacheSizeKb,
+                          String tempStore, int busyTimeoutMs, long idleCheckpointMillis) {
+        this.journalMode = journalMode.toUpperCase();
+        this.synchronous = synchronous.toUpperCase();
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.cacheSizeKb = cacheSizeKb;
+        this.tempStore = tempStore.toUpperCase();
+        this.busyTimeoutMs = busyTimeoutMs;
+        this.idleCheckpointMillis = idleCheckpointMillis;
+
+        if (!JOURNAL_MODES.contains(this.journalMode)) throw new IllegalArgumentException("Unknown journal mode: " + journalMode);
+        if (!SYNC_MODES.contains(this.synchronous)) throw new IllegalArgumentException("Unknown synchronous mode: " + synchronous);
+        if (!TEMP_STORES.contains(this.tempStore)) throw new IllegalArgumentException("Unknown temp store: " + tempStore);
+    }
+
+    // WAL with relaxed fsync: commits append to the log instead of rewriting the journal
+    public static StorageProfile tuned() {
+        return new StorageProfile("WAL", "NORMAL", 256L * 1024 * 1024, 16 * 1024, "MEMORY", 5_000, 30_000);
+    }
+
+    // SQLite's out-of-the-box behaviour (rollback journal, full fsync)
+    public static StorageProfile legacy() {
+        return new StorageProfile("DELETE", "FULL", 0, 2 * 1024, "DEFAULT", 5_000, 0);
+    }
+
+    public static StorageProfile fromSystemProperties() {
+        StorageProfile base = tuned();
+        return new StorageProfile(
+            System.getProperty("heat.db.journalMode", base.journalMode),
+            System.getProperty("heat.db.synchronous", base.synchronous),
+            Long.getLong("heat.db.mmapSize", base.mmapSizeBytes),
+            Integer.getInteger("heat.db.cacheSizeKb", base.cacheSizeKb),
+            System.getProperty("heat.db.tempStore", base.tempStore),
+            Integer.getInteger("heat.db.busyTimeoutMs", base.busyTimeoutMs),
+            Long.getLong("heat.db.idleCheckpointMs", base.idleCheckpointMillis));
+    }
+
+    public void apply(Connection connection, boolean readOnly) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+
+            // SQLite leaves REFERENCES clauses unenforced unless asked, per connection
+            stmt.execute("PRAGMA foreign_keys = ON");
+
+            // journal_mode is persistent and needs write access, so only writers set it
+            if (!readOnly) stmt.execute("PRAGMA journal_mode = " + journalMode);
+
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKb);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    public boolean isWal() { return journalMode.equals("WAL"); }
+
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+    public int getCacheSizeKb() { return cacheSizeKb; }
+    public String getTempStore() { return tempStore; }
+    public int getBusyTimeoutMs() { return busyTimeoutMs; }
+    public long getIdleCheckpointMillis() { return idleCheckpointMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("journal=%s sync=%s mmap=%dMB cache=%dKB temp=%s busy=%dms",
+            journalMode, synchronous, mmapSizeBytes / (1024 * 1024), cacheSizeKb, tempStore, busyTimeoutMs);
+    }
+}
@@ -7,96 +7,167 @@ import java.time.LocalDate;
 
 import heat.model.User;
 import heat.model.BodyMetric;
+import heat.util.Metrics;
 
+// Profile and body metrics of one user; every statement is scoped to userId
+@SuppressWarnings("try") // Metrics timers are try-with-resources blocks that never read the timer
 public class UserDAO {
 
-    private static final int DEFAULT_USER_ID = 1;
-    private int currentUserId = DEFAULT_USER_ID; 
+    // The profile that owned every row before user_id existed
+    public static final int DEFAULT_USER_ID = 1;
 
-    private Connection getConnection() {
-        return DatabaseConnection.getInstance().getConnection();
+    private final int userId;
+
+    public UserDAO() {
+        this(DEFAULT_USER_ID);
+    }
+
+    public UserDAO(int userId) {
+        this.userId = userId;
+    }
+
+    public int getUserId() { return userId; }
+
+    // Statements come from the per-connection cache and stay open for reuse
+    private PreparedStatement prepare(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareStatement(sql);
+    }
+
+    private PreparedStatement prepareWithKeys(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareStatementWithKeys(sql);
+    }
+
+    private PreparedStatement prepareRead(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareReadStatement(sql);
     }
 
     // ============================================================
     // User Profile
     // ============================================================
 
+    // Inserts this user's profile row, or updates it if it already exists
     public void saveUserProfile(User u) throws SQLException {
-        String sql = ""; 
-        int rowCount = 0;
+        String sql;
+        boolean exists;
 
-        try (Statement stmt = getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM user_profile")) {
-                
-            if (rs.next()) rowCount = rs.getInt(1);
+        PreparedStatement check = prepareRead("SELECT 1 FROM user_profile WHERE id = ?");
+        check.setInt(1, userId);
+        try (ResultSet rs = check.executeQuery()) {
+            exists = rs.next();
         }
 
-        if (rowCount == 0) {
-            sql = "INSERT INTO user_profile (name, age, height_cm, weight_kg, sex, BMI, BMR, current_streak, last_workout_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        if (!exists) {
+            sql = "INSERT INTO user_profile (name, age, height_cm, weight_kg, sex, BMI, BMR, current_streak, last_workout_date, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         } else {
-            this.currentUserId = DEFAULT_USER_ID; 
-            sql = "UPDATE user_profile SET name = ?, age = ?, height_cm = ?, weight_kg = ?, sex = ?, BMI = ?, BMR = ? WHERE id = " + DEFAULT_USER_ID;
+            sql = "UPDATE user_profile SET name = ?, age = ?, height_cm = ?, weight_kg = ?, sex = ?, BMI = ?, BMR = ? WHERE id = ?";
         }
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, u.getName());
-            pstmt.setInt(2, u.getAge());
-            pstmt.setDouble(3, u.getHeightCm());
-            pstmt.setDouble(4, u.getWeightKg());
-            pstmt.setString(5, u.getSex());
-            pstmt.setDouble(6, u.getBMI());
-            pstmt.setDouble(7, u.getBMR());
-
-            if (rowCount == 0) {
-                pstmt.setInt(8, 0);
-                pstmt.setNull(9, java.sql.Types.DATE);
-            }
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setString(1, u.getName());
+        pstmt.setInt(2, u.getAge());
+        pstmt.setDouble(3, u.getHeightCm());
+        pstmt.setDouble(4, u.getWeightKg());
+        pstmt.setString(5, u.getSex());
+        pstmt.setDouble(6, u.getBMI());
+        pstmt.setDouble(7, u.getBMR());
+
+        if (!exists) {
+            pstmt.setInt(8, 0);
+            pstmt.setNull(9, java.sql.Types.DATE);
+            pstmt.setInt(10, userId);
+        } else {
+            pstmt.setInt(8, userId);
+        }
 
-            pstmt.executeUpdate();
+        pstmt.executeUpdate();
+        u.setId(userId);
+    }
 
-            if (rowCount == 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) this.currentUserId = generatedKeys.getInt(1);
-                }
+    // Id for a profile that does not exist yet; saveUserProfile on a UserDAO for it creates the row
+    public int nextProfileId() throws SQLException {
+        PreparedStatement pstmt = prepareRead("SELECT COALESCE(MAX(id), 0) + 1 FROM user_profile");
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : DEFAULT_USER_ID;
+        }
+    }
+
+    // Every profile (id and name only), oldest first
+    public List<User> listProfiles() throws SQLException {
+        List<User> profiles = new ArrayList<>();
+        PreparedStatement pstmt = prepareRead("SELECT id, name FROM user_profile ORDER BY id");
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                User u = new User(rs.getString("name"), 0, 0, 0, "", 0, 0);
+                u.setId(rs.getInt("id"));
+                profiles.add(u);
             }
         }
+        return profiles;
     }
 
     public void updateUserProfile(User u) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("UserDAO.updateUserProfile")) {
+            updateUserProfileUntimed(u);
+        }
+    }
+
+    private void updateUserProfileUntimed(User u) throws SQLException {
         String sql = "UPDATE user_profile SET name = ?, sex = ?, age = ?, height_cm = ?, weight_kg = ?, BMI = ?, BMR = ?, current_streak = ?, last_workout_date = ? WHERE id = ?";
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, u.getName());
-            pstmt.setString(2, u.getSex());
-            pstmt.setInt(3, u.getAge());
-            pstmt.setDouble(4, u.getHeightCm());
-            pstmt.setDouble(5, u.getWeightKg());
-            pstmt.setDouble(6, u.getBMI());
-            pstmt.setDouble(7, u.getBMR());
-            pstmt.setInt(8, u.getCurrentStreak());
-            
-            if (u.getLastWorkoutDate() != null) {
-                pstmt.setString(9, u.getLastWorkoutDate().toString());
-            } else {
-                pstmt.setNull(9, java.sql.Types.DATE);
-            }
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setString(1, u.getName());
+        pstmt.setString(2, u.getSex());
+        pstmt.setInt(3, u.getAge());
+        pstmt.setDouble(4, u.getHeightCm());
+        pstmt.setDouble(5, u.getWeightKg());
+        pstmt.setDouble(6, u.getBMI());
+        pstmt.setDouble(7, u.getBMR());
+        pstmt.setInt(8, u.getCurrentStreak());
+        
+        if (u.getLastWorkoutDate() != null) {
+            pstmt.setString(9, u.getLastWorkoutDate().toString());
+        } else {
+            pstmt.setNull(9, java.sql.Types.DATE);
+        }
 
-            pstmt.setInt(10, this.currentUserId);
-            pstmt.executeUpdate();
-            System.out.println("\t\t\t\t\tUser profile updated in database."); 
+        pstmt.setInt(10, userId);
+        pstmt.executeUpdate();
+        System.out.println("\t\t\t\t\tUser profile updated in database."); 
+    }
+
+    // Writes only the streak columns, without console output
+    public void updateStreak(int currentStreak, LocalDate lastWorkoutDate) throws SQLException {
+        PreparedStatement pstmt = prepare("UPDATE user_profile SET current_streak = ?, last_workout_date = ? WHERE id = ?");
+        pstmt.setInt(1, currentStreak);
+
+        if (lastWorkoutDate != null) {
+            pstmt.setString(2, lastWorkoutDate.toString());
+        } else {
+            pstmt.setNull(2, java.sql.Types.DATE);
         }
+
+        pstmt.setInt(3, userId);
+        pstmt.executeUpdate();
     }
 
     public User loadUserProfile() throws SQLException {
-        String sql = "SELECT * FROM user_profile";
-        try (Statement stmt = getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Metrics.Timer timer = Metrics.timer("UserDAO.loadUserProfile")) {
+            return loadUserProfileUntimed();
+        }
+    }
+
+    private User loadUserProfileUntimed() throws SQLException {
+        PreparedStatement pstmt = prepareRead("SELECT * FROM user_profile WHERE id = ?");
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
             if (rs.next() && rs.getString("name") != null) {
                 String dateStr = rs.getString("last_workout_date");
-                return new User(rs.getString("name"), rs.getInt("age"),
+                User u = new User(rs.getString("name"), rs.getInt("age"),
                     rs.getDouble("height_cm"), rs.getDouble("weight_kg"),
                     rs.getString("sex"), rs.getDouble("BMI"), rs.getDouble("BMR"),
                     rs.getInt("current_streak"), (dateStr != null) ? LocalDate.parse(dateStr) : null);
+                u.setId(userId);
+                return u;
             }
         }
         return null;
@@ -107,53 +178,60 @@ public class UserDAO {
     // ============================================================
 
     public void insertNewBodyMetric(BodyMetric bm) throws SQLException {
-        String insertSql = "INSERT INTO body_metrics (age, height_cm, weight_kg, BMI, date) VALUES (?, ?, ?, ?, ?)";
-
-        try (PreparedStatement insertStmt = getConnection().prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
-            insertStmt.setInt(1, bm.getAge());
-            insertStmt.setDouble(2, bm.getHeightCm());
-            insertStmt.setDouble(3, bm.getWeightKg());
-            insertStmt.setDouble(4, bm.getBMI());
-            insertStmt.setString(5, bm.getDate().toString());
-
-            if (insertStmt.executeUpdate() > 0) {
-                try (ResultSet rs = insertStmt.getGeneratedKeys()) {
-                    if (rs.next()) bm.setId(rs.getInt(1));
-                }
-            } else {
-                System.out.println("\t\t\t\t\t[ ! ]   Warning: No body metric was saved.");
+        String insertSql = "INSERT INTO body_metrics (age, height_cm, weight_kg, BMI, date, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+        PreparedStatement insertStmt = prepareWithKeys(insertSql);
+        insertStmt.setInt(1, bm.getAge());
+        insertStmt.setDouble(2, bm.getHeightCm());
+        insertStmt.setDouble(3, bm.getWeightKg());
+        insertStmt.setDouble(4, bm.getBMI());
+        insertStmt.setString(5, bm.getDate().toString());
+        insertStmt.setInt(6, userId);
+
+        if (insertStmt.executeUpdate() > 0) {
+            try (ResultSet rs = insertStmt.getGeneratedKeys()) {
+                if (rs.next()) bm.setId(rs.getInt(1));
             }
+        } else {
+            System.out.println("\t\t\t\t\t[ ! ]   Warning: No body metric was saved.");
         }
     }
 
     public void updateBodyMetric(BodyMetric bm) throws SQLException {
-        String sql = "UPDATE body_metrics SET weight_kg = ?, height_cm = ?, age = ?, BMI = ?, date = ? WHERE id = ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setDouble(1, bm.getWeightKg());
-            pstmt.setDouble(2, bm.getHeightCm());
-            pstmt.setInt(3, bm.getAge());
-            pstmt.setDouble(4, bm.getBMI());
-            pstmt.setString(5, bm.getDate().toString());
-            pstmt.setInt(6, bm.getId());
-
-            if (pstmt.executeUpdate() > 0) System.out.println("\t\t\t\t\tBody metric updated in database.");
-        }
+        String sql = "UPDATE body_metrics SET weight_kg = ?, height_cm = ?, age = ?, BMI = ?, date = ? WHERE id = ? AND user_id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setDouble(1, bm.getWeightKg());
+        pstmt.setDouble(2, bm.getHeightCm());
+        pstmt.setInt(3, bm.getAge());
+        pstmt.setDouble(4, bm.getBMI());
+        pstmt.setString(5, bm.getDate().toString());
+        pstmt.setInt(6, bm.getId());
+        pstmt.setInt(7, userId);
+
+        if (pstmt.executeUpdate() > 0) System.out.println("\t\t\t\t\tBody metric updated in database.");
     }
 
     public void deleteBodyMetric(int id) throws SQLException {
-        String sql = "DELETE FROM body_metrics WHERE id = ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
-        }
+        String sql = "DELETE FROM body_metrics WHERE id = ? AND user_id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setInt(1, id);
+        pstmt.setInt(2, userId);
+        pstmt.executeUpdate();
     }
 
     public List<BodyMetric> loadBodyMetrics() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("UserDAO.loadBodyMetrics")) {
+            return loadBodyMetricsUntimed();
+        }
+    }
+
+    private List<BodyMetric> loadBodyMetricsUntimed() throws SQLException {
         List<BodyMetric> bodyMetrics = new ArrayList<>();
-        String sql = "SELECT id, age, height_cm, weight_kg, BMI, date FROM body_metrics ORDER BY date DESC, id DESC";
+        String sql = "SELECT id, age, height_cm, weight_kg, BMI, date FROM body_metrics WHERE user_id = ? ORDER BY date DESC, id DESC";
 
-        try (Statement stmt = getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 bodyMetrics.add(new BodyMetric(rs.getInt("id"), rs.getInt("age"),
                     rs.getDouble("height_cm"), rs.getDouble("weight_kg"),
@@ -0,0 +1,206 @@
+package heat.dao;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import heat.model.CardioWorkout;
+import heat.model.StrengthWorkout;
+import heat.model.Workout;
+import heat.model.WorkoutTotals;
+
+// Whole workout history as parallel primitive arrays, one slot per row in id order,
+// for aggregations that would otherwise walk a Workout object per row. Dates are
+// epoch days and exercises are activity ids, so a row costs about 50 bytes
+// instead of a Workout with its own name, type and LocalDate objects.
+// Deleted rows are tombstoned and squeezed out once they pile up.
+public class WorkoutColumns {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private static final byte STRENGTH = 1;
+    private static final byte CARDIO = 2;
+    private static final byte DELETED = 0;
+
+    // Bytes per row across all column arrays
+    public static final int BYTES_PER_ROW = 6 * Integer.BYTES + 3 * Float.BYTES + 2 * Double.BYTES + 1;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private int[] activityIds = new int[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private int[] durations = new int[INITIAL_CAPACITY];
+    private int[] sets = new int[INITIAL_CAPACITY];
+    private int[] reps = new int[INITIAL_CAPACITY];
+    private float[] weights = new float[INITIAL_CAPACITY];
+    private float[] distances = new float[INITIAL_CAPACITY];
+    private float[] bodyWeightFactors = new float[INITIAL_CAPACITY];
+    private double[] volumes = new double[INITIAL_CAPACITY];
+    private double[] calories = new double[INITIAL_CAPACITY];
+
+    private int rows;
+    private int deletedRows;
+
+    // ============================================================
+    // Writes
+    // ============================================================
+
+    // Ids must arrive in increasing order, as loadColumns and new inserts produce them
+    public synchronized void append(int id, int activityId, boolean strength, int epochDay, int durationMinutes,
+                                    double caloriesBurned, int setCount, int repCount, double weightKg,
+                                    double volumeKg, double bodyWeightFactor, double distanceKm) {
+        if (rows > 0 && id <= ids[rows - 1]) {
+            throw new IllegalArgumentException("Workout " + id + " is not newer than workout " + ids[rows - 1]);
+        }
+        if (rows == ids.length) grow();
+
+        ids[rows] = id;
+        set(rows, activityId, strength, epochDay, durationMinutes, caloriesBurned, setCount, repCount,
+            weightKg, volumeKg, bodyWeightFactor, distanceKm);
+        rows++;
+    }
+
+    public synchronized void add(Workout w) {
+        if (w instanceof StrengthWorkout sw) {
+            append(w.getId(), w.getActivityId(), isStrength(w), (int) w.getDate().toEpochDay(), w.getDurationMinutes(), w.getCaloriesBurned(),
+                sw.getSetCount(), sw.getRepCount(), sw.getExternalWeightKg(), sw.getTrainingVolumeKg(), sw.getBodyWeightFactor(), 0);
+        } else {
+            append(w.getId(), w.getActivityId(), isStrength(w), (int) w.getDate().toEpochDay(), w.getDurationMinutes(), w.getCaloriesBurned(),
+                0, 0, 0, 0, 0, ((CardioWorkout) w).getDistanceKm());
+        }
+    }
+
+    public synchronized void update(Workout w) {
+        int row = find(w.getId());
+        if (row < 0) return;
+
+        if (w instanceof StrengthWorkout sw) {
+            set(row, w.getActivityId(), isStrength(w), (int) w.getDate().toEpochDay(), w.getDurationMinutes(), w.getCaloriesBurned(),
+                sw.getSetCount(), sw.getRepCount(), sw.getExternalWeightKg(), sw.getTrainingVolumeKg(), sw.getBodyWeightFactor(), 0);
+        } else {
+            set(row, w.getActivityId(), isStrength(w), (int) w.getDate().toEpochDay(), w.getDurationMinutes(), w.getCaloriesBurned(),
+                0, 0, 0, 0, 0, ((CardioWorkout) w).getDistanceKm());
+        }
+    }
+
+    public synchronized void remove(int id) {
+        int row = find(id);
+        if (row < 0) return;
+
+        kinds[row] = DELETED;
+        deletedRows++;
+        if (deletedRows > rows / 4) compact();
+    }
+
+    public synchronized void clear() {
+        rows = 0;
+        deletedRows = 0;
+    }
+
+    private void set(int row, int activityId, boolean strength, int epochDay, int durationMinutes,
+                     double caloriesBurned, int setCount, int repCount, double weightKg,
+                     double volumeKg, double bodyWeightFactor, double distanceKm) {
+        epochDays[row] = epochDay;
+        activityIds[row] = activityId;
+        kinds[row] = strength ? STRENGTH : CARDIO;
+        durations[row] = durationMinutes;
+        calories[row] = caloriesBurned;
+        sets[row] = setCount;
+        reps[row] = repCount;
+        weights[row] = (float) weightKg;
+        volumes[row] = volumeKg;
+        bodyWeightFactors[row] = (float) bodyWeightFactor;
+        distances[row] = (float) distanceKm;
+    }
+
+    // Same test the DAO uses to decide between StrengthWorkout and CardioWorkout
+    private static boolean isStrength(Workout w) {
+        return w.getType().equalsIgnoreCase("Strength");
+    }
+
+    private int find(int id) {
+        int row = Arrays.binarySearch(ids, 0, rows, id);
+        return (row >= 0 && kinds[row] != DELETED) ? row : -1;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        activityIds = Arrays.copyOf(activityIds, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        sets = Arrays.copyOf(sets, capacity);
+        reps = Arrays.copyOf(reps, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        bodyWeightFactors = Arrays.copyOf(bodyWeightFactors, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+        calories = Arrays.copyOf(calories, capacity);
+    }
+
+    private void compact() {
+        int kept = 0;
+        for (int row = 0; row < rows; row++) {
+            if (kinds[row] == DELETED) continue;
+            if (kept != row) {
+                ids[kept] = ids[row];
+                epochDays[kept] = epochDays[row];
+                activityIds[kept] = activityIds[row];
+                kinds[kept] = kinds[row];
+                durations[kept] = durations[row];
+                sets[kept] = sets[row];
+                reps[kept] = reps[row];
+                weights[kept] = weights[row];
+                distances[kept] = distances[row];
+                bodyWeightFactors[kept] = bodyWeightFactors[row];
+                volumes[kept] = volumes[row];
+                calories[kept] = calories[row];
+            }
+            kept++;
+        }
+        rows = kept;
+        deletedRows = 0;
+    }
+
+    // ============================================================
+    // Aggregations
+    // ============================================================
+
+    public synchronized WorkoutTotals totals() {
+        return totalsBetween(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    // Inclusive date range; null means open-ended
+    public synchronized WorkoutTotals totalsBetween(LocalDate from, LocalDate to) {
+        int fromDay = (from == null) ? Integer.MIN_VALUE : (int) from.toEpochDay();
+        int toDay = (to == null) ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        return totalsBetween(fromDay, toDay);
+    }
+
+    private WorkoutTotals totalsBetween(int fromDay, int toDay) {
+        int count = 0;
+        double volume = 0.0;
+        double burned = 0.0;
+
+        for (int row = 0; row < rows; row++) {
+            byte kind = kinds[row];
+            int day = epochDays[row];
+            if (kind == DELETED || day < fromDay || day > toDay) continue;
+
+            count++;
+            burned += calories[row];
+            if (kind == STRENGTH) volume += volumes[row];
+        }
+
+        return new WorkoutTotals(count, volume, burned);
+    }
+
+    public synchronized int size() {
+        return rows - deletedRows;
+    }
+
+    // Heap held by the column arrays (allocated capacity, not just used rows)
+    public synchronized long getColumnBytes() {
+        return (long) ids.length * BYTES_PER_ROW;
+    }
+}
@@ -2,79 +2,181 @@ package heat.dao;
 
 import java.sql.*;
 import java.util.*;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.function.Consumer;
 import heat.model.*;
+import heat.util.Metrics;
 
+// Workouts and PRs of one user (every statement is scoped to userId), plus the
+// shared activity and quote catalogs
+@SuppressWarnings("try") // Metrics timers are try-with-resources blocks that never read the timer
 public class WorkoutDAO {
 
+    private static final String ACTIVITIES_FILE = "src/heat/resources/activities.csv";
+    private static final String QUOTES_FILE = "src/heat/resources/quotes.csv";
+
+    private final int userId;
+
+    // Keeps the per-exercise daily rollup in step with every workout write
+    private final ExerciseStatsDAO exerciseStats;
+
+    // Rows per executeBatch round trip when seeding the catalogs (-Dheat.import.batchSize)
+    private static final int IMPORT_BATCH_SIZE = Integer.getInteger("heat.import.batchSize", BulkLoader.DEFAULT_BATCH_SIZE);
+
+    public WorkoutDAO() {
+        this(UserDAO.DEFAULT_USER_ID);
+    }
+
+    public WorkoutDAO(int userId) {
+        this.userId = userId;
+        this.exerciseStats = new ExerciseStatsDAO(userId);
+    }
+
+    public int getUserId() { return userId; }
+
     private Connection getConnection() {
         return DatabaseConnection.getInstance().getConnection();
     }
 
+    private Connection getReadConnection() {
+        return DatabaseConnection.getInstance().getReadConnection();
+    }
+
+    // Statements come from the per-connection cache and stay open for reuse
+    private PreparedStatement prepare(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareStatement(sql);
+    }
+
+    private PreparedStatement prepareWithKeys(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareStatementWithKeys(sql);
+    }
+
+    private PreparedStatement prepareRead(String sql) throws SQLException {
+        return DatabaseConnection.getInstance().prepareReadStatement(sql);
+    }
+
     // ============================================================
     // Workouts (CRUD)
     // ============================================================
 
     public void saveStrengthWorkout(Workout workout) throws SQLException {
-        StrengthWorkout sw = (StrengthWorkout) workout;
-        String sql = """
-            INSERT INTO workouts (
-                exercise_name, type, date, duration_minutes, calories_burned, 
-                sets, reps, weight_kg, volume_kg, bodyweight_factor
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
+        reportSaved(insertWorkout((StrengthWorkout) workout));
+    }
+
+    public void saveCardioWorkout(Workout workout) throws SQLException {
+        reportSaved(insertWorkout((CardioWorkout) workout));
+    }
+
+    private void reportSaved(boolean saved) {
+        if (saved) {
+            System.out.println("\t\t\t\t\tWorkout saved to database!");
+        } else {
+            System.out.println("\t\t\t\t\t[ ! ]   Warning: No workout was saved.");
+        }
+    }
+
+    // Inserts without console output (also used by the write-behind writer thread),
+    // sets the generated id and refreshes the day's rollup row. activity_id is looked
+    // up from the name (NULL for a name outside the catalog).
+    public boolean insertWorkout(Workout workout) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.insertWorkout")) {
+            return insertWorkoutUntimed(workout);
+        }
+    }
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, workout.getName());
-            pstmt.setString(2, workout.getType());
-            pstmt.setString(3, workout.getDate().toString());
-            pstmt.setInt(4, workout.getDurationMinutes());
-            pstmt.setDouble(5, workout.getCaloriesBurned());
+    private boolean insertWorkoutUntimed(Workout workout) throws SQLException {
+        PreparedStatement pstmt;
+
+        if (workout instanceof StrengthWorkout sw) {
+            pstmt = prepareWithKeys("""
+                INSERT INTO workouts (
+                    exercise_name, type, date, duration_minutes, calories_burned, 
+                    sets, reps, weight_kg, volume_kg, bodyweight_factor, activity_id, user_id
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, (SELECT id FROM activities WHERE activity_name = ?), ?)
+                """);
+            pstmt.setString(11, sw.getName());
             pstmt.setInt(6, sw.getSetCount());
             pstmt.setInt(7, sw.getRepCount());
             pstmt.setDouble(8, sw.getExternalWeightKg());
             pstmt.setDouble(9, sw.getTrainingVolumeKg());
             pstmt.setDouble(10, sw.getBodyWeightFactor());
-            
-            if (pstmt.executeUpdate() > 0) {
-                System.out.println("\t\t\t\t\tWorkout saved to database!");
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) sw.setId(rs.getInt(1));
-                }
-            } else {
-                System.out.println("\t\t\t\t\t[ ! ]   Warning: No workout was saved.");
-            }
+            pstmt.setInt(12, userId);
+        } else {
+            CardioWorkout cw = (CardioWorkout) workout;
+            pstmt = prepareWithKeys("""
+                INSERT INTO workouts (
+                    exercise_name, type, date, duration_minutes, calories_burned, distance_km, activity_id, user_id
+                ) VALUES (?, ?, ?, ?, ?, ?, (SELECT id FROM activities WHERE activity_name = ?), ?)
+                """);
+            pstmt.setDouble(6, cw.getDistanceKm());
+            pstmt.setString(7, cw.getName());
+            pstmt.setInt(8, userId);
+        }
+
+        pstmt.setString(1, workout.getName());
+        pstmt.setString(2, workout.getType());
+        pstmt.setString(3, workout.getDate().toString());
+        pstmt.setInt(4, workout.getDurationMinutes());
+        pstmt.setDouble(5, workout.getCaloriesBurned());
+
+        if (pstmt.executeUpdate() == 0) return false;
+
+        exerciseStats.refreshDay(workout.getName(), workout.getDate());
+        try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            if (rs.next()) workout.setId(rs.getInt(1));
         }
+        return true;
     }
 
-    public void saveCardioWorkout(Workout workout) throws SQLException {
-        CardioWorkout cw = (CardioWorkout) workout;
-        String sql = """
+    // A whole session in one executeBatch; call inside a transaction. The new ids are
+    // read back in insert order and each touched rollup day is refreshed once.
+    public void saveWorkoutBatch(List<Workout> workouts) throws SQLException {
+        int lastWorkoutId = getMaxWorkoutId();
+
+        PreparedStatement pstmt = prepare("""
             INSERT INTO workouts (
-                exercise_name, type, date, duration_minutes, calories_burned, distance_km
-            ) VALUES (?, ?, ?, ?, ?, ?)
-            """;
-    
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, workout.getName());
-            pstmt.setString(2, workout.getType());
-            pstmt.setString(3, workout.getDate().toString());
-            pstmt.setInt(4, workout.getDurationMinutes());
-            pstmt.setDouble(5, workout.getCaloriesBurned());
-            pstmt.setDouble(6, cw.getDistanceKm());
-            
-            if (pstmt.executeUpdate() > 0) {
-                System.out.println("\t\t\t\t\tWorkout saved to database!");
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) cw.setId(rs.getInt(1));
-                }
+                exercise_name, type, date, duration_minutes, calories_burned, distance_km,
+                sets, reps, weight_kg, volume_kg, bodyweight_factor, activity_id, user_id
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, (SELECT id FROM activities WHERE activity_name = ?), ?)
+            """);
+
+        for (Workout w : workouts) {
+            pstmt.setString(1, w.getName());
+            pstmt.setString(12, w.getName());
+            pstmt.setInt(13, userId);
+            pstmt.setString(2, w.getType());
+            pstmt.setString(3, w.getDate().toString());
+            pstmt.setInt(4, w.getDurationMinutes());
+            pstmt.setDouble(5, w.getCaloriesBurned());
+
+            if (w instanceof StrengthWorkout sw) {
+                pstmt.setNull(6, Types.NULL);
+                pstmt.setInt(7, sw.getSetCount());
+                pstmt.setInt(8, sw.getRepCount());
+                pstmt.setDouble(9, sw.getExternalWeightKg());
+                pstmt.setDouble(10, sw.getTrainingVolumeKg());
+                pstmt.setDouble(11, sw.getBodyWeightFactor());
             } else {
-                System.out.println("\t\t\t\t\t[ ! ]   Warning: No workout was saved.");
+                pstmt.setDouble(6, ((CardioWorkout) w).getDistanceKm());
+                for (int i = 7; i <= 11; i++) pstmt.setNull(i, Types.NULL);
+            }
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+
+        PreparedStatement ids = prepareRead("SELECT id FROM workouts WHERE id > ? AND user_id = ? ORDER BY id");
+        ids.setInt(1, lastWorkoutId);
+        ids.setInt(2, userId);
+        try (ResultSet rs = ids.executeQuery()) {
+            for (Workout w : workouts) {
+                if (rs.next()) w.setId(rs.getInt(1));
             }
         }
+
+        exerciseStats.refreshDaysForWorkoutsAfter(lastWorkoutId);
+        System.out.println("\t\t\t\t\tSession saved to database! (" + workouts.size() + " workouts)");
     }
 
     public void updateWorkout(Workout w) throws SQLException {
@@ -82,81 +184,345 @@ public class WorkoutDAO {
         if (w instanceof StrengthWorkout) {
             sql = """
                 UPDATE workouts SET exercise_name=?, type=?, date=?, duration_minutes=?, calories_burned=?, 
-                sets=?, reps=?, weight_kg=?, volume_kg=?, bodyweight_factor=? WHERE id=?
+                sets=?, reps=?, weight_kg=?, volume_kg=?, bodyweight_factor=?,
+                activity_id=(SELECT id FROM activities WHERE activity_name = ?) WHERE id=? AND user_id=?
                 """;
         } else {
             sql = """
                 UPDATE workouts SET exercise_name=?, type=?, date=?, duration_minutes=?, calories_burned=?, 
-                distance_km=? WHERE id=?
+                distance_km=?, activity_id=(SELECT id FROM activities WHERE activity_name = ?)
+                WHERE id=? AND user_id=?
                 """;
         }
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, w.getName());
-            pstmt.setString(2, w.getType());
-            pstmt.setString(3, w.getDate().toString());
-            pstmt.setInt(4, w.getDurationMinutes());
-            pstmt.setDouble(5, w.getCaloriesBurned());
+        String[] before = findExerciseDay(w.getId());
 
-            if (w instanceof StrengthWorkout) {
-                StrengthWorkout sw = (StrengthWorkout) w;
-                pstmt.setInt(6, sw.getSetCount());
-                pstmt.setInt(7, sw.getRepCount());
-                pstmt.setDouble(8, sw.getExternalWeightKg());
-                pstmt.setDouble(9, sw.getTrainingVolumeKg());
-                pstmt.setDouble(10, sw.getBodyWeightFactor());
-                pstmt.setInt(11, sw.getId());
-            } else {
-                CardioWorkout cw = (CardioWorkout) w;
-                pstmt.setDouble(6, cw.getDistanceKm());
-                pstmt.setInt(7, cw.getId());
-            }
-            
-            if (pstmt.executeUpdate() > 0) {
-                System.out.println("\t\t\t\t\tWorkout updated in database!");
-            } else {
-                System.out.println("\t\t\t\t\t[ ! ]   Warning: Workout update failed (ID not found).");
-            }
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setString(1, w.getName());
+        pstmt.setString(2, w.getType());
+        pstmt.setString(3, w.getDate().toString());
+        pstmt.setInt(4, w.getDurationMinutes());
+        pstmt.setDouble(5, w.getCaloriesBurned());
+
+        if (w instanceof StrengthWorkout) {
+            StrengthWorkout sw = (StrengthWorkout) w;
+            pstmt.setInt(6, sw.getSetCount());
+            pstmt.setInt(7, sw.getRepCount());
+            pstmt.setDouble(8, sw.getExternalWeightKg());
+            pstmt.setDouble(9, sw.getTrainingVolumeKg());
+            pstmt.setDouble(10, sw.getBodyWeightFactor());
+            pstmt.setString(11, sw.getName());
+            pstmt.setInt(12, sw.getId());
+            pstmt.setInt(13, userId);
+        } else {
+            CardioWorkout cw = (CardioWorkout) w;
+            pstmt.setDouble(6, cw.getDistanceKm());
+            pstmt.setString(7, cw.getName());
+            pstmt.setInt(8, cw.getId());
+            pstmt.setInt(9, userId);
+        }
+        
+        if (pstmt.executeUpdate() > 0) {
+            System.out.println("\t\t\t\t\tWorkout updated in database!");
+            if (before != null) exerciseStats.refreshDay(before[0], LocalDate.parse(before[1]));
+            exerciseStats.refreshDay(w.getName(), w.getDate());
+        } else {
+            System.out.println("\t\t\t\t\t[ ! ]   Warning: Workout update failed (ID not found).");
         }
     }
 
     public void deleteWorkout(int id) throws SQLException {
-        String sql = "DELETE FROM workouts WHERE id = ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+        String[] before = findExerciseDay(id);
+
+        String sql = "DELETE FROM workouts WHERE id = ? AND user_id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setInt(1, id);
+        pstmt.setInt(2, userId);
+
+        if (pstmt.executeUpdate() > 0 && before != null) {
+            exerciseStats.refreshDay(before[0], LocalDate.parse(before[1]));
+        }
+    }
+
+    // {exercise_name, date} of a stored workout, or null if the id is unknown
+    private String[] findExerciseDay(int id) throws SQLException {
+        PreparedStatement pstmt = prepareRead("SELECT exercise_name, date FROM workouts WHERE id = ? AND user_id = ?");
+        pstmt.setInt(1, id);
+        pstmt.setInt(2, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? new String[] { rs.getString(1), rs.getString(2) } : null;
+        }
+    }
+
+    // null when the id is not one of this user's workouts
+    public Workout findWorkout(int id) throws SQLException {
+        PreparedStatement pstmt = prepareRead("SELECT * FROM workouts WHERE id = ? AND user_id = ?");
+        pstmt.setInt(1, id);
+        pstmt.setInt(2, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? mapWorkout(rs) : null;
         }
     }
 
     public List<Workout> loadWorkouts() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.loadWorkouts")) {
+            return loadWorkoutsUntimed();
+        }
+    }
+
+    private List<Workout> loadWorkoutsUntimed() throws SQLException {
         List<Workout> workouts = new ArrayList<>();
-        String sql = "SELECT * FROM workouts ORDER BY date DESC, id DESC";
+        String sql = "SELECT * FROM workouts WHERE user_id = ? ORDER BY date DESC, id DESC";
 
-        try (Statement stmt = getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                String type = rs.getString("type");
-                LocalDate date = LocalDate.parse(rs.getString("date"));
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) workouts.add(mapWorkout(rs));
+        }
+        return workouts;
+    }
+
+    // Keyset page in history order (newest first). Pass a null afterDate for the first page,
+    // otherwise the date and id of the last row of the previous page.
+    public List<Workout> loadWorkoutPage(LocalDate afterDate, int afterId, int limit) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.loadWorkoutPage")) {
+            return loadWorkoutPageUntimed(afterDate, afterId, limit);
+        }
+    }
+
+    private List<Workout> loadWorkoutPageUntimed(LocalDate afterDate, int afterId, int limit) throws SQLException {
+        List<Workout> page = new ArrayList<>(limit);
+        PreparedStatement pstmt;
+
+        if (afterDate == null) {
+            pstmt = prepareRead("SELECT * FROM workouts WHERE user_id = ? ORDER BY date DESC, id DESC LIMIT ?");
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, limit);
+        } else {
+            // Split into two index seeks on (user_id, date, id); a single (date, id) < (?, ?)
+            // only seeks on date and rescans the rest of a busy day for every page
+            String sql = """
+                SELECT * FROM (
+                    SELECT * FROM (SELECT * FROM workouts WHERE user_id = ? AND date = ? AND id < ? ORDER BY id DESC LIMIT ?)
+                    UNION ALL
+                    SELECT * FROM (SELECT * FROM workouts WHERE user_id = ? AND date < ? ORDER BY date DESC, id DESC LIMIT ?)
+                )
+                ORDER BY date DESC, id DESC LIMIT ?
+                """;
+            pstmt = prepareRead(sql);
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, afterDate.toString());
+            pstmt.setInt(3, afterId);
+            pstmt.setInt(4, limit);
+            pstmt.setInt(5, userId);
+            pstmt.setString(6, afterDate.toString());
+            pstmt.setInt(7, limit);
+            pstmt.setInt(8, limit);
+        }
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) page.add(mapWorkout(rs));
+        }
+        return page;
+    }
+
+    public List<Workout> loadWorkoutsSince(LocalDate fromDate) throws SQLException {
+        List<Workout> workouts = new ArrayList<>();
+        PreparedStatement pstmt = prepareRead("SELECT * FROM workouts WHERE user_id = ? AND date >= ? ORDER BY date DESC, id DESC");
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, fromDate.toString());
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) workouts.add(mapWorkout(rs));
+        }
+        return workouts;
+    }
+
+    public List<Workout> loadWorkoutsOn(String exerciseName, LocalDate date) throws SQLException {
+        List<Workout> workouts = new ArrayList<>();
+        PreparedStatement pstmt = prepareRead("SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND date = ? ORDER BY id DESC");
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, exerciseName);
+        pstmt.setString(3, date.toString());
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) workouts.add(mapWorkout(rs));
+        }
+        return workouts;
+    }
+
+    // Rows matching the query are handed to the sink one at a time as SQLite steps
+    // through them, so a large result is never held in memory. Query shapes vary
+    // with the filters, so the statement bypasses the per-connection cache.
+    public int streamWorkouts(WorkoutQuery query, Consumer<Workout> sink) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.streamWorkouts")) {
+            return streamWorkoutsUntimed(query, sink);
+        }
+    }
 
-                if (type.equalsIgnoreCase("Strength")) {
-                    workouts.add(new StrengthWorkout(rs.getInt("id"),
-                        rs.getString("exercise_name"), type, date,
-                        rs.getDouble("calories_burned"), rs.getInt("duration_minutes"),
-                        rs.getInt("sets"), rs.getInt("reps"),
-                        rs.getDouble("weight_kg"), rs.getDouble("volume_kg"),
-                        rs.getDouble("bodyweight_factor")));
-                } else {
-                    workouts.add(new CardioWorkout(rs.getInt("id"),
-                        rs.getString("exercise_name"), type, date,
-                        rs.getDouble("calories_burned"), rs.getInt("duration_minutes"),
-                        rs.getDouble("distance_km")));
+    private int streamWorkoutsUntimed(WorkoutQuery query, Consumer<Workout> sink) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = query.toSql(userId, params);
+
+        int rows = 0;
+        try (PreparedStatement pstmt = getReadConnection().prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) pstmt.setObject(i + 1, params.get(i));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(mapWorkout(rs));
+                    rows++;
                 }
             }
         }
+        return rows;
+    }
+
+    public List<Workout> findWorkouts(WorkoutQuery query) throws SQLException {
+        List<Workout> workouts = new ArrayList<>(Math.max(query.getLimit(), 16));
+        streamWorkouts(query, workouts::add);
         return workouts;
     }
 
+    // Workouts per day, oldest first
+    public Map<LocalDate, Integer> loadWorkoutDayCounts() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.loadWorkoutDayCounts")) {
+            return loadWorkoutDayCountsUntimed();
+        }
+    }
+
+    private Map<LocalDate, Integer> loadWorkoutDayCountsUntimed() throws SQLException {
+        Map<LocalDate, Integer> counts = new LinkedHashMap<>();
+        PreparedStatement pstmt = prepareRead("SELECT date, COUNT(*) FROM workouts WHERE user_id = ? GROUP BY date ORDER BY date");
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) counts.put(LocalDate.parse(rs.getString(1)), rs.getInt(2));
+        }
+        return counts;
+    }
+
+    public int countWorkouts() throws SQLException {
+        PreparedStatement pstmt = prepareRead("SELECT COUNT(*) FROM workouts WHERE user_id = ?");
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Streams the whole history into the column store without building Workout objects
+    public int loadColumns(WorkoutColumns columns) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.loadColumns")) {
+            return loadColumnsUntimed(columns);
+        }
+    }
+
+    private int loadColumnsUntimed(WorkoutColumns columns) throws SQLException {
+        String sql = """
+            SELECT id, activity_id, type = 'Strength' COLLATE NOCASE,
+                   CAST(julianday(date) - 2440587.5 AS INTEGER),
+                   duration_minutes, calories_burned, distance_km,
+                   sets, reps, weight_kg, volume_kg, bodyweight_factor
+            FROM workouts WHERE user_id = ? ORDER BY id
+            """;
+
+        // Dates arrive as epoch days and the strength test is done in SQL, so no
+        // LocalDate or type string is built per row
+        columns.clear();
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                columns.append(rs.getInt(1), rs.getInt(2), rs.getBoolean(3), rs.getInt(4),
+                    rs.getInt(5), rs.getDouble(6), rs.getInt(8), rs.getInt(9),
+                    rs.getDouble(10), rs.getDouble(11), rs.getDouble(12), rs.getDouble(7));
+            }
+        }
+        return columns.size();
+    }
+
+    // Fills the rollups from one row per day and category rather than one per workout
+    public int loadRollups(WorkoutRollups rollups) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.loadRollups")) {
+            return loadRollupsUntimed(rollups);
+        }
+    }
+
+    private int loadRollupsUntimed(WorkoutRollups rollups) throws SQLException {
+        String sql = """
+            SELECT w.date, COALESCE(a.category, 'Other'), COUNT(*),
+                   COALESCE(SUM(w.duration_minutes), 0),
+                   COALESCE(SUM(w.calories_burned), 0),
+                   COALESCE(SUM(CASE WHEN w.type = 'Strength' COLLATE NOCASE THEN w.volume_kg END), 0),
+                   COALESCE(SUM(CASE WHEN w.type = 'Strength' COLLATE NOCASE THEN 0 ELSE w.distance_km END), 0)
+            FROM workouts w
+            LEFT JOIN activities a ON a.id = w.activity_id
+            WHERE w.user_id = ?
+            GROUP BY w.date, a.category
+            """;
+
+        rollups.clear();
+        int rows = 0;
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rollups.append(LocalDate.parse(rs.getString(1)), rs.getString(2), rs.getInt(3),
+                    rs.getInt(4), rs.getDouble(5), rs.getDouble(6), rs.getDouble(7));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    // Count, volume and calories over the whole history without loading rows
+    public WorkoutTotals getWorkoutTotals() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.getWorkoutTotals")) {
+            return getWorkoutTotalsUntimed();
+        }
+    }
+
+    private WorkoutTotals getWorkoutTotalsUntimed() throws SQLException {
+        String sql = """
+            SELECT COUNT(*),
+                   COALESCE(SUM(CASE WHEN type = 'Strength' COLLATE NOCASE THEN volume_kg END), 0),
+                   COALESCE(SUM(calories_burned), 0)
+            FROM workouts WHERE user_id = ?
+            """;
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) return new WorkoutTotals(rs.getInt(1), rs.getDouble(2), rs.getDouble(3));
+        }
+        return new WorkoutTotals(0, 0.0, 0.0);
+    }
+
+    private static Workout mapWorkout(ResultSet rs) throws SQLException {
+        String type = rs.getString("type");
+        LocalDate date = LocalDate.parse(rs.getString("date"));
+
+        Workout w;
+        if (type.equalsIgnoreCase("Strength")) {
+            w = new StrengthWorkout(rs.getInt("id"),
+                rs.getString("exercise_name"), type, date,
+                rs.getDouble("calories_burned"), rs.getInt("duration_minutes"),
+                rs.getInt("sets"), rs.getInt("reps"),
+                rs.getDouble("weight_kg"), rs.getDouble("volume_kg"),
+                rs.getDouble("bodyweight_factor"));
+        } else {
+            w = new CardioWorkout(rs.getInt("id"),
+                rs.getString("exercise_name"), type, date,
+                rs.getDouble("calories_burned"), rs.getInt("duration_minutes"),
+                rs.getDouble("distance_km"));
+        }
+        w.setActivityId(rs.getInt("activity_id"));
+        return w;
+    }
+
+    // Across all users: ids are shared, so this is a watermark for "rows added since"
+    public int getMaxWorkoutId() throws SQLException {
+        PreparedStatement pstmt = prepareRead("SELECT COALESCE(MAX(id), 0) FROM workouts");
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
     // ============================================================
     // Personal Records
     // ============================================================
@@ -164,100 +530,195 @@ public class WorkoutDAO {
     public void updatePersonalRecord(String exerciseName, double weight, int reps, int duration, LocalDate date) throws SQLException {
         String updateSql = """
             UPDATE personal_records 
-            SET weight_kg = ?, reps = ?, duration_minutes = ?, date = ?
-            WHERE exercise_name = ?
+            SET weight_kg = ?, reps = ?, duration_minutes = ?, date = ?,
+                activity_id = (SELECT id FROM activities WHERE activity_name = ?)
+            WHERE user_id = ? AND exercise_name = ?
             """;
             
-        try (PreparedStatement updateStmt = getConnection().prepareStatement(updateSql)) {
-            updateStmt.setDouble(1, weight);
-            updateStmt.setInt(2, reps);
-            updateStmt.setInt(3, duration);
-            updateStmt.setString(4, date.toString());
-            updateStmt.setString(5, exerciseName);
-
-            if (updateStmt.executeUpdate() == 0) {
-                insertNewRecord(exerciseName, weight, reps, duration, date);
-            } else {
-                System.out.println("\t\t\t\t\tPR updated in the database!");
-            }
+        PreparedStatement updateStmt = prepare(updateSql);
+        updateStmt.setDouble(1, weight);
+        updateStmt.setInt(2, reps);
+        updateStmt.setInt(3, duration);
+        updateStmt.setString(4, date.toString());
+        updateStmt.setString(5, PersonalRecord.baseName(exerciseName));
+        updateStmt.setInt(6, userId);
+        updateStmt.setString(7, exerciseName);
+
+        if (updateStmt.executeUpdate() == 0) {
+            insertNewRecord(exerciseName, weight, reps, duration, date);
+        } else {
+            System.out.println("\t\t\t\t\tPR updated in the database!");
         }
     }
     
+    // Quiet insert-or-replace of one PR row, for the write-behind writer thread
+    public void savePersonalRecord(String exerciseName, double weight, int reps, int duration, LocalDate date) throws SQLException {
+        String sql = """
+            INSERT INTO personal_records (exercise_name, weight_kg, reps, duration_minutes, date, activity_id, user_id)
+            VALUES (?, ?, ?, ?, ?, (SELECT id FROM activities WHERE activity_name = ?), ?)
+            ON CONFLICT (user_id, exercise_name) DO UPDATE SET
+                weight_kg = excluded.weight_kg, reps = excluded.reps,
+                duration_minutes = excluded.duration_minutes, date = excluded.date,
+                activity_id = excluded.activity_id
+            """;
+
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setString(1, exerciseName);
+        pstmt.setDouble(2, weight);
+        pstmt.setInt(3, reps);
+        pstmt.setInt(4, duration);
+        pstmt.setString(5, date.toString());
+        pstmt.setString(6, PersonalRecord.baseName(exerciseName));
+        pstmt.setInt(7, userId);
+        pstmt.executeUpdate();
+    }
+
     private void insertNewRecord(String exerciseName, double weight, int reps, int duration, LocalDate date) throws SQLException {
         String insertSql = """
-            INSERT INTO personal_records (exercise_name, weight_kg, reps, duration_minutes, date)
-            VALUES (?, ?, ?, ?, ?)    
+            INSERT INTO personal_records (exercise_name, weight_kg, reps, duration_minutes, date, activity_id, user_id)
+            VALUES (?, ?, ?, ?, ?, (SELECT id FROM activities WHERE activity_name = ?), ?)    
             """;
 
-        try (PreparedStatement insertStmt = getConnection().prepareStatement(insertSql)) {
-            insertStmt.setString(1, exerciseName);
-            insertStmt.setDouble(2, weight);
-            insertStmt.setInt(3, reps);
-            insertStmt.setInt(4, duration);
-            insertStmt.setString(5, date.toString());
-
-            if (insertStmt.executeUpdate() > 0) {
-                System.out.println("\t\t\t\t\tPR saved to database!");
-            }
+        PreparedStatement insertStmt = prepare(insertSql);
+        insertStmt.setString(1, exerciseName);
+        insertStmt.setDouble(2, weight);
+        insertStmt.setInt(3, reps);
+        insertStmt.setInt(4, duration);
+        insertStmt.setString(5, date.toString());
+        insertStmt.setString(6, PersonalRecord.baseName(exerciseName));
+        insertStmt.setInt(7, userId);
+
+        if (insertStmt.executeUpdate() > 0) {
+            System.out.println("\t\t\t\t\tPR saved to database!");
         }
     }
 
     public void deletePR(String activityName) throws SQLException {
-        String sql = "DELETE FROM personal_records WHERE exercise_name = ?";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, activityName);
-            pstmt.executeUpdate();
-        }
+        String sql = "DELETE FROM personal_records WHERE user_id = ? AND exercise_name = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, activityName);
+        pstmt.executeUpdate();
     }
 
     public void recalculatePR(String rawName, String PRName, String type) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.recalculatePR")) {
+            recalculatePRUntimed(rawName, PRName, type);
+        }
+    }
+
+    private void recalculatePRUntimed(String rawName, String PRName, String type) throws SQLException {
         deletePR(PRName);
 
         String sql;
         String unit = "kg";
 
         if (type.equalsIgnoreCase("Cardio")) {
-            sql = "SELECT * FROM workouts WHERE exercise_name = ? AND type = 'Cardio' ORDER BY duration_minutes DESC, date DESC LIMIT 1";
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Cardio' ORDER BY duration_minutes DESC, date DESC LIMIT 1";
             unit = "mins";
         } 
         else if (PRName.endsWith("(reps)")) {
-            sql = "SELECT * FROM workouts WHERE exercise_name = ? AND type = 'Strength' AND weight_kg = 0 ORDER BY reps DESC, date DESC LIMIT 1";
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Strength' AND weight_kg = 0 ORDER BY reps DESC, date DESC LIMIT 1";
             unit = "reps";
         } 
         else if (PRName.endsWith("(loaded)")) {
-            sql = "SELECT * FROM workouts WHERE exercise_name = ? AND type = 'Strength' AND weight_kg > 0 ORDER BY weight_kg DESC, reps DESC, date DESC LIMIT 1";
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Strength' AND weight_kg > 0 ORDER BY weight_kg DESC, reps DESC, date DESC LIMIT 1";
         } 
         else {
-            sql = "SELECT * FROM workouts WHERE exercise_name = ? AND type = 'Strength' ORDER BY weight_kg DESC, reps DESC, date DESC LIMIT 1";
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Strength' ORDER BY weight_kg DESC, reps DESC, date DESC LIMIT 1";
         }
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, rawName);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    double weight = rs.getDouble("weight_kg");
-                    int reps = rs.getInt("reps");
-                    int duration = rs.getInt("duration_minutes");
-                    LocalDate date = LocalDate.parse(rs.getString("date"));
-
-                    if (unit.equals("mins")) System.out.printf("\t\t\t\t\tRecalculated PR for %s: %d %s\n", PRName, duration, unit);
-                    else if (unit.equals("reps")) System.out.printf("\t\t\t\t\tRecalculated PR for %s: %d %s\n", PRName, reps, unit);
-                    else System.out.printf("\t\t\t\t\tRecalculated PR for %s: %.1f %s\n", PRName, weight, unit);
-
-                    updatePersonalRecord(PRName, weight, reps, duration, date);
-                } else {
-                    System.out.println("\t\t\t\t\tNo history left for " + PRName + ". PR cleared.");
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, rawName);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                double weight = rs.getDouble("weight_kg");
+                int reps = rs.getInt("reps");
+                int duration = rs.getInt("duration_minutes");
+                LocalDate date = LocalDate.parse(rs.getString("date"));
+
+                if (unit.equals("mins")) System.out.printf("\t\t\t\t\tRecalculated PR for %s: %d %s\n", PRName, duration, unit);
+                else if (unit.equals("reps")) System.out.printf("\t\t\t\t\tRecalculated PR for %s: %d %s\n", PRName, reps, unit);
+                else System.out.printf("\t\t\t\t\tRecalculated PR for %s: %.1f %s\n", PRName, weight, unit);
+
+                updatePersonalRecord(PRName, weight, reps, duration, date);
+            } else {
+                System.out.println("\t\t\t\t\tNo history left for " + PRName + ". PR cleared.");
+            }
+        }
+    }
+
+    // Distinct PR keys ({raw name, PR key, type}) among workouts with id > afterId,
+    // using the same key rules as WorkoutService.generateKey
+    public List<String[]> findPRKeysSince(int afterId) throws SQLException {
+        List<String[]> keys = new ArrayList<>();
+        String sql = """
+            SELECT DISTINCT exercise_name, type,
+                   COALESCE(weight_kg, 0) > 0 AS loaded,
+                   COALESCE(bodyweight_factor, 0) != 0 AS bodyweight
+            FROM workouts WHERE id > ? AND user_id = ?
+            """;
+
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, afterId);
+        pstmt.setInt(2, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                String name = rs.getString("exercise_name");
+                String type = rs.getString("type");
+                String key = name;
+
+                if (type.equalsIgnoreCase("Strength") && rs.getBoolean("bodyweight")) {
+                    key = rs.getBoolean("loaded") ? name + " (loaded)" : name + " (reps)";
                 }
+                keys.add(new String[] { name, key, type });
             }
         }
+        return keys;
+    }
+
+    // Best workouts for one PR key, best first, using the same key rules as WorkoutService.generateKey
+    public List<Workout> loadPRCandidates(String rawName, String PRName, String type, int limit) throws SQLException {
+        String sql;
+
+        if (type.equalsIgnoreCase("Cardio")) {
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Cardio' ORDER BY duration_minutes DESC, date DESC, id DESC LIMIT ?";
+        }
+        else if (PRName.endsWith("(reps)")) {
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Strength' AND bodyweight_factor != 0 AND weight_kg = 0 ORDER BY reps DESC, date DESC, id DESC LIMIT ?";
+        }
+        else if (PRName.endsWith("(loaded)")) {
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Strength' AND bodyweight_factor != 0 AND weight_kg > 0 ORDER BY weight_kg DESC, reps DESC, date DESC, id DESC LIMIT ?";
+        }
+        else {
+            sql = "SELECT * FROM workouts WHERE user_id = ? AND exercise_name = ? AND type = 'Strength' AND COALESCE(bodyweight_factor, 0) = 0 ORDER BY weight_kg DESC, reps DESC, date DESC, id DESC LIMIT ?";
+        }
+
+        List<Workout> candidates = new ArrayList<>();
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, rawName);
+        pstmt.setInt(3, limit);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) candidates.add(mapWorkout(rs));
+        }
+        return candidates;
     }
 
     public Map<String, PersonalRecord> loadPersonalRecords() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.loadPersonalRecords")) {
+            return loadPersonalRecordsUntimed();
+        }
+    }
+
+    private Map<String, PersonalRecord> loadPersonalRecordsUntimed() throws SQLException {
         Map<String, PersonalRecord> records = new HashMap<>();
-        String sql = "SELECT id, exercise_name, duration_minutes, reps, weight_kg, date FROM personal_records";
+        String sql = "SELECT id, exercise_name, duration_minutes, reps, weight_kg, date FROM personal_records WHERE user_id = ?";
         
-        try (Statement stmt = getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        PreparedStatement pstmt = prepareRead(sql);
+        pstmt.setInt(1, userId);
+        try (ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 records.put(rs.getString("exercise_name"), new PersonalRecord(
                     rs.getString("exercise_name"), rs.getInt("duration_minutes"),
@@ -273,7 +734,9 @@ public class WorkoutDAO {
     // ============================================================
 
     public void performInitialSetup() throws SQLException, IOException {
-        if (isTableEmpty("activities")) {
+        // Migration 6 may already have added "Other" placeholders for names found in
+        // an older history; the catalog still has to be loaded on top of them
+        if (countCatalogActivities() == 0) {
             loadActivitiesFromFile();
         }
         if (isTableEmpty("quotes")) {
@@ -282,16 +745,29 @@ public class WorkoutDAO {
     }
 
     private boolean isTableEmpty(String tableName) throws SQLException {
-        try (Statement stmt = getConnection().createStatement();
+        try (Statement stmt = getReadConnection().createStatement();
              ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
             return rs.next() && rs.getInt(1) == 0;
         }
     }
 
+    private int countCatalogActivities() throws SQLException {
+        PreparedStatement pstmt = prepareRead("SELECT COUNT(*) FROM activities WHERE category != 'Other'");
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
     public List<Activity> loadActivities() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.loadActivities")) {
+            return loadActivitiesUntimed();
+        }
+    }
+
+    private List<Activity> loadActivitiesUntimed() throws SQLException {
         List<Activity> activitiesList = new ArrayList<>();
         String sql = "SELECT * FROM activities";
-        try (Statement stmt = getConnection().createStatement();
+        try (Statement stmt = getReadConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 activitiesList.add(new Activity(rs.getInt("id"), rs.getString("activity_name"),
@@ -302,35 +778,67 @@ public class WorkoutDAO {
         return activitiesList;
     }
 
-    public void loadActivitiesFromFile() throws SQLException, IOException {
-        String sql = "INSERT INTO activities (activity_name, workout_type, category, met_value, bodyweight_factor) VALUES (?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql);
-             BufferedReader br = new BufferedReader(new FileReader("src/heat/resources/activities.csv"))) {
-            
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 5) {
-                    try {
-                        pstmt.setString(1, parts[0].trim());
-                        pstmt.setString(2, parts[1].trim());
-                        pstmt.setString(3, parts[2].trim());
-                        pstmt.setDouble(4, Double.parseDouble(parts[3].trim()));
-                        pstmt.setDouble(5, Double.parseDouble(parts[4].trim()));
-                        pstmt.executeUpdate();
-                    } catch (NumberFormatException e) {
-                        System.out.println("\t\t\t\t\tSkipping invalid activities line: " + line);
-                    }
-                }
-            }
+    // Adds a name outside the catalog as an "Other" activity (MET and bodyweight
+    // factor 0, as unknown names always had) and returns the stored row
+    public Activity addActivity(String activityName, String workoutType) throws SQLException {
+        PreparedStatement insert = prepare("""
+            INSERT OR IGNORE INTO activities (activity_name, workout_type, category, met_value, bodyweight_factor)
+            VALUES (?, ?, 'Other', 0, 0)
+            """);
+        insert.setString(1, activityName);
+        insert.setString(2, workoutType);
+        insert.executeUpdate();
+
+        PreparedStatement select = prepare("SELECT * FROM activities WHERE activity_name = ?");
+        select.setString(1, activityName);
+        try (ResultSet rs = select.executeQuery()) {
+            if (!rs.next()) throw new SQLException("Activity not stored: " + activityName);
+            return new Activity(rs.getInt("id"), rs.getString("activity_name"),
+                rs.getString("workout_type"), rs.getString("category"),
+                rs.getDouble("met_value"), rs.getDouble("bodyweight_factor"));
         }
     }
 
+    // Types an activity a goal added untyped, once its first workout is logged
+    public void setActivityType(int activityId, String workoutType) throws SQLException {
+        PreparedStatement pstmt = prepare("UPDATE activities SET workout_type = ? WHERE id = ? AND workout_type = ''");
+        pstmt.setString(1, workoutType);
+        pstmt.setInt(2, activityId);
+        pstmt.executeUpdate();
+    }
+
+    // Sets activity_id on rows written without one (history imports, older rows)
+    public void linkActivities() throws SQLException {
+        try (Statement stmt = getConnection().createStatement()) {
+            for (String sql : SchemaMigrator.LINK_ACTIVITIES) stmt.executeUpdate(sql);
+        }
+    }
+
+    public BulkLoader.Result loadActivitiesFromFile() throws SQLException, IOException {
+        // A placeholder with the same name keeps its id and takes the catalog values
+        String sql = """
+            INSERT INTO activities (activity_name, workout_type, category, met_value, bodyweight_factor)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (activity_name) DO UPDATE SET
+                workout_type = excluded.workout_type, category = excluded.category,
+                met_value = excluded.met_value, bodyweight_factor = excluded.bodyweight_factor
+            """;
+
+        BulkLoader loader = new BulkLoader(sql, ',', 5, (pstmt, fields) -> {
+            pstmt.setString(1, fields[0]);
+            pstmt.setString(2, fields[1]);
+            pstmt.setString(3, fields[2]);
+            pstmt.setDouble(4, Double.parseDouble(fields[3]));
+            pstmt.setDouble(5, Double.parseDouble(fields[4]));
+        }).withBatchSize(IMPORT_BATCH_SIZE);
+
+        return report("activities", loader.load(Path.of(ACTIVITIES_FILE)));
+    }
+
     public List<Quote> loadQuotes() throws SQLException {
         List<Quote> quotesList = new ArrayList<>();
         String sql = "SELECT level, quote FROM quotes";
-        try (Statement stmt = getConnection().createStatement();
+        try (Statement stmt = getReadConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 quotesList.add(new Quote(rs.getString("level"), rs.getString("quote")));
@@ -339,21 +847,23 @@ public class WorkoutDAO {
         return quotesList;
     }
 
-    public void loadQuotesFromFile() throws SQLException, IOException {
+    public BulkLoader.Result loadQuotesFromFile() throws SQLException, IOException {
         String sql = "INSERT INTO quotes (level, quote) VALUES (?, ?)";
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql);
-             BufferedReader br = new BufferedReader(new FileReader("src/heat/resources/quotes.csv"))) {
-            
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 2) {
-                    pstmt.setString(1, parts[0].trim());
-                    pstmt.setString(2, parts[1].trim());
-                    pstmt.executeUpdate();
-                }
-            }
+        BulkLoader loader = new BulkLoader(sql, '|', 2, (pstmt, fields) -> {
+            if (fields[0].isEmpty() || fields[1].isEmpty()) throw new IllegalArgumentException("Missing quote field");
+            pstmt.setString(1, fields[0]);
+            pstmt.setString(2, fields[1]);
+        }).withBatchSize(IMPORT_BATCH_SIZE);
+
+        return report("quotes", loader.load(Path.of(QUOTES_FILE)));
+    }
+
+    private static BulkLoader.Result report(String table, BulkLoader.Result result) {
+        System.out.println("[OK] Loaded " + table + ": " + result);
+        for (String rejected : result.getRejectedSamples()) {
+            System.out.println("\t\t\t\t\tSkipping invalid " + table + " " + rejected);
         }
+        return result;
     }
 }
\ No newline at end of file
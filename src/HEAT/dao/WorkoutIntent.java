@@ -0,0 +1,185 @@
+package heat.dao;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import heat.model.CardioWorkout;
+import heat.model.StrengthWorkout;
+import heat.model.Workout;
+
+// Everything one logged workout changes in the database, as decided in memory:
+// the workout row, the PR row it set (if any), the goal progress it moved and the
+// streak. Written to the IntentLog first, applied by the WriteBehindWriter later.
+public class WorkoutIntent {
+
+    private static final byte STRENGTH = 1;
+    private static final byte CARDIO = 2;
+
+    // Progress of one goal after the workout
+    public static class GoalProgress {
+        private final int goalId;
+        private final double currentValue;
+        private final String status;
+
+        public GoalProgress(int goalId, double currentValue, String status) {
+            this.goalId = goalId;
+            this.currentValue = currentValue;
+            this.status = status;
+        }
+
+        public int getGoalId() { return goalId; }
+        public double getCurrentValue() { return currentValue; }
+        public String getStatus() { return status; }
+    }
+
+    private long seq;
+    private final int userId;
+    private final Workout workout;
+    private final String personalRecordKey;
+    private final List<GoalProgress> goals;
+    private final boolean streakChanged;
+    private final int currentStreak;
+    private final LocalDate lastWorkoutDate;
+
+    public WorkoutIntent(int userId, Workout workout, String personalRecordKey, List<GoalProgress> goals,
+                         boolean streakChanged, int currentStreak, LocalDate lastWorkoutDate) {
+        this.userId = userId;
+        this.workout = workout;
+        this.personalRecordKey = personalRecordKey;
+        this.goals = goals;
+        this.streakChanged = streakChanged;
+        this.currentStreak = currentStreak;
+        this.lastWorkoutDate = lastWorkoutDate;
+    }
+
+    public long getSeq() { return seq; }
+    public int getUserId() { return userId; }
+    public Workout getWorkout() { return workout; }
+    public String getPersonalRecordKey() { return personalRecordKey; }
+    public List<GoalProgress> getGoals() { return goals; }
+    public boolean isStreakChanged() { return streakChanged; }
+    public int getCurrentStreak() { return currentStreak; }
+    public LocalDate getLastWorkoutDate() { return lastWorkoutDate; }
+
+    // Assigned by IntentLog.append
+    void setSeq(long seq) { this.seq = seq; }
+
+    // ============================================================
+    // Apply
+    // ============================================================
+
+    // Runs inside the caller's transaction. Also used for crash replay, so it only
+    // relies on what is in the intent, never on in-memory service state.
+    void apply() throws SQLException {
+        WorkoutDAO workoutDAO = new WorkoutDAO(userId);
+        workoutDAO.insertWorkout(workout);
+
+        if (personalRecordKey != null) {
+            int reps = 0;
+            double weight = 0.0;
+            if (workout instanceof StrengthWorkout sw) {
+                reps = sw.getRepCount();
+                weight = sw.getExternalWeightKg();
+            }
+            workoutDAO.savePersonalRecord(personalRecordKey, weight, reps, workout.getDurationMinutes(), workout.getDate());
+        }
+
+        GoalDAO goalDAO = new GoalDAO(userId);
+        for (GoalProgress g : goals) {
+            goalDAO.updateGoalCurrentValue(g.getGoalId(), g.getCurrentValue());
+            goalDAO.updateGoalStatus(g.getGoalId(), g.getStatus());
+        }
+
+        if (streakChanged) {
+            new UserDAO(userId).updateStreak(currentStreak, lastWorkoutDate);
+        }
+    }
+
+    // ============================================================
+    // Binary Encoding
+    // ============================================================
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(seq);
+        out.writeInt(userId);
+
+        out.writeByte(workout instanceof StrengthWorkout ? STRENGTH : CARDIO);
+        out.writeUTF(workout.getName());
+        out.writeUTF(workout.getType());
+        out.writeUTF(workout.getDate().toString());
+        out.writeInt(workout.getDurationMinutes());
+        out.writeDouble(workout.getCaloriesBurned());
+
+        if (workout instanceof StrengthWorkout sw) {
+            out.writeInt(sw.getSetCount());
+            out.writeInt(sw.getRepCount());
+            out.writeDouble(sw.getExternalWeightKg());
+            out.writeDouble(sw.getTrainingVolumeKg());
+            out.writeDouble(sw.getBodyWeightFactor());
+        } else {
+            out.writeDouble(((CardioWorkout) workout).getDistanceKm());
+        }
+
+        out.writeBoolean(personalRecordKey != null);
+        if (personalRecordKey != null) out.writeUTF(personalRecordKey);
+
+        out.writeInt(goals.size());
+        for (GoalProgress g : goals) {
+            out.writeInt(g.getGoalId());
+            out.writeDouble(g.getCurrentValue());
+            out.writeUTF(g.getStatus());
+        }
+
+        out.writeBoolean(streakChanged);
+        out.writeInt(currentStreak);
+        out.writeBoolean(lastWorkoutDate != null);
+        if (lastWorkoutDate != null) out.writeUTF(lastWorkoutDate.toString());
+    }
+
+    static WorkoutIntent readFrom(DataInputStream in) throws IOException {
+        long seq = in.readLong();
+        int userId = in.readInt();
+
+        byte kind = in.readByte();
+        String name = in.readUTF();
+        String type = in.readUTF();
+        LocalDate date = LocalDate.parse(in.readUTF());
+        int duration = in.readInt();
+        double calories = in.readDouble();
+
+        Workout workout;
+        if (kind == STRENGTH) {
+            int sets = in.readInt();
+            int reps = in.readInt();
+            double weight = in.readDouble();
+            double volume = in.readDouble();
+            double bodyWeightFactor = in.readDouble();
+            workout = new StrengthWorkout(0, name, type, date, calories, duration, sets, reps, weight, volume, bodyWeightFactor);
+        } else if (kind == CARDIO) {
+            workout = new CardioWorkout(0, name, type, date, calories, duration, in.readDouble());
+        } else {
+            throw new IOException("Unknown workout kind " + kind + " in intent " + seq);
+        }
+
+        String prKey = in.readBoolean() ? in.readUTF() : null;
+
+        int goalCount = in.readInt();
+        List<GoalProgress> goals = new ArrayList<>(goalCount);
+        for (int i = 0; i < goalCount; i++) {
+            goals.add(new GoalProgress(in.readInt(), in.readDouble(), in.readUTF()));
+        }
+
+        boolean streakChanged = in.readBoolean();
+        int streak = in.readInt();
+        LocalDate lastDate = in.readBoolean() ? LocalDate.parse(in.readUTF()) : null;
+
+        WorkoutIntent intent = new WorkoutIntent(userId, workout, prKey, goals, streakChanged, streak, lastDate);
+        intent.setSeq(seq);
+        return intent;
+    }
+}
@@ -0,0 +1,240 @@
+package heat.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import heat.model.StrengthWorkout;
+import heat.model.Workout;
+
+// Filter over the workouts table that compiles to one parameterized SELECT, so
+// only matching rows leave the database. Every setter returns this:
+//
+//     new WorkoutQuery().exercises("Squat").between(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))
+//
+// Paging is by keyset: after(lastRowOfPreviousPage), set after orderBy, continues
+// where a page ended.
+public class WorkoutQuery {
+
+    // Each order ends in (date, id) so rows never tie and the keyset is exact
+    public enum Sort {
+        NEWEST_FIRST(null, "DESC"),
+        OLDEST_FIRST(null, "ASC"),
+        HEAVIEST_FIRST("COALESCE(weight_kg, 0)", "DESC"),
+        LONGEST_FIRST("duration_minutes", "DESC");
+
+        private final String key;
+        private final String direction;
+
+        Sort(String key, String direction) {
+            this.key = key;
+            this.direction = direction;
+        }
+
+        private Object keyOf(Workout w) {
+            if (this == HEAVIEST_FIRST) return (w instanceof StrengthWorkout sw) ? sw.getExternalWeightKg() : 0.0;
+            return w.getDurationMinutes();
+        }
+    }
+
+    private LocalDate from;
+    private LocalDate to;
+    private final Set<String> exercises = new LinkedHashSet<>();
+    private String category;
+    private String type;
+    private Double minWeightKg;
+    private Integer minReps;
+    private Integer minDurationMinutes;
+    private Sort sort = Sort.NEWEST_FIRST;
+    private int limit = 0;
+
+    // Sort key, date and id of the row to continue after
+    private Object afterKey;
+    private LocalDate afterDate;
+    private int afterId;
+
+    // ============================================================
+    // Filters
+    // ============================================================
+
+    // Inclusive; null leaves that end open
+    public WorkoutQuery between(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    public WorkoutQuery exercises(String... names) {
+        exercises.addAll(Arrays.asList(names));
+        return this;
+    }
+
+    // Activity category from the catalog (e.g. Legs, HIIT)
+    public WorkoutQuery category(String category) {
+        this.category = category;
+        return this;
+    }
+
+    // Strength or Cardio
+    public WorkoutQuery type(String type) {
+        this.type = type;
+        return this;
+    }
+
+    public WorkoutQuery minWeightKg(double minWeightKg) {
+        this.minWeightKg = minWeightKg;
+        return this;
+    }
+
+    public WorkoutQuery minReps(int minReps) {
+        this.minReps = minReps;
+        return this;
+    }
+
+    public WorkoutQuery minDurationMinutes(int minDurationMinutes) {
+        this.minDurationMinutes = minDurationMinutes;
+        return this;
+    }
+
+    public WorkoutQuery orderBy(Sort sort) {
+        this.sort = sort;
+        return this;
+    }
+
+    // 0 means no limit
+    public WorkoutQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    // Continue after the last row of the previous page; null starts from the top
+    public WorkoutQuery after(Workout last) {
+        if (last == null) {
+            afterDate = null;
+            afterKey = null;
+            return this;
+        }
+        afterDate = last.getDate();
+        afterId = last.getId();
+        afterKey = (sort.key == null) ? null : sort.keyOf(last);
+        return this;
+    }
+
+    // The keyset of a page's last row as text, for callers that hand it out and get it
+    // back later (the HTTP API's cursor). It needs no lookup, so it still works after
+    // that row is deleted. Only valid with the same orderBy.
+    public String cursorOf(Workout last) {
+        String keyset = last.getDate() + "_" + last.getId();
+        return (sort.key == null) ? keyset : sort.keyOf(last) + "_" + keyset;
+    }
+
+    // Continue after a cursorOf() value; IllegalArgumentException if it does not parse
+    public WorkoutQuery after(String cursor) {
+        String[] parts = cursor.split("_");
+        int keyParts = (sort.key == null) ? 0 : 1;
+        if (parts.length != keyParts + 2) throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        try {
+            if (sort == Sort.HEAVIEST_FIRST) afterKey = Double.valueOf(parts[0]);
+            else if (sort == Sort.LONGEST_FIRST) afterKey = Integer.valueOf(parts[0]);
+            else afterKey = null;
+            afterDate = LocalDate.parse(parts[keyParts]);
+            afterId = Integer.parseInt(parts[keyParts + 1]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        return this;
+    }
+
+    public int getLimit() { return limit; }
+    public Sort getSort() { return sort; }
+
+    // ============================================================
+    // SQL
+    // ============================================================
+
+    // Always scoped to one user. After user_id, each filter maps onto an indexed
+    // column: exercise_name for the exercise indexes, activity_id (for category) for
+    // idx_workouts_user_activity_date, and the date range and keyset use
+    // idx_workouts_user_date_id
+    String toSql(int userId, List<Object> params) {
+        List<String> where = new ArrayList<>();
+        where.add("user_id = ?");
+        params.add(userId);
+
+        if (!exercises.isEmpty()) {
+            where.add("exercise_name IN (" + String.join(", ", Collections.nCopies(exercises.size(), "?")) + ")");
+            params.addAll(exercises);
+        }
+        if (category != null) {
+            where.add("activity_id IN (SELECT id FROM activities WHERE category = ?)");
+            params.add(category);
+        }
+        if (type != null) {
+            where.add("type = ? COLLATE NOCASE");
+            params.add(type);
+        }
+        if (from != null) {
+            where.add("date >= ?");
+            params.add(from.toString());
+        }
+        if (to != null) {
+            where.add("date <= ?");
+            params.add(to.toString());
+        }
+        if (minWeightKg != null) {
+            where.add("weight_kg >= ?");
+            params.add(minWeightKg);
+        }
+        if (minReps != null) {
+            where.add("reps >= ?");
+            params.add(minReps);
+        }
+        if (minDurationMinutes != null) {
+            where.add("duration_minutes >= ?");
+            params.add(minDurationMinutes);
+        }
+        if (afterDate != null) {
+            String op = sort.direction.equals("DESC") ? "<" : ">";
+            if (sort.key == null) {
+                where.add("(date, id) " + op + " (?, ?)");
+            } else {
+                where.add("(" + sort.key + ", date, id) " + op + " (?, ?, ?)");
+                params.add(afterKey);
+            }
+            params.add(afterDate.toString());
+            params.add(afterId);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM workouts WHERE ");
+        sql.append(String.join(" AND ", where));
+
+        sql.append(" ORDER BY ");
+        if (sort.key != null) sql.append(sort.key).append(' ').append(sort.direction).append(", ");
+        sql.append("date ").append(sort.direction).append(", id ").append(sort.direction);
+
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+        return sql.toString();
+    }
+
+    // Short description of the active filters, for screen titles
+    public String describe() {
+        List<String> parts = new ArrayList<>();
+        if (!exercises.isEmpty()) parts.add(String.join(" / ", exercises));
+        if (category != null) parts.add(category);
+        if (type != null) parts.add(type);
+        if (from != null || to != null) {
+            parts.add((from == null ? "..." : from.toString()) + " to " + (to == null ? "..." : to.toString()));
+        }
+        if (minWeightKg != null) parts.add(">= " + minWeightKg + " kg");
+        if (minReps != null) parts.add(">= " + minReps + " reps");
+        if (minDurationMinutes != null) parts.add(">= " + minDurationMinutes + " min");
+        return parts.isEmpty() ? "All Workouts" : String.join(", ", parts);
+    }
+}
@@ -0,0 +1,135 @@
+package heat.dao;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import heat.model.Workout;
+
+// Windowed, newest-first view of the workouts table. Pages are read by keyset
+// on (date, id) and only the most recently used ones are kept in memory.
+// Call invalidate() after any write so the next read sees the new history.
+public class WorkoutRepository {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_MAX_CACHED_PAGES = 8;
+
+    // Position just after the last row of a page
+    private static class Cursor {
+        final LocalDate date;
+        final int id;
+
+        Cursor(LocalDate date, int id) {
+            this.date = date;
+            this.id = id;
+        }
+    }
+
+    private final WorkoutDAO workoutDAO;
+    private final int pageSize;
+    private final int maxCachedPages;
+    private final LinkedHashMap<Integer, List<Workout>> pages;
+
+    // pageEnds.get(n) is where page n + 1 starts; only grows as far as pages have been read
+    private final List<Cursor> pageEnds = new ArrayList<>();
+    private int size = -1;
+
+    private long pageLoads = 0;
+
+    public WorkoutRepository(WorkoutDAO workoutDAO) {
+        this(workoutDAO, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    public WorkoutRepository(WorkoutDAO workoutDAO, int pageSize, int maxCachedPages) {
+        this.workoutDAO = workoutDAO;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Workout>> eldest) {
+                return size() > WorkoutRepository.this.maxCachedPages;
+            }
+        };
+    }
+
+    public synchronized int size() throws SQLException {
+        if (size < 0) size = workoutDAO.countWorkouts();
+        return size;
+    }
+
+    public synchronized Workout get(int index) throws SQLException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+
+        List<Workout> page = getPage(index / pageSize);
+        int offset = index % pageSize;
+        if (offset >= page.size()) {
+            // The table shrank behind our back; start over from a fresh count
+            invalidate();
+            throw new IndexOutOfBoundsException("Workout history changed while reading");
+        }
+        return page.get(offset);
+    }
+
+    public synchronized List<Workout> getPage(int pageIndex) throws SQLException {
+        List<Workout> page = pages.get(pageIndex);
+        if (page != null) return page;
+
+        // Keyset pagination can only step forward, so walk from the furthest known page end
+        int next = Math.min(pageIndex, pageEnds.size());
+        while (true) {
+            Cursor start = (next == 0) ? null : pageEnds.get(next - 1);
+            page = (start == null)
+                ? workoutDAO.loadWorkoutPage(null, 0, pageSize)
+                : workoutDAO.loadWorkoutPage(start.date, start.id, pageSize);
+            pageLoads++;
+
+            pages.put(next, page);
+            if (page.size() == pageSize && pageEnds.size() == next) {
+                Workout last = page.get(page.size() - 1);
+                pageEnds.add(new Cursor(last.getDate(), last.getId()));
+            }
+
+            if (next == pageIndex || page.size() < pageSize) return page;
+            next++;
+        }
+    }
+
+    public synchronized void invalidate() {
+        pages.clear();
+        pageEnds.clear();
+        size = -1;
+    }
+
+    public synchronized int getPageSize() { return pageSize; }
+    public synchronized int getCachedPageCount() { return pages.size(); }
+    public synchronized long getPageLoads() { return pageLoads; }
+
+    // Read-only List view; rows are fetched on demand as indexes are touched
+    public List<Workout> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Workout get(int index) {
+                try {
+                    return WorkoutRepository.this.get(index);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not load workout history: " + e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public int size() {
+                try {
+                    return WorkoutRepository.this.size();
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not count workouts: " + e.getMessage(), e);
+                }
+            }
+        };
+    }
+}
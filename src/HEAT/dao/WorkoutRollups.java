@@ -0,0 +1,247 @@
+package heat.dao;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import heat.model.CardioWorkout;
+import heat.model.StrengthWorkout;
+import heat.model.Workout;
+import heat.model.WorkoutSummary;
+
+// Running totals per day, ISO week, month and year, each with a per-category
+// breakdown. Every workout is added to its four buckets, so a summary reads a
+// handful of buckets instead of the workouts: a date range is split into whole
+// years, whole months and the leftover days at either end.
+public class WorkoutRollups {
+
+    public enum Period { DAY, WEEK, MONTH, YEAR }
+
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    private static class Bucket {
+        int count;
+        long minutes;
+        double calories;
+        double volumeKg;
+        double distanceKm;
+
+        // Category -> {workouts, minutes}
+        final Map<String, int[]> byCategory = new HashMap<>();
+
+        void add(int sign, String category, int workouts, int mins, double cal, double volume, double distance) {
+            count += sign * workouts;
+            minutes += sign * mins;
+            calories += sign * cal;
+            volumeKg += sign * volume;
+            distanceKm += sign * distance;
+
+            int[] c = byCategory.computeIfAbsent(category, k -> new int[2]);
+            c[0] += sign * workouts;
+            c[1] += sign * mins;
+            if (c[0] <= 0) byCategory.remove(category);
+        }
+
+        void addTo(Bucket total) {
+            total.count += count;
+            total.minutes += minutes;
+            total.calories += calories;
+            total.volumeKg += volumeKg;
+            total.distanceKm += distanceKm;
+            for (Map.Entry<String, int[]> e : byCategory.entrySet()) {
+                int[] c = total.byCategory.computeIfAbsent(e.getKey(), k -> new int[2]);
+                c[0] += e.getValue()[0];
+                c[1] += e.getValue()[1];
+            }
+        }
+    }
+
+    // Keyed by the first day of the bucket (Monday for weeks)
+    private final Map<LocalDate, Bucket> days = new HashMap<>();
+    private final Map<LocalDate, Bucket> weeks = new HashMap<>();
+    private final Map<LocalDate, Bucket> months = new HashMap<>();
+    private final TreeMap<LocalDate, Bucket> years = new TreeMap<>();
+
+    // Earliest and latest day with workouts, for open-ended ranges
+    private final TreeMap<LocalDate, Bucket> dayOrder = new TreeMap<>();
+
+    // ============================================================
+    // Writes
+    // ============================================================
+
+    // Pre-aggregated rows (one per day and category), as loadRollups reads them
+    public synchronized void append(LocalDate date, String category, int workouts, int minutes,
+                                    double calories, double volumeKg, double distanceKm) {
+        apply(1, date, category, workouts, minutes, calories, volumeKg, distanceKm);
+    }
+
+    public synchronized void add(Workout w, String category) {
+        apply(1, w, category);
+    }
+
+    public synchronized void remove(Workout w, String category) {
+        apply(-1, w, category);
+    }
+
+    public synchronized void clear() {
+        days.clear();
+        weeks.clear();
+        months.clear();
+        years.clear();
+        dayOrder.clear();
+    }
+
+    private void apply(int sign, Workout w, String category) {
+        double volume = (w instanceof StrengthWorkout sw) ? sw.getTrainingVolumeKg() : 0.0;
+        double distance = (w instanceof CardioWorkout cw) ? cw.getDistanceKm() : 0.0;
+        apply(sign, w.getDate(), category, 1, w.getDurationMinutes(), w.getCaloriesBurned(), volume, distance);
+    }
+
+    private void apply(int sign, LocalDate date, String category, int workouts, int minutes,
+                       double calories, double volumeKg, double distanceKm) {
+        apply(days, date, sign, category, workouts, minutes, calories, volumeKg, distanceKm);
+        apply(weeks, weekStart(date), sign, category, workouts, minutes, calories, volumeKg, distanceKm);
+        apply(months, date.withDayOfMonth(1), sign, category, workouts, minutes, calories, volumeKg, distanceKm);
+        apply(years, date.withDayOfYear(1), sign, category, workouts, minutes, calories, volumeKg, distanceKm);
+
+        Bucket day = days.get(date);
+        if (day == null) dayOrder.remove(date);
+        else dayOrder.put(date, day);
+    }
+
+    // An emptied bucket is dropped rather than kept with rounding residue
+    private static void apply(Map<LocalDate, Bucket> buckets, LocalDate key, int sign, String category, int workouts,
+                              int minutes, double calories, double volumeKg, double distanceKm) {
+        Bucket b = buckets.computeIfAbsent(key, k -> new Bucket());
+        b.add(sign, category, workouts, minutes, calories, volumeKg, distanceKm);
+        if (b.count <= 0) buckets.remove(key);
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // ============================================================
+    // Summaries
+    // ============================================================
+
+    // Inclusive range; null means from the first / up to the last workout
+    public synchronized WorkoutSummary summarize(String label, LocalDate from, LocalDate to) {
+        if (dayOrder.isEmpty()) return toSummary(label, from, to, new Bucket());
+        if (from == null) from = dayOrder.firstKey();
+        if (to == null) to = dayOrder.lastKey();
+
+        // Nothing outside [first, last] can hold workouts
+        LocalDate d = from.isBefore(dayOrder.firstKey()) ? dayOrder.firstKey() : from;
+        LocalDate end = to.isAfter(dayOrder.lastKey()) ? dayOrder.lastKey() : to;
+
+        Bucket total = new Bucket();
+        while (!d.isAfter(end)) {
+            LocalDate next;
+            Bucket b;
+
+            if (d.getDayOfYear() == 1 && !d.plusYears(1).isAfter(end.plusDays(1))) {
+                next = d.plusYears(1);
+                b = years.get(d);
+            } else if (d.getDayOfMonth() == 1 && !d.plusMonths(1).isAfter(end.plusDays(1))) {
+                next = d.plusMonths(1);
+                b = months.get(d);
+            } else {
+                next = d.plusDays(1);
+                b = days.get(d);
+            }
+
+            if (b != null) b.addTo(total);
+            d = next;
+        }
+
+        return toSummary(label, from, to, total);
+    }
+
+    // The last `count` periods up to and including the one containing `today`, newest first
+    public synchronized List<WorkoutSummary> recent(Period period, int count, LocalDate today) {
+        List<WorkoutSummary> summaries = new ArrayList<>(count);
+        LocalDate start = periodStart(period, today);
+
+        for (int i = 0; i < count; i++) {
+            LocalDate end = periodEnd(period, start);
+            Bucket b = bucketsFor(period).get(start);
+            summaries.add(toSummary(label(period, start), start, end, (b == null) ? new Bucket() : b));
+            start = previousStart(period, start);
+        }
+        return summaries;
+    }
+
+    // Every year with workouts, newest first
+    public synchronized List<WorkoutSummary> allYears() {
+        List<WorkoutSummary> summaries = new ArrayList<>();
+        for (Map.Entry<LocalDate, Bucket> e : years.descendingMap().entrySet()) {
+            LocalDate start = e.getKey();
+            summaries.add(toSummary(label(Period.YEAR, start), start, periodEnd(Period.YEAR, start), e.getValue()));
+        }
+        return summaries;
+    }
+
+    public synchronized int getBucketCount() {
+        return days.size() + weeks.size() + months.size() + years.size();
+    }
+
+    private Map<LocalDate, Bucket> bucketsFor(Period period) {
+        return switch (period) {
+            case DAY -> days;
+            case WEEK -> weeks;
+            case MONTH -> months;
+            case YEAR -> years;
+        };
+    }
+
+    private static LocalDate periodStart(Period period, LocalDate date) {
+        return switch (period) {
+            case DAY -> date;
+            case WEEK -> weekStart(date);
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    private static LocalDate periodEnd(Period period, LocalDate start) {
+        return switch (period) {
+            case DAY -> start;
+            case WEEK -> start.plusDays(6);
+            case MONTH -> start.plusMonths(1).minusDays(1);
+            case YEAR -> start.plusYears(1).minusDays(1);
+        };
+    }
+
+    private static LocalDate previousStart(Period period, LocalDate start) {
+        return switch (period) {
+            case DAY -> start.minusDays(1);
+            case WEEK -> start.minusWeeks(1);
+            case MONTH -> start.minusMonths(1);
+            case YEAR -> start.minusYears(1);
+        };
+    }
+
+    private static String label(Period period, LocalDate start) {
+        return switch (period) {
+            case DAY -> start.toString();
+            case WEEK -> String.format("%d-W%02d (%s)", start.get(IsoFields.WEEK_BASED_YEAR),
+                start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR), start);
+            case MONTH -> start.format(MONTH_LABEL);
+            case YEAR -> String.valueOf(start.getYear());
+        };
+    }
+
+    private static WorkoutSummary toSummary(String label, LocalDate from, LocalDate to, Bucket b) {
+        Map<String, int[]> byCategory = new HashMap<>();
+        for (Map.Entry<String, int[]> e : b.byCategory.entrySet()) byCategory.put(e.getKey(), e.getValue().clone());
+        return new WorkoutSummary(label, from, to, b.count, b.minutes, b.calories, b.volumeKg, b.distanceKm, byCategory);
+    }
+}
@@ -0,0 +1,295 @@
+package heat.dao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind mode: the caller records a WorkoutIntent in the IntentLog and returns,
+// and one background thread applies queued intents to SQLite, many per transaction.
+// The transaction also stores the last applied sequence number, so replaying the
+// log after a crash applies every intent exactly once.
+//
+//   -Dheat.writeBehind=true          enable (off by default)
+//   -Dheat.writeBehind.sync=false    skip the fsync per logged workout
+public class WriteBehindWriter implements AutoCloseable {
+
+    public static final String DEFAULT_LOG_FILE = "data/HEATDatabase.intents";
+    public static final int MAX_GROUP_SIZE = 256;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long POLL_MILLIS = 100;
+
+    private final IntentLog log;
+    private final BlockingQueue<WorkoutIntent> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    // Guarded by this
+    private long submittedSeq;
+    private long appliedSeq;
+    private List<WorkoutIntent> appliedSinceFlush = new ArrayList<>();
+    private SQLException failure;
+    private boolean closing;
+
+    private WriteBehindWriter(IntentLog log) {
+        this.log = log;
+        this.submittedSeq = log.getLastSeq();
+        this.appliedSeq = log.getLastSeq();
+
+        this.thread = new Thread(this::run, "heat-write-behind");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("heat.writeBehind");
+    }
+
+    // Replays anything a previous run left in the log, then starts the writer thread
+    public static WriteBehindWriter open(Path logFile) throws IOException, SQLException {
+        IntentLog log = new IntentLog(logFile, !"false".equals(System.getProperty("heat.writeBehind.sync")));
+        reportReplayed(replay(log));
+        return new WriteBehindWriter(log);
+    }
+
+    // Startup recovery when write-behind is switched off: apply and remove a leftover log
+    public static void recover(Path logFile) throws IOException, SQLException {
+        if (!Files.exists(logFile)) return;
+
+        try (IntentLog log = new IntentLog(logFile, true)) {
+            reportReplayed(replay(log));
+        }
+        Files.delete(logFile);
+    }
+
+    private static void reportReplayed(int count) {
+        if (count > 0) System.out.println("[OK] Intent log: replayed " + count + " workouts saved before the last shutdown");
+    }
+
+    // Applies every logged intent newer than the database's applied_seq in one
+    // transaction and returns how many there were
+    private static int replay(IntentLog log) throws IOException, SQLException {
+        List<WorkoutIntent> intents = log.readAll();
+        DatabaseConnection db = DatabaseConnection.getInstance();
+
+        long applied = readAppliedSeq();
+        log.continueAfter(applied);
+
+        List<WorkoutIntent> pending = new ArrayList<>();
+        for (WorkoutIntent intent : intents) {
+            if (intent.getSeq() > applied) pending.add(intent);
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                db.beginTransaction();
+                applyGroup(pending);
+                db.commitTransaction();
+            } catch (SQLException e) {
+                try { db.rollbackTransaction(); } catch (SQLException ex) {}
+                throw e;
+            }
+        }
+
+        log.truncateIfApplied(log.getLastSeq());
+        return pending.size();
+    }
+
+    // ============================================================
+    // Caller Side
+    // ============================================================
+
+    // Durable once this returns; the database catches up in the background. Throws
+    // the writer thread's failure once it has given up, since nothing would apply
+    // the intent before the next start.
+    public synchronized void submit(WorkoutIntent intent) throws IOException, SQLException {
+        if (closing) throw new IllegalStateException("Write-behind writer is closed");
+        if (failure != null) throw failure;
+
+        submittedSeq = log.append(intent);
+        queue.add(intent);
+    }
+
+    // Blocks until every submitted intent is in the database and returns the ones
+    // applied since the last flush (their workouts now carry database ids)
+    public synchronized List<WorkoutIntent> flush() throws SQLException {
+        while (appliedSeq < submittedSeq && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<WorkoutIntent> applied = appliedSinceFlush;
+        appliedSinceFlush = new ArrayList<>();
+        if (failure != null) throw failure;
+        return applied;
+    }
+
+    private synchronized boolean isClosing() {
+        return closing;
+    }
+
+    // True while flush() would return or wait for something
+    public synchronized boolean hasUnflushed() {
+        return appliedSeq < submittedSeq || !appliedSinceFlush.isEmpty();
+    }
+
+    public synchronized int getPendingCount() {
+        return (int) (submittedSeq - appliedSeq);
+    }
+
+    // Flushes, stops the writer thread and closes the log
+    @Override
+    public void close() throws SQLException, IOException {
+        synchronized (this) {
+            if (closing) return;
+        }
+
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                closing = true;
+            }
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.close();
+        }
+    }
+
+    // After the writer thread has given up: applies what it left in the log on the
+    // caller's thread, as a restart would, then closes and returns how many intents
+    // that took. If it fails again the writer stays failed and the log keeps every
+    // intent, so the caller can try again later.
+    public int retryAndClose() throws SQLException, IOException {
+        synchronized (this) {
+            if (closing) throw new IllegalStateException("Write-behind writer is closed");
+            if (failure == null) throw new IllegalStateException("Write-behind writer has not failed");
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int applied = replay(log);
+        synchronized (this) {
+            appliedSeq = submittedSeq;
+            failure = null;
+            closing = true;
+            notifyAll();
+        }
+        log.close();
+        return applied;
+    }
+
+    // ============================================================
+    // Writer Thread
+    // ============================================================
+
+    private void run() {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        List<WorkoutIntent> group = new ArrayList<>();
+
+        try {
+            while (true) {
+                // Polled rather than interrupted: an interrupt would close the log's FileChannel
+                WorkoutIntent next;
+                try {
+                    next = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    next = null;
+                }
+                if (next == null) {
+                    if (isClosing() && queue.isEmpty()) break;
+                    continue;
+                }
+
+                group.add(next);
+                queue.drainTo(group, MAX_GROUP_SIZE - group.size());
+
+                if (!applyWithRetry(group, db)) break;
+                group.clear();
+            }
+        } finally {
+            db.releaseConnection();
+        }
+    }
+
+    private boolean applyWithRetry(List<WorkoutIntent> group, DatabaseConnection db) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                db.beginTransaction();
+                applyGroup(group);
+                db.commitTransaction();
+                break;
+
+            } catch (SQLException e) {
+                try { db.rollbackTransaction(); } catch (SQLException ex) {}
+
+                if (attempt == MAX_ATTEMPTS) {
+                    // The intents stay in the log and are replayed on the next start
+                    System.err.println("\t\t\t\t\t[ ! ]   Background save failed: " + e.getMessage());
+                    synchronized (this) {
+                        failure = e;
+                        notifyAll();
+                    }
+                    return false;
+                }
+
+                try {
+                    Thread.sleep(200L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        long lastSeq = group.get(group.size() - 1).getSeq();
+        synchronized (this) {
+            appliedSeq = lastSeq;
+            appliedSinceFlush.addAll(group);
+            notifyAll();
+        }
+
+        try {
+            log.truncateIfApplied(lastSeq);
+        } catch (IOException e) {
+            // Harmless: applied intents are skipped by sequence number on replay
+            System.err.println("\t\t\t\t\t[ ! ]   Could not truncate intent log: " + e.getMessage());
+        }
+        return true;
+    }
+
+    // A group may hold several users' intents; each applies through its own user's DAOs
+    private static void applyGroup(List<WorkoutIntent> group) throws SQLException {
+        for (WorkoutIntent intent : group) {
+            intent.apply();
+        }
+
+        PreparedStatement pstmt = DatabaseConnection.getInstance().prepareStatement(
+            "UPDATE write_behind_state SET applied_seq = ? WHERE id = 1");
+        pstmt.setLong(1, group.get(group.size() - 1).getSeq());
+        pstmt.executeUpdate();
+    }
+
+    private static long readAppliedSeq() throws SQLException {
+        PreparedStatement pstmt = DatabaseConnection.getInstance().prepareReadStatement(
+            "SELECT applied_seq FROM write_behind_state WHERE id = 1");
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -31,4 +31,8 @@ public class Activity {
     public String getCategory() { return category; }
     public double getMetValue() { return metValue; }
     public double getBodyWeightFactor() { return bodyWeightFactor; }
+
+    // A name a goal introduced before any workout was logged for it; the first
+    // workout decides whether it is Strength or Cardio
+    public boolean isUntyped() { return workoutType == null || workoutType.isEmpty(); }
 }
\ No newline at end of file
@@ -10,6 +10,9 @@ public class BodyMetric {
     private double BMI;
     private LocalDate date;
 
+    // Formatted table row, built on first display
+    private final RowCache row = new RowCache();
+
     public BodyMetric(int age, double heightCm, double weightKg, double BMI, LocalDate date) {
         this.age = age;
         this.heightCm = heightCm;
@@ -38,6 +41,10 @@ public class BodyMetric {
 
     @Override
     public String toString() {
+        return row.get(this::formatRow);
+    }
+
+    private String formatRow() {
         String heightStr = String.format("%.1f cm", this.heightCm);
         String weightStr = String.format("%.1f kg", this.weightKg);
 
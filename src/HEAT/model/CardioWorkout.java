@@ -61,6 +61,10 @@ public class CardioWorkout extends Workout {
 
     @Override
     public String toString() {
+        return row.get(this::formatRow);
+    }
+
+    private String formatRow() {
         String typeStr = String.format("[%s]:", this.type);
         String distanceStr = String.format("%.1f km", this.distanceKm);
         String durationStr = String.format("%d mins", this.durationMinutes);
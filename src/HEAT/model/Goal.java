@@ -6,6 +6,7 @@ public class Goal {
     private int id;
     private String goalTitle;
     private String exerciseName;
+    private int activityId;
     private LocalDate startDate;
     private LocalDate endDate;
     private String goalType;
@@ -13,6 +14,9 @@ public class Goal {
     private double targetValue;
     private GoalStatus status;
 
+    // Formatted table row; the setters below invalidate it
+    private final RowCache row = new RowCache();
+
     // Constructor 1: Loading from database    
     public Goal(int id, String goalTitle, String exerciseName, LocalDate startDate, LocalDate endDate,
                 String goalType, double currentValue, double targetValue, GoalStatus status) {
@@ -45,6 +49,7 @@ public class Goal {
     public int getId() { return id; }
     public String getGoalTitle() { return goalTitle; }
     public String getExerciseName() { return exerciseName; }
+    public int getActivityId() { return activityId; }
     public LocalDate getStartDate() { return startDate; }
     public LocalDate getEndDate() { return endDate; }
     public String getGoalType() { return goalType; }
@@ -53,11 +58,16 @@ public class Goal {
     public GoalStatus getStatus() { return status; }
 
     public void setId(int newId) { this.id = newId; }
-    public void setStatus(GoalStatus newStatus) { this.status = newStatus; }
-    public void setCurrentValue(double newValue) { this.currentValue = newValue; }
+    public void setActivityId(int newActivityId) { this.activityId = newActivityId; }
+    public void setStatus(GoalStatus newStatus) { this.status = newStatus; row.invalidate(); }
+    public void setCurrentValue(double newValue) { this.currentValue = newValue; row.invalidate(); }
 
     @Override
     public String toString() {
+        return row.get(this::formatRow);
+    }
+
+    private String formatRow() {
         String unit = "";
 
         if (goalType.equals("weight loss") || goalType.equals("weight gain")) unit = "kg (bodyweight)";
@@ -8,6 +8,9 @@ public class PersonalRecord {
     private int reps = 0;
     private double weightKg = 0.0;
     private LocalDate date;
+
+    // Formatted table row; setName invalidates it
+    private final RowCache row = new RowCache();
     
     public PersonalRecord(String activityName, int durationMinutes, int reps, double weightKg, LocalDate date) {
         this.activityName = activityName;
@@ -23,10 +26,21 @@ public class PersonalRecord {
     public double getWeight() { return weightKg; }
     public LocalDate getDate() { return date; }
 
-    public void setName(String newName) { this.activityName = newName; }
+    public void setName(String newName) { this.activityName = newName; row.invalidate(); }
+
+    // Activity name part of a PR key ("Push-ups (reps)" -> "Push-ups")
+    public static String baseName(String prKey) {
+        if (prKey.endsWith(" (loaded)")) return prKey.substring(0, prKey.length() - " (loaded)".length());
+        if (prKey.endsWith(" (reps)")) return prKey.substring(0, prKey.length() - " (reps)".length());
+        return prKey;
+    }
 
     @Override
     public String toString() {
+        return row.get(this::formatRow);
+    }
+
+    private String formatRow() {
         double PRValue;
         String PRValueStr;
 
@@ -0,0 +1,24 @@
+package heat.model;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+// A model's formatted table row, kept until the model changes (setters call
+// invalidate) or the day rolls over, since rows show "Today" for the current date.
+final class RowCache {
+    private String row;
+    private long day;
+
+    String get(Supplier<String> format) {
+        long today = LocalDate.now().toEpochDay();
+        if (row == null || day != today) {
+            row = format.get();
+            day = today;
+        }
+        return row;
+    }
+
+    void invalidate() {
+        row = null;
+    }
+}
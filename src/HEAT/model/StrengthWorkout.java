@@ -46,6 +46,10 @@ public class StrengthWorkout extends Workout {
 
     @Override
     public String toString() {
+        return row.get(this::formatRow);
+    }
+
+    private String formatRow() {
         String typeStr = String.format("[%s]:", this.type);
         String repsAndSetsStr = String.format("%d sets x %d reps", this.setCount, this.repCount);
         String totalWeightStr = String.format("%.1fkg (%.1fkg body + %.1fkg ext.)", this.trainingVolumeKg, this.bodyWeightUsedKg, this.externalWeightKg);
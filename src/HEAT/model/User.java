@@ -3,6 +3,8 @@ package heat.model;
 import java.time.LocalDate;
 
 public class User {
+    // user_profile.id; 0 until saved
+    private int id;
     private String name;
     private int age;
     private double heightCm;
@@ -29,6 +31,7 @@ public class User {
         this(name, age, heightCm, weightKg, sex, bmi, bmr, 0, null);
     }
     
+    public int getId() { return id; }
     public String getName() { return name; }
     public int getAge() { return age; }
     public double getHeightCm() { return heightCm; }
@@ -39,6 +42,7 @@ public class User {
     public int getCurrentStreak() { return currentStreak; }
     public LocalDate getLastWorkoutDate() { return lastWorkoutDate; }
 
+    public void setId(int newId) { this.id = newId; }
     public void setAge(int newAge) { this.age = newAge; }
     public void setHeightCm(double newHeight) { this.heightCm = newHeight; }
     public void setWeightKg(double newWeight) { this.weightKg = newWeight; }
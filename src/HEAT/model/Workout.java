@@ -10,6 +10,12 @@ public abstract class Workout {
     protected double caloriesBurned;
     protected int durationMinutes;
 
+    // activities.id; 0 until the service resolves the name
+    protected int activityId;
+
+    // Formatted table row, built on first display
+    protected final RowCache row = new RowCache();
+
     public Workout(int id, String name, String type, LocalDate date, double caloriesBurned, int durationMinutes) {
         this.id = id;
         this.name = name;
@@ -28,6 +34,7 @@ public abstract class Workout {
     }    
 
     public int getId() { return id; }
+    public int getActivityId() { return activityId; }
     public String getName() { return name; }
     public String getType() { return type; }
     public LocalDate getDate() { return date; }
@@ -36,6 +43,7 @@ public abstract class Workout {
     public double getCaloriesBurned() { return caloriesBurned; }
 
     public void setId(int newId) { this.id = newId; } 
+    public void setActivityId(int newActivityId) { this.activityId = newActivityId; }
 
     @Override
     public String toString() {
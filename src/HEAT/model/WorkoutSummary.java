@@ -0,0 +1,93 @@
+package heat.model;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WorkoutSummary {
+    private String label;
+    private LocalDate from;
+    private LocalDate to;
+    private int workoutCount;
+    private long totalMinutes;
+    private double caloriesBurned;
+    private double trainingVolumeKg;
+    private double distanceKm;
+
+    // Category -> {workouts, minutes}
+    private Map<String, int[]> byCategory;
+
+    public WorkoutSummary(String label, LocalDate from, LocalDate to, int workoutCount, long totalMinutes,
+                          double caloriesBurned, double trainingVolumeKg, double distanceKm, Map<String, int[]> byCategory) {
+        this.label = label;
+        this.from = from;
+        this.to = to;
+        this.workoutCount = workoutCount;
+        this.totalMinutes = totalMinutes;
+        this.caloriesBurned = caloriesBurned;
+        this.trainingVolumeKg = trainingVolumeKg;
+        this.distanceKm = distanceKm;
+        this.byCategory = byCategory;
+    }
+
+    public String getLabel() { return label; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public int getWorkoutCount() { return workoutCount; }
+    public long getTotalMinutes() { return totalMinutes; }
+    public double getCaloriesBurned() { return caloriesBurned; }
+    public double getTrainingVolumeKg() { return trainingVolumeKg; }
+    public double getDistanceKm() { return distanceKm; }
+
+    public int getWorkoutCount(String category) {
+        int[] values = byCategory.get(category);
+        return (values == null) ? 0 : values[0];
+    }
+
+    public int getMinutes(String category) {
+        int[] values = byCategory.get(category);
+        return (values == null) ? 0 : values[1];
+    }
+
+    // Categories by workout count, most trained first
+    public Map<String, Integer> getWorkoutsByCategory() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        byCategory.entrySet().stream()
+            .sorted((a, b) -> b.getValue()[0] - a.getValue()[0])
+            .forEach(e -> counts.put(e.getKey(), e.getValue()[0]));
+        return counts;
+    }
+
+    public String getTopCategory() {
+        String top = null;
+        int best = 0;
+        for (Map.Entry<String, int[]> e : byCategory.entrySet()) {
+            if (e.getValue()[0] > best) {
+                best = e.getValue()[0];
+                top = e.getKey();
+            }
+        }
+        return top;
+    }
+
+    public WorkoutTotals toTotals() {
+        return new WorkoutTotals(workoutCount, trainingVolumeKg, caloriesBurned);
+    }
+
+    @Override
+    public String toString() {
+        String top = getTopCategory();
+
+        String str = String.format("   %-24s   |   %-10d   |   %-10d   |   %-12.0f   |   %-14.1f   |   %-12.1f   |   %s",
+            this.label,
+            this.workoutCount,
+            this.totalMinutes,
+            this.caloriesBurned,
+            this.trainingVolumeKg,
+            this.distanceKm,
+            top == null ? "-" : top
+        );
+
+        return str;
+    }
+}
@@ -0,0 +1,17 @@
+package heat.model;
+
+public class WorkoutTotals {
+    private int workoutCount;
+    private double trainingVolumeKg;
+    private double caloriesBurned;
+
+    public WorkoutTotals(int workoutCount, double trainingVolumeKg, double caloriesBurned) {
+        this.workoutCount = workoutCount;
+        this.trainingVolumeKg = trainingVolumeKg;
+        this.caloriesBurned = caloriesBurned;
+    }
+
+    public int getWorkoutCount() { return workoutCount; }
+    public double getTrainingVolumeKg() { return trainingVolumeKg; }
+    public double getCaloriesBurned() { return caloriesBurned; }
+}
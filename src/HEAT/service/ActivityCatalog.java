@@ -0,0 +1,127 @@
+package heat.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import heat.dao.WorkoutDAO;
+import heat.model.Activity;
+import heat.model.Workout;
+
+// The activities table in memory, indexed by activities.id. A name is resolved to
+// its id once when a workout enters the service; after that MET, bodyweight factor
+// and PR key lookups are array reads, and goal matching compares ids.
+public class ActivityCatalog {
+
+    // PR key variants, same rules as WorkoutService.generateKey
+    public static final int PLAIN = 0;
+    public static final int LOADED = 1;
+    public static final int REPS = 2;
+
+    private static final String[] SUFFIXES = { "", " (loaded)", " (reps)" };
+
+    private final WorkoutDAO workoutDAO;
+
+    private Activity[] byId = new Activity[0];
+    private String[][] prKeys = new String[0][];
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final Map<String, String> namesByFoldedName = new HashMap<>();
+    private final Map<String, List<String>> namesByCategory = new HashMap<>();
+
+    public ActivityCatalog(WorkoutDAO workoutDAO) {
+        this.workoutDAO = workoutDAO;
+    }
+
+    public synchronized void reset(List<Activity> activities) {
+        byId = new Activity[0];
+        prKeys = new String[0][];
+        idsByName.clear();
+        namesByFoldedName.clear();
+        namesByCategory.clear();
+        for (Activity a : activities) put(a);
+    }
+
+    // 0 if the name is not in the catalog
+    public synchronized int idOf(String activityName) {
+        Integer id = idsByName.get(activityName);
+        return (id == null) ? 0 : id;
+    }
+
+    // The catalog's spelling of a name typed in any case, so free text from the API
+    // or a batch file finds "Running" for "running"; the name itself if it is new
+    public synchronized String canonicalName(String activityName) {
+        return namesByFoldedName.getOrDefault(activityName.toLowerCase(Locale.ROOT), activityName);
+    }
+
+    // Like idOf, but a name outside the catalog is stored as a new activity first
+    public synchronized int intern(String activityName, String workoutType) throws SQLException {
+        int id = idOf(activityName);
+        if (id != 0) return id;
+
+        Activity added = workoutDAO.addActivity(activityName, workoutType);
+        put(added);
+        return added.getId();
+    }
+
+    // Sets the workout's activity id if it has none yet and returns it. An untyped
+    // activity takes the workout's type.
+    public int resolve(Workout w) throws SQLException {
+        if (w.getActivityId() == 0) w.setActivityId(intern(w.getName(), w.getType()));
+
+        Activity a = get(w.getActivityId());
+        if (a != null && a.isUntyped() && w.getType() != null) assignType(a, w.getType());
+        return w.getActivityId();
+    }
+
+    public synchronized Activity get(int activityId) {
+        return (activityId > 0 && activityId < byId.length) ? byId[activityId] : null;
+    }
+
+    // "Other" for ids outside the catalog, same as loadRollups
+    public synchronized String categoryOf(int activityId) {
+        Activity a = get(activityId);
+        return (a == null || a.getCategory() == null) ? "Other" : a.getCategory();
+    }
+
+    public synchronized List<String> namesIn(String category) {
+        return namesByCategory.get(category);
+    }
+
+    // Prebuilt key strings, so repeated lookups reuse one String per key
+    public synchronized String prKey(int activityId, String activityName, int variant) {
+        if (activityId > 0 && activityId < prKeys.length && prKeys[activityId] != null) {
+            return prKeys[activityId][variant];
+        }
+        return activityName + SUFFIXES[variant];
+    }
+
+    // Same id, name and category, so the name and PR key indexes stay as they are
+    private synchronized void assignType(Activity a, String workoutType) throws SQLException {
+        workoutDAO.setActivityType(a.getId(), workoutType);
+        byId[a.getId()] = new Activity(a.getId(), a.getActivityName(), workoutType,
+            a.getCategory(), a.getMetValue(), a.getBodyWeightFactor());
+    }
+
+    private void put(Activity a) {
+        int id = a.getId();
+        if (id >= byId.length) {
+            int capacity = Math.max(id + 1, byId.length * 2);
+            byId = Arrays.copyOf(byId, capacity);
+            prKeys = Arrays.copyOf(prKeys, capacity);
+        }
+
+        byId[id] = a;
+        prKeys[id] = new String[SUFFIXES.length];
+        for (int variant = 0; variant < SUFFIXES.length; variant++) {
+            prKeys[id][variant] = a.getActivityName() + SUFFIXES[variant];
+        }
+
+        idsByName.put(a.getActivityName(), id);
+        namesByFoldedName.putIfAbsent(a.getActivityName().toLowerCase(Locale.ROOT), a.getActivityName());
+        namesByCategory.computeIfAbsent(a.getCategory(), k -> new ArrayList<>()).add(a.getActivityName());
+    }
+}
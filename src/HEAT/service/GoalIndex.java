@@ -0,0 +1,96 @@
+package heat.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import heat.model.Goal;
+
+// Lookup structure over GoalService's goals: by id, by goal type, and per activity id
+// by start date, so a logged workout only visits the goals whose exercise and
+// [startDate, endDate] window it falls into. Holds goals of every status; callers
+// filter on status since it changes in place. Exercise, type and dates never
+// change on a Goal, so only create/update/delete/reload have to touch the index.
+public class GoalIndex {
+
+    private final Map<Integer, Goal> byId = new HashMap<>();
+    private final Map<String, List<Goal>> byType = new HashMap<>();
+
+    // Activity id -> start date -> goals starting that day. Ids match exactly, as the
+    // rollup queries behind goal progress match names exactly.
+    private final Map<Integer, TreeMap<LocalDate, List<Goal>>> byActivity = new HashMap<>();
+
+    public void rebuild(List<Goal> goals) {
+        byId.clear();
+        byType.clear();
+        byActivity.clear();
+        for (Goal g : goals) add(g);
+    }
+
+    public void add(Goal g) {
+        remove(g.getId());
+        byId.put(g.getId(), g);
+        byType.computeIfAbsent(g.getGoalType(), k -> new ArrayList<>()).add(g);
+
+        if (g.getActivityId() != 0) {
+            byActivity.computeIfAbsent(g.getActivityId(), k -> new TreeMap<>())
+                .computeIfAbsent(g.getStartDate(), k -> new ArrayList<>())
+                .add(g);
+        }
+    }
+
+    // Removes the indexed goal with this id (the caller may hold a different instance)
+    public void remove(int goalId) {
+        Goal g = byId.remove(goalId);
+        if (g == null) return;
+
+        List<Goal> sameType = byType.get(g.getGoalType());
+        if (sameType != null) {
+            sameType.removeIf(existing -> existing.getId() == goalId);
+            if (sameType.isEmpty()) byType.remove(g.getGoalType());
+        }
+
+        if (g.getActivityId() == 0) return;
+
+        TreeMap<LocalDate, List<Goal>> byStart = byActivity.get(g.getActivityId());
+        if (byStart == null) return;
+
+        List<Goal> sameStart = byStart.get(g.getStartDate());
+        if (sameStart != null) {
+            sameStart.removeIf(existing -> existing.getId() == goalId);
+            if (sameStart.isEmpty()) byStart.remove(g.getStartDate());
+        }
+        if (byStart.isEmpty()) byActivity.remove(g.getActivityId());
+    }
+
+    public Goal get(int goalId) {
+        return byId.get(goalId);
+    }
+
+    // Goals for this activity whose [startDate, endDate] contains the date, any status
+    public List<Goal> findCovering(int activityId, LocalDate date) {
+        TreeMap<LocalDate, List<Goal>> byStart = byActivity.get(activityId);
+        if (byStart == null) return Collections.emptyList();
+
+        List<Goal> matches = new ArrayList<>();
+        for (List<Goal> sameStart : byStart.headMap(date, true).values()) {
+            for (Goal g : sameStart) {
+                if (g.getEndDate() == null || !date.isAfter(g.getEndDate())) matches.add(g);
+            }
+        }
+        return matches;
+    }
+
+    public List<Goal> findByType(String goalType) {
+        List<Goal> sameType = byType.get(goalType);
+        return (sameType == null) ? Collections.emptyList() : sameType;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
@@ -2,7 +2,9 @@ package heat.service;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.time.LocalDate;
 
 import heat.dao.DatabaseConnection;
@@ -11,7 +13,9 @@ import heat.model.Goal;
 import heat.model.GoalStatus;
 import heat.model.StrengthWorkout;
 import heat.model.Workout;
+import heat.util.Metrics;
 
+@SuppressWarnings("try") // Metrics timers are try-with-resources blocks that never read the timer
 public class GoalService {
     
     // ============================================================
@@ -20,6 +24,7 @@ public class GoalService {
 
     private List<Goal> goals = new ArrayList<>();
     private List<Goal> activeGoals = new ArrayList<>();
+    private final GoalIndex goalIndex = new GoalIndex();
     
     private DatabaseConnection dbConnection;
     private GoalDAO goalDAO;
@@ -27,29 +32,42 @@ public class GoalService {
     private UserService userService;
 
     public GoalService(UserService userService) {
+        this(userService, StartupData.forGoalService(userService.getUserId()));
+    }
+
+    // Goals already loaded (see StartupOrchestrator); expiry still writes, so it runs here
+    GoalService(UserService userService, StartupData data) {
         this.dbConnection = DatabaseConnection.getInstance();
-        this.goalDAO = new GoalDAO();
+        this.goalDAO = new GoalDAO(data.userId);
         this.userService = userService;
 
-        try {
-            List<Goal> loadedGoals = goalDAO.loadGoals();
-            if (loadedGoals != null) { goals = loadedGoals; }
-
-            this.activeGoals = new ArrayList<>();
-            for (Goal g : this.goals) {
-                if (g.getStatus() == GoalStatus.ACTIVE) {
-                    this.activeGoals.add(g);
-                }
-            }
+        applyGoals(data.goals);
+        System.out.println("[OK] GoalService: " + getGoalsSize() + " goals loaded");
 
-            System.out.println("[OK] GoalService: " + getGoalsSize() + " goals loaded");
+        checkGoalExpiration();
+    }
 
-        } catch (SQLException e) {
-            System.out.println("Warning: could not load persisted data: " + e.getMessage());
-            e.printStackTrace();
+    public void reloadGoals() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("GoalService.reloadGoals")) {
+            reloadGoalsUntimed();
         }
+    }
 
-        checkGoalExpiration();
+    private void reloadGoalsUntimed() throws SQLException {
+        List<Goal> loadedGoals = goalDAO.loadGoals();
+        if (loadedGoals != null) { applyGoals(loadedGoals); }
+    }
+
+    private void applyGoals(List<Goal> loadedGoals) {
+        goals = loadedGoals;
+        goalIndex.rebuild(goals);
+
+        this.activeGoals = new ArrayList<>();
+        for (Goal g : this.goals) {
+            if (g.getStatus() == GoalStatus.ACTIVE) {
+                this.activeGoals.add(g);
+            }
+        }
     }
 
     // ============================================================
@@ -70,6 +88,7 @@ public class GoalService {
 
             goals.add(0, g);
             activeGoals.add(0, g);
+            goalIndex.add(g);
 
             return true;
 
@@ -111,6 +130,9 @@ public class GoalService {
             goalDAO.updateGoal(updated);
             dbConnection.commitTransaction();
 
+            // The exercise cannot change on an update
+            updated.setActivityId(original.getActivityId());
+
             // Update Master List
             for (int i = 0; i < goals.size(); i++) {
                 if (goals.get(i).getId() == updated.getId()) {
@@ -118,6 +140,7 @@ public class GoalService {
                     break;
                 }
             }
+            goalIndex.add(updated);
             
             // Update Active List
             activeGoals.removeIf(g -> g.getId() == updated.getId());
@@ -142,6 +165,7 @@ public class GoalService {
 
             goals.removeIf(existing -> existing.getId() == g.getId());
             activeGoals.removeIf(existing -> existing.getId() == g.getId());
+            goalIndex.remove(g.getId());
 
             return true;
         } catch (SQLException e) {
@@ -155,46 +179,111 @@ public class GoalService {
     // ============================================================
 
     public List<Goal> refreshGoalsForWorkout(Workout w) throws SQLException {
+        return refreshGoalsForWorkouts(List.of(w));
+    }
+
+    // Refreshes every goal any of the workouts counts towards, each goal once,
+    // e.g. for a whole logged session
+    public List<Goal> refreshGoalsForWorkouts(List<Workout> workouts) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("GoalService.refreshGoalsForWorkouts")) {
+            return refreshGoalsForWorkoutsUntimed(workouts);
+        }
+    }
+
+    private List<Goal> refreshGoalsForWorkoutsUntimed(List<Workout> workouts) throws SQLException {
         List<Goal> newlyCompletedGoals = new ArrayList<>();
         List<Goal> revivedGoals = new ArrayList<>();
 
-        for (Goal g : goals) {
-            if (g.getStatus() == GoalStatus.EXPIRED) continue;
+        Map<Integer, Goal> affectedGoals = new LinkedHashMap<>();
+        for (Workout w : workouts) {
+            // Only goals on this exercise whose date window covers the workout
+            for (Goal g : goalIndex.findCovering(w.getActivityId(), w.getDate())) {
+                if (isRelevantToGoal(g, w)) affectedGoals.putIfAbsent(g.getId(), g);
+            }
+        }
+
+        for (Goal g : affectedGoals.values()) {
+            refreshGoal(g, newlyCompletedGoals, revivedGoals);
+        }
+
+        for (Goal revived : revivedGoals) {
+            if (!activeGoals.contains(revived)) {
+                activeGoals.add(revived);
+            }
+        }
+
+        return newlyCompletedGoals;
+    }
+
+    private boolean isRelevantToGoal(Goal g, Workout w) {
+        if (g.getStatus() == GoalStatus.EXPIRED) return false;
+
+        String type = g.getGoalType();
+
+        if (type.equals("weight loss") || type.equals("weight gain")) return false;
+
+        if (type.equals("frequency")) return true;
+        else if ((type.equals("weight lifted") || type.equals("reps")) && w instanceof StrengthWorkout) return true;
+        else if (type.equals("duration") || type.equals("total_duration")) return true;
+        else if (type.equals("total_reps")) return true; 
+
+        return false;
+    }
+
+    // Write-behind counterpart of refreshGoalsForWorkout for a newly logged workout:
+    // advances each covering goal from the workout alone, without touching the
+    // database, and returns the goals it changed for the writer to persist
+    public List<Goal> advanceGoalsForWorkout(Workout w, List<Goal> newlyCompletedGoals) {
+        List<Goal> changedGoals = new ArrayList<>();
 
-            if (w.getDate().isBefore(g.getStartDate())) continue;
-            if (g.getEndDate() != null && w.getDate().isAfter(g.getEndDate())) continue;
+        for (Goal g : goalIndex.findCovering(w.getActivityId(), w.getDate())) {
+            if (g.getStatus() == GoalStatus.EXPIRED) continue;
 
             String type = g.getGoalType();
-            String goalExercise = g.getExerciseName();
+            double value = g.getCurrentValue();
 
             if (type.equals("weight loss") || type.equals("weight gain")) continue;
-            
-            if (!goalExercise.equalsIgnoreCase(w.getName())) continue;
+            else if (type.equals("reps")) {
+                if (!(w instanceof StrengthWorkout sw)) continue;
+                value = Math.max(value, sw.getRepCount());
+            }
+            else if (type.equals("weight lifted")) {
+                if (!(w instanceof StrengthWorkout sw)) continue;
+                value = Math.max(value, sw.getExternalWeightKg());
+            }
+            else if (type.equals("duration")) value += w.getDurationMinutes();
+            else value += 1;
 
-            boolean isRelevantToGoal = false;
-            if (type.equals("frequency")) isRelevantToGoal = true;
-            else if ((type.equals("weight lifted") || type.equals("reps")) && w instanceof StrengthWorkout) isRelevantToGoal = true;
-            else if (type.equals("duration") || type.equals("total_duration")) isRelevantToGoal = true;
-            else if (type.equals("total_reps")) isRelevantToGoal = true; 
+            g.setCurrentValue(value);
 
-            if (isRelevantToGoal) {
-                double newValue = getCurrentValue(type, goalExercise, g.getStartDate());
-                g.setCurrentValue(newValue);
-                goalDAO.updateGoalCurrentValue(g.getId(), newValue);
+            if (g.getStatus() == GoalStatus.ACTIVE && isGoalCompleted(value, g.getTargetValue(), type)) {
+                g.setStatus(GoalStatus.COMPLETED);
+                newlyCompletedGoals.add(g);
+            }
+            changedGoals.add(g);
+        }
 
-                boolean metTarget = isGoalCompleted(newValue, g.getTargetValue(), type);
+        return changedGoals;
+    }
 
-                if (g.getStatus() == GoalStatus.ACTIVE && metTarget) {
-                    g.setStatus(GoalStatus.COMPLETED);
-                    newlyCompletedGoals.add(g);
-                }
-                else if (g.getStatus() == GoalStatus.COMPLETED && !metTarget) {
-                    g.setStatus(GoalStatus.ACTIVE);
-                    goalDAO.updateGoalStatus(g.getId(), "ACTIVE");
-                    revivedGoals.add(g);
-                    System.out.println("\t\t\t\t\tGoal downgraded to ACTIVE: " + g.getGoalTitle());
-                }
-            }
+    // Recomputes every exercise goal once, e.g. after a bulk import
+    public List<Goal> refreshAllGoals() throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("GoalService.refreshAllGoals")) {
+            return refreshAllGoalsUntimed();
+        }
+    }
+
+    private List<Goal> refreshAllGoalsUntimed() throws SQLException {
+        List<Goal> newlyCompletedGoals = new ArrayList<>();
+        List<Goal> revivedGoals = new ArrayList<>();
+
+        for (Goal g : goals) {
+            if (g.getStatus() == GoalStatus.EXPIRED) continue;
+
+            String type = g.getGoalType();
+            if (type.equals("weight loss") || type.equals("weight gain")) continue;
+
+            refreshGoal(g, newlyCompletedGoals, revivedGoals);
         }
 
         for (Goal revived : revivedGoals) {
@@ -206,15 +295,37 @@ public class GoalService {
         return newlyCompletedGoals;
     }
 
+    private void refreshGoal(Goal g, List<Goal> newlyCompletedGoals, List<Goal> revivedGoals) throws SQLException {
+        String type = g.getGoalType();
+
+        double newValue = getCurrentValue(type, g.getExerciseName(), g.getStartDate());
+        g.setCurrentValue(newValue);
+        goalDAO.updateGoalCurrentValue(g.getId(), newValue);
+
+        boolean metTarget = isGoalCompleted(newValue, g.getTargetValue(), type);
+
+        if (g.getStatus() == GoalStatus.ACTIVE && metTarget) {
+            g.setStatus(GoalStatus.COMPLETED);
+            newlyCompletedGoals.add(g);
+        }
+        else if (g.getStatus() == GoalStatus.COMPLETED && !metTarget) {
+            g.setStatus(GoalStatus.ACTIVE);
+            goalDAO.updateGoalStatus(g.getId(), "ACTIVE");
+            revivedGoals.add(g);
+            System.out.println("\t\t\t\t\tGoal downgraded to ACTIVE: " + g.getGoalTitle());
+        }
+    }
+
     public List<Goal> evaluateWeightGoals(double currentWeight) throws SQLException {
         List<Goal> completedGoals = new ArrayList<>();
 
-        for (Goal g : activeGoals) {
-            String type = g.getGoalType();
+        List<Goal> weightGoals = new ArrayList<>(goalIndex.findByType("weight loss"));
+        weightGoals.addAll(goalIndex.findByType("weight gain"));
 
-            if (!type.equals("weight loss") && !type.equals("weight gain")) {
-                continue;
-            }
+        for (Goal g : weightGoals) {
+            if (g.getStatus() != GoalStatus.ACTIVE) continue;
+
+            String type = g.getGoalType();
 
             g.setCurrentValue(currentWeight);
             goalDAO.updateGoalCurrentValue(g.getId(), currentWeight);
@@ -273,19 +384,24 @@ public class GoalService {
     // ============================================================
 
     public void archiveCompletedGoals(List<Goal> goalsToArchive) throws SQLException {
+        try (Metrics.Timer timer = Metrics.timer("GoalService.archiveCompletedGoals")) {
+            archiveCompletedGoalsUntimed(goalsToArchive);
+        }
+    }
+
+    private void archiveCompletedGoalsUntimed(List<Goal> goalsToArchive) throws SQLException {
         if (goalsToArchive == null || goalsToArchive.isEmpty()) return;
 
         for (Goal completedGoal : goalsToArchive) {
             activeGoals.removeIf(g -> g.getId() == completedGoal.getId());
 
-            for (Goal masterGoal : goals) {
-                if (masterGoal.getId() == completedGoal.getId()) {
-                    masterGoal.setStatus(GoalStatus.COMPLETED);
-                    masterGoal.setCurrentValue(completedGoal.getCurrentValue());
-                    break;
-                }
+            Goal masterGoal = goalIndex.get(completedGoal.getId());
+            if (masterGoal != null) {
+                masterGoal.setStatus(GoalStatus.COMPLETED);
+                masterGoal.setCurrentValue(completedGoal.getCurrentValue());
             }
             System.out.println("\t\t\t\t\tGoal completed: " + completedGoal.getGoalTitle());
+            Metrics.increment("goals.completed");
         }
     }
 
@@ -321,12 +437,11 @@ public class GoalService {
     }
 
     private void archiveExpiredGoals(List<Integer> expiredIds) {
-        activeGoals.removeIf(g -> expiredIds.contains(g.getId()));
+        activeGoals.removeIf(g -> g.getStatus() == GoalStatus.EXPIRED);
 
-        for (Goal masterGoal : goals) {
-            if (expiredIds.contains(masterGoal.getId())) {
-                masterGoal.setStatus(GoalStatus.EXPIRED);
-            }
+        for (int id : expiredIds) {
+            Goal masterGoal = goalIndex.get(id);
+            if (masterGoal != null) masterGoal.setStatus(GoalStatus.EXPIRED);
         }
     }
 
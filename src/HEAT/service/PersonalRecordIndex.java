@@ -0,0 +1,129 @@
+package heat.service;
+
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import heat.dao.WorkoutDAO;
+import heat.model.StrengthWorkout;
+import heat.model.Workout;
+
+// Best-first PR candidates per PR key, so losing the record holder promotes the
+// runner-up without rescanning the exercise's history. Each key holds the top
+// workouts for that key and is loaded from the database the first time it is needed.
+public class PersonalRecordIndex {
+
+    public static final int DEFAULT_DEPTH = 32;
+
+    private static final Comparator<Workout> NEWEST_FIRST =
+        Comparator.comparing(Workout::getDate).reversed()
+            .thenComparing(Comparator.comparingInt(Workout::getId).reversed());
+
+    // Same orderings as WorkoutDAO.recalculatePR, best first
+    private static final Comparator<Workout> BY_DURATION =
+        Comparator.comparingInt(Workout::getDurationMinutes).reversed().thenComparing(NEWEST_FIRST);
+
+    private static final Comparator<Workout> BY_REPS =
+        Comparator.comparingInt(PersonalRecordIndex::reps).reversed().thenComparing(NEWEST_FIRST);
+
+    private static final Comparator<Workout> BY_WEIGHT =
+        Comparator.comparingDouble(PersonalRecordIndex::weight).reversed()
+            .thenComparing(Comparator.comparingInt(PersonalRecordIndex::reps).reversed())
+            .thenComparing(NEWEST_FIRST);
+
+    private static class Candidates {
+        final TreeSet<Workout> ranked;
+        // True while ranked holds every workout for the key, not just the top few
+        boolean complete;
+
+        Candidates(Comparator<Workout> order) {
+            this.ranked = new TreeSet<>(order);
+        }
+    }
+
+    private final WorkoutDAO workoutDAO;
+    private final int depth;
+    private final Map<String, Candidates> byKey = new HashMap<>();
+
+    private long loads = 0;
+
+    public PersonalRecordIndex(WorkoutDAO workoutDAO) {
+        this(workoutDAO, DEFAULT_DEPTH);
+    }
+
+    public PersonalRecordIndex(WorkoutDAO workoutDAO, int depth) {
+        this.workoutDAO = workoutDAO;
+        this.depth = depth;
+    }
+
+    // Current best workout for the key, or null if no workout qualifies
+    public Workout best(String PRName, String rawName, String type) throws SQLException {
+        Candidates c = byKey.get(PRName);
+
+        // An emptied partial set may still have unseen rows further down the history
+        if (c == null || (c.ranked.isEmpty() && !c.complete)) {
+            c = load(PRName, rawName, type);
+        }
+        return c.ranked.isEmpty() ? null : c.ranked.first();
+    }
+
+    // Keys that were never loaded are skipped; they read the row from the database later
+    public void add(String PRName, Workout w) {
+        Candidates c = byKey.get(PRName);
+        if (c == null) return;
+
+        // A partial set only stays exact for rows that rank above its worst entry
+        if (!c.complete && (c.ranked.isEmpty() || c.ranked.comparator().compare(w, c.ranked.last()) > 0)) return;
+
+        c.ranked.add(w);
+        if (c.ranked.size() > depth) {
+            c.ranked.pollLast();
+            c.complete = false;
+        }
+    }
+
+    public void remove(String PRName, Workout w) {
+        Candidates c = byKey.get(PRName);
+        if (c == null) return;
+
+        if (!c.ranked.remove(w)) {
+            c.ranked.removeIf(existing -> existing.getId() == w.getId());
+        }
+    }
+
+    // Forget everything, e.g. after a rollback or a bulk import
+    public void clear() {
+        byKey.clear();
+    }
+
+    public int getLoadedKeyCount() { return byKey.size(); }
+    public long getLoads() { return loads; }
+
+    private Candidates load(String PRName, String rawName, String type) throws SQLException {
+        List<Workout> top = workoutDAO.loadPRCandidates(rawName, PRName, type, depth);
+        loads++;
+
+        Candidates c = new Candidates(orderFor(PRName, type));
+        c.ranked.addAll(top);
+        c.complete = top.size() < depth;
+        byKey.put(PRName, c);
+        return c;
+    }
+
+    private static Comparator<Workout> orderFor(String PRName, String type) {
+        if (type.equalsIgnoreCase("Cardio")) return BY_DURATION;
+        if (PRName.endsWith("(reps)")) return BY_REPS;
+        return BY_WEIGHT;
+    }
+
+    private static int reps(Workout w) {
+        return (w instanceof StrengthWorkout sw) ? sw.getRepCount() : 0;
+    }
+
+    private static double weight(Workout w) {
+        return (w instanceof StrengthWorkout sw) ? sw.getExternalWeightKg() : 0.0;
+    }
+}
@@ -0,0 +1,123 @@
+package heat.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import heat.dao.UserDAO;
+import heat.dao.WriteBehindWriter;
+import heat.model.User;
+
+// The profiles opened this session, each with its own UserService, GoalService and
+// WorkoutService (and so its own in-memory caches). Switching back to a recently
+// used profile is a map lookup; past the capacity the least recently used profile
+// is dropped and reloaded from the database if opened again.
+//
+// Only the active profile logs workouts, and its write-behind queue is drained
+// before another profile becomes active, so a profile that is dropped or resumed
+// never has workouts in flight.
+public class ProfileManager {
+
+    // Profiles kept in memory (-Dheat.profiles.cached)
+    public static final int DEFAULT_CAPACITY = Integer.getInteger("heat.profiles.cached", 4);
+
+    // One user's services
+    public static class Profile {
+        private final UserService userService;
+        private final GoalService goalService;
+        private final WorkoutService workoutService;
+
+        public Profile(UserService userService, GoalService goalService, WorkoutService workoutService) {
+            this.userService = userService;
+            this.goalService = goalService;
+            this.workoutService = workoutService;
+        }
+
+        public int getUserId() { return userService.getUserId(); }
+        public UserService getUserService() { return userService; }
+        public GoalService getGoalService() { return goalService; }
+        public WorkoutService getWorkoutService() { return workoutService; }
+    }
+
+    private final IntFunction<Profile> loader;
+    private final WriteBehindWriter writeBehind;
+    private final int capacity;
+
+    // Access order: the eldest entry is the least recently used profile
+    private final LinkedHashMap<Integer, Profile> profiles;
+
+    private Profile active;
+    private int loads = 0;
+    private int evictions = 0;
+
+    // loader builds a profile's services from the database; writeBehind may be null
+    public ProfileManager(IntFunction<Profile> loader, WriteBehindWriter writeBehind, int capacity) {
+        this.loader = loader;
+        this.writeBehind = writeBehind;
+        this.capacity = Math.max(1, capacity);
+        this.profiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Profile> eldest) {
+                if (size() <= ProfileManager.this.capacity || eldest.getValue() == active) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    // Makes an already built profile the active one (the startup profile)
+    public void activate(Profile profile) {
+        if (writeBehind != null) profile.getWorkoutService().enableWriteBehind(writeBehind);
+        profiles.put(profile.getUserId(), profile);
+        active = profile;
+    }
+
+    // Returns the profile's services, loading them if they are not in memory. A user
+    // id without a profile row yet gives an unregistered profile.
+    public Profile switchTo(int userId) {
+        if (active != null) {
+            if (active.getUserId() == userId) return active;
+            active.getWorkoutService().flushPendingWrites();
+        }
+
+        Profile profile = profiles.get(userId);
+        if (profile == null) {
+            profile = loader.apply(userId);
+            loads++;
+            if (writeBehind != null) profile.getWorkoutService().enableWriteBehind(writeBehind);
+        }
+
+        // Set before the put so the new profile is never the one evicted
+        active = profile;
+        profiles.put(userId, profile);
+        return profile;
+    }
+
+    // Switches to an empty profile under a fresh id; registering it creates the row
+    public Profile switchToNewProfile() throws SQLException {
+        return switchTo(new UserDAO().nextProfileId());
+    }
+
+    public boolean isCached(int userId) {
+        return profiles.containsKey(userId);
+    }
+
+    // Every registered profile (id and name), oldest first
+    public List<User> listProfiles() {
+        try {
+            return new UserDAO().listProfiles();
+        } catch (SQLException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Could not list profiles: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public Profile getActive() { return active; }
+    public int getCachedCount() { return profiles.size(); }
+    public int getCapacity() { return capacity; }
+    public int getLoadCount() { return loads; }
+    public int getEvictionCount() { return evictions; }
+}
@@ -0,0 +1,81 @@
+package heat.service;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import heat.dao.GoalDAO;
+import heat.dao.UserDAO;
+import heat.dao.WorkoutDAO;
+import heat.model.*;
+
+// What one profile's services read from the database before they are used. The
+// StartupOrchestrator fills it from parallel tasks; the public service
+// constructors fill only their own part, one load after another.
+class StartupData {
+    final int userId;
+
+    User userProfile;
+    List<BodyMetric> bodyMetrics = new ArrayList<>();
+    List<Goal> goals = new ArrayList<>();
+    Map<String, PersonalRecord> personalRecords = new LinkedHashMap<>();
+    List<Quote> quotes = new ArrayList<>();
+    List<Activity> activities = new ArrayList<>();
+    Map<LocalDate, Integer> workoutDays = new LinkedHashMap<>();
+
+    // -1 until counted
+    int workoutCount = -1;
+
+    StartupData(int userId) {
+        this.userId = userId;
+    }
+
+    static StartupData forUserService(int userId) {
+        StartupData data = new StartupData(userId);
+        UserDAO userDAO = new UserDAO(userId);
+        try {
+            data.userProfile = userDAO.loadUserProfile();
+            data.bodyMetrics = orEmpty(userDAO.loadBodyMetrics());
+        } catch (SQLException e) {
+            warn(e);
+        }
+        return data;
+    }
+
+    static StartupData forGoalService(int userId) {
+        StartupData data = new StartupData(userId);
+        try {
+            data.goals = orEmpty(new GoalDAO(userId).loadGoals());
+        } catch (SQLException e) {
+            warn(e);
+        }
+        return data;
+    }
+
+    static StartupData forWorkoutService(int userId) {
+        StartupData data = new StartupData(userId);
+        WorkoutDAO workoutDAO = new WorkoutDAO(userId);
+        try {
+            Map<String, PersonalRecord> loadedPRs = workoutDAO.loadPersonalRecords();
+            if (loadedPRs != null) data.personalRecords = loadedPRs;
+            data.quotes = orEmpty(workoutDAO.loadQuotes());
+            data.activities = orEmpty(workoutDAO.loadActivities());
+            data.workoutDays = workoutDAO.loadWorkoutDayCounts();
+        } catch (SQLException e) {
+            warn(e);
+        }
+        return data;
+    }
+
+    static <T> List<T> orEmpty(List<T> list) {
+        return (list == null) ? new ArrayList<>() : list;
+    }
+
+    static void warn(Exception e) {
+        System.out.println("Warning: could not load persisted data: " + e.getMessage());
+        e.printStackTrace();
+    }
+}
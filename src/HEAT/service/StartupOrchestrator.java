@@ -0,0 +1,256 @@
+package heat.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import heat.dao.ConnectionPool;
+import heat.dao.DatabaseConnection;
+import heat.dao.GoalDAO;
+import heat.dao.PoolMetrics;
+import heat.dao.UserDAO;
+import heat.dao.WorkoutDAO;
+import heat.dao.WriteBehindWriter;
+import heat.model.*;
+import heat.util.Metrics;
+
+// Brings the application up to the first menu. Schema migration, catalog
+// seeding and intent-log replay run first and in order, since every load
+// depends on them. The independent table loads for the starting profile then run
+// side by side, each on its own thread with a read-only pooled connection, and
+// each service is built as soon as the loads it needs are done:
+//
+//     profile, body metrics  ->  UserService
+//     goals                  ->  GoalService (then goal expiry, which writes)
+//     PRs, quotes, activities, workout days, workout count  ->  WorkoutService
+//
+// Every stage is timed; printTimings() shows where time-to-first-menu goes.
+// Profiles opened later through the ProfileManager load the same way. Pool,
+// write-behind and profile-cache gauges are registered with Metrics here, and
+// the metrics file exporter starts if -Dheat.metrics.file is set.
+//
+//   -Dheat.profile=<id>   profile to start with (default: the first one registered)
+public class StartupOrchestrator {
+
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private final Map<String, Long> loadNanos = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    private String executorName;
+
+    private ProfileManager profiles;
+    private WriteBehindWriter writeBehind;
+
+    public void run() {
+        long t = System.nanoTime();
+        DatabaseConnection.getInstance();
+        record("database", t);
+
+        try {
+            // Seeds activities and quotes from CSV if the tables are empty
+            t = System.nanoTime();
+            new WorkoutDAO().performInitialSetup();
+            record("catalog setup", t);
+
+            // Replays workouts a write-behind session logged but did not save before it stopped
+            t = System.nanoTime();
+            Path intentLog = Path.of(WriteBehindWriter.DEFAULT_LOG_FILE);
+            if (WriteBehindWriter.isEnabled()) {
+                writeBehind = WriteBehindWriter.open(intentLog);
+                System.out.println("[OK] Write-behind enabled (" + intentLog + ")");
+            } else {
+                WriteBehindWriter.recover(intentLog);
+            }
+            record("intent log", t);
+
+        } catch (SQLException | IOException e) {
+            System.err.println("Critical Error during startup: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        int userId = startingProfileId();
+        profiles = new ProfileManager(this::loadProfile, writeBehind, ProfileManager.DEFAULT_CAPACITY);
+        profiles.activate(loadProfile(userId));
+
+        registerGauges();
+        Path metricsFile = Metrics.startExporterFromProperties();
+        if (metricsFile != null) System.out.println("[OK] Writing metrics to " + metricsFile);
+    }
+
+    private void registerGauges() {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        Metrics.gauge("db.connections.inUse", () -> db.getPoolMetrics().stream().mapToLong(PoolMetrics::getInUse).sum());
+        Metrics.gauge("db.checkouts", () -> db.getPoolMetrics().stream().mapToLong(PoolMetrics::getCheckouts).sum());
+        Metrics.gauge("db.checkoutTimeouts", () -> db.getPoolMetrics().stream().mapToLong(PoolMetrics::getTimeouts).sum());
+        Metrics.gauge("db.statementCache.hits", () -> db.getPoolMetrics().stream().mapToLong(PoolMetrics::getStatementHits).sum());
+        Metrics.gauge("db.statementCache.misses", () -> db.getPoolMetrics().stream().mapToLong(PoolMetrics::getStatementMisses).sum());
+
+        if (writeBehind != null) Metrics.gauge("writeBehind.pending", writeBehind::getPendingCount);
+
+        Metrics.gauge("profiles.cached", profiles::getCachedCount);
+        Metrics.gauge("profiles.loads", profiles::getLoadCount);
+        Metrics.gauge("profiles.evictions", profiles::getEvictionCount);
+    }
+
+    private int startingProfileId() {
+        Integer configured = Integer.getInteger("heat.profile");
+        if (configured != null) return configured;
+
+        List<User> registered = new ArrayList<>();
+        try {
+            registered = new UserDAO().listProfiles();
+        } catch (SQLException e) {
+            StartupData.warn(e);
+        }
+        return registered.isEmpty() ? UserDAO.DEFAULT_USER_ID : registered.get(0).getId();
+    }
+
+    // One profile's loads in parallel, then its three services
+    ProfileManager.Profile loadProfile(int userId) {
+        UserDAO userDAO = new UserDAO(userId);
+        GoalDAO goalDAO = new GoalDAO(userId);
+        WorkoutDAO workoutDAO = new WorkoutDAO(userId);
+
+        ExecutorService loaders = newLoaderExecutor();
+        try {
+            Future<User> profile = submit(loaders, "profile", userDAO::loadUserProfile);
+            Future<List<BodyMetric>> bodyMetrics = submit(loaders, "body metrics", userDAO::loadBodyMetrics);
+            Future<List<Goal>> goals = submit(loaders, "goals", goalDAO::loadGoals);
+            Future<Map<String, PersonalRecord>> prs = submit(loaders, "PRs", workoutDAO::loadPersonalRecords);
+            Future<List<Quote>> quotes = submit(loaders, "quotes", workoutDAO::loadQuotes);
+            Future<List<Activity>> activities = submit(loaders, "activities", workoutDAO::loadActivities);
+            Future<Map<LocalDate, Integer>> days = submit(loaders, "workout days", workoutDAO::loadWorkoutDayCounts);
+            Future<Integer> count = submit(loaders, "workout count", workoutDAO::countWorkouts);
+
+            StartupData data = new StartupData(userId);
+
+            // Each stage below includes the wait for its loads
+            long t = System.nanoTime();
+            data.userProfile = join(profile, null);
+            data.bodyMetrics = StartupData.orEmpty(join(bodyMetrics, null));
+            UserService userService = new UserService(data);
+            record("user service", t);
+
+            t = System.nanoTime();
+            data.goals = StartupData.orEmpty(join(goals, null));
+            GoalService goalService = new GoalService(userService, data);
+            record("goal service", t);
+
+            t = System.nanoTime();
+
+            Map<String, PersonalRecord> loadedPRs = join(prs, null);
+            if (loadedPRs != null) data.personalRecords = loadedPRs;
+            data.quotes = StartupData.orEmpty(join(quotes, null));
+            data.activities = StartupData.orEmpty(join(activities, null));
+            Map<LocalDate, Integer> loadedDays = join(days, null);
+            if (loadedDays != null) data.workoutDays = loadedDays;
+            data.workoutCount = join(count, -1);
+            WorkoutService workoutService = new WorkoutService(goalService, userService, data);
+            record("workout service", t);
+
+            userService.setGoalService(goalService);
+            return new ProfileManager.Profile(userService, goalService, workoutService);
+
+        } finally {
+            loaders.shutdown();
+        }
+    }
+
+    // Each task gets its own reader connection and hands it back to the pool when done
+    private <T> Future<T> submit(ExecutorService loaders, String name, Callable<T> load) {
+        return loaders.submit(() -> {
+            long t = System.nanoTime();
+            try {
+                return load.call();
+            } finally {
+                DatabaseConnection.getInstance().releaseConnection();
+                synchronized (loadNanos) {
+                    loadNanos.put(name, System.nanoTime() - t);
+                }
+            }
+        });
+    }
+
+    // A failed load is reported and replaced by the fallback, like the service constructors do
+    private static <T> T join(Future<T> future, T fallback) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            StartupData.warn(e.getCause() instanceof Exception cause ? cause : e);
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+    }
+
+    // Virtual threads where the runtime has them (Java 21+), otherwise one platform
+    // thread per pooled reader connection
+    private ExecutorService newLoaderExecutor() {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            executorName = "virtual threads";
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            int threads = ConnectionPool.DEFAULT_READERS;
+            executorName = threads + " platform threads";
+
+            AtomicInteger next = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "heat-startup-" + next.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // ============================================================
+    // Timings
+    // ============================================================
+
+    // Time since stageStartNanos, under a stage name; Main adds its own stages too
+    public void record(String stage, long stageStartNanos) {
+        stageNanos.put(stage, System.nanoTime() - stageStartNanos);
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public Map<String, Long> getStageMillis() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        stageNanos.forEach((stage, nanos) -> millis.put(stage, nanos / 1_000_000));
+        return millis;
+    }
+
+    public void printTimings() {
+        List<String> stages = new ArrayList<>();
+        stageNanos.forEach((stage, nanos) -> stages.add(String.format("%s %.1f ms", stage, nanos / 1e6)));
+
+        List<String> loads = new ArrayList<>();
+        synchronized (loadNanos) {
+            loadNanos.forEach((load, nanos) -> loads.add(String.format("%s %.1f", load, nanos / 1e6)));
+        }
+
+        System.out.println("[OK] Startup: " + String.join(" | ", stages) + " | total " + getElapsedMillis() + " ms");
+        System.out.println("[OK] Parallel loads on " + executorName + " (ms): " + String.join(", ", loads));
+    }
+
+    public ProfileManager getProfiles() { return profiles; }
+    public UserService getUserService() { return profiles.getActive().getUserService(); }
+    public GoalService getGoalService() { return profiles.getActive().getGoalService(); }
+    public WorkoutService getWorkoutService() { return profiles.getActive().getWorkoutService(); }
+    public WriteBehindWriter getWriteBehind() { return writeBehind; }
+}
@@ -0,0 +1,108 @@
+package heat.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Workout days kept as per-day counts plus the runs of consecutive days they form,
+// so a logged, moved or deleted workout updates the current and longest streak in
+// O(log days) instead of re-sorting the whole history. The current streak is the
+// run ending on the latest workout day, same as UserService always computed it.
+public class StreakTracker {
+
+    // Workouts per day; a day only affects streaks while its count is above zero
+    private final TreeMap<LocalDate, Integer> dayCounts = new TreeMap<>();
+
+    // First day of each run of consecutive workout days -> last day of that run
+    private final TreeMap<LocalDate, LocalDate> runs = new TreeMap<>();
+
+    // Run length -> number of runs with that length, for the longest streak
+    private final TreeMap<Integer, Integer> runLengths = new TreeMap<>();
+
+    public void reset(Map<LocalDate, Integer> counts) {
+        dayCounts.clear();
+        runs.clear();
+        runLengths.clear();
+        for (Map.Entry<LocalDate, Integer> e : counts.entrySet()) {
+            if (e.getValue() <= 0) continue;
+            add(e.getKey());
+            dayCounts.put(e.getKey(), e.getValue());
+        }
+    }
+
+    public void add(LocalDate day) {
+        if (dayCounts.merge(day, 1, Integer::sum) > 1) return;
+
+        LocalDate start = day;
+        LocalDate end = day;
+
+        // Join the run ending yesterday and/or the run starting tomorrow
+        Map.Entry<LocalDate, LocalDate> before = runs.floorEntry(day.minusDays(1));
+        if (before != null && before.getValue().equals(day.minusDays(1))) {
+            start = before.getKey();
+            removeRun(before.getKey(), before.getValue());
+        }
+        LocalDate after = runs.containsKey(day.plusDays(1)) ? runs.get(day.plusDays(1)) : null;
+        if (after != null) {
+            end = after;
+            removeRun(day.plusDays(1), after);
+        }
+
+        addRun(start, end);
+    }
+
+    public void remove(LocalDate day) {
+        Integer count = dayCounts.get(day);
+        if (count == null) return;
+        if (count > 1) {
+            dayCounts.put(day, count - 1);
+            return;
+        }
+        dayCounts.remove(day);
+
+        // Split the run containing the day around it
+        Map.Entry<LocalDate, LocalDate> run = runs.floorEntry(day);
+        removeRun(run.getKey(), run.getValue());
+        if (run.getKey().isBefore(day)) addRun(run.getKey(), day.minusDays(1));
+        if (run.getValue().isAfter(day)) addRun(day.plusDays(1), run.getValue());
+    }
+
+    public void move(LocalDate from, LocalDate to) {
+        if (from.equals(to)) return;
+        remove(from);
+        add(to);
+    }
+
+    public int getCurrentStreak() {
+        Map.Entry<LocalDate, LocalDate> last = runs.lastEntry();
+        return (last == null) ? 0 : length(last.getKey(), last.getValue());
+    }
+
+    public int getLongestStreak() {
+        return runLengths.isEmpty() ? 0 : runLengths.lastKey();
+    }
+
+    // Latest workout day, or null with no history
+    public LocalDate getLastWorkoutDate() {
+        return dayCounts.isEmpty() ? null : dayCounts.lastKey();
+    }
+
+    public int getWorkoutDayCount() {
+        return dayCounts.size();
+    }
+
+    private void addRun(LocalDate start, LocalDate end) {
+        runs.put(start, end);
+        runLengths.merge(length(start, end), 1, Integer::sum);
+    }
+
+    private void removeRun(LocalDate start, LocalDate end) {
+        runs.remove(start);
+        int len = length(start, end);
+        if (runLengths.merge(len, -1, Integer::sum) == 0) runLengths.remove(len);
+    }
+
+    private static int length(LocalDate start, LocalDate end) {
+        return (int) (end.toEpochDay() - start.toEpochDay()) + 1;
+    }
+}
@@ -4,6 +4,7 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import heat.dao.DatabaseConnection;
 import heat.dao.UserDAO;
@@ -12,7 +13,9 @@ import heat.model.BodyMetric;
 import heat.model.Goal;
 import heat.model.GoalStatus;
 import heat.model.User;
+import heat.util.Metrics;
 
+@SuppressWarnings("try") // Metrics timers are try-with-resources blocks that never read the timer
 public class UserService {
     
     // ============================================================
@@ -23,39 +26,54 @@ public class UserService {
     private UserDAO userDAO;
     private GoalDAO goalDAO;
 
+    // user_profile.id of the profile this service (and its goal and workout services) serve
+    private final int userId;
+
     private User currentUser = null;
     private List<BodyMetric> bodyMetricHistory = new ArrayList<>();
 
     private GoalService goalService;
 
     public UserService() {
-        this.dbConnection = DatabaseConnection.getInstance();
-        this.userDAO = new UserDAO();
-        this.goalDAO = new GoalDAO();
+        this(UserDAO.DEFAULT_USER_ID);
+    }
 
-        try {
-            User loadedUserProfile = userDAO.loadUserProfile();
-            if (loadedUserProfile != null) { currentUser = loadedUserProfile; }
+    public UserService(int userId) {
+        this(StartupData.forUserService(userId));
+    }
 
-            List<BodyMetric> loadedBodyMetrics = userDAO.loadBodyMetrics();
-            if (loadedBodyMetrics != null) { bodyMetricHistory = loadedBodyMetrics; }
+    // Profile and body metrics already loaded (see StartupOrchestrator)
+    UserService(StartupData data) {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.userId = data.userId;
+        this.userDAO = new UserDAO(userId);
+        this.goalDAO = new GoalDAO(userId);
 
-            System.out.println("[OK] UserService: " + bodyMetricHistory.size() + " body metric entries loaded");
+        if (data.userProfile != null) { currentUser = data.userProfile; }
+        bodyMetricHistory = data.bodyMetrics;
 
-        } catch (SQLException e) {
-            System.out.println("Warning: could not load persisted data: " + e.getMessage());
-            e.printStackTrace();
-        }
+        System.out.println("[OK] UserService: " + bodyMetricHistory.size() + " body metric entries loaded");
     }
 
     public void setGoalService(GoalService gs) { this.goalService = gs; }
 
+    public void reloadBodyMetrics() throws SQLException {
+        List<BodyMetric> loadedBodyMetrics = userDAO.loadBodyMetrics();
+        if (loadedBodyMetrics != null) { bodyMetricHistory = loadedBodyMetrics; }
+    }
+
     // ============================================================
     // User Profile Management
     // ============================================================
 
     // [C] Register New User
     public void saveUserProfile(String name, int age, double height, double weight, String sex) {
+        try (Metrics.Timer timer = Metrics.timer("UserService.saveUserProfile")) {
+            saveUserProfileUntimed(name, age, height, weight, sex);
+        }
+    }
+
+    private void saveUserProfileUntimed(String name, int age, double height, double weight, String sex) {
         try {
             dbConnection.beginTransaction();
 
@@ -99,6 +117,12 @@ public class UserService {
 
     // [U] Profile Updating (for when body metrics are changed)
     public boolean updateProfile(User updatedUser) {
+        try (Metrics.Timer timer = Metrics.timer("UserService.updateProfile")) {
+            return updateProfileUntimed(updatedUser);
+        }
+    }
+
+    private boolean updateProfileUntimed(User updatedUser) {
         try {
             dbConnection.beginTransaction();
             
@@ -135,6 +159,22 @@ public class UserService {
         }
     }
 
+    // New measurements, as the Update Body Metrics menu records them: the profile is
+    // updated (which re-checks weight goals) and a body metric is added for today.
+    // null if the profile could not be saved.
+    public BodyMetric recordBodyMetrics(int age, double heightCm, double weightKg) {
+        double bmi = calculateBMI(weightKg, heightCm);
+        double bmr = calculateBMR(heightCm, weightKg, age, currentUser.getSex());
+
+        User updatedUser = new User(currentUser.getName(), age, heightCm, weightKg, currentUser.getSex(), bmi, bmr,
+            currentUser.getCurrentStreak(), currentUser.getLastWorkoutDate());
+        if (!updateProfile(updatedUser)) return null;
+
+        BodyMetric bm = new BodyMetric(0, age, heightCm, weightKg, bmi, LocalDate.now());
+        addBodyMetric(bm);
+        return bm;
+    }
+
     // [U] Profile Updating (for when User Profile is changed)
     public boolean correctProfileDetails(User updatedUser) {
         try {
@@ -343,44 +383,29 @@ public class UserService {
     // Streak & Calculations
     // ============================================================
 
-    public void recalculateStreak(List<LocalDate> allWorkoutDates) {
-        if (allWorkoutDates == null || allWorkoutDates.isEmpty()) {
-            if (currentUser.getCurrentStreak() != 0) {
-                currentUser.setCurrentStreak(0);
-                currentUser.setLastWorkoutDate(null);
-                updateUserProfileSilent();
-            }
-            return;
-        }
-
-        List<LocalDate> sortedDates = allWorkoutDates.stream()
-            .distinct()
-            .sorted((d1, d2) -> d2.compareTo(d1))
-            .toList();
-
-        int newStreak = 1;
-        LocalDate lastDate = sortedDates.get(0);
+    // Takes the streak from WorkoutService's StreakTracker; only writes the profile when it changed
+    public void applyStreak(int newStreak, LocalDate lastDate) {
+        if (!setStreak(newStreak, lastDate)) return;
 
-        for (int i = 0; i < sortedDates.size() - 1; i++) {
-            LocalDate current = sortedDates.get(i);
-            LocalDate previous = sortedDates.get(i + 1);
+        updateUserProfileSilent();
+        if (lastDate != null) {
+            System.out.println("\t\t\t\t\tStreak recalculated: " + newStreak + " day(s)");
+        }
+    }
 
-            long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(previous, current);
+    // In-memory half of applyStreak, for write-behind where the writer thread saves
+    // the profile. Returns whether anything changed.
+    public boolean setStreak(int newStreak, LocalDate lastDate) {
+        if (currentUser == null) return false;
+        if (lastDate == null) newStreak = 0;
 
-            if (daysBetween == 1) {
-                newStreak++;
-            } else if (daysBetween > 1) {
-                break;
-            }
+        if (currentUser.getCurrentStreak() == newStreak && Objects.equals(lastDate, currentUser.getLastWorkoutDate())) {
+            return false;
         }
 
-        if (currentUser.getCurrentStreak() != newStreak || !lastDate.equals(currentUser.getLastWorkoutDate())) {
-            currentUser.setCurrentStreak(newStreak);
-            currentUser.setLastWorkoutDate(lastDate);
-            
-            updateUserProfileSilent();
-            System.out.println("\t\t\t\t\tStreak recalculated: " + newStreak + " day(s)");
-        }
+        currentUser.setCurrentStreak(newStreak);
+        currentUser.setLastWorkoutDate(lastDate);
+        return true;
     }
 
     private void updateUserProfileSilent() {
@@ -432,6 +457,7 @@ public class UserService {
     // ============================================================
 
     public User getCurrentUser() { return currentUser; }
+    public int getUserId() { return userId; }
 
     public String getName() { return currentUser != null ? currentUser.getName() : ""; }
     public int getAge() { return currentUser != null ? currentUser.getAge() : 0; }
@@ -1,14 +1,30 @@
 package heat.service;
 
 import java.util.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.function.Consumer;
 import java.sql.*;
 
 import heat.dao.DatabaseConnection;
 import heat.dao.WorkoutDAO;
 import heat.dao.GoalDAO;
+import heat.dao.BulkLoader;
+import heat.dao.ExerciseStatsDAO;
+import heat.dao.HistoryTransfer;
+import heat.dao.WorkoutRepository;
+import heat.dao.WorkoutColumns;
+import heat.dao.WorkoutQuery;
+import heat.dao.WorkoutRollups;
+import heat.dao.WorkoutIntent;
+import heat.dao.WriteBehindWriter;
+import heat.dao.PoolMetrics;
 import heat.model.*;
+import heat.util.Metrics;
 
+@SuppressWarnings("try") // Metrics timers are try-with-resources blocks that never read the timer
 public class WorkoutService {
 
     // ============================================================
@@ -18,44 +34,69 @@ public class WorkoutService {
     private final Random random = new Random();
  
     private Map<String, List<String>> quoteCatalog = new LinkedHashMap<>();
-    private Map<String, List<String>> activitiesByCategory = new LinkedHashMap<>();
-    private Map<String, Activity> activitiesByName = new LinkedHashMap<>();
 
-    private List<Workout> workouts = new ArrayList<>();
+    // Activities by id; workouts carry the id once they enter the service
+    private final ActivityCatalog activities;
+
+    // Workout history is paged in from the database on demand
+    private WorkoutRepository workoutRepository;
     
     private Map<String, PersonalRecord> personalRecords = new LinkedHashMap<>();
 
+    // Ranked PR candidates per key, for promoting a runner-up without a history scan
+    private PersonalRecordIndex prIndex;
+
+    // Primitive column copy of the history for totals, loaded on first use and then
+    // kept in step with every write
+    private final WorkoutColumns workoutColumns = new WorkoutColumns();
+    private boolean columnsLoaded = false;
+
+    // Day/week/month/year totals for the summary screens, loaded and kept in step
+    // the same way
+    private final WorkoutRollups rollups = new WorkoutRollups();
+    private boolean rollupsLoaded = false;
+
+    // Workout days and the streaks they form, updated per write instead of re-read
+    private StreakTracker streakTracker = new StreakTracker();
+
+    // Set in write-behind mode: logWorkout updates memory and hands the database
+    // writes to this writer's thread
+    private WriteBehindWriter writeBehind;
+
     private UserService userService;
     private GoalService goalService;
     
     private DatabaseConnection dbConnection;
     private WorkoutDAO workoutDAO;
     private GoalDAO goalDAO;
+    private ExerciseStatsDAO exerciseStatsDAO;
 
     public WorkoutService(GoalService goalService, UserService userService) {
+        this(goalService, userService, StartupData.forWorkoutService(userService.getUserId()));
+    }
+
+    // PRs, quotes, activities and workout days already loaded (see StartupOrchestrator)
+    WorkoutService(GoalService goalService, UserService userService, StartupData data) {
         this.dbConnection = DatabaseConnection.getInstance();
-        this.workoutDAO = new WorkoutDAO();
-        this.goalDAO = new GoalDAO();
+        this.workoutDAO = new WorkoutDAO(data.userId);
+        this.goalDAO = new GoalDAO(data.userId);
+        this.exerciseStatsDAO = new ExerciseStatsDAO(data.userId);
+        this.workoutRepository = new WorkoutRepository(workoutDAO);
+        this.prIndex = new PersonalRecordIndex(workoutDAO);
+        this.activities = new ActivityCatalog(workoutDAO);
         
         this.goalService = goalService;
         this.userService = userService;
 
-        try {
-            List<Workout> loadedWorkouts = workoutDAO.loadWorkouts();
-            if (loadedWorkouts != null) { workouts = loadedWorkouts; }
+        personalRecords = data.personalRecords;
+        quoteCatalog = sortQuotes(data.quotes);
+        activities.reset(data.activities);
+        streakTracker.reset(data.workoutDays);
 
-            Map<String, PersonalRecord> loadedPRs = workoutDAO.loadPersonalRecords();
-            if (loadedPRs != null) { personalRecords = loadedPRs; }
-
-            List<Quote> loadedQuotes = workoutDAO.loadQuotes();
-            if (loadedQuotes != null) { this.quoteCatalog = sortQuotes(loadedQuotes); }
-
-            List<Activity> loadedActivities = workoutDAO.loadActivities();
-            if (loadedActivities != null) { sortActivities(loadedActivities); }
-            
-            System.out.println("[OK] WorkoutService: " + workouts.size() + " workouts and " + personalRecords.size() + " PRs loaded");
-            
-        } catch (Exception e) {
+        try {
+            int workoutCount = (data.workoutCount >= 0) ? data.workoutCount : workoutRepository.size();
+            System.out.println("[OK] WorkoutService: " + workoutCount + " workouts and " + personalRecords.size() + " PRs loaded");
+        } catch (SQLException e) {
             System.out.println("Warning: could not load persisted data: " + e.getMessage());
             e.printStackTrace();
         }
@@ -67,6 +108,19 @@ public class WorkoutService {
 
     // [C] Create
     public void logWorkout(Workout w) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.logWorkout")) {
+            logWorkoutUntimed(w);
+        }
+    }
+
+    private void logWorkoutUntimed(Workout w) {
+        if (!resolveActivity(w)) return;
+
+        if (writeBehind != null) {
+            logWorkoutDeferred(w);
+            return;
+        }
+
         try {
             dbConnection.beginTransaction();
 
@@ -80,6 +134,7 @@ public class WorkoutService {
             // Check and update PR (DATABASE)
             boolean newRecordAchieved = isNewPR(w, fetchOldPR(w));
             if (newRecordAchieved) {
+                Metrics.increment("prs.new");
                 System.out.print("\t\t\t\t\tNew PR for " + w.getName() + ": ");
                 if (w instanceof StrengthWorkout) {
                     StrengthWorkout sw = (StrengthWorkout) w;
@@ -101,12 +156,16 @@ public class WorkoutService {
             }
 
             dbConnection.commitTransaction();
+            Metrics.increment("workouts.logged");
 
-            // Save workout (LOCAL)
-            workouts.add(0, w);
+            // Drop cached history pages (LOCAL)
+            workoutRepository.invalidate();
 
             // Update PRs (LOCAL)
+            prIndex.add(generateKey(w), w);
             if (newRecordAchieved) addPersonalRecord(w);
+            if (columnsLoaded) workoutColumns.add(w);
+            if (rollupsLoaded) rollups.add(w, activities.categoryOf(w.getActivityId()));
 
             // Update goals list (LOCAL)
             if (!completedGoals.isEmpty()) {
@@ -114,9 +173,11 @@ public class WorkoutService {
             }
             
             // Check Streak (Since a workout was just logged)
+            streakTracker.add(w.getDate());
             triggerStreakUpdate();
             
         } catch (Exception e) {
+            Metrics.increment("workouts.rolledBack");
             try {
                 dbConnection.rollbackTransaction();
                 System.err.println("\t\t\t\t\t[ ! ]   Error saving workout. Rolled back changes.");
@@ -131,10 +192,19 @@ public class WorkoutService {
 
     // [U] Update
     public boolean updateWorkout(Workout original, Workout updated) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.updateWorkout")) {
+            return updateWorkoutUntimed(original, updated);
+        }
+    }
+
+    private boolean updateWorkoutUntimed(Workout original, Workout updated) {
+        flushPendingWrites();
+
         if (original.getId() != updated.getId()) {
             System.err.println("\t\t\t\t\t[ ! ]   Error: ID mismatch during update.");
             return false;
         }
+        if (!resolveActivity(original) || !resolveActivity(updated)) return false;
 
         try {
             dbConnection.beginTransaction();
@@ -144,13 +214,14 @@ public class WorkoutService {
             String oldKey = generateKey(original);
             String newKey = generateKey(updated);
 
+            prIndex.remove(oldKey, original);
+            prIndex.add(newKey, updated);
+
             if (!oldKey.equals(newKey)) {
                 PersonalRecord oldPR = personalRecords.get(oldKey);
                 
                 if (matchesCurrentPR(original, oldPR)) {
-
-                    workoutDAO.recalculatePR(original.getName(), oldKey, original.getType());
-                    this.personalRecords = workoutDAO.loadPersonalRecords();
+                    promoteRunnerUp(original.getName(), oldKey, original.getType());
                 }
             }
 
@@ -170,8 +241,7 @@ public class WorkoutService {
             }
 
             if (wasTheRecordHolder) {
-                workoutDAO.recalculatePR(updated.getName(), newKey, updated.getType());
-                this.personalRecords = workoutDAO.loadPersonalRecords();
+                promoteRunnerUp(updated.getName(), newKey, updated.getType());
             } else {
                 if (isNewPR(updated, existingPR)) {
                     updatePRDatabase(updated);
@@ -183,21 +253,21 @@ public class WorkoutService {
 
             dbConnection.commitTransaction();
 
-            // Update local cache
-            for (int i = 0; i < workouts.size(); i++) {
-                if (workouts.get(i).getId() == updated.getId()) {
-                    workouts.set(i, updated);
-                    break;
-                }
+            // Drop cached history pages (LOCAL)
+            workoutRepository.invalidate();
+            if (columnsLoaded) workoutColumns.update(updated);
+            if (rollupsLoaded) {
+                rollups.remove(original, activities.categoryOf(original.getActivityId()));
+                rollups.add(updated, activities.categoryOf(updated.getActivityId()));
             }
 
-            workouts.sort((w1, w2) -> w2.getDate().compareTo(w1.getDate()));
-
+            streakTracker.move(original.getDate(), updated.getDate());
             triggerStreakUpdate();
 
             return true;
         } catch (Exception e) {
             try { dbConnection.rollbackTransaction(); } catch (Exception ex) {}
+            discardPRState();
             System.err.println("\t\t\t\t\t[ ! ]   Failed to update workout: " + e.getMessage());
             e.printStackTrace();
             return false;
@@ -206,6 +276,15 @@ public class WorkoutService {
 
     // [D] Delete
     public boolean deleteWorkout(Workout w) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.deleteWorkout")) {
+            return deleteWorkoutUntimed(w);
+        }
+    }
+
+    private boolean deleteWorkoutUntimed(Workout w) {
+        flushPendingWrites();
+        if (!resolveActivity(w)) return false;
+
         try {
             dbConnection.beginTransaction();
 
@@ -214,48 +293,406 @@ public class WorkoutService {
             String PRName = generateKey(w);
             PersonalRecord currentPR = personalRecords.get(PRName);
 
+            prIndex.remove(PRName, w);
+
             if (matchesCurrentPR(w, currentPR)) {
-                workoutDAO.recalculatePR(w.getName(), PRName, w.getType());
-                this.personalRecords = workoutDAO.loadPersonalRecords();
+                promoteRunnerUp(w.getName(), PRName, w.getType());
             }
 
             goalService.refreshGoalsForWorkout(w);
 
             dbConnection.commitTransaction();
 
-            workouts.removeIf(existing -> existing.getId() == w.getId());
+            workoutRepository.invalidate();
+            if (columnsLoaded) workoutColumns.remove(w.getId());
+            if (rollupsLoaded) rollups.remove(w, activities.categoryOf(w.getActivityId()));
 
+            streakTracker.remove(w.getDate());
             triggerStreakUpdate();
 
             return true;
         } catch (Exception e) {
             try { dbConnection.rollbackTransaction(); } catch (Exception ex) {}
+            discardPRState();
             System.err.println("\t\t\t\t\t[ ! ]   Failed to delete workout: " + e.getMessage());
             return false;
         }
     }
 
+    // [C] Create, a whole session: one batch insert, one PR decision per key, one
+    // refresh per affected goal, one streak update and one commit
+    public boolean logSession(List<Workout> session) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.logSession")) {
+            return logSessionUntimed(session);
+        }
+    }
+
+    private boolean logSessionUntimed(List<Workout> session) {
+        if (session.isEmpty()) return true;
+        for (Workout w : session) {
+            if (!resolveActivity(w)) return false;
+        }
+
+        // Write-behind already keeps each log off the database path
+        if (writeBehind != null) {
+            for (Workout w : session) {
+                // A failed background save switches the rest of the session to direct saves
+                if (writeBehind != null) logWorkoutDeferred(w); else logWorkout(w);
+            }
+            return true;
+        }
+
+        try {
+            dbConnection.beginTransaction();
+
+            workoutDAO.saveWorkoutBatch(session);
+
+            // Best workout of the session per PR key; ties keep the earlier one,
+            // as logging them one by one would
+            Map<String, Workout> sessionBest = new LinkedHashMap<>();
+            for (Workout w : session) {
+                String key = generateKey(w);
+                Workout best = sessionBest.get(key);
+                if (best == null || isNewPR(w, toPersonalRecord(best))) sessionBest.put(key, w);
+            }
+
+            List<Workout> newRecords = new ArrayList<>();
+            for (Map.Entry<String, Workout> e : sessionBest.entrySet()) {
+                Workout w = e.getValue();
+                if (!isNewPR(w, personalRecords.get(e.getKey()))) continue;
+
+                Metrics.increment("prs.new");
+                System.out.print("\t\t\t\t\tNew PR for " + w.getName() + ": ");
+                if (w instanceof StrengthWorkout sw) {
+                    System.out.printf("%.1f kg, %d reps\n", sw.getExternalWeightKg(), sw.getRepCount());
+                } else {
+                    System.out.println(w.getDurationMinutes() + " mins");
+                }
+
+                updatePRDatabase(w);
+                newRecords.add(w);
+            }
+
+            List<Goal> completedGoals = goalService.refreshGoalsForWorkouts(session);
+            if (!completedGoals.isEmpty()) {
+                goalDAO.updateGoalStatusBatch(goalService.getCompletedGoalsId(completedGoals), GoalStatus.COMPLETED);
+            }
+
+            dbConnection.commitTransaction();
+            Metrics.add("workouts.logged", session.size());
+
+            workoutRepository.invalidate();
+
+            for (Workout w : session) prIndex.add(generateKey(w), w);
+            for (Workout w : newRecords) addPersonalRecord(w);
+            if (columnsLoaded) session.forEach(workoutColumns::add);
+            if (rollupsLoaded) {
+                for (Workout w : session) rollups.add(w, activities.categoryOf(w.getActivityId()));
+            }
+
+            goalService.archiveCompletedGoals(completedGoals);
+
+            for (Workout w : session) streakTracker.add(w.getDate());
+            triggerStreakUpdate();
+            return true;
+
+        } catch (Exception e) {
+            // Any exception, not just SQLException: the transaction and its lock must not stay open
+            Metrics.add("workouts.rolledBack", session.size());
+            try { dbConnection.rollbackTransaction(); } catch (Exception ex) {}
+            discardPRState();
+            System.err.println("\t\t\t\t\t[ ! ]   Failed to log session, no workouts were saved: " + e.getMessage());
+
+            // Goal progress was updated in memory inside the rolled-back transaction
+            try { goalService.reloadGoals(); } catch (SQLException ex) {}
+            return false;
+        }
+    }
+
+    // Write-behind path: PR, goals and streak are decided in memory, the resulting
+    // change set goes to the intent log, and the writer thread saves it later
+    private void logWorkoutDeferred(Workout w) {
+        String PRName = generateKey(w);
+        boolean newRecordAchieved = isNewPR(w, personalRecords.get(PRName));
+        if (newRecordAchieved) {
+            Metrics.increment("prs.new");
+            System.out.print("\t\t\t\t\tNew PR for " + w.getName() + ": ");
+            if (w instanceof StrengthWorkout sw) {
+                System.out.printf("%.1f kg, %d reps\n", sw.getExternalWeightKg(), sw.getRepCount());
+            } else {
+                System.out.println(w.getDurationMinutes() + " mins");
+            }
+            addPersonalRecord(w);
+        }
+
+        List<Goal> completedGoals = new ArrayList<>();
+        List<WorkoutIntent.GoalProgress> goalProgress = new ArrayList<>();
+        for (Goal g : goalService.advanceGoalsForWorkout(w, completedGoals)) {
+            goalProgress.add(new WorkoutIntent.GoalProgress(g.getId(), g.getCurrentValue(), g.getStatus().name()));
+        }
+
+        streakTracker.add(w.getDate());
+        int streak = streakTracker.getCurrentStreak();
+        LocalDate lastDate = streakTracker.getLastWorkoutDate();
+        boolean streakChanged = userService.setStreak(streak, lastDate);
+
+        try {
+            writeBehind.submit(new WorkoutIntent(workoutDAO.getUserId(), w, newRecordAchieved ? PRName : null, goalProgress, streakChanged, streak, lastDate));
+        } catch (SQLException e) {
+            // The writer thread gave up on an earlier workout. This one is saved directly
+            // only once those are in the database; otherwise it is not saved at all.
+            if (retryFailedWriteBehind(e)) {
+                logWorkout(w);
+            } else {
+                reloadState();
+                System.err.println("\t\t\t\t\t[ ! ]   Workout not saved.");
+            }
+            return;
+        } catch (IOException | RuntimeException e) {
+            // Not durable: undo the in-memory changes and save synchronously instead
+            System.err.println("\t\t\t\t\t[ ! ]   Intent log unavailable, switching to direct saves: " + e.getMessage());
+            closeWriteBehind();
+            reloadState();
+            logWorkout(w);
+            return;
+        }
+
+        Metrics.increment("workouts.logged");
+        System.out.println("\t\t\t\t\tWorkout saved (writing to database in the background).");
+        if (streakChanged) System.out.println("\t\t\t\t\tStreak recalculated: " + streak + " day(s)");
+
+        try {
+            goalService.archiveCompletedGoals(completedGoals);
+        } catch (SQLException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Failed to archive completed goals: " + e.getMessage());
+        }
+    }
+
+    public void enableWriteBehind(WriteBehindWriter writer) {
+        this.writeBehind = writer;
+    }
+
+    public boolean isWriteBehindEnabled() {
+        return writeBehind != null;
+    }
+
+    // Waits until the writer thread has saved every logged workout, then brings the
+    // state that needs database ids up to date. Called before anything reads the
+    // database or changes existing rows.
+    public void flushPendingWrites() {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.flushPendingWrites")) {
+            flushPendingWritesUntimed();
+        }
+    }
+
+    private void flushPendingWritesUntimed() {
+        if (writeBehind == null) return;
+
+        try {
+            List<WorkoutIntent> applied = writeBehind.flush();
+            if (applied.isEmpty()) return;
+
+            for (WorkoutIntent intent : applied) {
+                prIndex.add(generateKey(intent.getWorkout()), intent.getWorkout());
+                if (columnsLoaded) workoutColumns.add(intent.getWorkout());
+                if (rollupsLoaded) rollups.add(intent.getWorkout(), activities.categoryOf(intent.getWorkout().getActivityId()));
+            }
+            workoutRepository.invalidate();
+
+        } catch (SQLException e) {
+            retryFailedWriteBehind(e);
+        }
+    }
+
+    // Flushes and stops the writer; later workouts are saved directly
+    public void closeWriteBehind() {
+        if (writeBehind == null) return;
+
+        flushPendingWrites();
+        if (writeBehind == null) return;
+        try {
+            writeBehind.close();
+        } catch (SQLException | IOException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Could not close the intent log: " + e.getMessage());
+        }
+        writeBehind = null;
+    }
+
+    // The writer thread gave up. Its intents are applied here before anything is
+    // saved directly: they hold absolute PR, goal and streak values, so replaying
+    // them after direct saves would put older values back. On success the writer is
+    // closed and state reloaded (the workouts are in the database now). Otherwise
+    // the writer stays failed and this is tried again on the next save or flush.
+    private boolean retryFailedWriteBehind(SQLException cause) {
+        System.err.println("\t\t\t\t\t[ ! ]   Background save failed: " + cause.getMessage());
+        try {
+            int saved = writeBehind.retryAndClose();
+            writeBehind = null;
+            reloadState();
+            System.out.println("\t\t\t\t\tSaved " + saved + " pending workout(s); switching to direct saves.");
+            return true;
+        } catch (SQLException | IOException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Pending workouts still cannot be saved, they stay queued for the next start: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Re-reads PRs, goals and workout days after in-memory state got ahead of the database
+    private void reloadState() {
+        discardPRState();
+        workoutRepository.invalidate();
+        columnsLoaded = false;
+        rollupsLoaded = false;
+        try {
+            goalService.reloadGoals();
+            streakTracker.reset(workoutDAO.loadWorkoutDayCounts());
+            triggerStreakUpdate();
+        } catch (SQLException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Could not reload state: " + e.getMessage());
+        }
+    }
+
     // [R] Views & Getters
+    // Lazy view: only the rows that are actually read get fetched
     public List<Workout> getAllWorkouts() {
-        return workouts;
+        flushPendingWrites();
+        return workoutRepository.asList();
     }
 
     public List<Workout> getWeeklyWorkouts() {
-        List<Workout> weekly = new ArrayList<>();
-        LocalDate cutoff = LocalDate.now().minusDays(7); 
+        flushPendingWrites();
+        try {
+            return workoutDAO.loadWorkoutsSince(weeklyCutoff());
+        } catch (SQLException e) {
+            System.out.println("\t\t\t\t\t[ ! ]   Error loading weekly workouts: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-        for (Workout w : workouts) {
-            if (!w.getDate().isBefore(cutoff)) {
-                weekly.add(w);
-            } else {
-                break; 
-            }
+    // Filtered read; the filter, order and limit run in SQL
+    public List<Workout> findWorkouts(WorkoutQuery query) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.findWorkouts")) {
+            return findWorkoutsUntimed(query);
+        }
+    }
+
+    private List<Workout> findWorkoutsUntimed(WorkoutQuery query) {
+        flushPendingWrites();
+        try {
+            return workoutDAO.findWorkouts(query);
+        } catch (SQLException e) {
+            System.out.println("\t\t\t\t\t[ ! ]   Error searching workouts: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // null when there is no such workout
+    public Workout getWorkout(int id) {
+        flushPendingWrites();
+        try {
+            return workoutDAO.findWorkout(id);
+        } catch (SQLException e) {
+            System.out.println("\t\t\t\t\t[ ! ]   Error loading workout: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Same, one row at a time for callers that do not need the whole result; returns rows seen
+    public int streamWorkouts(WorkoutQuery query, Consumer<Workout> sink) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.streamWorkouts")) {
+            return streamWorkoutsUntimed(query, sink);
+        }
+    }
+
+    private int streamWorkoutsUntimed(WorkoutQuery query, Consumer<Workout> sink) {
+        flushPendingWrites();
+        try {
+            return workoutDAO.streamWorkouts(query, sink);
+        } catch (SQLException e) {
+            System.out.println("\t\t\t\t\t[ ! ]   Error searching workouts: " + e.getMessage());
+            return 0;
         }
-        return weekly;
     }
 
     public int getWorkoutsSize() {
-        return workouts.size();
+        return getAllWorkouts().size();
+    }
+
+    public WorkoutTotals getAllWorkoutTotals() {
+        return getWorkoutTotalsSince(null);
+    }
+
+    // Same window as getWeeklyWorkouts, read from the rollups
+    public WorkoutTotals getWeeklyWorkoutTotals() {
+        return getSummary("Last 7 days", weeklyCutoff(), null).toTotals();
+    }
+
+    // Tight loop over the column store; null means the whole history
+    public WorkoutTotals getWorkoutTotalsSince(LocalDate from) {
+        flushPendingWrites();
+        try {
+            if (!columnsLoaded) {
+                workoutDAO.loadColumns(workoutColumns);
+                columnsLoaded = true;
+            }
+            return workoutColumns.totalsBetween(from, null);
+        } catch (SQLException e) {
+            System.out.println("\t\t\t\t\t[ ! ]   Error computing workout totals: " + e.getMessage());
+            return new WorkoutTotals(0, 0.0, 0.0);
+        }
+    }
+
+    // Inclusive range; null means open-ended. Reads whole-year and whole-month
+    // buckets where the range covers them, day buckets at the edges.
+    public WorkoutSummary getSummary(String label, LocalDate from, LocalDate to) {
+        if (!loadRollups()) return new WorkoutSummary(label, from, to, 0, 0, 0.0, 0.0, 0.0, new HashMap<>());
+        return rollups.summarize(label, from, to);
+    }
+
+    // The last `count` weeks, months or years including the current one, newest first
+    public List<WorkoutSummary> getRecentSummaries(WorkoutRollups.Period period, int count) {
+        if (!loadRollups()) return new ArrayList<>();
+        return rollups.recent(period, count, LocalDate.now());
+    }
+
+    // One summary per year with workouts, newest first
+    public List<WorkoutSummary> getYearlySummaries() {
+        if (!loadRollups()) return new ArrayList<>();
+        return rollups.allYears();
+    }
+
+    // True when the read paths would change nothing: no write-behind rows left to
+    // reconcile and the rollups loaded. Callers that share the service between
+    // threads (the HTTP API) call prepareForReads() under an exclusive lock until
+    // this holds, then read under a shared one.
+    public boolean isReadyForReads() {
+        return rollupsLoaded && (writeBehind == null || !writeBehind.hasUnflushed());
+    }
+
+    public void prepareForReads() {
+        loadRollups();
+    }
+
+    private boolean loadRollups() {
+        flushPendingWrites();
+        try {
+            if (!rollupsLoaded) {
+                workoutDAO.loadRollups(rollups);
+                rollupsLoaded = true;
+            }
+            return true;
+        } catch (SQLException e) {
+            System.out.println("\t\t\t\t\t[ ! ]   Error loading workout summaries: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private LocalDate weeklyCutoff() {
+        return LocalDate.now().minusDays(7);
+    }
+
+    public int getLongestStreak() {
+        return streakTracker.getLongestStreak();
     }
 
     public int getWeeklyWorkoutsSize() {
@@ -294,18 +731,21 @@ public class WorkoutService {
     }
 
 public boolean deletePR(String prName) {
+        flushPendingWrites();
         PersonalRecord pr = personalRecords.get(prName);
         
         Workout target = null;
         
         if (pr != null) {
-            for (Workout w : workouts) {
-                if (generateKey(w).equals(prName) && w.getDate().equals(pr.getDate())) {
-                     if (matchesCurrentPR(w, pr)) {
-                         target = w;
-                         break;
-                     }
+            try {
+                for (Workout w : workoutDAO.loadWorkoutsOn(PersonalRecord.baseName(prName), pr.getDate())) {
+                    if (generateKey(w).equals(prName) && matchesCurrentPR(w, pr)) {
+                        target = w;
+                        break;
+                    }
                 }
+            } catch (SQLException e) {
+                System.out.println("\t\t\t\t\t[ ! ]   Error looking up PR workout: " + e.getMessage());
             }
         }
 
@@ -325,6 +765,11 @@ public boolean deletePR(String prName) {
     }
 
     private void addPersonalRecord(Workout w) {
+        PersonalRecord pr = toPersonalRecord(w);
+        personalRecords.put(pr.getActivityName(), pr);
+    }
+
+    private PersonalRecord toPersonalRecord(Workout w) {
         String finalKey = generateKey(w);
         int durationMinutes = w.getDurationMinutes();
         LocalDate date = w.getDate();
@@ -338,7 +783,40 @@ public boolean deletePR(String prName) {
             weight = sw.getExternalWeightKg();
         }
 
-        personalRecords.put(finalKey, new PersonalRecord(finalKey, durationMinutes, reps, weight, date));
+        return new PersonalRecord(finalKey, durationMinutes, reps, weight, date);
+    }
+
+    // The record holder is gone or got worse: the next best workout for the key
+    // takes over, touching only that key's row
+    private void promoteRunnerUp(String rawName, String PRName, String type) throws SQLException {
+        Workout best = prIndex.best(PRName, rawName, type);
+
+        if (best == null) {
+            workoutDAO.deletePR(PRName);
+            personalRecords.remove(PRName);
+            System.out.println("\t\t\t\t\tNo history left for " + PRName + ". PR cleared.");
+            return;
+        }
+
+        if (best instanceof StrengthWorkout sw) {
+            if (PRName.endsWith("(reps)")) System.out.printf("\t\t\t\t\tRecalculated PR for %s: %d reps\n", PRName, sw.getRepCount());
+            else System.out.printf("\t\t\t\t\tRecalculated PR for %s: %.1f kg\n", PRName, sw.getExternalWeightKg());
+        } else {
+            System.out.printf("\t\t\t\t\tRecalculated PR for %s: %d mins\n", PRName, best.getDurationMinutes());
+        }
+
+        updatePRDatabase(best);
+        addPersonalRecord(best);
+    }
+
+    // After a rollback the in-memory PR state may be ahead of the database
+    private void discardPRState() {
+        prIndex.clear();
+        try {
+            this.personalRecords = workoutDAO.loadPersonalRecords();
+        } catch (SQLException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Could not reload personal records: " + e.getMessage());
+        }
     }
 
     private void updatePRDatabase(Workout w) throws SQLException {
@@ -400,26 +878,129 @@ public boolean deletePR(String prName) {
         return false;
     }
 
+    // Keys come prebuilt from the catalog, so no string is concatenated per call
     private String generateKey(Workout w) {
-        String baseName = w.getName();
+        int variant = ActivityCatalog.PLAIN;
         
         if (w instanceof StrengthWorkout) {
             StrengthWorkout sw = (StrengthWorkout) w;
             if (sw.getBodyWeightFactor() != 0 && sw.getExternalWeightKg() > 0) {
-                return baseName + " (loaded)";
+                variant = ActivityCatalog.LOADED;
             } else if (sw.getExternalWeightKg() == 0 && sw.getBodyWeightFactor() != 0) {
-                return baseName + " (reps)";
+                variant = ActivityCatalog.REPS;
             }
         }
-        return baseName;
+        return activities.prKey(w.getActivityId(), w.getName(), variant);
+    }
+
+    // Sets the activity id on a workout entering the service, adding its name to
+    // the catalog if it is new. Runs before any transaction so a rollback cannot
+    // leave the catalog pointing at a removed row.
+    private boolean resolveActivity(Workout w) {
+        try {
+            activities.resolve(w);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Could not register activity " + w.getName() + ": " + e.getMessage());
+            return false;
+        }
     }
 
     private void triggerStreakUpdate() {
-        List<LocalDate> dates = new ArrayList<>();
-        for (Workout w : workouts) {
-            dates.add(w.getDate());
+        userService.applyStreak(streakTracker.getCurrentStreak(), streakTracker.getLastWorkoutDate());
+    }
+
+    // ============================================================
+    // History Import & Export
+    // ============================================================
+
+    // Writes one file per history table into the directory
+    public boolean exportHistory(Path directory, HistoryTransfer.Format format) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.exportHistory")) {
+            return exportHistoryUntimed(directory, format);
+        }
+    }
+
+    private boolean exportHistoryUntimed(Path directory, HistoryTransfer.Format format) {
+        flushPendingWrites();
+        HistoryTransfer transfer = new HistoryTransfer(workoutDAO.getUserId());
+        try {
+            Files.createDirectories(directory);
+            for (HistoryTransfer.Table table : HistoryTransfer.Table.values()) {
+                Path file = directory.resolve(table.fileName(format));
+                long rows = transfer.exportTable(table, format, file);
+                System.out.println("\t\t\t\t\tExported " + rows + " rows to " + file);
+            }
+            return true;
+        } catch (SQLException | IOException e) {
+            System.err.println("\t\t\t\t\t[ ! ]   Export failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Imports whichever table files exist in the directory as one transaction,
+    // then recomputes PRs and goals once instead of per row
+    public boolean importHistory(Path directory, HistoryTransfer.Format format) {
+        try (Metrics.Timer timer = Metrics.timer("WorkoutService.importHistory")) {
+            return importHistoryUntimed(directory, format);
+        }
+    }
+
+    private boolean importHistoryUntimed(Path directory, HistoryTransfer.Format format) {
+        flushPendingWrites();
+        HistoryTransfer transfer = new HistoryTransfer(workoutDAO.getUserId());
+        try {
+            dbConnection.beginTransaction();
+
+            int lastWorkoutId = workoutDAO.getMaxWorkoutId();
+
+            for (HistoryTransfer.Table table : HistoryTransfer.Table.values()) {
+                Path file = directory.resolve(table.fileName(format));
+                if (!Files.exists(file)) continue;
+
+                BulkLoader.Result result = transfer.importTable(table, format, file);
+                System.out.println("\t\t\t\t\tImported " + table.getTableName() + ": " + result);
+                for (String rejected : result.getRejectedSamples()) {
+                    System.out.println("\t\t\t\t\t[ ! ]   Rejected " + rejected);
+                }
+            }
+
+            exerciseStatsDAO.refreshDaysForWorkoutsAfter(lastWorkoutId);
+            workoutDAO.linkActivities();
+
+            for (String[] key : workoutDAO.findPRKeysSince(lastWorkoutId)) {
+                workoutDAO.recalculatePR(key[0], key[1], key[2]);
+            }
+
+            goalService.reloadGoals();
+            List<Goal> completedGoals = goalService.refreshAllGoals();
+            if (!completedGoals.isEmpty()) {
+                goalDAO.updateGoalStatusBatch(goalService.getCompletedGoalsId(completedGoals), GoalStatus.COMPLETED);
+            }
+
+            dbConnection.commitTransaction();
+
+            workoutRepository.invalidate();
+            columnsLoaded = false;
+            rollupsLoaded = false;
+            prIndex.clear();
+            activities.reset(workoutDAO.loadActivities());
+            this.personalRecords = workoutDAO.loadPersonalRecords();
+            goalService.archiveCompletedGoals(completedGoals);
+            userService.reloadBodyMetrics();
+
+            streakTracker.reset(workoutDAO.loadWorkoutDayCounts());
+            if (userService.isRegistered()) triggerStreakUpdate();
+            return true;
+
+        } catch (SQLException | IOException e) {
+            try { dbConnection.rollbackTransaction(); } catch (Exception ex) {}
+            System.err.println("\t\t\t\t\t[ ! ]   Import failed, no changes were saved: " + e.getMessage());
+
+            // The goal list was reloaded inside the rolled-back transaction
+            try { goalService.reloadGoals(); } catch (SQLException ex) {}
+            return false;
         }
-        userService.recalculateStreak(dates);
     }
 
     // ============================================================
@@ -427,42 +1008,72 @@ public boolean deletePR(String prName) {
     // ============================================================
 
     public List<String> getActivityNamesByCategory(String category) {
-        return this.activitiesByCategory.get(category);
+        return activities.namesIn(category);
     }
 
-    public double getMetForActivity(String activityName) {
-        double metValue = 0.0;
-        if (this.activitiesByName.get(activityName) != null) {
-            metValue = this.activitiesByName.get(activityName).getMetValue();
-        }
-        return metValue;
+    // The catalog's spelling of a name in any case; the name as given if it is new
+    public String getActivityName(String activityName) {
+        return activities.canonicalName(activityName);
     }
 
-    public double getBodyWeightFactorForActivity(String activityName) {
-        double bodyWeightFactor = 0.0;
-        if (this.activitiesByName.get(activityName) != null) {
-            bodyWeightFactor = this.activitiesByName.get(activityName).getBodyWeightFactor();
-        }
-        return bodyWeightFactor;
+    // 0 for a name outside the catalog
+    public int getActivityId(String activityName) {
+        return activities.idOf(activityName);
     }
 
-    public static double calculateCaloriesBurned(double metValue, double weightKg, int durationMinutes) {
-        return metValue * 3.5 * weightKg * durationMinutes / 200;
+    // Strength or Cardio; null for a name outside the catalog or not typed yet
+    public String getWorkoutTypeForActivity(String activityName) {
+        Activity a = activities.get(activities.idOf(activityName));
+        return (a != null && !a.isUntyped()) ? a.getWorkoutType() : null;
+    }
+
+    public double getMetForActivity(int activityId) {
+        Activity a = activities.get(activityId);
+        return (a != null) ? a.getMetValue() : 0.0;
+    }
+
+    public double getMetForActivity(String activityName) {
+        return getMetForActivity(activities.idOf(activityName));
     }
 
-    private void sortActivities(List<Activity> activitiesList) {
-        Map<String, List<String>> activityCategoryMap = new HashMap<>();
-        Map<String, Activity> activityNameMap = new HashMap<>();
+    public double getBodyWeightFactorForActivity(int activityId) {
+        Activity a = activities.get(activityId);
+        return (a != null) ? a.getBodyWeightFactor() : 0.0;
+    }
 
-        for (Activity a : activitiesList) {
-            activityCategoryMap.putIfAbsent(a.getCategory(), new ArrayList<>());
-            activityCategoryMap.get(a.getCategory()).add(a.getActivityName());
+    public double getBodyWeightFactorForActivity(String activityName) {
+        return getBodyWeightFactorForActivity(activities.idOf(activityName));
+    }
 
-            activityNameMap.put(a.getActivityName(), a);
+    // A new workout built the way the menu builds one: calories from the activity's
+    // MET and the user's weight, the bodyweight share from the catalog. type is only
+    // read for names outside the catalog; null when the type is still unknown.
+    public Workout newWorkout(String exercise, String type, LocalDate date, int durationMinutes,
+                              int sets, int reps, double weightKg, double distanceKm) {
+        String catalogType = getWorkoutTypeForActivity(exercise);
+        if (catalogType != null) type = catalogType;
+        if (type == null) return null;
+
+        int activityId = getActivityId(exercise);
+        double caloriesBurned = calculateCaloriesBurned(getMetForActivity(activityId), userService.getWeightKg(), durationMinutes);
+
+        Workout w;
+        if (type.equalsIgnoreCase("Strength")) {
+            w = new StrengthWorkout(exercise, "Strength", date, caloriesBurned, durationMinutes,
+                sets, reps, userService.getWeightKg(), weightKg, getBodyWeightFactorForActivity(activityId));
+        } else if (type.equalsIgnoreCase("Cardio")) {
+            w = (distanceKm > 0)
+                ? new CardioWorkout(0, exercise, "Cardio", date, caloriesBurned, durationMinutes, distanceKm)
+                : new CardioWorkout(exercise, "Cardio", date, caloriesBurned, durationMinutes);
+        } else {
+            return null;
         }
+        w.setActivityId(activityId);
+        return w;
+    }
 
-        this.activitiesByCategory = activityCategoryMap;
-        this.activitiesByName = activityNameMap;
+    public static double calculateCaloriesBurned(double metValue, double weightKg, int durationMinutes) {
+        return metValue * 3.5 * weightKg * durationMinutes / 200;
     }
 
     // ============================================================
@@ -508,7 +1119,8 @@ public boolean deletePR(String prName) {
     public void testDatabaseConnection() {
         System.out.println("\n=== DATABASE CONNECTION TEST ===");
         try {
-            try (Connection conn = dbConnection.getConnection()) {
+            try {
+                Connection conn = dbConnection.getReadConnection();
                 System.out.println("✓ Connected to database successfully!");
                 System.out.println("Database URL: " + conn.getMetaData().getURL());
                 
@@ -527,6 +1139,11 @@ public boolean deletePR(String prName) {
                 if (!hasTables) {
                     System.out.println("  No tables found! Run DatabaseManager.initializeDatabase()");
                 }
+
+                System.out.println("\nConnection pools:");
+                for (PoolMetrics metrics : dbConnection.getPoolMetrics()) {
+                    System.out.println("  " + metrics);
+                }
                 
             } catch (SQLException e) {
                 System.err.println("✗ Database connection failed: " + e.getMessage());
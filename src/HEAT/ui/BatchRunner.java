@@ -0,0 +1,302 @@
+package heat.ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import heat.dao.HistoryTransfer;
+import heat.model.BodyMetric;
+import heat.model.Goal;
+import heat.model.User;
+import heat.model.Workout;
+import heat.service.GoalService;
+import heat.service.ProfileManager;
+import heat.service.UserService;
+import heat.service.WorkoutService;
+
+// Headless counterpart of the dashboard: reads one command per line from a script
+// file or stdin and prints one tab-separated result per command (line number, OK or
+// ERR, command, detail). There are no banners, prompts or pages. Consecutive log
+// lines are saved together as one session (one transaction, one PR and goal pass),
+// up to -Dheat.batch.groupSize lines; any other command saves the group first, so
+// commands still apply in script order.
+//
+//   log    exercise="Barbell Bench Press" sets=3 reps=8 weight_kg=60 duration_min=40 [date=2025-01-31]
+//   log    exercise=Running duration_min=30 [distance_km=5] [type=Cardio, for names outside the catalog]
+//   goal   type=frequency exercise=Running target=20 [title="Run 20 times"] [start_date=] [end_date=]
+//   weight weight_kg=80.5 [height_cm=178] [age=30]
+//   export dir=exports [format=csv|jsonl]
+//
+// Blank lines and lines starting with # are skipped.
+public class BatchRunner {
+
+    public static final int GROUP_SIZE = Integer.getInteger("heat.batch.groupSize", 500);
+
+    private static final List<String> GOAL_TYPES = List.of("weight loss", "weight gain", "reps", "duration", "weight lifted", "frequency");
+
+    private final WorkoutService workoutService;
+    private final GoalService goalService;
+    private final UserService userService;
+    private final PrintStream out;
+
+    // A log line waiting to be saved with its group, or its parse error
+    private static class Pending {
+        final int lineNumber;
+        final Workout workout;
+        final String error;
+
+        Pending(int lineNumber, Workout workout, String error) {
+            this.lineNumber = lineNumber;
+            this.workout = workout;
+            this.error = error;
+        }
+    }
+
+    // Results are printed when the group is saved, so they stay in line order
+    private final List<Pending> group = new ArrayList<>();
+    private int groupWorkouts = 0;
+
+    private int succeeded = 0;
+    private int failed = 0;
+
+    public BatchRunner(ProfileManager.Profile profile, PrintStream out) {
+        this.workoutService = profile.getWorkoutService();
+        this.goalService = profile.getGoalService();
+        this.userService = profile.getUserService();
+        this.out = out;
+    }
+
+    // Runs every command in the script; true when all of them succeeded
+    public boolean run(BufferedReader in) throws IOException {
+        long start = System.nanoTime();
+        int lineNumber = 0;
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String text = line.strip();
+            if (text.isEmpty() || text.startsWith("#")) continue;
+
+            int space = text.indexOf(' ');
+            String command = (space < 0 ? text : text.substring(0, space)).toLowerCase();
+            String rest = (space < 0) ? "" : text.substring(space + 1);
+
+            if (command.equals("log")) {
+                try {
+                    group.add(new Pending(lineNumber, buildWorkout(parseArgs(rest)), null));
+                    if (++groupWorkouts >= GROUP_SIZE) saveGroup();
+                } catch (IllegalArgumentException e) {
+                    group.add(new Pending(lineNumber, null, e.getMessage()));
+                }
+                continue;
+            }
+
+            saveGroup();
+            try {
+                Map<String, String> args = parseArgs(rest);
+                switch (command) {
+                    case "goal" -> result(lineNumber, command, setGoal(args));
+                    case "weight" -> result(lineNumber, command, updateWeight(args));
+                    case "export" -> result(lineNumber, command, export(args));
+                    default -> throw new IllegalArgumentException("unknown command");
+                }
+            } catch (IllegalArgumentException e) {
+                error(lineNumber, command, e.getMessage());
+            }
+        }
+        saveGroup();
+
+        out.printf("# %d ok, %d failed in %d ms%n", succeeded, failed, (System.nanoTime() - start) / 1_000_000);
+        out.flush();
+        return failed == 0;
+    }
+
+    // ============================================================
+    // Commands
+    // ============================================================
+
+    private Workout buildWorkout(Map<String, String> args) {
+        String exercise = workoutService.getActivityName(required(args, "exercise"));
+        String type = workoutService.getWorkoutTypeForActivity(exercise);
+        if (type == null) type = args.get("type");
+        boolean strength = "Strength".equalsIgnoreCase(type);
+
+        Workout w = workoutService.newWorkout(exercise, type,
+            date(args, "date", LocalDate.now()),
+            positiveInt(args, "duration_min"),
+            strength ? positiveInt(args, "sets") : 0,
+            strength ? positiveInt(args, "reps") : 0,
+            number(args, "weight_kg", 0.0),
+            number(args, "distance_km", 0.0));
+        if (w == null) throw new IllegalArgumentException("unknown exercise; add type=Strength or type=Cardio");
+        return w;
+    }
+
+    // The group's workouts are one transaction, so they succeed or fail as a unit
+    private void saveGroup() {
+        if (group.isEmpty()) return;
+
+        List<Workout> session = new ArrayList<>(groupWorkouts);
+        for (Pending p : group) {
+            if (p.workout != null) session.add(p.workout);
+        }
+        boolean saved = workoutService.logSession(session);
+
+        for (Pending p : group) {
+            if (p.workout == null) {
+                error(p.lineNumber, "log", p.error);
+            } else if (saved) {
+                // In write-behind mode ids are assigned when the writer saves the rows
+                result(p.lineNumber, "log", p.workout.getId() > 0 ? "id=" + p.workout.getId() : "id=pending");
+            } else {
+                error(p.lineNumber, "log", "session of " + session.size() + " workouts rolled back");
+            }
+        }
+        group.clear();
+        groupWorkouts = 0;
+    }
+
+    private String setGoal(Map<String, String> args) {
+        String goalType = required(args, "type").toLowerCase();
+        if (!GOAL_TYPES.contains(goalType)) {
+            throw new IllegalArgumentException("type must be one of " + String.join(", ", GOAL_TYPES));
+        }
+        boolean weightGoal = goalType.equals("weight loss") || goalType.equals("weight gain");
+
+        String exercise = weightGoal ? null : workoutService.getActivityName(required(args, "exercise"));
+        LocalDate startDate = date(args, "start_date", LocalDate.now());
+        LocalDate endDate = date(args, "end_date", null);
+        if (endDate != null && startDate.isAfter(endDate)) throw new IllegalArgumentException("end_date must be after start_date");
+
+        double target = number(args, "target", 0.0);
+        if (target <= 0) throw new IllegalArgumentException("target must be a number > 0");
+
+        double current = goalService.getCurrentValue(goalType, exercise, startDate);
+        Goal g = new Goal(args.getOrDefault("title", goalType), exercise, startDate, endDate, goalType, current, target);
+        if (!goalService.createGoal(g)) throw new IllegalArgumentException("goal not created (already completed or not saved)");
+        return "id=" + g.getId() + " current=" + current;
+    }
+
+    private String updateWeight(Map<String, String> args) {
+        User current = userService.getCurrentUser();
+        if (current == null || !userService.isRegistered()) throw new IllegalArgumentException("no registered profile");
+
+        double weight = number(args, "weight_kg", 0.0);
+        if (weight <= 0) throw new IllegalArgumentException("weight_kg must be a number > 0");
+        double height = number(args, "height_cm", current.getHeightCm());
+        int age = args.containsKey("age") ? positiveInt(args, "age") : current.getAge();
+
+        BodyMetric bm = userService.recordBodyMetrics(age, height, weight);
+        if (bm == null) throw new IllegalArgumentException("profile not saved");
+        return String.format("id=%d bmi=%.2f", bm.getId(), bm.getBMI());
+    }
+
+    private String export(Map<String, String> args) {
+        Path dir = Path.of(required(args, "dir"));
+        HistoryTransfer.Format format;
+        try {
+            format = HistoryTransfer.Format.valueOf(args.getOrDefault("format", "csv").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be csv or jsonl");
+        }
+        if (!workoutService.exportHistory(dir, format)) throw new IllegalArgumentException("export failed");
+        return "dir=" + dir;
+    }
+
+    // ============================================================
+    // Output
+    // ============================================================
+
+    private void result(int lineNumber, String command, String detail) {
+        succeeded++;
+        out.append(Integer.toString(lineNumber)).append("\tOK\t").append(command).append('\t').append(detail).append('\n');
+    }
+
+    private void error(int lineNumber, String command, String message) {
+        failed++;
+        out.append(Integer.toString(lineNumber)).append("\tERR\t").append(command).append('\t').append(message).append('\n');
+    }
+
+    // ============================================================
+    // Parsing
+    // ============================================================
+
+    // name=value pairs separated by spaces; a value with spaces goes in double quotes
+    static Map<String, String> parseArgs(String text) {
+        Map<String, String> args = new HashMap<>();
+        int i = 0;
+        int n = text.length();
+        while (i < n) {
+            while (i < n && text.charAt(i) == ' ') i++;
+            if (i >= n) break;
+
+            int eq = text.indexOf('=', i);
+            int space = text.indexOf(' ', i);
+            if (eq < 0 || (space >= 0 && space < eq)) {
+                throw new IllegalArgumentException("expected name=value at column " + (i + 1));
+            }
+            String name = text.substring(i, eq).toLowerCase();
+            i = eq + 1;
+
+            String value;
+            if (i < n && text.charAt(i) == '"') {
+                int close = text.indexOf('"', i + 1);
+                if (close < 0) throw new IllegalArgumentException("unclosed quote in " + name);
+                value = text.substring(i + 1, close);
+                i = close + 1;
+            } else {
+                int end = text.indexOf(' ', i);
+                if (end < 0) end = n;
+                value = text.substring(i, end);
+                i = end;
+            }
+            args.put(name, value);
+        }
+        return args;
+    }
+
+    private static String required(Map<String, String> args, String name) {
+        String value = args.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(name + " is required");
+        return value.strip();
+    }
+
+    private static int positiveInt(Map<String, String> args, String name) {
+        try {
+            int value = Integer.parseInt(required(args, name));
+            if (value > 0) return value;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(name + " must be a whole number > 0");
+    }
+
+    private static double number(Map<String, String> args, String name, double fallback) {
+        String value = args.get(name);
+        if (value == null) return fallback;
+        try {
+            double d = Double.parseDouble(value);
+            if (d >= 0 && !Double.isNaN(d) && !Double.isInfinite(d)) return d;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(name + " must be a number >= 0");
+    }
+
+    private static LocalDate date(Map<String, String> args, String name, LocalDate fallback) {
+        String value = args.get(name);
+        if (value == null) return fallback;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be a date (yyyy-MM-dd)");
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package heat.ui;
 
+import java.sql.SQLException;
+import java.util.List;
+
+import heat.model.User;
 import heat.service.*;
 import heat.util.ConsoleUtils;
+import heat.util.Metrics;
 
 public class ConsoleDashboard {
 
@@ -9,13 +14,23 @@ public class ConsoleDashboard {
     // Fields & Constructor
     // ============================================================
     
-    private final UserService userService;
-    private final InputHelper inputHelper;
+    private final ProfileManager profiles;
+
+    // The active profile's services; replaced on every profile switch
+    private WorkoutService workoutService;
+    private UserService userService;
+    private InputHelper inputHelper;
+
+    public ConsoleDashboard(ProfileManager profiles) {
+        this.profiles = profiles;
+        use(profiles.getActive());
+    }
+
+    private void use(ProfileManager.Profile profile) {
+        this.workoutService = profile.getWorkoutService();
+        this.userService = profile.getUserService();
+        this.inputHelper = new InputHelper(workoutService, userService, profile.getGoalService());
 
-    public ConsoleDashboard(WorkoutService workoutService, UserService userService, GoalService goalService) {
-        this.userService = userService;
-        this.inputHelper = new InputHelper(workoutService, userService, goalService);
-        
         userService.validateStreakOnStartup();
     }
 
@@ -44,16 +59,22 @@ public class ConsoleDashboard {
             System.out.println("\t\t\t\t\t[ 6 ]   View Weekly Summary");
             System.out.println("\t\t\t\t\t[ 7 ]   View Personal Records");
             System.out.println("\t\t\t\t\t[ 8 ]   View All Workouts");
+            System.out.println("\t\t\t\t\t[ 13 ]  View Training Summaries");
 
             System.out.println("");
             ConsoleUtils.printCentered("[ User Profile ]");
             System.out.println("\t\t\t\t\t[ 9 ]   Update Weight");
             System.out.println("\t\t\t\t\t[ 10 ]  Update Body Metrics");
             System.out.println("\t\t\t\t\t[ 11 ]  View Profile");
+            System.out.println("\t\t\t\t\t[ 12 ]  Import / Export History");
+            System.out.println("\t\t\t\t\t[ 14 ]  Switch Profile");
             System.out.println("\n\t\t\t\t\t[ 0 ]   Exit\n");
             int choice = ConsoleUtils.readRequiredInt("Enter choice: ", true);
             System.out.println("");
 
+            // Write-behind: everything but logging sees the database, so let it catch up first
+            if (choice != 1 && choice != 99) workoutService.flushPendingWrites();
+
             switch (choice) {
                 case 1: inputHelper.captureWorkoutInput(); break;
                 case 2: inputHelper.captureGoalInput(); break;
@@ -66,12 +87,81 @@ public class ConsoleDashboard {
                 case 9: inputHelper.updateWeight(); break;
                 case 10: inputHelper.updateBodyMetrics(); break;
                 case 11: inputHelper.showUserProfile(); break;
+                case 12: inputHelper.showTransferMenu(); break;
+                case 13: inputHelper.showTrainingSummaries(); break;
+                case 14: showProfileMenu(); break;
+                case 99: showMetrics(); break; // not listed in the menu
                 case 0:
                     System.out.println("\t\t\t\t\tGoodbye!");
                     return;
                 default:
-                    System.out.println("\t\t\t\t\t[!] Invalid choice. Please choose between 1-11.");
+                    System.out.println("\t\t\t\t\t[!] Invalid choice. Please choose between 1-14.");
             }
         }
     }
+
+    // ============================================================
+    // Metrics
+    // ============================================================
+
+    // Call counts and latencies of every DAO and service method since startup
+    private void showMetrics() {
+        ConsoleUtils.printCentered("[ Metrics ]");
+        System.out.println("");
+        System.out.println(Metrics.report());
+        ConsoleUtils.pause();
+    }
+
+    // ============================================================
+    // Profiles
+    // ============================================================
+
+    private void showProfileMenu() {
+        List<User> registered = profiles.listProfiles();
+        int activeId = profiles.getActive().getUserId();
+
+        ConsoleUtils.printCentered("[ Profiles ]");
+        System.out.println("");
+        for (int i = 0; i < registered.size(); i++) {
+            User u = registered.get(i);
+            String marker = (u.getId() == activeId) ? "  (active)" : "";
+            System.out.printf("\t\t\t\t\t[ %d ]   %s%s%n", i + 1, u.getName(), marker);
+        }
+        System.out.println("\t\t\t\t\t[ " + (registered.size() + 1) + " ]   New Profile");
+        System.out.println("\n\t\t\t\t\t[ 0 ]   Back\n");
+
+        int choice = ConsoleUtils.readRequiredInt("Enter choice: ", true);
+        System.out.println("");
+        if (choice == 0) return;
+        if (choice > registered.size() + 1) {
+            System.out.println("\t\t\t\t\t[ ! ]   Invalid choice. Please choose between 0-" + (registered.size() + 1) + ".");
+            return;
+        }
+
+        long t = System.nanoTime();
+        ProfileManager.Profile profile;
+        boolean cached;
+        try {
+            if (choice == registered.size() + 1) {
+                cached = false;
+                profile = profiles.switchToNewProfile();
+            } else {
+                int userId = registered.get(choice - 1).getId();
+                cached = profiles.isCached(userId);
+                profile = profiles.switchTo(userId);
+            }
+        } catch (SQLException e) {
+            System.out.println("\t\t\t\t\t[ ! ]   Could not create a profile: " + e.getMessage());
+            return;
+        }
+        use(profile);
+        double millis = (System.nanoTime() - t) / 1e6;
+
+        if (!userService.isRegistered()) {
+            inputHelper.captureUserProfileInput();
+        }
+
+        System.out.printf("\t\t\t\t\tNow using %s's profile (%s in %.1f ms)%n%n", userService.getCurrentUser().getName(),
+            cached ? "from memory" : "loaded", millis);
+    }
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package heat.ui;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
+import heat.dao.HistoryTransfer;
+import heat.dao.WorkoutQuery;
+import heat.dao.WorkoutRollups;
+
 import heat.model.*;
 import heat.service.*;
 import heat.util.ConsoleUtils;
+import heat.util.ScreenBuffer;
 
 public class InputHelper {
 
@@ -14,6 +21,45 @@ public class InputHelper {
     private final GoalService goalService;
     private final LocalDate today = LocalDate.now();
 
+    // Reused by every table screen
+    private final ScreenBuffer screen = new ScreenBuffer();
+
+    private static final String WORKOUT_HEADER = String.format("   %-2s | %-39s | %-21s | %-41s |%-13s |%-13s | %-11s",
+        "id",
+        "   Exercise Name",
+        "   Reps / Distance",
+        "   Training Volume & Weight Used",
+        "   Duration",
+        "   Calories",
+        " Date"
+    );
+
+    private static final String PR_HEADER = String.format("   %-2s |   %-60s   |   %-37s   |   %-37s",
+        "id",
+        "Exercise Name",
+        "Personal Record",
+        "Date Achieved"
+    );
+
+    private static final String GOAL_HEADER = String.format("   %-2s |  %-31s  |  %-22s  |  %-20s  |  %-20s  | %-10s | %-10s | %-9s",
+        "id",
+        "Goal Title / Description",
+        "Exercise Name",
+        "Progress",
+        "Target",
+        "Start Date",
+        "End Date",
+        "Status"
+    );
+
+    private static final String BODY_METRIC_HEADER = String.format("   %-2s |   %-32s   |   %-32s   |   %-28s   |   %s",
+        "id",
+        "Height",
+        "Weight",
+        "BMI",
+        "Date"
+    );
+
     public InputHelper(WorkoutService workoutService, UserService userService, GoalService goalService) {
         this.workoutService = workoutService;
         this.userService = userService;
@@ -72,7 +118,8 @@ public class InputHelper {
             ConsoleUtils.printBorder();
             ConsoleUtils.printCentered(String.format("[ %s's User Profile ]", userService.getName()));
             System.out.println("");
-            ConsoleUtils.printCentered(String.format("Streak  :  %d", userService.getStreak()));
+            ConsoleUtils.printCentered(String.format("Streak  :  %d   |   Longest  :  %d",
+                userService.getStreak(), workoutService.getLongestStreak()));
             
             System.out.println(userService.showProfileDetails());
             
@@ -194,7 +241,7 @@ public class InputHelper {
         ConsoleUtils.printBorder();
         ConsoleUtils.printCentered("[ Workout Logging ]");
 
-        String workoutType = selectWorkoutType();
+        String workoutType = selectWorkoutType(true, "Cancel");
         if (workoutType == null) {
             return;
         }
@@ -203,6 +250,8 @@ public class InputHelper {
             captureStrengthWorkout();
         } else if (workoutType.equalsIgnoreCase("Cardio")) {
             captureCardioWorkout();
+        } else if (workoutType.equalsIgnoreCase("Session")) {
+            captureWorkoutSession();
         } else {
             System.out.println("\t\t\t\t\tInvalid workout type. Returning to main menu.");
             return;
@@ -210,46 +259,103 @@ public class InputHelper {
     }
 
     private String selectWorkoutType() {
+        return selectWorkoutType(false, "Cancel");
+    }
+
+    private String selectWorkoutType(boolean offerSession, String cancelLabel) {
         System.out.println("\t\t\t\t\tSelect a workout type.");
-        System.out.println("\t\t\t\t\t[ 1 ]   Strength\n\t\t\t\t\t[ 2 ]   Cardio\n");
-        System.out.println("\t\t\t\t\t[ 0 ]   Cancel\n");
+        System.out.println("\t\t\t\t\t[ 1 ]   Strength\n\t\t\t\t\t[ 2 ]   Cardio");
+        if (offerSession) System.out.println("\t\t\t\t\t[ 3 ]   Session (several exercises)");
+        System.out.println("");
+        System.out.println("\t\t\t\t\t[ 0 ]   " + cancelLabel + "\n");
 
+        int maxChoice = offerSession ? 3 : 2;
         String workoutType = null;
         while (workoutType == null) {
             int choice = ConsoleUtils.readRequiredInt("Enter choice: ", true);
             switch (choice) {
                 case 1 -> workoutType = "Strength";
                 case 2 -> workoutType = "Cardio";
+                case 3 -> {
+                    if (offerSession) workoutType = "Session";
+                    else System.out.println("\t\t\t\t\t[ ! ]   Invalid choice. Please enter 1-2.");
+                }
                 case 0 -> { 
                     return null; 
                 }
-                default -> System.out.println("\t\t\t\t\t[ ! ]   Invalid choice. Please enter 1-2.");
+                default -> System.out.println("\t\t\t\t\t[ ! ]   Invalid choice. Please enter 1-" + maxChoice + ".");
             }
         }
 
         return workoutType;
     }
 
+    // Exercises are collected first and saved together when the session is finished
+    private void captureWorkoutSession() {
+        List<Workout> session = new ArrayList<>();
+
+        while (true) {
+            System.out.println("");
+            ConsoleUtils.printThinBorder();
+            ConsoleUtils.printCentered("Session: " + session.size() + " exercise(s) so far");
+
+            String workoutType = selectWorkoutType(false, "Finish session");
+            if (workoutType == null) break;
+
+            Workout w = workoutType.equals("Strength") ? buildStrengthWorkout() : buildCardioWorkout();
+            if (w != null) {
+                session.add(w);
+                System.out.println("\t\t\t\t\tAdded " + w.getName() + " to the session.");
+            }
+        }
+
+        if (session.isEmpty()) {
+            System.out.println("\t\t\t\t\tNo exercises added. Nothing was logged.");
+            return;
+        }
+
+        if (workoutService.logSession(session)) {
+            System.out.println("");
+            ConsoleUtils.printThinBorder();
+            ConsoleUtils.printCentered("Session logged successfully! (" + session.size() + " exercises)");
+            System.out.println("");
+        }
+    }
+
     private void captureStrengthWorkout() {
+        StrengthWorkout sw = buildStrengthWorkout();
+
+        if (sw != null) {
+            workoutService.logWorkout(sw);
+
+            System.out.println("");
+            ConsoleUtils.printThinBorder();
+            ConsoleUtils.printCentered("Workout logged successfully!");
+            System.out.println("");
+        }
+    }
+
+    // Prompts for one strength exercise; null when cancelled
+    private StrengthWorkout buildStrengthWorkout() {
         String workoutType = "Strength";
-        StrengthWorkout sw = null;
 
         String selectedExerciseName = selectStrengthExerciseName();
-        if (selectedExerciseName == null) { return; }
+        if (selectedExerciseName == null) { return null; }
 
         int sets = ConsoleUtils.readRequiredInt("Number of sets (0 to cancel): ", true);
-        if (sets == 0) { return; }
+        if (sets == 0) { return null; }
 
         int reps = ConsoleUtils.readRequiredInt("Number of reps per set (0 to cancel): ", true);
-        if (reps == 0) { return; }
+        if (reps == 0) { return null; }
 
-        double bodyWeightFactor = workoutService.getBodyWeightFactorForActivity(selectedExerciseName);
+        int activityId = workoutService.getActivityId(selectedExerciseName);
+        double bodyWeightFactor = workoutService.getBodyWeightFactorForActivity(activityId);
 
         double externalWeightKg = -1;
         while (externalWeightKg == -1) {
             if (bodyWeightFactor == 0) {
                 double val = ConsoleUtils.readRequiredDouble("Weight used (kg) (0 to cancel): ", true);
-                if (val == 0) { return; }
+                if (val == 0) { return null; }
                 externalWeightKg = val;
             } else {
                 // Bodyweight: 0 is valid (unweighted)
@@ -259,15 +365,21 @@ public class InputHelper {
 
         int duration = ConsoleUtils.readRequiredInt("Duration (mins) (0 to cancel): ", true);
         System.out.println("");
-        if (duration == 0) { return; }
+        if (duration == 0) { return null; }
 
-        double caloriesBurned = WorkoutService.calculateCaloriesBurned(workoutService.getMetForActivity(selectedExerciseName), userService.getWeightKg(), duration);
+        double caloriesBurned = WorkoutService.calculateCaloriesBurned(workoutService.getMetForActivity(activityId), userService.getWeightKg(), duration);
 
-        sw = new StrengthWorkout(selectedExerciseName, workoutType, today, caloriesBurned, duration,
+        StrengthWorkout sw = new StrengthWorkout(selectedExerciseName, workoutType, today, caloriesBurned, duration,
             sets, reps, userService.getWeightKg(), externalWeightKg, bodyWeightFactor);
+        sw.setActivityId(activityId);
+        return sw;
+    }
 
-        if (sw != null) {
-            workoutService.logWorkout(sw);
+    private void captureCardioWorkout() {
+        CardioWorkout cw = buildCardioWorkout();
+
+        if (cw != null) {
+            workoutService.logWorkout(cw);
 
             System.out.println("");
             ConsoleUtils.printThinBorder();
@@ -276,20 +388,21 @@ public class InputHelper {
         }
     }
 
-    private void captureCardioWorkout() {
+    // Prompts for one cardio exercise; null when cancelled
+    private CardioWorkout buildCardioWorkout() {
         String workoutType = "Cardio";
-        CardioWorkout cw = null;
 
         String selectedExerciseName = selectCardioExerciseName();
-        if (selectedExerciseName == null) { return; }
+        if (selectedExerciseName == null) { return null; }
 
         System.out.println("");
         int duration = ConsoleUtils.readRequiredInt("Enter duration (mins) (0 to cancel): ", true);
         System.out.println("");
 
-        if (duration == 0) { return; }
+        if (duration == 0) { return null; }
 
-        double caloriesBurned = WorkoutService.calculateCaloriesBurned(workoutService.getMetForActivity(selectedExerciseName), userService.getWeightKg(), duration);
+        int activityId = workoutService.getActivityId(selectedExerciseName);
+        double caloriesBurned = WorkoutService.calculateCaloriesBurned(workoutService.getMetForActivity(activityId), userService.getWeightKg(), duration);
 
         double distanceKm = 0.0;
         boolean distanceProvided = false;
@@ -301,20 +414,14 @@ public class InputHelper {
             }
         }
 
+        CardioWorkout cw;
         if (distanceProvided) {
             cw = new CardioWorkout(0, selectedExerciseName, workoutType, today, caloriesBurned, duration, distanceKm);
         } else {
             cw = new CardioWorkout(selectedExerciseName, workoutType, today, caloriesBurned, duration);
         }
-
-        if (cw != null) {
-            workoutService.logWorkout(cw);
-
-            System.out.println("");
-            ConsoleUtils.printThinBorder();
-            ConsoleUtils.printCentered("Workout logged successfully!");
-            System.out.println("");
-        }
+        cw.setActivityId(activityId);
+        return cw;
     }
 
     // Helper method to decide if we should ask for distance
@@ -463,13 +570,14 @@ public class InputHelper {
             printWorkouts(workoutsList);
             if (workoutsList.isEmpty()) return;
 
-            System.out.println("\t\t\t\t\tTotal Workouts: " + workoutsList.size());
-            System.out.printf("\t\t\t\t\tTotal Training Volume: %.2f kg\n", workoutService.computeTotalTrainingVolumeKg(workoutsList));
-            System.out.println("\t\t\t\t\tTotal Calories Burned: " + (int)workoutService.computeTotalCalories(workoutsList) + "\n");
+            WorkoutTotals totals = workoutService.getAllWorkoutTotals();
+            System.out.println("\t\t\t\t\tTotal Workouts: " + totals.getWorkoutCount());
+            System.out.printf("\t\t\t\t\tTotal Training Volume: %.2f kg\n", totals.getTrainingVolumeKg());
+            System.out.println("\t\t\t\t\tTotal Calories Burned: " + (int)totals.getCaloriesBurned() + "\n");
             ConsoleUtils.printBorder();
 
             ConsoleUtils.printCentered("What would you like to do?");
-            System.out.println("\n\t\t\t\t[ 1 ]   Delete a Workout\t\t[ 2 ]   Update a workout\t\t[ 0 ]   Back\n");
+            System.out.println("\n\t\t\t\t[ 1 ]   Delete a Workout\t\t[ 2 ]   Update a workout\t\t[ 3 ]   Filter Workouts\t\t[ 0 ]   Back\n");
 
             int choice = ConsoleUtils.readRequiredInt("Enter choice: ", true);
             System.out.println("");
@@ -481,15 +589,115 @@ public class InputHelper {
                 case 2:
                     handleEditWorkout();
                     break;
+                case 3:
+                    showFilteredWorkouts();
+                    break;
                 case 0:
                     inSubMenu = false;
                     break;
                 default:
-                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice. Please choose 0, 1, or 2.");
+                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice. Please choose between 0-3.");
             }
         }
     }
 
+    // Filters run in SQL and pages are fetched by keyset, 10 rows at a time
+    public void showFilteredWorkouts() {
+        ConsoleUtils.printCentered("[ Filter Workouts ]");
+        System.out.println("\t\t\t\t\tPress Enter to skip a filter.\n");
+
+        WorkoutQuery query = readWorkoutQuery();
+        int pageSize = 10;
+
+        // starts.get(n) is the row page n continues after (null for the first page)
+        List<Workout> starts = new ArrayList<>();
+        starts.add(null);
+        int currentPage = 0;
+
+        while (true) {
+            List<Workout> page = workoutService.findWorkouts(query.after(starts.get(currentPage)).limit(pageSize));
+
+            ConsoleUtils.printBorder();
+            ConsoleUtils.printCentered(String.format("[ %s ]", query.describe()));
+            ConsoleUtils.printCentered("[ Page " + (currentPage + 1) + " ]");
+            System.out.println("");
+
+            printWorkouts(page);
+            if (page.isEmpty() && currentPage == 0) return;
+
+            boolean hasNext = page.size() == pageSize;
+            System.out.println("\t\t\t\t\t[ N ]   Next Page\t\t[ P ]   Prev Page\t\t[ D ]   Delete a Workout\t\t[ Q ]   Done Viewing\n");
+            String choice = ConsoleUtils.readRequiredString("Enter choice: ").toUpperCase();
+            System.out.println("");
+
+            switch (choice) {
+                case "N":
+                    if (hasNext) {
+                        if (starts.size() == currentPage + 1) starts.add(page.get(page.size() - 1));
+                        currentPage++;
+                    } else {
+                        System.out.println("\t\t\t\t\t[ ! ]   Already on the last page.\n");
+                    }
+                    break;
+                case "P":
+                    if (currentPage > 0) currentPage--;
+                    else System.out.println("\t\t\t\t\t[ ! ]   Already on the first page.\n");
+                    break;
+                case "D":
+                    deleteWorkout(page);
+                    // Later page starts may point at a deleted row; rebuild them from here
+                    while (starts.size() > currentPage + 1) starts.remove(starts.size() - 1);
+                    break;
+                case "Q":
+                    return;
+                default:
+                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice.");
+            }
+        }
+    }
+
+    private WorkoutQuery readWorkoutQuery() {
+        WorkoutQuery query = new WorkoutQuery();
+
+        String exercises = ConsoleUtils.readStringOrDefault("Exercise names (comma-separated)", "any");
+        if (!exercises.equalsIgnoreCase("any")) {
+            for (String name : exercises.split(",")) {
+                if (!name.isBlank()) query.exercises(name.trim());
+            }
+        }
+
+        String category = ConsoleUtils.readStringOrDefault("Category (e.g. Legs, HIIT)", "any");
+        if (!category.equalsIgnoreCase("any")) query.category(category);
+
+        String type = ConsoleUtils.readStringOrDefault("Type (Strength / Cardio)", "any");
+        if (type.equalsIgnoreCase("strength") || type.equalsIgnoreCase("cardio")) query.type(type);
+
+        LocalDate from = ConsoleUtils.readDateOrNull("From date", null);
+        LocalDate to = ConsoleUtils.readDateOrNull("To date", null);
+        query.between(from, to);
+
+        double minWeight = ConsoleUtils.readDoubleOrDefault("Minimum weight (kg)", 0);
+        if (minWeight > 0) query.minWeightKg(minWeight);
+
+        int minReps = ConsoleUtils.readIntOrDefault("Minimum reps", 0);
+        if (minReps > 0) query.minReps(minReps);
+
+        int minDuration = ConsoleUtils.readIntOrDefault("Minimum duration (mins)", 0);
+        if (minDuration > 0) query.minDurationMinutes(minDuration);
+
+        System.out.println("\n\t\t\t\t\tSort by:  [ 1 ] Newest   [ 2 ] Oldest   [ 3 ] Heaviest   [ 4 ] Longest");
+        int sort = ConsoleUtils.readIntOrDefault("Select option", 1);
+        query.orderBy(switch (sort) {
+            case 2 -> WorkoutQuery.Sort.OLDEST_FIRST;
+            case 3 -> WorkoutQuery.Sort.HEAVIEST_FIRST;
+            case 4 -> WorkoutQuery.Sort.LONGEST_FIRST;
+            default -> WorkoutQuery.Sort.NEWEST_FIRST;
+        });
+
+        System.out.println("");
+        return query;
+    }
+
     public void showWeeklySummary() {
         boolean inSubMenu = true;
 
@@ -503,9 +711,10 @@ public class InputHelper {
             printWorkouts(workoutsList);
             if (workoutsList.isEmpty()) return;
 
-            System.out.println("\t\t\t\t\tTotal Workouts: " + workoutsList.size());
-            System.out.printf("\t\t\t\t\tTotal Training Volume: %.2f kg\n", workoutService.computeTotalTrainingVolumeKg(workoutsList));
-            System.out.println("\t\t\t\t\tTotal Calories Burned: " + (int)workoutService.computeTotalCalories(workoutsList) + "\n");
+            WorkoutTotals totals = workoutService.getWeeklyWorkoutTotals();
+            System.out.println("\t\t\t\t\tTotal Workouts: " + totals.getWorkoutCount());
+            System.out.printf("\t\t\t\t\tTotal Training Volume: %.2f kg\n", totals.getTrainingVolumeKg());
+            System.out.println("\t\t\t\t\tTotal Calories Burned: " + (int)totals.getCaloriesBurned() + "\n");
             ConsoleUtils.printThinBorder();
 
             ConsoleUtils.printCentered("What would you like to do?");
@@ -700,7 +909,7 @@ public class InputHelper {
         Workout updated = null;
 
         double newCalories = WorkoutService.calculateCaloriesBurned(
-            workoutService.getMetForActivity(original.getName()), 
+            workoutService.getMetForActivity(original.getActivityId()), 
             userService.getWeightKg(), 
             newDuration
         );
@@ -731,6 +940,8 @@ public class InputHelper {
             );
         }
 
+        updated.setActivityId(original.getActivityId());
+
         System.out.println("");
         ConsoleUtils.printThinBorder();
 
@@ -742,36 +953,22 @@ public class InputHelper {
     }
 
     public void printWorkouts(List<Workout> workoutList) {
-        if (workoutList.isEmpty()) {
-            System.out.println("\t\t\t\t\tNo workouts logged yet.\n");
+        printTable(workoutList, WORKOUT_HEADER, "No workouts logged yet.");
+    }
+
+    // Rows numbered from 1; past ten rows the table pages with N/P/Q. Each page
+    // is composed in the screen buffer and written in one go before the prompt.
+    private void printTable(List<?> rows, String header, String emptyMessage) {
+        if (rows.isEmpty()) {
+            System.out.println("\t\t\t\t\t" + emptyMessage + "\n");
             return;
         }
 
-        int totalItems = workoutList.size();
-        
-        String tableHeader = String.format("   %-2s | %-39s | %-21s | %-41s |%-13s |%-13s | %-11s",
-            "id",
-            "   Exercise Name",
-            "   Reps / Distance",
-            "   Training Volume & Weight Used",
-            "   Duration",
-            "   Calories",
-            " Date"
-        );
+        int totalItems = rows.size();
 
         if (totalItems <= 10) {
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
-
-            int i = 1;
-            for (Workout w : workoutList) {
-                String space = i < 10 ? "    " : "   ";
-                System.out.println(space + i + w);
-                i++;
-            }
-            ConsoleUtils.printThinBorder();
-
+            appendTable(rows, header, 0, totalItems);
+            screen.flush();
             return;
         }
 
@@ -784,53 +981,58 @@ public class InputHelper {
             int start = (currentPage - 1) * pageSize;
             int end = Math.min(start + pageSize, totalItems);
 
-            ConsoleUtils.printCentered("[ Page " + currentPage + " of " + totalPages + " ]");
-            System.out.println("");
-
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
+            screen.centered("[ Page " + currentPage + " of " + totalPages + " ]");
+            screen.line();
+            appendTable(rows, header, start, end);
 
-            for (int i = start; i < end; i++) {
-                String space = i < 9 ? "    " : "   ";
-                System.out.println(space + (i + 1) + workoutList.get(i));
-            }
-            
-            ConsoleUtils.printThinBorder();
-
-            System.out.println("\t\t\t\t\t[ N ]   Next Page\t\t[ P ]   Prev Page\t\t[ Q ]   Done Viewing\n");
+            screen.line("\t\t\t\t\t[ N ]   Next Page\t\t[ P ]   Prev Page\t\t[ Q ]   Done Viewing\n");
+            screen.flush();
             String choice = ConsoleUtils.readRequiredString("Enter choice: ").toUpperCase();
-            System.out.println("");
+            screen.line();
 
             switch (choice) {
                 case "N":
                     if (currentPage < totalPages) {
-                        ConsoleUtils.printBorder();
+                        screen.border();
                         currentPage++;
                     }
                     else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the last page.\n");
-                        ConsoleUtils.printBorder();
+                        screen.line("\t\t\t\t\t[ ! ]   Already on the last page.\n");
+                        screen.border();
                     }
                     break;
                 case "P":
                     if (currentPage > 1) {
-                        ConsoleUtils.printBorder();
+                        screen.border();
                         currentPage--;
                     }
                     else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the first page.\n");
-                        ConsoleUtils.printBorder();
+                        screen.line("\t\t\t\t\t[ ! ]   Already on the first page.\n");
+                        screen.border();
                     }
                     break;
                 case "Q":
                     viewing = false;
                     break;
                 default:
-                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice.\n");
-                    ConsoleUtils.printBorder();
+                    screen.line("\t\t\t\t\t[ ! ]   Invalid choice.\n");
+                    screen.border();
             }
         }
+        screen.flush();
+    }
+
+    // Rows start..end (exclusive) between thin borders; each row string is cached by its model
+    private void appendTable(List<?> rows, String header, int start, int end) {
+        screen.thinBorderNoNewLine();
+        screen.line(header);
+        screen.thinBorderNoNewLine();
+
+        for (int i = start; i < end; i++) {
+            screen.append(i < 9 ? "    " : "   ").append(i + 1).line(rows.get(i).toString());
+        }
+
+        screen.thinBorder();
     }
 
     // ============================================================
@@ -905,92 +1107,7 @@ public class InputHelper {
     }
 
     public void printAllPRs(List<PersonalRecord> prList) {
-        if (prList.isEmpty()) {
-            System.out.println("\t\t\t\t\tNo PRs found.\n");
-            return;
-        }
-
-        int totalItems = prList.size();
-        
-        String tableHeader = String.format("   %-2s |   %-60s   |   %-37s   |   %-37s",
-            "id",
-            "Exercise Name", 
-            "Personal Record", 
-            "Date Achieved"
-        );
-
-        if (totalItems <= 10) {
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
-
-            int i = 1;
-            for (PersonalRecord pr : prList) {
-                String space = i < 10 ? "    " : "   ";
-                System.out.println(space + i + pr);
-                i++;
-            }
-            ConsoleUtils.printThinBorder();
-
-            return;
-        }
-
-        int pageSize = 10;
-        int totalPages = (int) Math.ceil((double) totalItems / pageSize);
-        int currentPage = 1;
-        boolean viewing = true;
-
-        while (viewing) {
-            int start = (currentPage - 1) * pageSize;
-            int end = Math.min(start + pageSize, totalItems);
-
-            ConsoleUtils.printCentered("[ Page " + currentPage + " of " + totalPages + " ]");
-            System.out.println("");
-
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
-
-            for (int i = start; i < end; i++) {
-                String space = i < 9 ? "    " : "   ";
-                System.out.println(space + (i + 1) + prList.get(i));
-            }
-            
-            ConsoleUtils.printThinBorder();
-
-            System.out.println("\t\t\t\t\t[ N ]   Next Page\t\t[ P ]   Prev Page\t\t[ Q ]   Done Viewing\n");
-            String choice = ConsoleUtils.readRequiredString("Enter choice: ").toUpperCase();
-            System.out.println("");
-
-            switch (choice) {
-                case "N":
-                    if (currentPage < totalPages) {
-                        ConsoleUtils.printBorder();
-                        currentPage++;
-                    }
-                    else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the last page.\n");
-                        ConsoleUtils.printBorder();
-                    }
-                    break;
-                case "P":
-                    if (currentPage > 1) {
-                        ConsoleUtils.printBorder();
-                        currentPage--;
-                    }
-                    else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the first page.\n");
-                        ConsoleUtils.printBorder();
-                    }
-                    break;
-                case "Q":
-                    viewing = false;
-                    break;
-                default:
-                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice.\n");
-                    ConsoleUtils.printBorder();
-            }
-        }
+        printTable(prList, PR_HEADER, "No PRs found.");
     }
 
     // ============================================================
@@ -1318,97 +1435,7 @@ public class InputHelper {
     }
 
     public void printGoals(List<Goal> goalsList) {
-        if (goalsList.isEmpty()) {
-            System.out.println("\t\t\t\t\tNo goals set yet.\n");
-            return;
-        }
-
-        int totalItems = goalsList.size();
-        
-        String tableHeader = String.format("   %-2s |  %-31s  |  %-22s  |  %-20s  |  %-20s  | %-10s | %-10s | %-9s",
-            "id",
-            "Goal Title / Description",
-            "Exercise Name",
-            "Progress",
-            "Target",
-            "Start Date",
-            "End Date",
-            "Status"
-        );
-
-        if (totalItems <= 10) {
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
-
-
-            int i = 1;
-            for (Goal g : goalsList) {
-                String space = i < 10 ? "    " : "   ";
-                System.out.println(space + i + g);
-                i++;
-            }
-            ConsoleUtils.printThinBorder();
-
-            return;
-        }
-
-        int pageSize = 10;
-        int totalPages = (int) Math.ceil((double) totalItems / pageSize);
-        int currentPage = 1;
-        boolean viewing = true;
-
-        while (viewing) {
-            int start = (currentPage - 1) * pageSize;
-            int end = Math.min(start + pageSize, totalItems);
-
-            ConsoleUtils.printCentered("[ Page " + currentPage + " of " + totalPages + " ]");
-            System.out.println("");
-
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
-
-            for (int i = start; i < end; i++) {
-                String space = i < 9 ? "    " : "   ";
-                System.out.println(space + (i + 1) + goalsList.get(i));
-            }
-            
-            ConsoleUtils.printThinBorder();
-
-            System.out.println("\t\t\t\t\t[ N ]   Next Page\t\t[ P ]   Prev Page\t\t[ Q ]   Done Viewing\n");
-            String choice = ConsoleUtils.readRequiredString("Enter choice: ").toUpperCase();
-            System.out.println("");
-
-            switch (choice) {
-                case "N":
-                    if (currentPage < totalPages) {
-                        ConsoleUtils.printBorder();
-                        currentPage++;
-                    }
-                    else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the last page.\n");
-                        ConsoleUtils.printBorder();
-                    }
-                    break;
-                case "P":
-                    if (currentPage > 1) {
-                        ConsoleUtils.printBorder();
-                        currentPage--;
-                    }
-                    else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the first page.\n");
-                        ConsoleUtils.printBorder();
-                    }
-                    break;
-                case "Q":
-                    viewing = false;
-                    break;
-                default:
-                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice.\n");
-                    ConsoleUtils.printBorder();
-            }
-        }
+        printTable(goalsList, GOAL_HEADER, "No goals set yet.");
     }
 
     // ============================================================
@@ -1677,109 +1704,146 @@ public class InputHelper {
     }
 
     private void printBodyMetrics(List<BodyMetric> history) {
-        if (history.isEmpty()) {
-            System.out.println("\t\t\t\t\tNo body metric history found.\n");
-            return;
-        }
-
-        int totalItems = history.size();
-
-        String tableHeader = String.format("   %-2s |   %-32s   |   %-32s   |   %-28s   |   %s",
-            "id",
-            "Height",
-            "Weight",
-            "BMI",
-            "Date"
-        );
-
-        if (totalItems <= 10) {
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
-
-            int i = 1;
-            for (BodyMetric b : history) {
-                String space = i < 10 ? "    " : "   ";
-                System.out.println(space + i + b);
-                i++;
-            }
-            ConsoleUtils.printThinBorder();
+        printTable(history, BODY_METRIC_HEADER, "No body metric history found.");
+    }
 
-            return;
-        }
+    private int askForAge() {
+        System.out.println("");
+        return ConsoleUtils.readRequiredInt("Enter new age (0 to cancel): ", true);
+    }
 
-        int pageSize = 10;
-        int totalPages = (int) Math.ceil((double) totalItems / pageSize);
-        int currentPage = 1;
-        boolean viewing = true;
+    private double askForWeight() {
+        System.out.println("");
+        return ConsoleUtils.readRequiredDouble("Enter new weight (kg) (0 to cancel): ", true);
+    }
 
-        while (viewing) {
-            int start = (currentPage - 1) * pageSize;
-            int end = Math.min(start + pageSize, totalItems);
+    private double askForHeight() {
+        System.out.println("");
+        return ConsoleUtils.readRequiredDouble("Enter new height (cm) (0 to cancel): ", true);
+    }
 
-            ConsoleUtils.printCentered("[ Page " + currentPage + " of " + totalPages + " ]");
-            System.out.println("");
+    // ============================================================
+    // Training Summaries (Read)
+    // ============================================================
 
-            ConsoleUtils.printThinBorderNoNewLine();
-            System.out.println(tableHeader);
-            ConsoleUtils.printThinBorderNoNewLine();
+    // Every screen here reads the rollup buckets, never the workout rows
+    public void showTrainingSummaries() {
+        boolean inSubMenu = true;
 
-            for (int i = start; i < end; i++) {
-                String space = i < 9 ? "    " : "   ";
-                System.out.println(space + (i + 1) + history.get(i));
-            }
-            
-            ConsoleUtils.printThinBorder();
+        while (inSubMenu) {
+            ConsoleUtils.printBorder();
+            ConsoleUtils.printCentered("[ Training Summaries ]");
+            System.out.println("\n\t\t\t\t\t[ 1 ]   Last 8 Weeks\t\t[ 2 ]   Last 12 Months\t\t[ 3 ]   By Year");
+            System.out.println("\t\t\t\t\t[ 4 ]   Custom Range\t\t[ 0 ]   Back\n");
 
-            System.out.println("\t\t\t\t\t[ N ]   Next Page\t\t[ P ]   Prev Page\t\t[ Q ]   Done Viewing\n");
-            
-            String choice = ConsoleUtils.readRequiredString("Enter choice: ").toUpperCase();
+            int choice = ConsoleUtils.readRequiredInt("Enter choice: ", true);
             System.out.println("");
 
             switch (choice) {
-                case "N":
-                    if (currentPage < totalPages) {
-                        ConsoleUtils.printBorder();
-                        currentPage++;
-                    }
-                    else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the last page.\n");
-                        ConsoleUtils.printBorder();
-                    }
+                case 1:
+                    printSummaries("Last 8 Weeks", workoutService.getRecentSummaries(WorkoutRollups.Period.WEEK, 8));
                     break;
-                case "P":
-                    if (currentPage > 1) {
-                        ConsoleUtils.printBorder();
-                        currentPage--;
-                    }
-                    else {
-                        System.out.println("\t\t\t\t\t[ ! ]   Already on the first page.\n");
-                        ConsoleUtils.printBorder();
-                    }
+                case 2:
+                    printSummaries("Last 12 Months", workoutService.getRecentSummaries(WorkoutRollups.Period.MONTH, 12));
                     break;
-                case "Q":
-                    viewing = false;
+                case 3:
+                    printSummaries("By Year", workoutService.getYearlySummaries());
+                    break;
+                case 4:
+                    showCustomRangeSummary();
+                    break;
+                case 0:
+                    inSubMenu = false;
                     break;
                 default:
-                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice.\n");
-                    ConsoleUtils.printBorder();
+                    System.out.println("\t\t\t\t\t[ ! ]   Invalid choice. Please choose between 0-4.");
             }
+
+            System.out.println("");
         }
     }
 
-    private int askForAge() {
+    private void showCustomRangeSummary() {
+        LocalDate from = ConsoleUtils.readDateOrDefault("From", today.minusMonths(1));
+        LocalDate to = ConsoleUtils.readDateOrDefault("To", today);
+
+        if (to.isBefore(from)) {
+            System.out.println("\t\t\t\t\t[ ! ]   End date is before start date.");
+            return;
+        }
+
+        WorkoutSummary summary = workoutService.getSummary(from + " to " + to, from, to);
+        printSummaries("Custom Range", List.of(summary));
+        printCategoryBreakdown(summary);
+    }
+
+    private void printSummaries(String title, List<WorkoutSummary> summaries) {
+        ConsoleUtils.printCentered(String.format("[ %s ]", title));
         System.out.println("");
-        return ConsoleUtils.readRequiredInt("Enter new age (0 to cancel): ", true);
+
+        if (summaries.isEmpty()) {
+            System.out.println("\t\t\t\t\tNo workouts recorded yet.\n");
+            return;
+        }
+
+        String tableHeader = String.format("   %-24s   |   %-10s   |   %-10s   |   %-12s   |   %-14s   |   %-12s   |   %s",
+            "Period",
+            "Workouts",
+            "Minutes",
+            "Calories",
+            "Volume (kg)",
+            "Distance (km)",
+            "Top Category"
+        );
+
+        ConsoleUtils.printThinBorderNoNewLine();
+        System.out.println(tableHeader);
+        ConsoleUtils.printThinBorderNoNewLine();
+
+        for (WorkoutSummary s : summaries) {
+            System.out.println(s);
+        }
+        ConsoleUtils.printThinBorder();
     }
 
-    private double askForWeight() {
+    private void printCategoryBreakdown(WorkoutSummary summary) {
+        if (summary.getWorkoutCount() == 0) return;
+
+        for (var e : summary.getWorkoutsByCategory().entrySet()) {
+            System.out.printf("\t\t\t\t\t%-16s %4d workouts   %6d min\n",
+                e.getKey(), e.getValue(), summary.getMinutes(e.getKey()));
+        }
         System.out.println("");
-        return ConsoleUtils.readRequiredDouble("Enter new weight (kg) (0 to cancel): ", true);
     }
 
-    private double askForHeight() {
+    // ============================================================
+    // Import & Export
+    // ============================================================
+
+    public void showTransferMenu() {
+        ConsoleUtils.printBorder();
+        ConsoleUtils.printCentered("[ Import / Export History ]");
+        System.out.println("");
+        System.out.println("\t\t\t\t\t[ 1 ]   Export to CSV");
+        System.out.println("\t\t\t\t\t[ 2 ]   Export to JSON Lines");
+        System.out.println("\t\t\t\t\t[ 3 ]   Import from CSV");
+        System.out.println("\t\t\t\t\t[ 4 ]   Import from JSON Lines");
+        System.out.println("\n\t\t\t\t\t[ 0 ]   Back\n");
+
+        int choice = ConsoleUtils.readRequiredInt("Enter choice: ", true);
+        if (choice < 1 || choice > 4) return;
+
+        HistoryTransfer.Format format = (choice % 2 == 1) ? HistoryTransfer.Format.CSV : HistoryTransfer.Format.JSONL;
+        Path directory = Path.of(ConsoleUtils.readStringOrDefault("Folder", "data/export"));
+        System.out.println("");
+
+        boolean ok = (choice <= 2)
+            ? workoutService.exportHistory(directory, format)
+            : workoutService.importHistory(directory, format);
+
+        System.out.println("");
+        ConsoleUtils.printCentered(ok ? "Done!" : "Nothing was changed.");
         System.out.println("");
-        return ConsoleUtils.readRequiredDouble("Enter new height (cm) (0 to cancel): ", true);
     }
 
     // ============================================================
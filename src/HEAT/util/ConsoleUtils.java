@@ -153,19 +153,28 @@ public class ConsoleUtils {
         return userInput;
     }
 
+    // Built once; every screen draws them
+    public static final String BORDER = "[]" + "=".repeat(TOTAL_WIDTH - 4) + "[]";
+    public static final String THIN_BORDER = "[]" + "-".repeat(TOTAL_WIDTH - 4) + "[]";
+
     public static void printBorder() {
-        System.out.println("[]" + "=".repeat(TOTAL_WIDTH - 4) + "[]\n");
+        System.out.println(BORDER + "\n");
     }
 
     public static void printThinBorder() {
-        System.out.println("[]" + "-".repeat(TOTAL_WIDTH - 4) + "[]\n");
+        System.out.println(THIN_BORDER + "\n");
     }
 
     public static void printThinBorderNoNewLine() {
-        System.out.println("[]" + "-".repeat(TOTAL_WIDTH - 4) + "[]");
+        System.out.println(THIN_BORDER);
     }    
 
     public static void printCentered(String text) {
+        System.out.println(centered(text));
+    }
+
+    // text padded on both sides to TOTAL_WIDTH, cut short with "..." if too long
+    public static String centered(String text) {
         if (text.length() > TOTAL_WIDTH) {
             text = text.substring(0, TOTAL_WIDTH - 3) + "...";
         }
@@ -176,7 +185,7 @@ public class ConsoleUtils {
         String leftSpace = " ".repeat(paddingLeft);
         String rightSpace = " ".repeat(paddingRight);
 
-        System.out.println(leftSpace + text + rightSpace);
+        return leftSpace + text + rightSpace;
     }
 
     public static void clearScreen() {
@@ -0,0 +1,221 @@
+package heat.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Process-wide counters, gauges and latency timers. Statements that do real I/O and
+// the service operations behind each menu action are timed under "Class.method":
+//
+//     public boolean insertWorkout(Workout workout) throws SQLException {
+//         try (Metrics.Timer timer = Metrics.timer("WorkoutDAO.insertWorkout")) {
+//             return insertWorkoutUntimed(workout);
+//         }
+//     }
+//
+// Recording is a map lookup and a few atomic adds, so it stays on by default.
+// report() formats everything as text; the hidden dashboard option 99, the API's
+// /api/metrics and the file exporter all use it.
+//
+//   -Dheat.metrics=false              record nothing
+//   -Dheat.metrics.file=<path>        rewrite the report to this file periodically and on exit
+//   -Dheat.metrics.intervalSec=<n>    seconds between file reports (default 60)
+public final class Metrics {
+
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("heat.metrics"));
+
+    private static final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private static final long startNanos = System.nanoTime();
+    private static ScheduledExecutorService exporter;
+
+    private Metrics() {}
+
+    // ============================================================
+    // Recording
+    // ============================================================
+
+    // Records the time from timer() to close(); opened in a try-with-resources block,
+    // so early returns and exceptions are timed too
+    public static final class Timer implements AutoCloseable {
+        private static final Timer OFF = new Timer(null, 0L);
+
+        private final String name;
+        private final long startedNanos;
+
+        private Timer(String name, long startedNanos) {
+            this.name = name;
+            this.startedNanos = startedNanos;
+        }
+
+        @Override
+        public void close() {
+            if (name != null) stop(name, startedNanos);
+        }
+    }
+
+    public static Timer timer(String name) {
+        return ENABLED ? new Timer(name, System.nanoTime()) : Timer.OFF;
+    }
+
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(String timer, long startedNanos) {
+        if (!ENABLED) return;
+        histogram(timer).record(System.nanoTime() - startedNanos);
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        LatencyHistogram h = timers.get(name);
+        return (h != null) ? h : timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    public static void increment(String counter) {
+        add(counter, 1);
+    }
+
+    public static void add(String counter, long delta) {
+        if (!ENABLED) return;
+        LongAdder adder = counters.get(counter);
+        if (adder == null) adder = counters.computeIfAbsent(counter, n -> new LongAdder());
+        adder.add(delta);
+    }
+
+    // Read when a report is made; registering the same name again replaces the supplier
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    // Drops timers and counters; gauges stay registered
+    public static void reset() {
+        timers.clear();
+        counters.clear();
+    }
+
+    // ============================================================
+    // Snapshots
+    // ============================================================
+
+    // Sorted by name; timers that never ran are left out
+    public static Map<String, LatencyHistogram> getTimers() {
+        Map<String, LatencyHistogram> sorted = new TreeMap<>();
+        timers.forEach((name, h) -> { if (h.getCount() > 0) sorted.put(name, h); });
+        return sorted;
+    }
+
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> sorted = new TreeMap<>();
+        counters.forEach((name, adder) -> sorted.put(name, adder.sum()));
+        return sorted;
+    }
+
+    // A gauge that throws is reported as -1 rather than failing the report
+    public static Map<String, Long> getGauges() {
+        Map<String, Long> sorted = new TreeMap<>();
+        gauges.forEach((name, supplier) -> {
+            long value;
+            try {
+                value = supplier.getAsLong();
+            } catch (RuntimeException e) {
+                value = -1;
+            }
+            sorted.put(name, value);
+        });
+        return sorted;
+    }
+
+    public static long getUptimeSeconds() {
+        return (System.nanoTime() - startNanos) / 1_000_000_000L;
+    }
+
+    public static String report() {
+        StringBuilder out = new StringBuilder(4_096);
+        out.append(String.format("# HEAT metrics at %s, up %d s%s%n",
+            LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), getUptimeSeconds(), ENABLED ? "" : " (recording off)"));
+
+        out.append(String.format("%n%-52s %9s %10s %10s %10s %10s %10s %11s%n",
+            "# timers (us)", "count", "mean", "p50", "p90", "p99", "max", "total ms"));
+        getTimers().forEach((name, h) -> out.append(String.format("%-52s %9d %10.1f %10.1f %10.1f %10.1f %10.1f %11.1f%n",
+            name, h.getCount(), h.getMeanNanos() / 1e3,
+            h.getPercentileNanos(50) / 1e3, h.getPercentileNanos(90) / 1e3, h.getPercentileNanos(99) / 1e3,
+            h.getMaxNanos() / 1e3, h.getTotalNanos() / 1e6)));
+
+        out.append(String.format("%n# counters%n"));
+        getCounters().forEach((name, value) -> out.append(String.format("%-52s %9d%n", name, value)));
+
+        out.append(String.format("%n# gauges%n"));
+        getGauges().forEach((name, value) -> out.append(String.format("%-52s %9d%n", name, value)));
+        return out.toString();
+    }
+
+    // ============================================================
+    // File Export
+    // ============================================================
+
+    // Writes to a temp file first, so readers never see half a report
+    public static void writeReport(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, report(), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Starts the exporter if -Dheat.metrics.file is set; returns the file or null
+    public static synchronized Path startExporterFromProperties() {
+        String file = System.getProperty("heat.metrics.file");
+        if (file == null || file.isBlank() || exporter != null) return null;
+
+        long interval = Math.max(1, Long.getLong("heat.metrics.intervalSec", 60));
+        startExporter(Path.of(file), interval);
+        return Path.of(file);
+    }
+
+    // Rewrites the file every intervalSeconds on a daemon thread, and once more on exit
+    public static synchronized void startExporter(Path file, long intervalSeconds) {
+        if (exporter != null) return;
+
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "heat-metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> export(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopExporter();
+            export(file);
+        }, "heat-metrics-exit"));
+    }
+
+    public static synchronized void stopExporter() {
+        if (exporter == null) return;
+        exporter.shutdownNow();
+        exporter = null;
+    }
+
+    private static void export(Path file) {
+        try {
+            writeReport(file);
+        } catch (IOException e) {
+            System.err.println("[ ! ] Could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package heat.util;
+
+// One screen of console output, composed in a reusable buffer and written to
+// System.out in a single print. Call flush() before reading input so the prompt
+// comes after everything composed so far.
+public class ScreenBuffer {
+
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final String BORDER = ConsoleUtils.BORDER + "\n";
+    private static final String THIN_BORDER = ConsoleUtils.THIN_BORDER + "\n";
+
+    private final StringBuilder out = new StringBuilder(16 * 1024);
+
+    public ScreenBuffer append(String text) {
+        out.append(text);
+        return this;
+    }
+
+    public ScreenBuffer append(int value) {
+        out.append(value);
+        return this;
+    }
+
+    public ScreenBuffer line(String text) {
+        out.append(text).append(NEW_LINE);
+        return this;
+    }
+
+    public ScreenBuffer line() {
+        out.append(NEW_LINE);
+        return this;
+    }
+
+    // Same output as the matching ConsoleUtils print methods
+    public ScreenBuffer border() {
+        return line(BORDER);
+    }
+
+    public ScreenBuffer thinBorder() {
+        return line(THIN_BORDER);
+    }
+
+    public ScreenBuffer thinBorderNoNewLine() {
+        return line(ConsoleUtils.THIN_BORDER);
+    }
+
+    public ScreenBuffer centered(String text) {
+        return line(ConsoleUtils.centered(text));
+    }
+
+    public void flush() {
+        if (out.length() == 0) return;
+        System.out.print(out);
+        System.out.flush();
+        out.setLength(0);
+    }
+}
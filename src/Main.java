@@ -1,37 +1,68 @@
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.List;
 
+import heat.api.ApiServer;
 import heat.dao.DatabaseConnection;
-import heat.dao.WorkoutDAO;
+import heat.dao.ExerciseStatsDAO;
+import heat.dao.WriteBehindWriter;
 import heat.service.*;
+import heat.ui.BatchRunner;
 import heat.ui.ConsoleDashboard;
 import heat.util.ConsoleUtils;
 public class Main {
     public static void main(String[] args) {
 
-        ConsoleUtils.printSplashHeader();
-
-        try {
-            // Initialize Database Connection (Creates tables if missing)
-            DatabaseConnection.getInstance();
+        // Local HTTP/JSON API instead of the menu; runs until the process is stopped
+        if (args.length > 0 && args[0].equals("--serve")) {
+            runServer(args);
+            return;
+        }
 
-            // Perform Data Setup (Loads CSVs if tables are empty)
-            WorkoutDAO workoutDAO = new WorkoutDAO();
-            workoutDAO.performInitialSetup();
+        // Command script from a file or stdin; prints one result line per command
+        if (args.length > 0 && args[0].equals("--batch")) {
+            int exitCode = runBatch(args.length > 1 ? args[1] : "-");
+            System.exit(exitCode);
+        }
 
-        } catch (SQLException | IOException e) {
-            System.err.println("Critical Error during startup: " + e.getMessage());
-            e.printStackTrace();
+        // Maintenance flags run headless and exit
+        if (args.length > 0) {
+            int exitCode = runMaintenance(args[0]);
+            DatabaseConnection.getInstance().closeConnection();
+            System.exit(exitCode);
         }
 
-        // Initialize Services
-        UserService userService = new UserService();
-        GoalService goalService = new GoalService(userService);
-        WorkoutService workoutService = new WorkoutService(goalService, userService);
+        ConsoleUtils.printSplashHeader();
+
+        // Database, catalog setup and intent-log replay, then the table loads in parallel
+        StartupOrchestrator startup = new StartupOrchestrator();
+        startup.run();
+
+        ProfileManager profiles = startup.getProfiles();
 
-        userService.setGoalService(goalService);
+        WriteBehindWriter writeBehind = startup.getWriteBehind();
+        if (writeBehind != null) {
+            // Ctrl+C and other exits outside the menu still drain the queue
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    writeBehind.close();
+                } catch (SQLException | IOException e) {
+                    System.err.println("[ ! ] Flush on exit failed, the intent log is replayed on next start: " + e.getMessage());
+                }
+            }, "heat-write-behind-exit"));
+        }
 
-        ConsoleDashboard dashboard = new ConsoleDashboard(workoutService, userService, goalService);
+        long t = System.nanoTime();
+        ConsoleDashboard dashboard = new ConsoleDashboard(profiles);
+        startup.record("dashboard", t);
+        startup.printTimings();
 
         ConsoleUtils.printSplashFooter();
         ConsoleUtils.pause();
@@ -39,5 +70,105 @@ public class Main {
         ConsoleUtils.printWelcomeBanner();
         
         dashboard.displayMenu();
+
+        // Saves anything still queued in write-behind mode
+        profiles.getActive().getWorkoutService().closeWriteBehind();
+
+        // Checkpoints the WAL and closes pooled connections
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    // --batch [file] : run the command script in file, or stdin when it is missing or "-".
+    // Startup and service messages are suppressed; stdout carries only the results.
+    private static int runBatch(String script) {
+        PrintStream results = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        StartupOrchestrator startup = new StartupOrchestrator();
+        startup.run();
+        ProfileManager.Profile profile = startup.getProfiles().getActive();
+
+        try (BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8)) {
+
+            return new BatchRunner(profile, results).run(in) ? 0 : 1;
+
+        } catch (IOException e) {
+            System.err.println("Critical Error reading " + script + ": " + e.getMessage());
+            return 2;
+        } finally {
+            profile.getWorkoutService().closeWriteBehind();
+            DatabaseConnection.getInstance().closeConnection();
+            System.setOut(results);
+        }
+    }
+
+    // --serve [port] : serve the starting profile on http://127.0.0.1:<port>/api (default 8080)
+    private static void runServer(String[] args) {
+        int port = ApiServer.DEFAULT_PORT;
+        if (args.length > 1) {
+            try {
+                port = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid port: " + args[1]);
+                System.exit(2);
+            }
+        }
+
+        StartupOrchestrator startup = new StartupOrchestrator();
+        startup.run();
+        ProfileManager.Profile profile = startup.getProfiles().getActive();
+
+        ApiServer server;
+        try {
+            server = new ApiServer(profile, port);
+        } catch (IOException e) {
+            System.err.println("Critical Error: could not listen on port " + port + ": " + e.getMessage());
+            DatabaseConnection.getInstance().closeConnection();
+            System.exit(1);
+            return;
+        }
+        server.start();
+        startup.printTimings();
+
+        // Ctrl+C stops taking requests, saves anything queued in write-behind mode and closes the database
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            profile.getWorkoutService().closeWriteBehind();
+            DatabaseConnection.getInstance().closeConnection();
+        }, "heat-api-exit"));
+
+        System.out.println("[OK] Serving " + (profile.getUserService().isRegistered() ? profile.getUserService().getName() + "'s" : "an unregistered")
+            + " profile on http://127.0.0.1:" + server.getPort() + "/api (" + server.getExecutorName() + "); Ctrl+C to stop");
+    }
+
+    // --rebuild-stats : recompute the exercise_daily_stats rollup from workouts
+    // --check-stats   : compare the rollup with workouts and list any drift
+    private static int runMaintenance(String flag) {
+        ExerciseStatsDAO statsDAO = new ExerciseStatsDAO();
+        try {
+            switch (flag) {
+                case "--rebuild-stats":
+                    System.out.println("[OK] Rebuilt exercise_daily_stats: " + statsDAO.rebuild() + " rows");
+                    return 0;
+                case "--check-stats":
+                    List<String> mismatches = statsDAO.checkConsistency();
+                    if (mismatches.isEmpty()) {
+                        System.out.println("[OK] exercise_daily_stats matches workouts");
+                        return 0;
+                    }
+                    for (String m : mismatches) System.out.println("[ ! ] " + m);
+                    System.out.println("[ ! ] Rollup is out of date; run with --rebuild-stats");
+                    return 1;
+                default:
+                    System.err.println("Unknown option: " + flag);
+                    System.err.println("Options: --batch [file] | --serve [port] | --rebuild-stats | --check-stats");
+                    return 2;
+            }
+        } catch (SQLException e) {
+            System.err.println("Critical Error during maintenance: " + e.getMessage());
+            return 1;
+        }
     }
-}
\ No newline at end of file
+}